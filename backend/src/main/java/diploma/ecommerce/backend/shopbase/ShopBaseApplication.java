@@ -2,8 +2,10 @@ package diploma.ecommerce.backend.shopbase;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ShopBaseApplication {
 
     public static void main(String[] args) {
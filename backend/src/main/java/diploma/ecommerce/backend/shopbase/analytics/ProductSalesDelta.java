@@ -0,0 +1,25 @@
+package diploma.ecommerce.backend.shopbase.analytics;
+
+import java.math.BigDecimal;
+
+/**
+ * Приращение дневного агрегата по одному товару. Значения могут быть отрицательными
+ * (удаление позиции или уменьшение количества в заказе).
+ */
+public record ProductSalesDelta(
+        Long productId,
+        int orders,
+        long units,
+        BigDecimal revenue,
+        long canceledUnits,
+        BigDecimal canceledRevenue
+) {
+
+    public static ProductSalesDelta placed(Long productId, int orders, long units, BigDecimal revenue) {
+        return new ProductSalesDelta(productId, orders, units, revenue, 0, BigDecimal.ZERO);
+    }
+
+    public static ProductSalesDelta canceled(Long productId, long units, BigDecimal revenue) {
+        return new ProductSalesDelta(productId, 0, 0, BigDecimal.ZERO, units, revenue);
+    }
+}
@@ -0,0 +1,21 @@
+package diploma.ecommerce.backend.shopbase.analytics;
+
+import java.util.Locale;
+
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+
+/**
+ * Порядок рейтинга товаров: по выручке или по проданным единицам за вычетом отмен.
+ */
+public enum ProductSalesSort {
+    REVENUE,
+    UNITS;
+
+    public static ProductSalesSort fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported sort: " + value + " (expected revenue or units)");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package diploma.ecommerce.backend.shopbase.catalog;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Сброс кэширующего прокси по тегам: POST на app.catalog.purge-url с тегами в заголовке Surrogate-Key
+ * (так сбрасывают Fastly и Varnish с модулем xkey). Без настроенного адреса сброс не выполняется,
+ * и кэш прокси обновляется по истечении s-maxage. Ошибка сброса только записывается в лог:
+ * изменение уже зафиксировано, а устаревшая копия проживет не дольше s-maxage.
+ * Запрос к прокси выполняется в фоне, чтобы не задерживать ответ на изменение.
+ */
+@Slf4j
+@Component
+public class CatalogCachePurger {
+
+    private final RestTemplate restTemplate;
+    private final String purgeUrl;
+
+    public CatalogCachePurger(RestTemplate restTemplate, @Value("${app.catalog.purge-url:}") String purgeUrl) {
+        this.restTemplate = restTemplate;
+        this.purgeUrl = purgeUrl;
+    }
+
+    @Async
+    public void purge(List<String> keys) {
+        if (purgeUrl.isBlank() || keys.isEmpty()) {
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(CatalogSurrogateKeys.HEADER, String.join(" ", keys));
+        try {
+            restTemplate.postForEntity(purgeUrl, new HttpEntity<>(headers), Void.class);
+            log.debug("Purged catalog cache keys {}", keys);
+        } catch (RestClientException e) {
+            log.warn("Failed to purge catalog cache keys {}: {}", keys, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package diploma.ecommerce.backend.shopbase.catalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Теги ответов каталога для заголовка Surrogate-Key. Кэширующий прокси (Varnish xkey, CDN) хранит
+ * ответ под всеми его тегами и сбрасывает по тегу сразу все страницы, которые затронуло изменение:
+ * <ul>
+ *     <li>{@code t{tenantId}} - весь каталог магазина;</li>
+ *     <li>{@code t{tenantId}-products} - списки товаров;</li>
+ *     <li>{@code t{tenantId}-product-{productId}} - карточка товара.</li>
+ * </ul>
+ */
+public class CatalogSurrogateKeys {
+
+    public static final String HEADER = "Surrogate-Key";
+
+    // Больше изменений сбрасываются тегом магазина, чтобы запрос сброса не превышал лимит заголовка
+    static final int MAX_PRODUCT_KEYS = 100;
+
+    public static String tenant(Long tenantId) {
+        return "t" + tenantId;
+    }
+
+    public static String products(Long tenantId) {
+        return tenant(tenantId) + "-products";
+    }
+
+    public static String product(Long tenantId, Long productId) {
+        return tenant(tenantId) + "-product-" + productId;
+    }
+
+    public static String forList(Long tenantId) {
+        return tenant(tenantId) + " " + products(tenantId);
+    }
+
+    public static String forProduct(Long tenantId, Long productId) {
+        return tenant(tenantId) + " " + product(tenantId, productId);
+    }
+
+    /**
+     * Теги для сброса после изменения товаров: списки и карточки изменившихся товаров.
+     * Пустой набор товаров означает изменение без точного списка (импорт, заказ) - сбрасывается весь каталог.
+     */
+    public static List<String> forChange(Long tenantId, Collection<Long> productIds) {
+        if (productIds.isEmpty() || productIds.size() > MAX_PRODUCT_KEYS) {
+            return List.of(tenant(tenantId));
+        }
+        List<String> keys = new ArrayList<>(productIds.size() + 1);
+        keys.add(products(tenantId));
+        productIds.forEach(productId -> keys.add(product(tenantId, productId)));
+        return keys;
+    }
+}
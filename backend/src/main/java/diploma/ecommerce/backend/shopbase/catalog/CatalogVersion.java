@@ -0,0 +1,23 @@
+package diploma.ecommerce.backend.shopbase.catalog;
+
+import java.time.Instant;
+
+/**
+ * Версия каталога тенанта, из которой строятся валидаторы ответов каталога.
+ *
+ * @param updatedAt время последнего изменения; null, если каталог еще не менялся
+ */
+public record CatalogVersion(Long tenantId, long version, Instant updatedAt) {
+
+    /**
+     * Сильный ETag: при одной версии каталога ответ на один и тот же адрес одинаков побайтно.
+     * Тенант входит в значение, чтобы валидатор одного магазина не подошел к другому.
+     */
+    public String eTag() {
+        return "\"c" + tenantId + "-" + version + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return updatedAt == null ? -1 : updatedAt.toEpochMilli();
+    }
+}
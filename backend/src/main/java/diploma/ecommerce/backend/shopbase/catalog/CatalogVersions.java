@@ -0,0 +1,91 @@
+package diploma.ecommerce.backend.shopbase.catalog;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import diploma.ecommerce.backend.shopbase.repository.TenantCatalogVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Счетчики версий каталога по тенантам. Версия увеличивается после фиксации каждого изменения товаров
+ * ({@link diploma.ecommerce.backend.shopbase.listener.CatalogCacheListener}), поэтому проверка
+ * If-None-Match стоит одного чтения по первичному ключу вместо выборки страницы товаров.
+ * <p>
+ * Пропущенное увеличение оставило бы клиентам и прокси старые валидаторы, поэтому {@link #reconcile}
+ * периодически повторяет неудавшиеся увеличения этого узла и увеличивает версии тенантов, товары которых
+ * изменены позже их версии (например, если узел остановился между фиксацией и увеличением).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogVersions {
+
+    private final Set<Long> pendingBumps = ConcurrentHashMap.newKeySet();
+
+    private final TenantCatalogVersionRepository tenantCatalogVersionRepository;
+
+    /**
+     * Текущая версия каталога. Читается до данных ответа: если изменение зафиксируется между чтениями,
+     * ответ с новыми данными получит старую версию и будет перезапрошен после ее увеличения,
+     * но старые данные никогда не получат новую версию.
+     */
+    public CatalogVersion current(Long tenantId) {
+        return tenantCatalogVersionRepository.find(tenantId)
+                .map(row -> new CatalogVersion(
+                        tenantId,
+                        row.getVersion(),
+                        row.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant()
+                ))
+                .orElseGet(() -> new CatalogVersion(tenantId, 0, null));
+    }
+
+    /**
+     * Вызывается после фиксации изменения, пока ресурсы завершенной транзакции еще привязаны к потоку,
+     * поэтому увеличение выполняется в собственной транзакции.
+     *
+     * @return новая версия каталога
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long bump(Long tenantId) {
+        long version = tenantCatalogVersionRepository.increment(tenantId);
+        log.debug("Catalog version of tenant {} incremented to {}", tenantId, version);
+        return version;
+    }
+
+    /**
+     * Откладывает увеличение, которое не удалось выполнить сразу, до следующего {@link #reconcile}.
+     */
+    public void bumpLater(Long tenantId) {
+        pendingBumps.add(tenantId);
+    }
+
+    /**
+     * @return число увеличенных версий
+     */
+    public int reconcile() {
+        int bumped = 0;
+        for (Long tenantId : List.copyOf(pendingBumps)) {
+            // Удаление до увеличения: отложенное во время повтора увеличение не потеряется
+            pendingBumps.remove(tenantId);
+            try {
+                tenantCatalogVersionRepository.increment(tenantId);
+                bumped++;
+            } catch (DataAccessException e) {
+                pendingBumps.add(tenantId);
+                log.warn("Failed to retry catalog version increment of tenant {}: {}", tenantId, e.getMessage());
+            }
+        }
+        List<Long> stale = tenantCatalogVersionRepository.incrementStale();
+        if (!stale.isEmpty()) {
+            log.warn("Catalog versions of tenants {} were behind their products and have been incremented", stale);
+        }
+        return bumped + stale.size();
+    }
+}
@@ -0,0 +1,168 @@
+package diploma.ecommerce.backend.shopbase.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import diploma.ecommerce.backend.shopbase.dto.record.ProductCategoryRow;
+import diploma.ecommerce.backend.shopbase.dto.response.CategoryFacetResponse;
+import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
+import diploma.ecommerce.backend.shopbase.util.Sha256;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Число активных товаров по категориям для каждого тенанта, в памяти. Магазин загружается целиком
+ * при первом запросе, дальше изменения применяются по затронутым товарам: перечитываются только их
+ * категория и активность. Для этого у загруженного магазина хранится категория каждого активного товара.
+ * Изменения применяет {@link diploma.ecommerce.backend.shopbase.listener.CatalogCacheListener} до увеличения
+ * версии каталога, поэтому ответ с новой версией не содержит старых счетчиков.
+ * <p>
+ * Слушатель видит только изменения своего узла. Поэтому снимок помнит версию каталога, на которой он
+ * актуален, и каждое чтение сверяет ее с {@link CatalogVersions}: изменение, сделанное через другой узел,
+ * увеличивает версию, и снимок перечитывается целиком.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryFacets {
+
+    // Большой пакет дешевле перечитать целиком при следующем запросе, чем сверять по списку товаров
+    static final int MAX_INCREMENTAL_PRODUCTS = 1000;
+
+    private final ConcurrentMap<Long, TenantFacets> tenants = new ConcurrentHashMap<>();
+
+    private final ProductRepository productRepository;
+    private final CatalogVersions catalogVersions;
+
+    private static String strongETag(List<CategoryFacetResponse> categories) {
+        MessageDigest digest = Sha256.newDigest();
+        for (CategoryFacetResponse category : categories) {
+            digest.update((category.getName() + '\t' + category.getProductCount() + '\n')
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        return Sha256.strongETag(digest.digest());
+    }
+
+    private static boolean isCurrent(Snapshot snapshot, long catalogVersion) {
+        return snapshot != null && snapshot.catalogVersion() >= catalogVersion;
+    }
+
+    public Snapshot get(Long tenantId) {
+        long catalogVersion = catalogVersions.current(tenantId).version();
+        TenantFacets facets = tenants.computeIfAbsent(tenantId, id -> new TenantFacets());
+        Snapshot snapshot = facets.snapshot;
+        if (isCurrent(snapshot, catalogVersion)) {
+            return snapshot;
+        }
+        synchronized (facets) {
+            if (!isCurrent(facets.snapshot, catalogVersion)) {
+                // Версия прочитана до товаров: снимок не новее своих данных и в худшем случае перечитается лишний раз
+                facets.load(catalogVersion, productRepository.findActiveCategoryRows(tenantId));
+                log.debug("Category facets of tenant {} loaded at catalog version {}: {} categories", tenantId,
+                        catalogVersion, facets.snapshot.categories().size());
+            }
+            return facets.snapshot;
+        }
+    }
+
+    /**
+     * Применяет изменения товаров после фиксации. Пустой список означает изменение всего каталога.
+     * Состояние товаров читается под блокировкой магазина, поэтому изменения одного товара, обработанные
+     * параллельно, не применяются в обратном порядке.
+     */
+    public void refresh(Long tenantId, List<Long> productIds) {
+        TenantFacets facets = tenants.get(tenantId);
+        if (facets == null) {
+            return;
+        }
+        if (productIds.isEmpty() || productIds.size() > MAX_INCREMENTAL_PRODUCTS) {
+            evict(tenantId);
+            return;
+        }
+        synchronized (facets) {
+            // Магазин еще не загружен: загрузка прочитает уже зафиксированное состояние
+            if (facets.snapshot == null) {
+                return;
+            }
+            facets.apply(productIds, productRepository.findActiveCategoryRowsByIdIn(tenantId, productIds));
+        }
+    }
+
+    /**
+     * Переносит снимок на новую версию каталога после ее увеличения этим узлом. Вызывается, когда изменение
+     * уже применено {@link #refresh} или не затрагивает категории. Перенос выполняется, только если между
+     * версиями нет других увеличений: чужое изменение, не прошедшее через этот узел, заставит перечитать
+     * магазин при следующем чтении.
+     */
+    public void catalogVersionBumped(Long tenantId, long catalogVersion) {
+        TenantFacets facets = tenants.get(tenantId);
+        if (facets == null) {
+            return;
+        }
+        synchronized (facets) {
+            Snapshot snapshot = facets.snapshot;
+            if (snapshot != null && snapshot.catalogVersion() == catalogVersion - 1) {
+                facets.snapshot = new Snapshot(snapshot.categories(), snapshot.eTag(), catalogVersion);
+            }
+        }
+    }
+
+    public void evict(Long tenantId) {
+        tenants.remove(tenantId);
+        log.debug("Category facets of tenant {} evicted", tenantId);
+    }
+
+    public record Snapshot(List<CategoryFacetResponse> categories, String eTag, long catalogVersion) {
+    }
+
+    private static final class TenantFacets {
+
+        private final Map<Long, String> categoryByProduct = new HashMap<>();
+        private final Map<String, Integer> productCounts = new TreeMap<>();
+        private volatile Snapshot snapshot;
+
+        void load(long catalogVersion, List<ProductCategoryRow> rows) {
+            categoryByProduct.clear();
+            productCounts.clear();
+            rows.forEach(row -> add(row.id(), row.category()));
+            publish(catalogVersion);
+        }
+
+        void apply(Collection<Long> productIds, List<ProductCategoryRow> rows) {
+            Map<Long, String> current = rows.stream()
+                    .collect(Collectors.toMap(ProductCategoryRow::id, ProductCategoryRow::category));
+            for (Long productId : productIds) {
+                String previous = categoryByProduct.remove(productId);
+                if (previous != null) {
+                    productCounts.computeIfPresent(previous, (category, count) -> count > 1 ? count - 1 : null);
+                }
+                String category = current.get(productId);
+                if (category != null) {
+                    add(productId, category);
+                }
+            }
+            publish(snapshot.catalogVersion());
+        }
+
+        private void add(Long productId, String category) {
+            categoryByProduct.put(productId, category);
+            productCounts.merge(category, 1, Integer::sum);
+        }
+
+        private void publish(long catalogVersion) {
+            List<CategoryFacetResponse> categories = productCounts.entrySet().stream()
+                    .map(entry -> new CategoryFacetResponse(entry.getKey(), entry.getValue()))
+                    .toList();
+            snapshot = new Snapshot(categories, strongETag(categories), catalogVersion);
+        }
+    }
+}
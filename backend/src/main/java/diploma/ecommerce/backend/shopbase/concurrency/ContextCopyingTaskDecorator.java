@@ -0,0 +1,53 @@
+package diploma.ecommerce.backend.shopbase.concurrency;
+
+import java.util.Map;
+
+import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Переносит тенанта, контекст безопасности и MDC из потока, поставившего задачу, в поток исполнителя.
+ * Значения захватываются в момент постановки задачи; после выполнения состояние потока
+ * исполнителя восстанавливается, чтобы оно не утекло в следующую задачу пула.
+ */
+public class ContextCopyingTaskDecorator implements TaskDecorator {
+
+    @Override
+    @NonNull
+    public Runnable decorate(@NonNull Runnable runnable) {
+        Long tenantId = TenantContext.getTenantId();
+        SecurityContext securityContext = copyOf(SecurityContextHolder.getContext());
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        return () -> {
+            SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            try (TenantContext.Scope ignored = TenantContext.open(tenantId)) {
+                SecurityContextHolder.setContext(securityContext);
+                setMdc(mdc);
+                runnable.run();
+            } finally {
+                SecurityContextHolder.setContext(previousSecurityContext);
+                setMdc(previousMdc);
+            }
+        };
+    }
+
+    private static SecurityContext copyOf(SecurityContext source) {
+        SecurityContext copy = SecurityContextHolder.createEmptyContext();
+        copy.setAuthentication(source.getAuthentication());
+        return copy;
+    }
+
+    private static void setMdc(Map<String, String> contextMap) {
+        if (contextMap == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(contextMap);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package diploma.ecommerce.backend.shopbase.concurrency;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import diploma.ecommerce.backend.shopbase.exception.IdempotencyKeyInProgressException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Быстрый слой перед таблицей ключей идемпотентности в пределах одного узла.
+ * Параллельный повтор ждет завершения запроса с тем же ключом, не занимая соединение с базой,
+ * а повтор уже выполненного запроса находит результат без обращения к таблице ключей.
+ * Источником истины остается таблица: кэш ограничен по размеру и сроку жизни.
+ */
+@Slf4j
+@Component
+public class IdempotentRequestRegistry {
+
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletedRequest> completed = new ConcurrentHashMap<>();
+
+    private final long waitTimeoutMs;
+    private final int maxCompletedEntries;
+
+    public IdempotentRequestRegistry(
+            @Value("${app.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+            @Value("${app.idempotency.cache-size:10000}") int maxCompletedEntries
+    ) {
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.maxCompletedEntries = maxCompletedEntries;
+    }
+
+    private static String cacheKey(Long tenantId, String key) {
+        return tenantId + ":" + key;
+    }
+
+    /**
+     * Выполняет действие, пока другие запросы с тем же ключом на этом узле ждут его завершения.
+     * После ожидания действие выполняется снова и должно само увидеть сохраненный результат.
+     */
+    public <T> T execute(Long tenantId, String key, Supplier<T> action) {
+        String cacheKey = cacheKey(tenantId, key);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        while (true) {
+            CompletableFuture<Void> own = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(cacheKey, own);
+            if (running == null) {
+                try {
+                    return action.get();
+                } finally {
+                    inFlight.remove(cacheKey, own);
+                    own.complete(null);
+                }
+            }
+            log.debug("Request with Idempotency-Key '{}' (tenant {}) is in flight, waiting", key, tenantId);
+            awaitCompletion(running, deadline, key);
+        }
+    }
+
+    public Optional<CompletedRequest> findCompleted(Long tenantId, String key) {
+        CompletedRequest request = completed.get(cacheKey(tenantId, key));
+        if (request == null || request.expiresAt().isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(request);
+    }
+
+    public void remember(Long tenantId, String key, CompletedRequest request) {
+        // При переполнении новые ключи просто не кэшируются: повтор обработает таблица
+        if (completed.size() < maxCompletedEntries) {
+            completed.put(cacheKey(tenantId, key), request);
+        }
+    }
+
+    public int evictExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int before = completed.size();
+        completed.values().removeIf(request -> request.expiresAt().isBefore(now));
+        return before - completed.size();
+    }
+
+    private void awaitCompletion(CompletableFuture<Void> running, long deadline, String key) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new IdempotencyKeyInProgressException(key);
+        }
+        try {
+            running.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (ExecutionException e) {
+            // Будущее всегда завершается успешно; ошибка первого запроса не передается повтору
+        }
+    }
+
+    public record CompletedRequest(String requestHash, Long resourceId, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,37 @@
+package diploma.ecommerce.backend.shopbase.concurrency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Выполняет методы с {@link RetryOnConflict} через {@link OptimisticRetryTemplate}.
+ * Порядок аспекта выше транзакционного перехватчика: каждая попытка получает собственную транзакцию.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(10)
+@RequiredArgsConstructor
+public class OptimisticRetryAspect {
+
+    private final OptimisticRetryTemplate retryTemplate;
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        // Во внешней транзакции повтор бесполезен: она уже помечена на откат, повторять должен внешний вызов
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            log.trace(
+                    "Transaction already active, skipping retry for {}",
+                    joinPoint.getSignature().toShortString()
+            );
+            return joinPoint.proceed();
+        }
+        return retryTemplate.execute(retryOnConflict.value(), retryOnConflict.maxAttempts(), joinPoint::proceed);
+    }
+}
@@ -0,0 +1,105 @@
+package diploma.ecommerce.backend.shopbase.concurrency;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import diploma.ecommerce.backend.shopbase.exception.OptimisticLockConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class OptimisticRetryTemplate {
+
+    static final String CONFLICTS_METRIC = "optimistic.lock.conflicts";
+    static final String RETRIES_METRIC = "optimistic.lock.retries";
+    static final String EXHAUSTED_METRIC = "optimistic.lock.exhausted";
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultMaxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticRetryTemplate(
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency.retry.max-attempts:3}") int defaultMaxAttempts,
+            @Value("${app.concurrency.retry.initial-backoff-ms:20}") long initialBackoffMs,
+            @Value("${app.concurrency.retry.max-backoff-ms:250}") long maxBackoffMs
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.defaultMaxAttempts = defaultMaxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    private static boolean isOptimisticLockConflict(Throwable ex) {
+        return ex instanceof OptimisticLockingFailureException || ex instanceof OptimisticLockException;
+    }
+
+    public <T> T execute(String operation, RetryableAction<T> action) throws Throwable {
+        return execute(operation, 0, action);
+    }
+
+    public <T> T execute(String operation, int maxAttempts, RetryableAction<T> action) throws Throwable {
+        int attempts = maxAttempts > 0 ? maxAttempts : defaultMaxAttempts;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.run();
+            } catch (Throwable ex) {
+                if (!isOptimisticLockConflict(ex)) {
+                    throw ex;
+                }
+                counter(CONFLICTS_METRIC, operation).increment();
+                if (attempt >= attempts) {
+                    counter(EXHAUSTED_METRIC, operation).increment();
+                    log.warn("Optimistic lock conflict in '{}' persisted after {} attempts", operation, attempt);
+                    throw new OptimisticLockConflictException(
+                            "The resource was modified concurrently, please retry the request", ex
+                    );
+                }
+                long backoff = backoffMillis(attempt);
+                log.debug(
+                        "Optimistic lock conflict in '{}' (attempt {}/{}), retrying in {} ms: {}",
+                        operation, attempt, attempts, backoff, ex.getMessage()
+                );
+                counter(RETRIES_METRIC, operation).increment();
+                sleep(backoff, ex);
+            }
+        }
+    }
+
+    // Экспоненциальная задержка с полным джиттером, чтобы конкурирующие запросы не повторялись синхронно
+    long backoffMillis(int attempt) {
+        long cap = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private void sleep(long millis, Throwable conflict) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockConflictException(
+                    "Interrupted while waiting to retry a concurrent modification", conflict
+            );
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface RetryableAction<T> {
+        T run() throws Throwable;
+    }
+}
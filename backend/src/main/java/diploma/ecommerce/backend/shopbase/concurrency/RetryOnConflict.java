@@ -0,0 +1,28 @@
+package diploma.ecommerce.backend.shopbase.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Повтор транзакционного метода при конфликте оптимистической блокировки.
+ * Метод выполняется заново целиком в новой транзакции, поэтому он должен перечитывать
+ * сущности из базы, а не полагаться на состояние, загруженное до вызова.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RetryOnConflict {
+
+    /**
+     * Имя операции для метрик (тег operation).
+     */
+    String value();
+
+    /**
+     * Максимальное число попыток, включая первую. 0 - значение из app.concurrency.retry.max-attempts.
+     */
+    int maxAttempts() default 0;
+}
@@ -0,0 +1,100 @@
+package diploma.ecommerce.backend.shopbase.concurrency;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import diploma.ecommerce.backend.shopbase.exception.TenantBulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ограничивает число одновременных транзакций одного тенанта, чтобы один магазин
+ * не мог занять весь общий пул соединений.
+ */
+@Slf4j
+@Component
+public class TenantBulkhead {
+
+    static final String WAIT_METRIC = "tenant.bulkhead.wait";
+    static final String REJECTED_METRIC = "tenant.bulkhead.rejected";
+
+    private final ConcurrentMap<Long, Semaphore> permits = new ConcurrentHashMap<>();
+    // Вложенные вызовы сервисов в том же потоке используют уже полученное разрешение
+    private final ThreadLocal<Boolean> holdsPermit = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxConcurrentPerTenant;
+    private final long maxWaitMs;
+    private final long retryAfterSeconds;
+
+    public TenantBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${app.bulkhead.enabled:true}") boolean enabled,
+            @Value("${app.bulkhead.max-concurrent-per-tenant:5}") int maxConcurrentPerTenant,
+            @Value("${app.bulkhead.max-wait-ms:100}") long maxWaitMs,
+            @Value("${app.bulkhead.retry-after-seconds:1}") long retryAfterSeconds
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxConcurrentPerTenant = maxConcurrentPerTenant;
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public <T> T execute(Long tenantId, BulkheadAction<T> action) throws Throwable {
+        if (!enabled || tenantId == null || Boolean.TRUE.equals(holdsPermit.get())) {
+            return action.run();
+        }
+
+        Semaphore semaphore = permits.computeIfAbsent(tenantId, id -> new Semaphore(maxConcurrentPerTenant, true));
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        Timer.builder(WAIT_METRIC)
+                .tag("tenant", tenantId.toString())
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            Counter.builder(REJECTED_METRIC)
+                    .tag("tenant", tenantId.toString())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn(
+                    "Tenant {} exceeded {} concurrent transactions, request rejected after {} ms",
+                    tenantId, maxConcurrentPerTenant, maxWaitMs
+            );
+            throw new TenantBulkheadFullException(tenantId, retryAfterSeconds);
+        }
+
+        holdsPermit.set(Boolean.TRUE);
+        try {
+            return action.run();
+        } finally {
+            holdsPermit.remove();
+            semaphore.release();
+        }
+    }
+
+    public int availablePermits(Long tenantId) {
+        Semaphore semaphore = permits.get(tenantId);
+        return semaphore == null ? maxConcurrentPerTenant : semaphore.availablePermits();
+    }
+
+    @FunctionalInterface
+    public interface BulkheadAction<T> {
+        T run() throws Throwable;
+    }
+}
@@ -0,0 +1,38 @@
+package diploma.ecommerce.backend.shopbase.concurrency;
+
+import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Оборачивает транзакционные методы сервисов и контроллеров в {@link TenantBulkhead}.
+ * Выполняется раньше повтора при конфликте и раньше открытия транзакции,
+ * поэтому ожидание разрешения не удерживает соединение из пула.
+ */
+@Aspect
+@Component
+@Order(5)
+@RequiredArgsConstructor
+public class TenantBulkheadAspect {
+
+    private final TenantBulkhead tenantBulkhead;
+
+    @Pointcut("within(diploma.ecommerce.backend.shopbase.service.impl..*) " +
+            "|| within(diploma.ecommerce.backend.shopbase.controller..*)")
+    public void applicationLayer() {
+    }
+
+    @Pointcut("@annotation(org.springframework.transaction.annotation.Transactional)")
+    public void transactionalMethods() {
+    }
+
+    @Around("applicationLayer() && transactionalMethods()")
+    public Object limitTenantConcurrency(ProceedingJoinPoint joinPoint) throws Throwable {
+        return tenantBulkhead.execute(TenantContext.getTenantId(), joinPoint::proceed);
+    }
+}
@@ -0,0 +1,55 @@
+package diploma.ecommerce.backend.shopbase.config;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import diploma.ecommerce.backend.shopbase.concurrency.ContextCopyingTaskDecorator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.task.ThreadPoolTaskExecutorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Фоновые задачи (@Async) выполняются на исполнителе, который создает Spring Boot:
+ * пул с ограниченной очередью (spring.task.execution.pool.*) либо виртуальные потоки
+ * с лимитом параллельности (spring.task.execution.simple.*), если включен spring.threads.virtual.enabled.
+ * Здесь к нему подключаются перенос контекста и учет отклоненных задач.
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    static final String REJECTED_METRIC = "async.executor.rejected";
+
+    @Bean
+    public TaskDecorator contextCopyingTaskDecorator() {
+        return new ContextCopyingTaskDecorator();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutorCustomizer rejectionCountingCustomizer(MeterRegistry meterRegistry) {
+        return executor -> executor.setRejectedExecutionHandler(
+                countingAbortPolicy(meterRegistry, executor.getThreadNamePrefix())
+        );
+    }
+
+    private static RejectedExecutionHandler countingAbortPolicy(MeterRegistry meterRegistry, String executorName) {
+        Counter rejected = Counter.builder(REJECTED_METRIC)
+                .tag("executor", executorName)
+                .register(meterRegistry);
+        ThreadPoolExecutor.AbortPolicy abortPolicy = new ThreadPoolExecutor.AbortPolicy();
+        return (task, pool) -> {
+            rejected.increment();
+            log.warn(
+                    "Async task rejected by executor '{}': {} active, {} queued",
+                    executorName, pool.getActiveCount(), pool.getQueue().size()
+            );
+            abortPolicy.rejectedExecution(task, pool);
+        };
+    }
+}
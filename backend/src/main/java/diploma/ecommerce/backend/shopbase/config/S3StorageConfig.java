@@ -0,0 +1,78 @@
+package diploma.ecommerce.backend.shopbase.config;
+
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+/**
+ * Клиент S3-совместимого хранилища (AWS S3, MinIO). Включается при app.storage.type=s3.
+ * Подписанные ссылки для загрузки из браузера строятся на публичный адрес хранилища
+ * (app.storage.s3.public-endpoint): внутренний адрес вроде http://minio:9000 браузеру недоступен.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+public class S3StorageConfig {
+
+    @Value("${app.storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${app.storage.s3.public-endpoint:}")
+    private String publicEndpoint;
+
+    @Value("${app.storage.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${app.storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${app.storage.s3.secret-key:}")
+    private String secretKey;
+
+    @Value("${app.storage.s3.path-style-access:true}")
+    private boolean pathStyleAccess;
+
+    @Bean(destroyMethod = "close")
+    public S3Client s3Client() {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .forcePathStyle(pathStyleAccess);
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public S3Presigner s3Presigner() {
+        S3Presigner.Builder builder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyleAccess).build());
+        String presignEndpoint = publicEndpoint.isBlank() ? endpoint : publicEndpoint;
+        if (!presignEndpoint.isBlank()) {
+            builder.endpointOverride(URI.create(presignEndpoint));
+        }
+        return builder.build();
+    }
+
+    // Без явных ключей используется стандартная цепочка AWS: переменные окружения, профиль, роль инстанса
+    private AwsCredentialsProvider credentialsProvider() {
+        if (accessKey.isBlank()) {
+            return DefaultCredentialsProvider.create();
+        }
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+    }
+}
@@ -60,6 +60,8 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/v1/health", "/api/v1/test").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         // swagger
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
@@ -68,11 +70,12 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/auth/**").permitAll()
 
                         // товары и фотографи товаров
+                        .requestMatchers(HttpMethod.GET, "/api/v1/products/import/**", "/api/v1/products/export").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/v1/products/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/product-photos/**").permitAll()
 
                         // CUD товаров
-                        .requestMatchers(HttpMethod.POST, "/api/v1/products").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/v1/products", "/api/v1/products/import").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/v1/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/products/**").hasRole("ADMIN")
 
@@ -85,7 +88,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/order-statuses/**").hasRole("ADMIN")
 
                         // заказы
-                        .requestMatchers(HttpMethod.POST, "/api/v1/orders").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/orders", "/api/v1/orders/intake").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/orders/intake/*").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/orders/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/v1/orders/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/orders/**").hasRole("ADMIN")
@@ -105,6 +109,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/v1/users/*/activate").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/v1/users/*/deactivate").hasRole("ADMIN")
 
+                        // Аналитика продаж
+                        .requestMatchers("/api/v1/analytics/**").hasRole("ADMIN")
+
                         // Управление магазином
                         .requestMatchers("/api/v1/store/**").hasRole("ADMIN")
 
@@ -112,8 +119,14 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/theme").hasRole("ADMIN")
                         .requestMatchers("/api/v1/public/theme").permitAll()
 
+                        // Стартовые данные и категории витрины
+                        .requestMatchers(HttpMethod.GET, "/api/v1/public/bootstrap", "/api/v1/public/categories")
+                        .permitAll()
+
                         // Загрузка файлов
                         .requestMatchers("/api/v1/files/**").hasRole("ADMIN")
+                        .requestMatchers("/uploads/blobs/**").denyAll()
+                        .requestMatchers("/uploads/.trash/**").denyAll()
                         .requestMatchers("/uploads/**").permitAll()
 
                         // тестовый контролле
@@ -1,23 +1,43 @@
 package diploma.ecommerce.backend.shopbase.config;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
+    /**
+     * Сильный ETag в формате nginx (время изменения и размер в hex), чтобы валидаторы совпадали
+     * при раздаче через nginx и напрямую из приложения. Для сжатой копии ETag свой, так как у нее
+     * другой размер.
+     */
+    private static String uploadEtag(Resource resource) {
+        try {
+            return Long.toHexString(resource.lastModified() / 1000) + "-" + Long.toHexString(resource.contentLength());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -39,8 +59,15 @@ public class WebConfig implements WebMvcConfigurer {
         Path uploadPath = Paths.get(uploadDir);
         String uploadAbsolutePath = uploadPath.toFile().getAbsolutePath();
 
+        // Имена загрузок уникальны (хеш содержимого или UUID), а таблицы стилей тем адресуются по хешу,
+        // поэтому по одному адресу всегда отдаются одни и те же байты. Range-запросы обработчик ресурсов
+        // поддерживает сам; если рядом лежит .gz или .br копия, она отдается клиенту, который ее принимает
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadAbsolutePath + "/");
+                .addResourceLocations("file:" + uploadAbsolutePath + "/")
+                .setCacheControl(IMMUTABLE)
+                .setEtagGenerator(WebConfig::uploadEtag)
+                .resourceChain(false)
+                .addResolver(new EncodedResourceResolver());
 
         registry.addResourceHandler("/static/**")
                 .addResourceLocations("classpath:/static/");
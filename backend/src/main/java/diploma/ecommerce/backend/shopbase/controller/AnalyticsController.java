@@ -0,0 +1,127 @@
+package diploma.ecommerce.backend.shopbase.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.analytics.ProductSalesSort;
+import diploma.ecommerce.backend.shopbase.dto.mapper.AnalyticsMapper;
+import diploma.ecommerce.backend.shopbase.dto.response.ProductSalesResponse;
+import diploma.ecommerce.backend.shopbase.dto.response.SalesReportResponse;
+import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
+import diploma.ecommerce.backend.shopbase.service.SalesRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analytics", description = "Агрегированная статистика продаж для панели администратора")
+public class AnalyticsController {
+
+    private static final int DEFAULT_PERIOD_DAYS = 30;
+
+    private final SalesRollupService salesRollupService;
+    private final AnalyticsMapper analyticsMapper;
+
+    private Long getCurrentTenantIdOrFail() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            log.error("Tenant ID could not be resolved for the current request. Access denied or configuration issue.");
+            throw new AccessDeniedException("Tenant context not established.");
+        }
+        log.trace("Using Tenant ID: {}", tenantId);
+        return tenantId;
+    }
+
+    @Operation(
+            summary = "Получить продажи по дням",
+            description = "Сводка и разбивка по дням за период from - to включительно (по умолчанию 30 дней). " +
+                    "Продажи относятся к дню создания заказа, отмены и возвраты - к дню отмены."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Отчет сформирован"),
+            @ApiResponse(responseCode = "400", description = "Некорректный период")
+    })
+    @GetMapping("/sales")
+    public ResponseEntity<SalesReportResponse> getSales(
+            @Parameter(description = "Начальная дата (включительно)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Конечная дата (включительно)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        LocalDate periodTo = to != null ? to : LocalDate.now();
+        LocalDate periodFrom = from != null ? from : periodTo.minusDays(DEFAULT_PERIOD_DAYS - 1);
+        log.debug("Request for sales report of tenant {} ({} - {})", tenantId, periodFrom, periodTo);
+
+        return ResponseEntity.ok(analyticsMapper.toSalesReportResponse(
+                periodFrom,
+                periodTo,
+                salesRollupService.getDailySales(tenantId, periodFrom, periodTo)
+        ));
+    }
+
+    @Operation(summary = "Получить самые продаваемые товары за период")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Рейтинг товаров получен"),
+            @ApiResponse(responseCode = "400", description = "Некорректный период, сортировка или лимит")
+    })
+    @GetMapping("/products/top")
+    public ResponseEntity<List<ProductSalesResponse>> getTopProducts(
+            @Parameter(description = "Начальная дата (включительно)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Конечная дата (включительно)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Сортировка: revenue или units") @RequestParam(defaultValue = "revenue")
+            String sortBy,
+            @Parameter(description = "Количество товаров (1-100)") @RequestParam(defaultValue = "10") int limit
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        LocalDate periodTo = to != null ? to : LocalDate.now();
+        LocalDate periodFrom = from != null ? from : periodTo.minusDays(DEFAULT_PERIOD_DAYS - 1);
+        ProductSalesSort sort = ProductSalesSort.fromParameter(sortBy);
+
+        List<ProductSalesResponse> products = salesRollupService
+                .getTopProducts(tenantId, periodFrom, periodTo, sort, limit)
+                .stream()
+                .map(analyticsMapper::toProductSalesResponse)
+                .toList();
+        return ResponseEntity.ok(products);
+    }
+
+    @Operation(
+            summary = "Пересчитать статистику продаж",
+            description = "Перестраивает дневные агрегаты за период из заказов и истории статусов. " +
+                    "Нужен для первичного заполнения и после ручных правок данных."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Статистика пересчитана"),
+            @ApiResponse(responseCode = "400", description = "Некорректный период")
+    })
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild(
+            @Parameter(description = "Начальная дата (включительно)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Конечная дата (включительно)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        log.info("Request to rebuild sales rollups for tenant {} ({} - {})", tenantId, from, to);
+        salesRollupService.rebuild(tenantId, from, to);
+        return ResponseEntity.noContent().build();
+    }
+}
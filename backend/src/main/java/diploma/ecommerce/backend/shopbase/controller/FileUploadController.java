@@ -2,9 +2,18 @@ package diploma.ecommerce.backend.shopbase.controller;
 
 import java.io.IOException;
 
+import diploma.ecommerce.backend.shopbase.dto.request.DirectUploadCompleteRequest;
+import diploma.ecommerce.backend.shopbase.dto.request.DirectUploadRequest;
+import diploma.ecommerce.backend.shopbase.dto.response.DirectUploadResponse;
 import diploma.ecommerce.backend.shopbase.dto.response.FileUploadResponse;
+import diploma.ecommerce.backend.shopbase.dto.response.UploadUsageResponse;
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+import diploma.ecommerce.backend.shopbase.image.ImageVariantProcessor;
+import diploma.ecommerce.backend.shopbase.model.TenantUploadUsage;
 import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
+import diploma.ecommerce.backend.shopbase.service.DirectUploadService;
 import diploma.ecommerce.backend.shopbase.service.FileStorageService;
+import diploma.ecommerce.backend.shopbase.storage.UploadUsageTracker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,14 +22,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -34,7 +49,13 @@ import org.springframework.web.multipart.MultipartFile;
 @SecurityRequirement(name = "bearerAuth")
 public class FileUploadController {
 
+    private static final String PRODUCTS_CATEGORY = "products";
+
     private final FileStorageService fileStorageService;
+    private final ImageVariantProcessor imageVariantProcessor;
+    private final UploadUsageTracker uploadUsageTracker;
+    // Есть только при объектном хранилище (app.storage.type=s3)
+    private final ObjectProvider<DirectUploadService> directUploadService;
 
     private static Long getCurrentTenantIdOrFail() {
         Long tenantId = TenantContext.getTenantId();
@@ -90,6 +111,151 @@ public class FileUploadController {
         }
 
         String fileUrl = fileStorageService.storeFile(file, tenantId, category);
+        return uploaded(tenantId, category, fileUrl);
+    }
+
+    @Operation(
+            summary = "Загрузить файл телом запроса",
+            description = "Тело запроса - само изображение с Content-Type image/*. Файл записывается на диск " +
+                    "потоком, без промежуточной копии multipart. Одинаковые файлы хранятся один раз."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Файл успешно загружен",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = FileUploadResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Неверная категория, пустой или слишком большой файл"),
+            @ApiResponse(responseCode = "401", description = "Неавторизован"),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен")
+    })
+    @PostMapping(value = "/upload/{category}", consumes = "image/*")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FileUploadResponse> uploadRawFile(
+            @Parameter(description = "Категория файла (logos, headers, products, etc.)", required = true)
+            @PathVariable String category,
+
+            @Parameter(description = "Имя исходного файла") @RequestParam(required = false) String fileName,
+            HttpServletRequest request
+    ) throws IOException {
+        Long tenantId = getCurrentTenantIdOrFail();
+
+        if (!isValidCategory(category)) {
+            return ResponseEntity.badRequest().body(
+                    new FileUploadResponse(false, null, "Invalid category: " + category)
+            );
+        }
+
+        // Без имени файла расширение определяется по типу содержимого: image/png -> .png
+        String originalFilename = fileName != null
+                ? fileName
+                : "upload." + request.getContentType().substring("image/".length()).split(";")[0].trim();
+        String fileUrl = fileStorageService.storeFile(request.getInputStream(), originalFilename, tenantId, category);
+        return uploaded(tenantId, category, fileUrl);
+    }
+
+    @Operation(
+            summary = "Начать загрузку файла напрямую в хранилище",
+            description = "Возвращает подписанный адрес для PUT-запроса с файлом, а для файлов больше размера " +
+                    "части - ID составной загрузки и адреса для каждой части. Файл передается из браузера в " +
+                    "хранилище, минуя бэкенд. После загрузки нужно вызвать /direct-uploads/complete."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Адреса для загрузки выданы"),
+            @ApiResponse(responseCode = "400", description = "Неверная категория, тип или размер файла, " +
+                    "либо прямая загрузка недоступна при локальном хранилище"),
+            @ApiResponse(responseCode = "401", description = "Неавторизован"),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен")
+    })
+    @PostMapping("/direct-uploads/{category}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DirectUploadResponse> createDirectUpload(
+            @Parameter(description = "Категория файла (logos, headers, products, etc.)", required = true)
+            @PathVariable String category,
+            @Valid @RequestBody DirectUploadRequest request
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        if (!isValidCategory(category)) {
+            throw new BadRequestException("Invalid category: " + category);
+        }
+        return ResponseEntity.ok(directUploads().createUpload(tenantId, category, request));
+    }
+
+    @Operation(
+            summary = "Завершить прямую загрузку файла",
+            description = "Для составной загрузки собирает файл из частей (нужны номера и ETag частей). " +
+                    "Проверяет тип и размер загруженного файла и возвращает его адрес."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Файл загружен"),
+            @ApiResponse(responseCode = "400", description = "Файл не прошел проверку или части указаны неверно"),
+            @ApiResponse(responseCode = "404", description = "Загрузка не найдена")
+    })
+    @PostMapping("/direct-uploads/complete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FileUploadResponse> completeDirectUpload(
+            @Valid @RequestBody DirectUploadCompleteRequest request
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        String fileUrl = directUploads().completeUpload(tenantId, request);
+        return ResponseEntity.ok(new FileUploadResponse(true, fileUrl, "File uploaded successfully"));
+    }
+
+    @Operation(summary = "Отменить составную загрузку файла",
+            description = "Удаляет уже загруженные части, чтобы они не занимали место в хранилище")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Загрузка отменена"),
+            @ApiResponse(responseCode = "404", description = "Загрузка не найдена")
+    })
+    @DeleteMapping("/direct-uploads")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> abortDirectUpload(
+            @Parameter(description = "Ключ объекта", required = true) @RequestParam String key,
+            @Parameter(description = "ID составной загрузки", required = true) @RequestParam String uploadId
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        directUploads().abortUpload(tenantId, key, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+            summary = "Получить объем загруженных файлов магазина",
+            description = "Значение ведется приращениями при загрузке и удалении файлов и уточняется " +
+                    "фоновым сборщиком неиспользуемых файлов, поэтому каталог при запросе не обходится"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Объем получен"),
+            @ApiResponse(responseCode = "401", description = "Неавторизован"),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен")
+    })
+    @GetMapping("/usage")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UploadUsageResponse> getUsage() {
+        Long tenantId = getCurrentTenantIdOrFail();
+        TenantUploadUsage usage = uploadUsageTracker.usage(tenantId);
+        return ResponseEntity.ok(UploadUsageResponse.builder()
+                .usedBytes(usage.getUsedBytes())
+                .fileCount(usage.getFileCount())
+                .updatedAt(usage.getUpdatedAt())
+                .build());
+    }
+
+    private DirectUploadService directUploads() {
+        DirectUploadService service = directUploadService.getIfAvailable();
+        if (service == null) {
+            throw new BadRequestException("Direct uploads require object storage (app.storage.type=s3)");
+        }
+        return service;
+    }
+
+    private ResponseEntity<FileUploadResponse> uploaded(Long tenantId, String category, String fileUrl) {
+        // Уменьшенные копии нужны сетке товаров; логотипы и баннеры тема использует в исходном виде
+        if (PRODUCTS_CATEGORY.equals(category)) {
+            imageVariantProcessor.submit(tenantId, fileUrl);
+        }
 
         return ResponseEntity.ok(new FileUploadResponse(true, fileUrl, "File uploaded successfully"));
     }
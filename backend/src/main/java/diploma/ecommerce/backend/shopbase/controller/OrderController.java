@@ -1,15 +1,24 @@
 package diploma.ecommerce.backend.shopbase.controller;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 import diploma.ecommerce.backend.shopbase.dto.mapper.OrderItemMapper;
 import diploma.ecommerce.backend.shopbase.dto.mapper.OrderMapper;
+import diploma.ecommerce.backend.shopbase.dto.mapper.OrderStatusHistoryMapper;
+import diploma.ecommerce.backend.shopbase.dto.record.OrderCreationResult;
 import diploma.ecommerce.backend.shopbase.dto.request.OrderCreateRequest;
 import diploma.ecommerce.backend.shopbase.dto.request.OrderUpdateRequest;
 import diploma.ecommerce.backend.shopbase.dto.response.OrderItemResponse;
 import diploma.ecommerce.backend.shopbase.dto.response.OrderResponse;
+import diploma.ecommerce.backend.shopbase.dto.response.OrderStatusHistoryResponse;
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+import diploma.ecommerce.backend.shopbase.export.ExportFormat;
+import diploma.ecommerce.backend.shopbase.feed.OrderFeedBroker;
 import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
+import diploma.ecommerce.backend.shopbase.service.ExportService;
+import diploma.ecommerce.backend.shopbase.service.OrderCheckoutService;
 import diploma.ecommerce.backend.shopbase.service.OrderItemService;
 import diploma.ecommerce.backend.shopbase.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,6 +33,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,9 +46,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @Slf4j
@@ -45,12 +61,22 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 @Tag(name = "Order Management", description = "API для управления заказами (в контексте тенанта)")
 public class OrderController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final OrderCheckoutService orderCheckoutService;
     private final OrderMapper orderMapper;
 
     private final OrderItemService orderItemService;
     private final OrderItemMapper orderItemMapper;
 
+    private final OrderStatusHistoryMapper orderStatusHistoryMapper;
+
+    private final ExportService exportService;
+
+    private final OrderFeedBroker orderFeedBroker;
+
     private Long getCurrentTenantIdOrFail() {
         Long tenantId = TenantContext.getTenantId();
         if (tenantId == null) {
@@ -95,28 +121,41 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
-    @Operation(summary = "Создать новый заказ")
+    @Operation(
+            summary = "Создать новый заказ",
+            description = "С заголовком Idempotency-Key повтор запроса не создает второй заказ: возвращается " +
+                    "уже созданный заказ и заголовок Idempotent-Replayed: true."
+    )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Заказ успешно создан"),
             @ApiResponse(responseCode = "400", description = "Некорректный запрос (ошибка валидации, неверные ID и т" +
                     ".д.)"),
-            @ApiResponse(responseCode = "409", description = "Конфликт (например, недостаточно товара на складе)")
+            @ApiResponse(responseCode = "409", description = "Конфликт (например, недостаточно товара на складе " +
+                    "или запрос с тем же Idempotency-Key еще выполняется)"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key уже использован с другим заказом")
     })
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(
+            @Parameter(description = "Ключ идемпотентности, уникальный для попытки оформления заказа")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Parameter(description = "Данные для создания заказа") @Valid @RequestBody OrderCreateRequest request
     ) {
         Long tenantId = getCurrentTenantIdOrFail();
-        OrderResponse createdOrder = orderMapper.toOrderResponse(
-                orderService.createOrder(tenantId, orderMapper.toOrder(request))
+        OrderCreationResult result = orderCheckoutService.placeOrder(
+                tenantId, orderMapper.toOrder(request), idempotencyKey
         );
+        OrderResponse createdOrder = orderMapper.toOrderResponse(result.order());
 
         URI location = ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
                 .buildAndExpand(createdOrder.getId())
                 .toUri();
 
-        return ResponseEntity.created(location).body(createdOrder);
+        ResponseEntity.BodyBuilder response = ResponseEntity.created(location);
+        if (result.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(createdOrder);
     }
 
     @Operation(summary = "Обновить статус заказа")
@@ -137,6 +176,77 @@ public class OrderController {
         return ResponseEntity.ok(updatedOrder);
     }
 
+    @Operation(
+            summary = "Выгрузить заказы текущего тенанта",
+            description = "Потоковая выгрузка в CSV или NDJSON без пагинации. Фильтр по дате создания " +
+                    "заказа: from и to включительно (ISO-дата)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Файл выгрузки"),
+            @ApiResponse(responseCode = "400", description = "Некорректный формат или диапазон дат")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "Начальная дата (включительно)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Конечная дата (включительно)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Формат: csv или ndjson") @RequestParam(defaultValue = "csv") String format
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' date must not be after 'to' date");
+        }
+        log.info("Request to export orders for tenant {} ({} - {}) as {}", tenantId, from, to, exportFormat);
+
+        StreamingResponseBody body = out -> exportService.exportOrders(tenantId, from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders-" + LocalDate.now() + "." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Подписаться на ленту заказов текущего тенанта",
+            description = "Server-Sent Events: order-created и order-status-changed после фиксации изменений. " +
+                    "При переподключении заголовок Last-Event-ID возвращает пропущенные события; если их уже " +
+                    "нет в буфере, приходит событие resync и список заказов нужно перечитать."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Поток событий открыт"),
+            @ApiResponse(responseCode = "503", description = "Превышен лимит подключений тенанта")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(
+            @Parameter(description = "ID последнего полученного события")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        return orderFeedBroker.subscribe(tenantId, lastEventId);
+    }
+
+    @Operation(summary = "Получить историю изменения статусов заказа (с пагинацией)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "История статусов получена"),
+            @ApiResponse(responseCode = "404", description = "Заказ не найден")
+    })
+    @GetMapping("/{id}/status-history")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Page<OrderStatusHistoryResponse>> getOrderStatusHistory(
+            @Parameter(description = "ID заказа") @PathVariable Long id,
+            @PageableDefault(size = 20, sort = "changedAt", direction = Sort.Direction.DESC)
+            Pageable pageable
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        Page<OrderStatusHistoryResponse> historyPage = orderService.getOrderStatusHistory(tenantId, id, pageable)
+                .map(orderStatusHistoryMapper::toOrderStatusHistoryResponse);
+        return ResponseEntity.ok(historyPage);
+    }
+
     @Operation(summary = "Удалить заказ", deprecated = true)
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Заказ успешно удален"),
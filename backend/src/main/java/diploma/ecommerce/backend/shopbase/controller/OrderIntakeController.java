@@ -0,0 +1,88 @@
+package diploma.ecommerce.backend.shopbase.controller;
+
+import java.net.URI;
+import java.util.UUID;
+
+import diploma.ecommerce.backend.shopbase.dto.mapper.OrderIntakeMapper;
+import diploma.ecommerce.backend.shopbase.dto.request.OrderCreateRequest;
+import diploma.ecommerce.backend.shopbase.dto.response.OrderIntakeResponse;
+import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
+import diploma.ecommerce.backend.shopbase.service.OrderIntakeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/orders/intake")
+@RequiredArgsConstructor
+@Tag(name = "Order Intake", description = "Асинхронный прием заказов для пиковой нагрузки (распродажи)")
+public class OrderIntakeController {
+
+    private final OrderIntakeService orderIntakeService;
+    private final OrderIntakeMapper orderIntakeMapper;
+
+    private Long getCurrentTenantIdOrFail() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            log.error("Tenant ID could not be resolved for the current request. Access denied or configuration issue.");
+            throw new AccessDeniedException("Tenant context not established.");
+        }
+        log.trace("Using Tenant ID: {}", tenantId);
+        return tenantId;
+    }
+
+    @Operation(
+            summary = "Поставить заказ в очередь",
+            description = "Запрос проверяется только по формату и сразу сохраняется в очередь; заказ создается " +
+                    "фоновым обработчиком. Итог (ID заказа или причина отказа) доступен по ссылке из Location."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Заявка принята в очередь"),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос (ошибка валидации)")
+    })
+    @PostMapping
+    public ResponseEntity<OrderIntakeResponse> submitOrder(
+            @Parameter(description = "Данные для создания заказа") @Valid @RequestBody OrderCreateRequest request
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        OrderIntakeResponse intake = orderIntakeMapper.toOrderIntakeResponse(
+                orderIntakeService.submit(tenantId, request)
+        );
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{ticket}")
+                .buildAndExpand(intake.getTicket())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(intake);
+    }
+
+    @Operation(summary = "Получить статус заявки на заказ")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статус заявки получен"),
+            @ApiResponse(responseCode = "404", description = "Заявка не найдена")
+    })
+    @GetMapping("/{ticket}")
+    public ResponseEntity<OrderIntakeResponse> getIntakeStatus(
+            @Parameter(description = "Номер заявки") @PathVariable UUID ticket
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        return ResponseEntity.ok(orderIntakeMapper.toOrderIntakeResponse(
+                orderIntakeService.getStatus(tenantId, ticket)
+        ));
+    }
+}
@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 import diploma.ecommerce.backend.shopbase.dto.mapper.OrderItemMapper;
 import diploma.ecommerce.backend.shopbase.dto.request.OrderItemCreateRequest;
 import diploma.ecommerce.backend.shopbase.dto.request.OrderItemUpdateRequest;
+import diploma.ecommerce.backend.shopbase.dto.request.OrderItemsBatchRequest;
 import diploma.ecommerce.backend.shopbase.dto.response.OrderItemResponse;
 import diploma.ecommerce.backend.shopbase.model.OrderItem;
 import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
@@ -127,6 +128,31 @@ public class OrderItemController {
         return ResponseEntity.ok(updatedItem);
     }
 
+    @Operation(summary = "Пакетно изменить позиции заказа",
+            description = "Добавляет, изменяет и удаляет (количество 0) позиции в одной транзакции; сумма заказа " +
+                    "пересчитывается один раз. При replace=true позиции, не указанные в запросе, удаляются")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Позиции успешно изменены"),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос (повтор продукта, нехватка товара)"),
+            @ApiResponse(responseCode = "404", description = "Заказ или продукт не найден")
+    })
+    @PutMapping("/order/{orderId}")
+    public ResponseEntity<List<OrderItemResponse>> updateOrderItems(
+            @Parameter(description = "ID заказа") @PathVariable Long orderId,
+            @Parameter(description = "Итоговые количества позиций") @Valid @RequestBody OrderItemsBatchRequest request
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        List<OrderItem> items = request.getItems().stream()
+                .map(item -> orderItemMapper.toOrderItem(item))
+                .collect(Collectors.toList());
+        List<OrderItemResponse> updatedItems = orderItemService.updateOrderItems(
+                        tenantId, orderId, items, request.isReplace())
+                .stream()
+                .map(orderItemMapper::toOrderItemResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(updatedItems);
+    }
+
     @Operation(summary = "Удалить позицию из существующего заказа")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Позиция успешно удалена"),
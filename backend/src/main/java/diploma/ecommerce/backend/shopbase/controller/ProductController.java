@@ -1,19 +1,34 @@
 package diploma.ecommerce.backend.shopbase.controller;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import diploma.ecommerce.backend.shopbase.catalog.CatalogSurrogateKeys;
+import diploma.ecommerce.backend.shopbase.catalog.CatalogVersion;
+import diploma.ecommerce.backend.shopbase.catalog.CatalogVersions;
+import diploma.ecommerce.backend.shopbase.dto.mapper.ProductImportJobMapper;
 import diploma.ecommerce.backend.shopbase.dto.mapper.ProductMapper;
 import diploma.ecommerce.backend.shopbase.dto.mapper.ProductPhotoMapper;
 import diploma.ecommerce.backend.shopbase.dto.record.ProductSearchCriteria;
+import diploma.ecommerce.backend.shopbase.dto.request.ProductBulkUpdateRequest;
 import diploma.ecommerce.backend.shopbase.dto.request.ProductCreateRequest;
 import diploma.ecommerce.backend.shopbase.dto.request.ProductPhotoCreateRequest;
 import diploma.ecommerce.backend.shopbase.dto.request.ProductUpdateRequest;
+import diploma.ecommerce.backend.shopbase.dto.response.ProductBulkUpdateResponse;
+import diploma.ecommerce.backend.shopbase.dto.response.ProductImportJobResponse;
 import diploma.ecommerce.backend.shopbase.dto.response.ProductPhotoResponse;
 import diploma.ecommerce.backend.shopbase.dto.response.ProductResponse;
 import diploma.ecommerce.backend.shopbase.model.Product;
 import diploma.ecommerce.backend.shopbase.model.ProductPhoto;
+import diploma.ecommerce.backend.shopbase.export.ExportFormat;
+import diploma.ecommerce.backend.shopbase.importer.ProductImportJob;
 import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
+import diploma.ecommerce.backend.shopbase.service.ExportService;
+import diploma.ecommerce.backend.shopbase.service.ProductBulkUpdateService;
+import diploma.ecommerce.backend.shopbase.service.ProductImportService;
 import diploma.ecommerce.backend.shopbase.service.ProductPhotoService;
 import diploma.ecommerce.backend.shopbase.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,12 +36,19 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -38,6 +60,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @Slf4j
@@ -51,6 +75,14 @@ public class ProductController {
     private final ProductMapper productMapper;
     private final ProductPhotoService productPhotoService;
     private final ProductPhotoMapper productPhotoMapper;
+    private final ProductImportService productImportService;
+    private final ProductImportJobMapper productImportJobMapper;
+    private final ExportService exportService;
+    private final ProductBulkUpdateService productBulkUpdateService;
+    private final CatalogVersions catalogVersions;
+
+    @Value("${app.catalog.shared-max-age-seconds:5}")
+    private long catalogSharedMaxAgeSeconds;
 
     private Long getCurrentTenantIdOrFail() {
         Long tenantId = TenantContext.getTenantId();
@@ -62,11 +94,26 @@ public class ProductController {
         return tenantId;
     }
 
+    /**
+     * Заголовки ответа каталога. ETag и Last-Modified к этому моменту уже записаны в ответ вызовом
+     * checkNotModified. Браузер сверяет копию при каждом показе, а общий кэш (прокси, CDN) отдает ее
+     * без обращения к приложению не дольше s-maxage и сбрасывается по тегам из Surrogate-Key.
+     */
+    private ResponseEntity.BodyBuilder catalogResponse(HttpStatus status, String surrogateKeys) {
+        return ResponseEntity.status(status)
+                .cacheControl(CacheControl.maxAge(0, TimeUnit.SECONDS)
+                        .sMaxAge(catalogSharedMaxAgeSeconds, TimeUnit.SECONDS)
+                        .cachePublic()
+                        .mustRevalidate())
+                .header(CatalogSurrogateKeys.HEADER, surrogateKeys);
+    }
+
     // Управление Продуктами
 
     @Operation(summary = "Получить список продуктов (с пагинацией и фильтрацией)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список продуктов получен"),
+            @ApiResponse(responseCode = "304", description = "Каталог не изменился с версии из If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Не авторизован")
     })
     @GetMapping
@@ -74,9 +121,18 @@ public class ProductController {
             @Parameter(description = "Поиск по части названия (без учета регистра)") @RequestParam(required = false) String nameLike,
             @Parameter(description = "Фильтр по категории") @RequestParam(required = false) String category,
             @Parameter(description = "Фильтр по активности (true/false)") @RequestParam(required = false) Boolean active,
-            @PageableDefault(size = 20, sort = "name") Pageable pageable
+            @PageableDefault(size = 20, sort = "name") Pageable pageable,
+            WebRequest webRequest
     ) {
         Long tenantId = getCurrentTenantIdOrFail();
+        String surrogateKeys = CatalogSurrogateKeys.forList(tenantId);
+
+        // Версия читается до данных, и при ее совпадении выборка товаров не выполняется
+        CatalogVersion catalogVersion = catalogVersions.current(tenantId);
+        if (webRequest.checkNotModified(catalogVersion.eTag(), catalogVersion.lastModifiedMillis())) {
+            log.debug("Products of tenant {} not modified since version {}", tenantId, catalogVersion.version());
+            return catalogResponse(HttpStatus.NOT_MODIFIED, surrogateKeys).build();
+        }
 
         ProductSearchCriteria criteria = new ProductSearchCriteria(nameLike, category, active);
         log.debug("Fetching products for tenant {} with criteria: {}", tenantId, criteria);
@@ -90,24 +146,32 @@ public class ProductController {
                 productPage.getNumber(),
                 productPage.getTotalPages()
         );
-        return ResponseEntity.ok(productPage);
+        return catalogResponse(HttpStatus.OK, surrogateKeys).body(productPage);
     }
 
     @Operation(summary = "Получить продукт по ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Продукт найден"),
+            @ApiResponse(responseCode = "304", description = "Каталог не изменился с версии из If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Продукт не найден")
     })
     @GetMapping("/{productId}")
     public ResponseEntity<ProductResponse> getProductById(
-            @Parameter(description = "ID продукта") @PathVariable Long productId
+            @Parameter(description = "ID продукта") @PathVariable Long productId,
+            WebRequest webRequest
     ) {
         log.debug("Request to get product {} for tenant {}", productId, getCurrentTenantIdOrFail());
         Long tenantId = getCurrentTenantIdOrFail();
+        String surrogateKeys = CatalogSurrogateKeys.forProduct(tenantId, productId);
+
+        CatalogVersion catalogVersion = catalogVersions.current(tenantId);
+        if (webRequest.checkNotModified(catalogVersion.eTag(), catalogVersion.lastModifiedMillis())) {
+            return catalogResponse(HttpStatus.NOT_MODIFIED, surrogateKeys).build();
+        }
         ProductResponse product = productMapper.toProductResponse(
                 productService.getProductById(tenantId, productId)
         );
-        return ResponseEntity.ok(product);
+        return catalogResponse(HttpStatus.OK, surrogateKeys).body(product);
     }
 
     @Operation(summary = "Создать новый продукт")
@@ -156,6 +220,24 @@ public class ProductController {
         return ResponseEntity.ok(updatedProductResponse);
     }
 
+    @Operation(
+            summary = "Массово обновить остатки и цены",
+            description = "Каждая позиция задает товар по ID или названию и новые остаток и/или цену. " +
+                    "Позиции применяются одним SQL-запросом на пакет; результат возвращается по каждой позиции."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Обновление выполнено, результат по позициям"),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос")
+    })
+    @PutMapping("/bulk")
+    public ResponseEntity<ProductBulkUpdateResponse> bulkUpdateStockAndPrice(
+            @Parameter(description = "Позиции обновления") @Valid @RequestBody ProductBulkUpdateRequest request
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        log.info("Request to bulk update {} products for tenant {}", request.getItems().size(), tenantId);
+        return ResponseEntity.ok(productBulkUpdateService.updateStockAndPrice(tenantId, request.getItems()));
+    }
+
     @Operation(summary = "Удалить продукт")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Продукт успешно удален (или деактивирован)"),
@@ -173,6 +255,78 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    // Импорт каталога
+
+    @Operation(
+            summary = "Импортировать товары из CSV",
+            description = "Тело запроса - CSV-файл (UTF-8, разделитель ',' или ';') с заголовком. Обязательные " +
+                    "колонки: name, price; необязательные: description, stock_quantity, category, active. " +
+                    "Товары с совпадающим названием обновляются; пустые необязательные значения их не меняют. " +
+                    "Обработка выполняется в фоне."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Файл принят, задача импорта поставлена в очередь"),
+            @ApiResponse(responseCode = "400", description = "Файл слишком большой или импорт уже выполняется")
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ProductImportJobResponse> importProducts(
+            @Parameter(description = "Имя исходного файла") @RequestParam(required = false) String fileName,
+            HttpServletRequest request
+    ) throws IOException {
+        Long tenantId = getCurrentTenantIdOrFail();
+        log.info("Request to import products for tenant {} from file '{}'", tenantId, fileName);
+        ProductImportJob job = productImportService.startImport(tenantId, fileName, request.getInputStream());
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{jobId}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(productImportJobMapper.toProductImportJobResponse(job));
+    }
+
+    @Operation(summary = "Получить состояние задачи импорта товаров")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Состояние задачи получено"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ProductImportJobResponse> getImportJob(
+            @Parameter(description = "ID задачи импорта") @PathVariable String jobId
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        return ResponseEntity.ok(
+                productImportJobMapper.toProductImportJobResponse(productImportService.getJob(tenantId, jobId))
+        );
+    }
+
+    @Operation(
+            summary = "Выгрузить каталог товаров",
+            description = "Потоковая выгрузка в CSV (совместим с форматом импорта) или NDJSON"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Файл выгрузки"),
+            @ApiResponse(responseCode = "400", description = "Неподдерживаемый формат")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Формат: csv или ndjson") @RequestParam(defaultValue = "csv") String format
+    ) {
+        Long tenantId = getCurrentTenantIdOrFail();
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        log.info("Request to export products for tenant {} as {}", tenantId, exportFormat);
+
+        StreamingResponseBody body = out -> exportService.exportProducts(tenantId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products-" + LocalDate.now() + "." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     // Управление Фото Продукта
 
     @Operation(summary = "Получить все фотографии для продукта")
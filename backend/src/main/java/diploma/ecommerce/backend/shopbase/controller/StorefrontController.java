@@ -0,0 +1,130 @@
+package diploma.ecommerce.backend.shopbase.controller;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import diploma.ecommerce.backend.shopbase.catalog.CatalogSurrogateKeys;
+import diploma.ecommerce.backend.shopbase.catalog.CategoryFacets;
+import diploma.ecommerce.backend.shopbase.dto.response.CategoryFacetResponse;
+import diploma.ecommerce.backend.shopbase.dto.response.StorefrontBootstrapResponse;
+import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
+import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
+import diploma.ecommerce.backend.shopbase.service.StorefrontService;
+import diploma.ecommerce.backend.shopbase.theme.PublicThemeCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/public")
+@RequiredArgsConstructor
+@Tag(name = "Storefront", description = "Публичные данные витрины магазина")
+public class StorefrontController {
+
+    private final StorefrontService storefrontService;
+
+    @Value("${app.catalog.shared-max-age-seconds:5}")
+    private long catalogSharedMaxAgeSeconds;
+
+    private Long getCurrentTenantIdOrFail() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            log.warn("Tenant context not established for storefront request");
+            throw new ResourceNotFoundException("Tenant", "id", null);
+        }
+        return tenantId;
+    }
+
+    // Те же правила кэширования, что у списка товаров: ответы меняются вместе с каталогом
+    private ResponseEntity.BodyBuilder storefrontResponse(HttpStatus status, Long tenantId, String preloadLinks) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status)
+                .cacheControl(CacheControl.maxAge(0, TimeUnit.SECONDS)
+                        .sMaxAge(catalogSharedMaxAgeSeconds, TimeUnit.SECONDS)
+                        .cachePublic()
+                        .mustRevalidate())
+                .header(CatalogSurrogateKeys.HEADER, CatalogSurrogateKeys.forList(tenantId));
+        if (preloadLinks != null) {
+            response.header(HttpHeaders.LINK, preloadLinks);
+        }
+        return response;
+    }
+
+    @Operation(
+            summary = "Получить стартовые данные витрины",
+            description = "Одним ответом возвращает тему, сведения о магазине, категории и первую страницу " +
+                    "активных товаров с главными фотографиями. Контекст тенанта определяется из поддомена. " +
+                    "ETag меняется вместе с каталогом, магазином и темой; поддерживается If-None-Match."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Стартовые данные получены",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = StorefrontBootstrapResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "304", description = "Данные не изменились с версии из If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "Магазин не найден или контекст тенанта не определен")
+    })
+    @GetMapping("/bootstrap")
+    public ResponseEntity<StorefrontBootstrapResponse> getBootstrap(WebRequest webRequest) {
+        Long tenantId = getCurrentTenantIdOrFail();
+
+        // Валидатор считается до выборки товаров, и при совпадении If-None-Match она не выполняется
+        PublicThemeCache.Snapshot theme = storefrontService.getPublicTheme(tenantId);
+        String eTag = storefrontService.getBootstrapETag(tenantId, theme);
+        if (webRequest.checkNotModified(eTag)) {
+            log.debug("Storefront bootstrap of tenant {} not modified", tenantId);
+            return storefrontResponse(HttpStatus.NOT_MODIFIED, tenantId, null).build();
+        }
+
+        StorefrontBootstrapResponse response = storefrontService.getBootstrap(tenantId, theme);
+        return storefrontResponse(HttpStatus.OK, tenantId, theme.preloadLinks()).body(response);
+    }
+
+    @Operation(
+            summary = "Получить категории витрины с числом товаров",
+            description = "Возвращает категории активных товаров текущего магазина по алфавиту с числом товаров " +
+                    "в каждой. Счетчики отдаются из памяти после сверки версии каталога; поддерживается " +
+                    "If-None-Match."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Категории получены",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CategoryFacetResponse.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "304", description = "Категории не изменились с версии из If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "Контекст тенанта не определен")
+    })
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategoryFacetResponse>> getCategories(WebRequest webRequest) {
+        Long tenantId = getCurrentTenantIdOrFail();
+
+        CategoryFacets.Snapshot facets = storefrontService.getCategoryFacets(tenantId);
+        if (webRequest.checkNotModified(facets.eTag())) {
+            return storefrontResponse(HttpStatus.NOT_MODIFIED, tenantId, null).build();
+        }
+        return storefrontResponse(HttpStatus.OK, tenantId, null).body(facets.categories());
+    }
+}
@@ -1,14 +1,16 @@
 package diploma.ecommerce.backend.shopbase.controller;
 
+import java.util.concurrent.TimeUnit;
+
 import diploma.ecommerce.backend.shopbase.dto.mapper.ThemeMapper;
 import diploma.ecommerce.backend.shopbase.dto.request.ThemeUpdateRequest;
 import diploma.ecommerce.backend.shopbase.dto.response.ThemeResponse;
 import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
 import diploma.ecommerce.backend.shopbase.model.Tenant;
-import diploma.ecommerce.backend.shopbase.model.Theme;
 import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
 import diploma.ecommerce.backend.shopbase.service.TenantService;
 import diploma.ecommerce.backend.shopbase.service.ThemeService;
+import diploma.ecommerce.backend.shopbase.theme.PublicThemeCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -21,6 +23,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -40,6 +46,10 @@ public class ThemeController {
     private final TenantService tenantService;
     private final ThemeService themeService;
     private final ThemeMapper themeMapper;
+    private final PublicThemeCache publicThemeCache;
+
+    @Value("${app.theme.public-max-age-seconds:60}")
+    private long publicThemeMaxAgeSeconds;
 
     private Long getCurrentTenantIdOrFail() {
         Long tenantId = TenantContext.getTenantId();
@@ -73,18 +83,7 @@ public class ThemeController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ThemeResponse> getCurrentTheme() {
         Long tenantId = getCurrentTenantIdOrFail();
-        Tenant tenant = tenantService.getTenantById(tenantId);
-
-        if (tenant.getTheme() == null) {
-            log.warn("No theme found for tenant ID: {}. Creating default theme.", tenantId);
-            // Создаем тему по умолчанию, если её нет
-            Theme defaultTheme = themeService.getDefaultTheme();
-            defaultTheme = themeService.createTheme(defaultTheme);
-            tenant.setTheme(defaultTheme);
-            tenant = tenantService.updateTenant(tenantId, tenant);
-        }
-
-        ThemeResponse response = themeMapper.toThemeResponse(tenant.getTheme());
+        ThemeResponse response = themeMapper.toThemeResponse(themeService.getTenantThemeOrDefault(tenantId));
         return ResponseEntity.ok(response);
     }
 
@@ -114,29 +113,17 @@ public class ThemeController {
             @Valid @RequestBody ThemeUpdateRequest request
     ) {
         Long tenantId = getCurrentTenantIdOrFail();
-        Tenant tenant = tenantService.getTenantById(tenantId);
+        Tenant tenant = tenantService.updateTenantTheme(tenantId, themeMapper.createThemeFromRequest(request));
 
-        Theme themeToUpdate;
-        if (tenant.getTheme() == null) {
-            // Если темы нет, создаем новую из запроса
-            themeToUpdate = themeMapper.createThemeFromRequest(request);
-            themeToUpdate = themeService.createTheme(themeToUpdate);
-            tenant.setTheme(themeToUpdate);
-            tenantService.updateTenant(tenantId, tenant);
-        } else {
-            // Обновляем существующую тему
-            themeToUpdate = tenant.getTheme();
-            themeMapper.updateThemeFromRequest(request, themeToUpdate);
-            themeToUpdate = themeService.updateTheme(themeToUpdate.getId(), themeToUpdate);
-        }
-
-        ThemeResponse response = themeMapper.toThemeResponse(themeToUpdate);
+        ThemeResponse response = themeMapper.toThemeResponse(tenant.getTheme());
         return ResponseEntity.ok(response);
     }
 
     @Operation(
             summary = "Получить публичные настройки темы текущего магазина",
-            description = "Возвращает настройки темы для текущего магазина. Контекст тенанта определяется автоматически из поддомена."
+            description = "Возвращает настройки темы для текущего магазина. Контекст тенанта определяется " +
+                    "автоматически из поддомена. Ответ отдается из кэша с ETag и поддерживает условный запрос " +
+                    "If-None-Match. Заголовок Link содержит подсказки preload для таблицы стилей и изображений темы."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -147,10 +134,11 @@ public class ThemeController {
                             schema = @Schema(implementation = ThemeResponse.class)
                     )
             ),
+            @ApiResponse(responseCode = "304", description = "Тема не изменилась с версии из If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Магазин не найден или контекст тенанта не определен")
     })
     @GetMapping("/public/theme")
-    public ResponseEntity<ThemeResponse> getPublicThemeFromContext(HttpServletRequest request) {
+    public ResponseEntity<byte[]> getPublicThemeFromContext(HttpServletRequest request) {
         Long tenantId = TenantContext.getTenantId();
 
         if (tenantId == null) {
@@ -162,19 +150,18 @@ public class ThemeController {
             throw new ResourceNotFoundException("Tenant", "id", null);
         }
 
-        log.debug("Getting theme for automatically detected tenant ID: {}", tenantId);
-        Tenant tenant = tenantService.getTenantById(tenantId);
+        PublicThemeCache.Snapshot theme = publicThemeCache.get(tenantId,
+                () -> themeMapper.toThemeResponse(themeService.getTenantThemeOrDefault(tenantId)));
 
-        if (tenant.getTheme() == null) {
-            log.warn("No theme found for tenant ID: {}. Creating default theme.", tenantId);
-            // Создаем тему по умолчанию, если её нет
-            Theme defaultTheme = themeService.getDefaultTheme();
-            defaultTheme = themeService.createTheme(defaultTheme);
-            tenant.setTheme(defaultTheme);
-            tenant = tenantService.updateTenant(tenantId, tenant);
+        // При совпадении If-None-Match с ETag Spring сам отвечает 304 без тела
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(theme.eTag())
+                .cacheControl(CacheControl.maxAge(publicThemeMaxAgeSeconds, TimeUnit.SECONDS).cachePublic());
+        if (theme.preloadLinks() != null) {
+            response.header(HttpHeaders.LINK, theme.preloadLinks());
         }
-
-        ThemeResponse response = themeMapper.toThemeResponse(tenant.getTheme());
-        return ResponseEntity.ok(response);
+        return response
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(theme.body());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package diploma.ecommerce.backend.shopbase.dto.mapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.dto.record.ProductSalesSummary;
+import diploma.ecommerce.backend.shopbase.dto.response.DailySalesResponse;
+import diploma.ecommerce.backend.shopbase.dto.response.ProductSalesResponse;
+import diploma.ecommerce.backend.shopbase.dto.response.SalesReportResponse;
+import diploma.ecommerce.backend.shopbase.model.SalesDailyRollup;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface AnalyticsMapper {
+
+    @Mapping(source = "salesDate", target = "date")
+    @Mapping(target = "netRevenue", expression = "java(rollup.getRevenue().subtract(rollup.getCanceledRevenue()))")
+    DailySalesResponse toDailySalesResponse(SalesDailyRollup rollup);
+
+    @Mapping(target = "netRevenue", expression = "java(summary.revenue().subtract(summary.canceledRevenue()))")
+    ProductSalesResponse toProductSalesResponse(ProductSalesSummary summary);
+
+    List<DailySalesResponse> toDailySalesResponses(List<SalesDailyRollup> rollups);
+
+    default SalesReportResponse toSalesReportResponse(LocalDate from, LocalDate to, List<SalesDailyRollup> days) {
+        SalesReportResponse report = new SalesReportResponse();
+        report.setFrom(from);
+        report.setTo(to);
+        report.setRevenue(BigDecimal.ZERO);
+        report.setCanceledRevenue(BigDecimal.ZERO);
+        for (SalesDailyRollup day : days) {
+            report.setOrdersCount(report.getOrdersCount() + day.getOrdersCount());
+            report.setUnitsSold(report.getUnitsSold() + day.getUnitsSold());
+            report.setRevenue(report.getRevenue().add(day.getRevenue()));
+            report.setCanceledOrders(report.getCanceledOrders() + day.getCanceledOrders());
+            report.setCanceledUnits(report.getCanceledUnits() + day.getCanceledUnits());
+            report.setCanceledRevenue(report.getCanceledRevenue().add(day.getCanceledRevenue()));
+        }
+        report.setNetRevenue(report.getRevenue().subtract(report.getCanceledRevenue()));
+        report.setDays(toDailySalesResponses(days));
+        return report;
+    }
+}
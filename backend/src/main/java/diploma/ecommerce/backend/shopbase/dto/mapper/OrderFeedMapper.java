@@ -0,0 +1,11 @@
+package diploma.ecommerce.backend.shopbase.dto.mapper;
+
+import diploma.ecommerce.backend.shopbase.dto.response.OrderFeedEventResponse;
+import diploma.ecommerce.backend.shopbase.event.OrderChangedEvent;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface OrderFeedMapper {
+
+    OrderFeedEventResponse toOrderFeedEventResponse(OrderChangedEvent event);
+}
@@ -0,0 +1,11 @@
+package diploma.ecommerce.backend.shopbase.dto.mapper;
+
+import diploma.ecommerce.backend.shopbase.dto.response.OrderIntakeResponse;
+import diploma.ecommerce.backend.shopbase.model.OrderIntake;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface OrderIntakeMapper {
+
+    OrderIntakeResponse toOrderIntakeResponse(OrderIntake intake);
+}
@@ -2,6 +2,7 @@ package diploma.ecommerce.backend.shopbase.dto.mapper;
 
 import diploma.ecommerce.backend.shopbase.dto.request.OrderItemCreateRequest;
 import diploma.ecommerce.backend.shopbase.dto.request.OrderItemUpdateRequest;
+import diploma.ecommerce.backend.shopbase.dto.request.OrderItemsBatchRequest;
 import diploma.ecommerce.backend.shopbase.dto.response.OrderItemResponse;
 import diploma.ecommerce.backend.shopbase.model.OrderItem;
 import diploma.ecommerce.backend.shopbase.model.Product;
@@ -21,6 +22,7 @@ public interface OrderItemMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "tenant", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
     @Mapping(target = "order", ignore = true)
     @Mapping(target = "unitPrice", ignore = true)
     @Mapping(target = "totalPrice", ignore = true)
@@ -29,6 +31,7 @@ public interface OrderItemMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "tenant", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
     @Mapping(target = "order", ignore = true)
     @Mapping(target = "product", ignore = true)
     @Mapping(target = "unitPrice", ignore = true)
@@ -37,12 +40,22 @@ public interface OrderItemMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "tenant", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
     @Mapping(target = "order", ignore = true)
     @Mapping(target = "product", ignore = true)
     @Mapping(target = "unitPrice", ignore = true)
     @Mapping(target = "totalPrice", ignore = true)
     OrderItem toOrderItem(OrderItemUpdateRequest request);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "tenant", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
+    @Mapping(target = "order", ignore = true)
+    @Mapping(target = "unitPrice", ignore = true)
+    @Mapping(target = "totalPrice", ignore = true)
+    @Mapping(source = "productId", target = "product", qualifiedByName = "productIdToProductShell")
+    OrderItem toOrderItem(OrderItemsBatchRequest.Item item);
+
     @Named("productIdToProductShell")
     default Product productIdToProductShell(Long productId) {
         if (productId == null) {
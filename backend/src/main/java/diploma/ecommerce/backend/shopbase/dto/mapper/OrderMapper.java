@@ -21,10 +21,12 @@ public interface OrderMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "tenant", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "totalAmount", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(source = "customerId", target = "customer", qualifiedByName = "customerIdToUserShell")
     @Mapping(source = "addressId", target = "address", qualifiedByName = "addressIdToAddressShell")
     Order toOrder(OrderCreateRequest request);
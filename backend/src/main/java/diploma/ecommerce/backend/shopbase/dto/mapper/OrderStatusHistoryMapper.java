@@ -0,0 +1,17 @@
+package diploma.ecommerce.backend.shopbase.dto.mapper;
+
+import diploma.ecommerce.backend.shopbase.dto.response.OrderStatusHistoryResponse;
+import diploma.ecommerce.backend.shopbase.model.OrderStatusHistory;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface OrderStatusHistoryMapper {
+
+    @Mapping(source = "order.id", target = "orderId")
+    @Mapping(source = "status.id", target = "statusId")
+    @Mapping(source = "status.statusName", target = "statusName")
+    @Mapping(source = "previousStatus.id", target = "previousStatusId")
+    @Mapping(source = "previousStatus.statusName", target = "previousStatusName")
+    OrderStatusHistoryResponse toOrderStatusHistoryResponse(OrderStatusHistory history);
+}
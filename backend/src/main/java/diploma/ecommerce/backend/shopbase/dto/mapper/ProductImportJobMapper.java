@@ -0,0 +1,11 @@
+package diploma.ecommerce.backend.shopbase.dto.mapper;
+
+import diploma.ecommerce.backend.shopbase.dto.response.ProductImportJobResponse;
+import diploma.ecommerce.backend.shopbase.importer.ProductImportJob;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface ProductImportJobMapper {
+
+    ProductImportJobResponse toProductImportJobResponse(ProductImportJob job);
+}
@@ -1,12 +1,17 @@
 package diploma.ecommerce.backend.shopbase.dto.mapper;
 
+import java.util.Comparator;
+import java.util.List;
+
 import diploma.ecommerce.backend.shopbase.dto.request.ProductCreateRequest;
 import diploma.ecommerce.backend.shopbase.dto.request.ProductUpdateRequest;
 import diploma.ecommerce.backend.shopbase.dto.response.ProductResponse;
 import diploma.ecommerce.backend.shopbase.model.Product;
+import diploma.ecommerce.backend.shopbase.model.ProductPhoto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(componentModel = "spring",
@@ -14,13 +19,41 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 public interface ProductMapper {
 
+    @Mapping(target = "imageUrl", source = "photos", qualifiedByName = "cardImageUrl")
     ProductResponse toProductResponse(Product product);
 
+    // Главная фотография, а без нее первая по порядку; сетке хватает копии для карточки
+    @Named("cardImageUrl")
+    default String cardImageUrl(List<ProductPhoto> photos) {
+        if (photos == null || photos.isEmpty()) {
+            return null;
+        }
+        ProductPhoto photo = photos.stream()
+                .filter(ProductPhoto::isMain)
+                .findFirst()
+                .orElseGet(() -> photos.stream()
+                        .min(Comparator.comparing(ProductPhoto::getDisplayOrder,
+                                Comparator.nullsLast(Comparator.naturalOrder())))
+                        .orElseThrow());
+        return photoCardUrl(photo);
+    }
+
+    @Named("photoCardUrl")
+    default String photoCardUrl(ProductPhoto photo) {
+        return photo.getCardPath() != null ? photo.getCardPath() : photo.getFilePath();
+    }
+
+    // Фотографии подставляет вызывающий код, уже загрузивший их одним запросом на всю страницу
+    @Mapping(target = "imageUrl", ignore = true)
+    @Mapping(target = "photos", ignore = true)
+    ProductResponse toProductResponseWithoutPhotos(Product product);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "tenant", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "photos", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Product toProduct(ProductCreateRequest request);
 
     @Mapping(target = "id", ignore = true)
@@ -35,5 +68,6 @@ public interface ProductMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "photos", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateProductFromRequest(ProductUpdateRequest request, @MappingTarget Product product);
 }
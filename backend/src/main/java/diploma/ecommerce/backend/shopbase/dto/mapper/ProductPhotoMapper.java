@@ -18,6 +18,9 @@ public interface ProductPhotoMapper {
     @Mapping(target = "tenant", ignore = true)
     @Mapping(target = "product", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "thumbnailPath", ignore = true)
+    @Mapping(target = "cardPath", ignore = true)
+    @Mapping(target = "fullPath", ignore = true)
     @Mapping(target = "main", source = "main", defaultValue = "false")
     ProductPhoto toProductPhoto(ProductPhotoCreateRequest request);
 
@@ -26,5 +29,8 @@ public interface ProductPhotoMapper {
     @Mapping(target = "product", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "filePath", ignore = true)
+    @Mapping(target = "thumbnailPath", ignore = true)
+    @Mapping(target = "cardPath", ignore = true)
+    @Mapping(target = "fullPath", ignore = true)
     void updateProductPhotoFromRequest(ProductPhotoUpdateRequest request, @MappingTarget ProductPhoto productPhoto);
 }
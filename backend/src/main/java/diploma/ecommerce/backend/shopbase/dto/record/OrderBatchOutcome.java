@@ -0,0 +1,22 @@
+package diploma.ecommerce.backend.shopbase.dto.record;
+
+import diploma.ecommerce.backend.shopbase.model.Order;
+
+/**
+ * Результат одного заказа из пачки: либо созданный заказ, либо причина отказа.
+ * Отказ по одному заказу не откатывает остальные заказы пачки.
+ */
+public record OrderBatchOutcome(Order order, String failureReason) {
+
+    public static OrderBatchOutcome created(Order order) {
+        return new OrderBatchOutcome(order, null);
+    }
+
+    public static OrderBatchOutcome rejected(String failureReason) {
+        return new OrderBatchOutcome(null, failureReason);
+    }
+
+    public boolean isCreated() {
+        return order != null;
+    }
+}
@@ -0,0 +1,9 @@
+package diploma.ecommerce.backend.shopbase.dto.record;
+
+import diploma.ecommerce.backend.shopbase.model.Order;
+
+/**
+ * Результат оформления заказа: replayed = true, если заказ уже был создан запросом с тем же Idempotency-Key.
+ */
+public record OrderCreationResult(Order order, boolean replayed) {
+}
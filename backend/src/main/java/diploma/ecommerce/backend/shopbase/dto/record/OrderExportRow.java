@@ -0,0 +1,21 @@
+package diploma.ecommerce.backend.shopbase.dto.record;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Строка выгрузки заказов. Проекция читается напрямую из запроса и не попадает в persistence context.
+ */
+public record OrderExportRow(
+        Long orderId,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String status,
+        Long customerId,
+        String customerEmail,
+        String customerFirstName,
+        String customerLastName,
+        BigDecimal totalAmount,
+        String comment
+) {
+}
@@ -0,0 +1,7 @@
+package diploma.ecommerce.backend.shopbase.dto.record;
+
+/**
+ * Категория активного товара для счетчиков категорий витрины.
+ */
+public record ProductCategoryRow(Long id, String category) {
+}
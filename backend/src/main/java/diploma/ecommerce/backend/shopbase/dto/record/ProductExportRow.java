@@ -0,0 +1,19 @@
+package diploma.ecommerce.backend.shopbase.dto.record;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Строка выгрузки товаров. Колонки CSV совместимы с форматом импорта каталога.
+ */
+public record ProductExportRow(
+        Long id,
+        String name,
+        String description,
+        BigDecimal price,
+        Integer stockQuantity,
+        String category,
+        Boolean active,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,7 @@
+package diploma.ecommerce.backend.shopbase.dto.record;
+
+/**
+ * Ошибка обработки строки файла импорта.
+ */
+public record ProductImportRowError(long line, String message) {
+}
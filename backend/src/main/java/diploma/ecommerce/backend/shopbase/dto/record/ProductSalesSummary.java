@@ -0,0 +1,18 @@
+package diploma.ecommerce.backend.shopbase.dto.record;
+
+import java.math.BigDecimal;
+
+/**
+ * Продажи товара за период, свернутые из дневных агрегатов.
+ * Название пустое, если товар уже удален.
+ */
+public record ProductSalesSummary(
+        Long productId,
+        String name,
+        Long ordersCount,
+        Long unitsSold,
+        BigDecimal revenue,
+        Long canceledUnits,
+        BigDecimal canceledRevenue
+) {
+}
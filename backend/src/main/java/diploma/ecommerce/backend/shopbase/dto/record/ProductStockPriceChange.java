@@ -0,0 +1,10 @@
+package diploma.ecommerce.backend.shopbase.dto.record;
+
+import java.math.BigDecimal;
+
+/**
+ * Изменение остатка и/или цены одного товара в массовом обновлении.
+ * Товар задается идентификатором, а при его отсутствии - названием; {@code null} в значении - не менять поле.
+ */
+public record ProductStockPriceChange(Long productId, String name, Integer stockQuantity, BigDecimal price) {
+}
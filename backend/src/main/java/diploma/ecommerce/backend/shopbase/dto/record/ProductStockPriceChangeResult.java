@@ -0,0 +1,17 @@
+package diploma.ecommerce.backend.shopbase.dto.record;
+
+import java.math.BigDecimal;
+
+/**
+ * Результат применения изменения с позицией {@code index} в переданном списке.
+ * {@code applied = false} - товар найден, но уже изменен другой позицией того же списка.
+ */
+public record ProductStockPriceChangeResult(
+        int index,
+        Long productId,
+        boolean applied,
+        Integer stockQuantity,
+        BigDecimal price,
+        Long version
+) {
+}
@@ -0,0 +1,10 @@
+package diploma.ecommerce.backend.shopbase.dto.record;
+
+import java.time.LocalDateTime;
+
+/**
+ * Тема тенанта и время ее последнего изменения: по ним проверяется актуальность кэша публичной темы.
+ * У тенанта без темы оба поля равны null.
+ */
+public record TenantThemeVersion(Long themeId, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,49 @@
+package diploma.ecommerce.backend.shopbase.dto.request;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Завершение прямой загрузки файла в хранилище")
+public class DirectUploadCompleteRequest {
+
+    @Schema(description = "Ключ объекта из ответа на запрос загрузки", example = "tenant_1/products/1f0c2d9e.jpg",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotBlank(message = "Object key is required")
+    private String key;
+
+    @Schema(description = "ID составной загрузки; не указывается для загрузки одним запросом", nullable = true)
+    private String uploadId;
+
+    @Schema(description = "Загруженные части составной загрузки", nullable = true)
+    @Size(max = 10000, message = "Upload cannot contain more than 10000 parts")
+    @Valid
+    private List<Part> parts;
+
+    @Data
+    @NoArgsConstructor
+    @Schema(description = "Загруженная часть файла")
+    public static class Part {
+
+        @Schema(description = "Номер части (с 1)", example = "1")
+        @NotNull
+        @Min(1)
+        @Max(10000)
+        private Integer partNumber;
+
+        @Schema(description = "ETag из ответа хранилища на загрузку части",
+                example = "\"9b2cf535f27731c974343645a3985328\"")
+        @NotBlank
+        private String etag;
+    }
+}
@@ -0,0 +1,31 @@
+package diploma.ecommerce.backend.shopbase.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Запрос на загрузку файла напрямую в хранилище")
+public class DirectUploadRequest {
+
+    @Schema(description = "Имя исходного файла (используется только расширение)", example = "watch.jpg",
+            nullable = true)
+    @Size(max = 255)
+    private String fileName;
+
+    @Schema(description = "Тип содержимого", example = "image/jpeg", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotBlank(message = "Content type is required")
+    @Pattern(regexp = "^image/[\\w.+-]+$", message = "Only image files are allowed")
+    private String contentType;
+
+    @Schema(description = "Размер файла в байтах", example = "2483215", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "File size is required")
+    @Positive(message = "File size must be positive")
+    private Long size;
+}
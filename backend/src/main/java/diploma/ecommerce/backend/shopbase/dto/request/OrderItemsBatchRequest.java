@@ -0,0 +1,43 @@
+package diploma.ecommerce.backend.shopbase.dto.request;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Запрос на пакетное изменение позиций заказа")
+public class OrderItemsBatchRequest {
+
+    @Schema(description = "Заменить состав заказа целиком: позиции, не указанные в запросе, удаляются",
+            example = "false", defaultValue = "false")
+    private boolean replace;
+
+    @Schema(description = "Позиции заказа", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "Items cannot be null")
+    @Size(max = 500, message = "Batch cannot contain more than 500 items")
+    @Valid
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @Schema(description = "Позиция пакетного изменения. Количество 0 удаляет позицию из заказа")
+    public static class Item {
+
+        @Schema(description = "ID продукта", example = "5", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "Product ID cannot be null")
+        private Long productId;
+
+        @Schema(description = "Итоговое количество единиц продукта в заказе", example = "2",
+                requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "Quantity cannot be null")
+        @Min(value = 0, message = "Quantity cannot be negative")
+        private Integer quantity;
+    }
+}
@@ -2,6 +2,7 @@ package diploma.ecommerce.backend.shopbase.dto.request;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -15,5 +16,6 @@ public class OrderUpdateRequest {
     private Long statusId;
 
     @Schema(description = "Комментарий к изменению статуса (опционально)", example = "Заказ передан в службу доставки")
+    @Size(max = 1000, message = "Comment cannot exceed 1000 characters")
     private String comment;
 }
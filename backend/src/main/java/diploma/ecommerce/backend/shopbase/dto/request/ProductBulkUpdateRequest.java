@@ -0,0 +1,49 @@
+package diploma.ecommerce.backend.shopbase.dto.request;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Запрос на массовое обновление остатков и цен товаров")
+public class ProductBulkUpdateRequest {
+
+    @Schema(description = "Позиции обновления", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "Bulk update must contain at least one item")
+    @Size(max = 5000, message = "Bulk update cannot contain more than 5000 items")
+    @Valid
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @Schema(description = "Позиция массового обновления. Товар задается ID или названием")
+    public static class Item {
+
+        @Schema(description = "ID товара", example = "101", nullable = true)
+        private Long productId;
+
+        @Schema(description = "Название товара (используется, если ID не указан)", example = "Умные часы Pro",
+                nullable = true)
+        @Size(max = 255)
+        private String name;
+
+        @Schema(description = "Новое количество на складе", example = "45", nullable = true)
+        @Min(value = 0, message = "Stock quantity cannot be negative")
+        private Integer stockQuantity;
+
+        @Schema(description = "Новая цена", example = "209.99", nullable = true)
+        @DecimalMin(value = "0.0", inclusive = false, message = "Price must be positive")
+        @Digits(integer = 8, fraction = 2, message = "Price must have at most 8 integer and 2 fraction digits")
+        private BigDecimal price;
+    }
+}
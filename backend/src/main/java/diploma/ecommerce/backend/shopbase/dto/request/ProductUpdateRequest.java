@@ -34,4 +34,8 @@ public class ProductUpdateRequest {
 
     @Schema(description = "Флаг активности (доступен ли для продажи)", example = "true")
     private Boolean active;
+
+    @Schema(description = "Версия продукта, полученная при чтении. Если указана и устарела, обновление " +
+            "отклоняется с кодом 409", example = "3", nullable = true)
+    private Long version;
 }
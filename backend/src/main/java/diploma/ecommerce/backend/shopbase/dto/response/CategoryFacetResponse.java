@@ -0,0 +1,20 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Категория витрины с числом активных товаров")
+public class CategoryFacetResponse {
+
+    @Schema(description = "Название категории; совпадает со значением фильтра category в списке товаров",
+            example = "Электроника")
+    private String name;
+
+    @Schema(description = "Число активных товаров категории", example = "12")
+    private int productCount;
+}
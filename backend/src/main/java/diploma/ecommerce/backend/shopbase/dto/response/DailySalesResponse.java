@@ -0,0 +1,41 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Продажи магазина за день")
+public class DailySalesResponse {
+
+    @Schema(description = "Дата", example = "2023-10-27", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDate date;
+
+    @Schema(description = "Создано заказов", example = "42", accessMode = Schema.AccessMode.READ_ONLY)
+    private long ordersCount;
+
+    @Schema(description = "Продано единиц товара", example = "97", accessMode = Schema.AccessMode.READ_ONLY)
+    private long unitsSold;
+
+    @Schema(description = "Выручка по созданным заказам", example = "15420.50", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private BigDecimal revenue;
+
+    @Schema(description = "Отменено или возвращено заказов", example = "3", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private long canceledOrders;
+
+    @Schema(description = "Единиц товара в отмененных заказах", example = "5", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private long canceledUnits;
+
+    @Schema(description = "Сумма отмененных заказов", example = "820.00", accessMode = Schema.AccessMode.READ_ONLY)
+    private BigDecimal canceledRevenue;
+
+    @Schema(description = "Выручка за вычетом отмен", example = "14600.50", accessMode = Schema.AccessMode.READ_ONLY)
+    private BigDecimal netRevenue;
+}
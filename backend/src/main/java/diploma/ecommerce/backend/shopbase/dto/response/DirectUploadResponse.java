@@ -0,0 +1,60 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Подписанные адреса для загрузки файла напрямую в хранилище")
+public class DirectUploadResponse {
+
+    @Schema(description = "Ключ объекта в хранилище", example = "tenant_1/products/1f0c2d9e.jpg",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private String key;
+
+    @Schema(description = "Адрес файла после завершения загрузки",
+            example = "https://cdn.diploma.ru/shopbase/tenant_1/products/1f0c2d9e.jpg",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private String fileUrl;
+
+    @Schema(description = "Адрес для PUT-запроса с файлом; пуст для составной загрузки", nullable = true,
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private String uploadUrl;
+
+    @Schema(description = "ID составной загрузки", nullable = true, accessMode = Schema.AccessMode.READ_ONLY)
+    private String uploadId;
+
+    @Schema(description = "Размер части составной загрузки в байтах", example = "8388608", nullable = true,
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private Long partSize;
+
+    @Schema(description = "Адреса для PUT-запросов с частями файла", nullable = true,
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private List<PartUrl> parts;
+
+    @Schema(description = "Заголовки, которые нужно передать вместе с файлом (входят в подпись)",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private Map<String, String> headers;
+
+    @Schema(description = "Срок действия адресов", accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant expiresAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Адрес для загрузки части файла")
+    public static class PartUrl {
+
+        @Schema(description = "Номер части (с 1)", example = "1")
+        private int partNumber;
+
+        @Schema(description = "Подписанный адрес для PUT-запроса")
+        private String url;
+    }
+}
@@ -0,0 +1,38 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import diploma.ecommerce.backend.shopbase.event.OrderChangedEvent;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Событие ленты заказов: создание заказа или смена статуса")
+public class OrderFeedEventResponse {
+
+    @Schema(description = "Тип события", example = "CREATED", accessMode = Schema.AccessMode.READ_ONLY)
+    private OrderChangedEvent.Type type;
+
+    @Schema(description = "ID заказа", example = "55", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long orderId;
+
+    @Schema(description = "Текущий статус заказа", example = "Paid", accessMode = Schema.AccessMode.READ_ONLY)
+    private String status;
+
+    @Schema(description = "Предыдущий статус заказа", example = "Created", nullable = true, accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private String previousStatus;
+
+    @Schema(description = "Сумма заказа", example = "1275.00", accessMode = Schema.AccessMode.READ_ONLY)
+    private BigDecimal totalAmount;
+
+    @Schema(description = "ID покупателя", example = "12", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long customerId;
+
+    @Schema(description = "Дата и время события", example = "2023-10-27T11:00:00", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private LocalDateTime occurredAt;
+}
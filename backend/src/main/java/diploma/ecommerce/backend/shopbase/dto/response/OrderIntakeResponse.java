@@ -0,0 +1,37 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import diploma.ecommerce.backend.shopbase.model.OrderIntake;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Состояние заявки на заказ в очереди асинхронного приема")
+public class OrderIntakeResponse {
+
+    @Schema(description = "Номер заявки для проверки статуса", example = "3f2b7c1e-5d8a-4a8e-9f3b-1c2d3e4f5a6b",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private UUID ticket;
+
+    @Schema(description = "Статус заявки", example = "PENDING", accessMode = Schema.AccessMode.READ_ONLY)
+    private OrderIntake.Status status;
+
+    @Schema(description = "ID созданного заказа", example = "55", nullable = true, accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private Long orderId;
+
+    @Schema(description = "Причина отказа", nullable = true, accessMode = Schema.AccessMode.READ_ONLY)
+    private String errorMessage;
+
+    @Schema(description = "Дата и время постановки в очередь", example = "2023-10-27T10:00:00", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Дата и время последнего изменения", example = "2023-10-27T10:00:01", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,42 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Запись истории изменения статуса заказа")
+public class OrderStatusHistoryResponse {
+
+    @Schema(description = "ID записи истории", example = "120", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long id;
+
+    @Schema(description = "ID заказа", example = "55", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long orderId;
+
+    @Schema(description = "ID установленного статуса", example = "2", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long statusId;
+
+    @Schema(description = "Название установленного статуса", example = "Paid", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private String statusName;
+
+    @Schema(description = "ID предыдущего статуса", example = "1", nullable = true, accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private Long previousStatusId;
+
+    @Schema(description = "Название предыдущего статуса", example = "Created", nullable = true, accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private String previousStatusName;
+
+    @Schema(description = "Комментарий к изменению статуса", example = "Заказ передан в службу доставки", nullable
+            = true, accessMode = Schema.AccessMode.READ_ONLY)
+    private String comment;
+
+    @Schema(description = "Дата и время изменения статуса", example = "2023-10-27T11:00:00", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,61 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат массового обновления остатков и цен")
+public class ProductBulkUpdateResponse {
+
+    @Schema(description = "Обновлено товаров", example = "998", accessMode = Schema.AccessMode.READ_ONLY)
+    private int updated;
+
+    @Schema(description = "Позиций, которые не были применены", example = "2", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private int failed;
+
+    @Schema(description = "Результаты по позициям в порядке запроса", accessMode = Schema.AccessMode.READ_ONLY)
+    private List<ItemResult> items;
+
+    public enum Status {
+        UPDATED, NOT_FOUND, DUPLICATE, INVALID
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Результат обработки позиции")
+    public static class ItemResult {
+
+        @Schema(description = "Номер позиции в запросе (с 0)", example = "0")
+        private int index;
+
+        @Schema(description = "ID товара", example = "101", nullable = true)
+        private Long productId;
+
+        @Schema(description = "Название товара из запроса", nullable = true)
+        private String name;
+
+        @Schema(description = "Итог обработки позиции", example = "UPDATED")
+        private Status status;
+
+        @Schema(description = "Количество на складе после обновления", example = "45", nullable = true)
+        private Integer stockQuantity;
+
+        @Schema(description = "Цена после обновления", example = "209.99", nullable = true)
+        private BigDecimal price;
+
+        @Schema(description = "Версия товара после обновления", example = "4", nullable = true)
+        private Long version;
+
+        @Schema(description = "Причина, если позиция не применена", nullable = true)
+        private String message;
+    }
+}
@@ -0,0 +1,57 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.dto.record.ProductImportRowError;
+import diploma.ecommerce.backend.shopbase.importer.ProductImportJob;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Состояние задачи импорта товаров")
+public class ProductImportJobResponse {
+
+    @Schema(description = "ID задачи импорта", example = "3f2b7c1e-5d8a-4a8e-9f3b-1c2d3e4f5a6b", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private String id;
+
+    @Schema(description = "Статус задачи", example = "RUNNING", accessMode = Schema.AccessMode.READ_ONLY)
+    private ProductImportJob.Status status;
+
+    @Schema(description = "Имя загруженного файла", example = "catalog.csv", nullable = true, accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private String fileName;
+
+    @Schema(description = "Обработано строк файла", example = "25000", accessMode = Schema.AccessMode.READ_ONLY)
+    private long processedRows;
+
+    @Schema(description = "Создано или обновлено товаров", example = "24990", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private long importedRows;
+
+    @Schema(description = "Строк с ошибками", example = "10", accessMode = Schema.AccessMode.READ_ONLY)
+    private long failedRows;
+
+    @Schema(description = "Ошибки по строкам (не более 1000)", accessMode = Schema.AccessMode.READ_ONLY)
+    private List<ProductImportRowError> errors;
+
+    @Schema(description = "Список ошибок усечен", example = "false", accessMode = Schema.AccessMode.READ_ONLY)
+    private boolean errorsTruncated;
+
+    @Schema(description = "Причина сбоя задачи", nullable = true, accessMode = Schema.AccessMode.READ_ONLY)
+    private String message;
+
+    @Schema(description = "Дата и время постановки в очередь", example = "2023-10-27T10:00:00", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Дата и время начала обработки", nullable = true, accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private LocalDateTime startedAt;
+
+    @Schema(description = "Дата и время завершения", nullable = true, accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime finishedAt;
+}
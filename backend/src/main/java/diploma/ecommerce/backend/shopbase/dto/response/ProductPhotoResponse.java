@@ -19,6 +19,18 @@ public class ProductPhotoResponse {
             Schema.AccessMode.READ_ONLY)
     private String filePath;
 
+    @Schema(description = "Миниатюра (до 160 px по большей стороне); пусто, пока копии не созданы",
+            example = "/uploads/tenant_1/products/watch_pro_1-thumb.jpg", accessMode = Schema.AccessMode.READ_ONLY)
+    private String thumbnailPath;
+
+    @Schema(description = "Копия для карточки товара (до 480 px)",
+            example = "/uploads/tenant_1/products/watch_pro_1-card.jpg", accessMode = Schema.AccessMode.READ_ONLY)
+    private String cardPath;
+
+    @Schema(description = "Копия для страницы товара (до 1280 px)",
+            example = "/uploads/tenant_1/products/watch_pro_1-full.jpg", accessMode = Schema.AccessMode.READ_ONLY)
+    private String fullPath;
+
     @Schema(description = "Порядок отображения", example = "0")
     private Integer displayOrder;
 
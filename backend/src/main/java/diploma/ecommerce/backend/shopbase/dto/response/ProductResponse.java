@@ -42,6 +42,15 @@ public class ProductResponse {
             = Schema.AccessMode.READ_ONLY)
     private LocalDateTime updatedAt;
 
+    @Schema(description = "Версия продукта для оптимистической блокировки", example = "3", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private Long version;
+
+    @Schema(description = "Изображение для сетки товаров: копия главной фотографии для карточки, а пока копии " +
+            "не созданы - оригинал", example = "/uploads/tenant_1/products/watch_pro_1-card.jpg", nullable = true,
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private String imageUrl;
+
     @Schema(description = "Список фотографий продукта", accessMode = Schema.AccessMode.READ_ONLY)
     private List<ProductPhotoResponse> photos;
 }
@@ -0,0 +1,38 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Продажи товара за период")
+public class ProductSalesResponse {
+
+    @Schema(description = "ID товара", example = "101", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long productId;
+
+    @Schema(description = "Название товара (пусто, если товар удален)", example = "Умные часы Pro", nullable = true,
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private String name;
+
+    @Schema(description = "Заказов с товаром", example = "87", accessMode = Schema.AccessMode.READ_ONLY)
+    private long ordersCount;
+
+    @Schema(description = "Продано единиц", example = "120", accessMode = Schema.AccessMode.READ_ONLY)
+    private long unitsSold;
+
+    @Schema(description = "Выручка", example = "25198.80", accessMode = Schema.AccessMode.READ_ONLY)
+    private BigDecimal revenue;
+
+    @Schema(description = "Единиц в отмененных заказах", example = "4", accessMode = Schema.AccessMode.READ_ONLY)
+    private long canceledUnits;
+
+    @Schema(description = "Сумма отмен", example = "839.96", accessMode = Schema.AccessMode.READ_ONLY)
+    private BigDecimal canceledRevenue;
+
+    @Schema(description = "Выручка за вычетом отмен", example = "24358.84", accessMode = Schema.AccessMode.READ_ONLY)
+    private BigDecimal netRevenue;
+}
@@ -0,0 +1,50 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Отчет о продажах магазина за период")
+public class SalesReportResponse {
+
+    @Schema(description = "Начало периода (включительно)", example = "2023-10-01", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private LocalDate from;
+
+    @Schema(description = "Конец периода (включительно)", example = "2023-10-31", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private LocalDate to;
+
+    @Schema(description = "Создано заказов за период", example = "1250", accessMode = Schema.AccessMode.READ_ONLY)
+    private long ordersCount;
+
+    @Schema(description = "Продано единиц товара", example = "3100", accessMode = Schema.AccessMode.READ_ONLY)
+    private long unitsSold;
+
+    @Schema(description = "Выручка по созданным заказам", example = "452000.00", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private BigDecimal revenue;
+
+    @Schema(description = "Отменено или возвращено заказов", example = "40", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private long canceledOrders;
+
+    @Schema(description = "Единиц товара в отмененных заказах", example = "75", accessMode =
+            Schema.AccessMode.READ_ONLY)
+    private long canceledUnits;
+
+    @Schema(description = "Сумма отмененных заказов", example = "12500.00", accessMode = Schema.AccessMode.READ_ONLY)
+    private BigDecimal canceledRevenue;
+
+    @Schema(description = "Выручка за вычетом отмен", example = "439500.00", accessMode = Schema.AccessMode.READ_ONLY)
+    private BigDecimal netRevenue;
+
+    @Schema(description = "Продажи по дням (дни без заказов - нулевые)", accessMode = Schema.AccessMode.READ_ONLY)
+    private List<DailySalesResponse> days;
+}
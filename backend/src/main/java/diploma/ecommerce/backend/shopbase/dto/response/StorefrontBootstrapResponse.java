@@ -0,0 +1,64 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Все данные для первой отрисовки витрины одним ответом")
+public class StorefrontBootstrapResponse {
+
+    // Готовый JSON из кэша публичной темы вставляется в ответ без повторной сериализации
+    @JsonRawValue
+    @Schema(description = "Публичные настройки темы", implementation = ThemeResponse.class)
+    private String theme;
+
+    @Schema(description = "Публичные сведения о магазине")
+    private Store store;
+
+    @Schema(description = "Категории активных товаров по алфавиту с числом товаров")
+    private List<CategoryFacetResponse> categories;
+
+    @Schema(description = "Первая страница активных товаров по названию, у каждого только главная фотография")
+    private List<ProductResponse> products;
+
+    @Schema(description = "Всего активных товаров", example = "134")
+    private long totalProducts;
+
+    @Schema(description = "Всего страниц при размере страницы pageSize", example = "7")
+    private int totalPages;
+
+    @Schema(description = "Размер страницы товаров", example = "20")
+    private int pageSize;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Сведения о магазине без ключей интеграций")
+    public static class Store {
+
+        @Schema(description = "ID магазина", example = "1")
+        private Long id;
+
+        @Schema(description = "Название магазина", example = "Магазин электроники")
+        private String name;
+
+        @Schema(description = "Поддомен магазина", example = "electronics")
+        private String subdomain;
+
+        @Schema(description = "Контактный телефон", example = "+7 900 123-45-67", nullable = true)
+        private String contactPhone;
+
+        @Schema(description = "Контактный email", example = "shop@example.com", nullable = true)
+        private String contactEmail;
+    }
+}
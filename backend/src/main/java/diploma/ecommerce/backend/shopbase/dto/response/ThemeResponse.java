@@ -100,4 +100,8 @@ public class ThemeResponse {
 
     @Schema(description = "Тень для карточек", example = "0 4px 8px rgba(0,0,0,0.1)")
     private String cardShadow;
+
+    @Schema(description = "URL скомпилированной таблицы стилей темы; адрес меняется вместе с содержимым",
+            example = "/uploads/themes/theme-3f2a9c1b7d4e5f60.css")
+    private String stylesheetUrl;
 }
\ No newline at end of file
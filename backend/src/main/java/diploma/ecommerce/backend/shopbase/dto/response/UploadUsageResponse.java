@@ -0,0 +1,26 @@
+package diploma.ecommerce.backend.shopbase.dto.response;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Объем загруженных файлов магазина")
+public class UploadUsageResponse {
+
+    @Schema(description = "Занято байт", example = "52428800")
+    private long usedBytes;
+
+    @Schema(description = "Число файлов", example = "340")
+    private long fileCount;
+
+    @Schema(description = "Время последнего точного пересчета по каталогу или сохранения приращений")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,12 @@
+package diploma.ecommerce.backend.shopbase.event;
+
+import java.util.List;
+
+/**
+ * Событие изменения данных каталога, которое не сопровождается {@link ProductChangedEvent}: удаление товара,
+ * остатки из позиций заказа, импорт. Фотографии публикуют {@link ProductPhotosChangedEvent}. Пустой список
+ * товаров означает изменение без точного списка. Публикуется внутри транзакции и обрабатывается после ее
+ * фиксации.
+ */
+public record CatalogChangedEvent(Long tenantId, List<Long> productIds) {
+}
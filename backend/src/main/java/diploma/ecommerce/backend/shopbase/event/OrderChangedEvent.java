@@ -0,0 +1,25 @@
+package diploma.ecommerce.backend.shopbase.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Событие создания заказа или смены его статуса. Публикуется внутри транзакции и рассылается
+ * подписчикам ленты заказов после ее фиксации.
+ */
+public record OrderChangedEvent(
+        Long tenantId,
+        Long orderId,
+        Type type,
+        String status,
+        String previousStatus,
+        BigDecimal totalAmount,
+        Long customerId,
+        LocalDateTime occurredAt
+) {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED
+    }
+}
@@ -0,0 +1,9 @@
+package diploma.ecommerce.backend.shopbase.event;
+
+import java.util.UUID;
+
+/**
+ * Заявка поставлена в очередь приема заказов. Публикуется после вставки строки и будит простаивающие обработчики.
+ */
+public record OrderIntakeSubmittedEvent(Long tenantId, UUID ticket) {
+}
@@ -0,0 +1,7 @@
+package diploma.ecommerce.backend.shopbase.event;
+
+/**
+ * Событие изменения товара. Публикуется внутри транзакции и обрабатывается после ее фиксации.
+ */
+public record ProductChangedEvent(Long tenantId, Long productId) {
+}
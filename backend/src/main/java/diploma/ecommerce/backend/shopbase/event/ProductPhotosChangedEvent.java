@@ -0,0 +1,12 @@
+package diploma.ecommerce.backend.shopbase.event;
+
+import java.util.List;
+
+/**
+ * Событие изменения фотографий товаров: добавление, удаление, смена главной фотографии и готовые копии
+ * изображений. Категории и активность товаров не меняются, поэтому обновляются только версия каталога
+ * и кэш прокси. Пустой список товаров означает изменение без точного списка. Публикуется внутри
+ * транзакции и обрабатывается после ее фиксации.
+ */
+public record ProductPhotosChangedEvent(Long tenantId, List<Long> productIds) {
+}
@@ -0,0 +1,10 @@
+package diploma.ecommerce.backend.shopbase.event;
+
+import java.util.List;
+
+/**
+ * Событие массового изменения товаров: одно на пакет вместо отдельного события на каждый товар.
+ * Публикуется внутри транзакции и обрабатывается после ее фиксации.
+ */
+public record ProductsBulkChangedEvent(Long tenantId, List<Long> productIds) {
+}
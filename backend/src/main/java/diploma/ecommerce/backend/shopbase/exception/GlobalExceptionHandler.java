@@ -7,6 +7,8 @@ import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -93,7 +95,10 @@ public class GlobalExceptionHandler {
             EmailAlreadyExistsException.class,
             InsufficientStockException.class,
             DataIntegrityViolationException.class,
-            StatusNameAlreadyExistsException.class
+            StatusNameAlreadyExistsException.class,
+            OptimisticLockConflictException.class,
+            OptimisticLockingFailureException.class,
+            IdempotencyKeyInProgressException.class
     })
     public ResponseEntity<Map<String, Object>> handleConflictExceptions(
             RuntimeException ex, WebRequest request) {
@@ -106,6 +111,32 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(responseBody, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyReuseException(
+            IdempotencyKeyReuseException ex, WebRequest request) {
+        log.warn("Idempotency key reuse: {}", ex.getMessage());
+        Map<String, Object> responseBody = buildErrorResponseBody(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                ex.getMessage(),
+                request
+        );
+        return new ResponseEntity<>(responseBody, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(TenantBulkheadFullException.class)
+    public ResponseEntity<Map<String, Object>> handleTenantBulkheadFullException(
+            TenantBulkheadFullException ex, WebRequest request) {
+        log.warn("Tenant concurrency limit reached: {}", ex.getMessage());
+        Map<String, Object> responseBody = buildErrorResponseBody(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage(),
+                request
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(responseBody);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(
             IllegalArgumentException ex, WebRequest request) {
@@ -0,0 +1,24 @@
+package diploma.ecommerce.backend.shopbase.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, выбрасываемое, когда запрос с тем же ключом идемпотентности все еще выполняется
+ * и не завершился за время ожидания.
+ */
+@Getter
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyInProgressException(String idempotencyKey) {
+        super(String.format("Request with Idempotency-Key '%s' is still in progress, please retry later",
+                idempotencyKey));
+        this.idempotencyKey = idempotencyKey;
+    }
+}
@@ -0,0 +1,22 @@
+package diploma.ecommerce.backend.shopbase.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, выбрасываемое, когда ключ идемпотентности повторно использован с другим телом запроса.
+ */
+@Getter
+@ResponseStatus(value = HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyReuseException(String idempotencyKey) {
+        super(String.format("Idempotency-Key '%s' was already used with a different request", idempotencyKey));
+        this.idempotencyKey = idempotencyKey;
+    }
+}
@@ -0,0 +1,22 @@
+package diploma.ecommerce.backend.shopbase.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, выбрасываемое, когда сущность была изменена параллельным запросом
+ * и повтор операции не помог либо клиент передал устаревшую версию.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class OptimisticLockConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public OptimisticLockConflictException(String message) {
+        super(message);
+    }
+
+    public OptimisticLockConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
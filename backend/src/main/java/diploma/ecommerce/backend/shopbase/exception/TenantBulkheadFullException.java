@@ -0,0 +1,24 @@
+package diploma.ecommerce.backend.shopbase.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, выбрасываемое, когда тенант превысил лимит одновременных обращений к базе.
+ */
+@Getter
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class TenantBulkheadFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long tenantId;
+    private final long retryAfterSeconds;
+
+    public TenantBulkheadFullException(Long tenantId, long retryAfterSeconds) {
+        super(String.format("Too many concurrent requests for Tenant ID: %d, please retry later", tenantId));
+        this.tenantId = tenantId;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,25 @@
+package diploma.ecommerce.backend.shopbase.export;
+
+import java.util.Locale;
+
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    public static ExportFormat fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported export format: " + value + " (expected csv or ndjson)");
+        }
+    }
+}
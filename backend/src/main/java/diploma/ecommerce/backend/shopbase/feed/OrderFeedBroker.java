@@ -0,0 +1,214 @@
+package diploma.ecommerce.backend.shopbase.feed;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import diploma.ecommerce.backend.shopbase.dto.mapper.OrderFeedMapper;
+import diploma.ecommerce.backend.shopbase.dto.response.OrderFeedEventResponse;
+import diploma.ecommerce.backend.shopbase.event.OrderChangedEvent;
+import diploma.ecommerce.backend.shopbase.exception.TenantBulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Лента заказов по тенантам поверх SSE. Подключения держатся асинхронными запросами сервлета
+ * без выделенного потока; отправку выполняет небольшой общий исполнитель. Последние события
+ * тенанта хранятся в буфере, чтобы переподключившийся клиент получил пропущенное по Last-Event-ID.
+ * Лента локальна для узла: события других экземпляров бэкенда сюда не попадают.
+ */
+@Slf4j
+@Component
+public class OrderFeedBroker {
+
+    static final String SUBSCRIBERS_METRIC = "orders.feed.subscribers";
+    static final String DROPPED_METRIC = "orders.feed.dropped";
+    static final String RESYNC_EVENT = "resync";
+
+    private final ConcurrentMap<Long, TenantFeed> feeds = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Номера событий действительны только в пределах одного запуска приложения
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final OrderFeedMapper orderFeedMapper;
+    private final ExecutorService dispatchExecutor;
+    private final Counter droppedCounter;
+    private final int replaySize;
+    private final int queueCapacity;
+    private final int maxSubscribersPerTenant;
+    private final long timeoutMs;
+    private final long reconnectMs;
+    private final long retryAfterSeconds;
+
+    public OrderFeedBroker(
+            OrderFeedMapper orderFeedMapper,
+            MeterRegistry meterRegistry,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${app.orders.feed.dispatch-threads:4}") int dispatchThreads,
+            @Value("${app.orders.feed.replay-size:200}") int replaySize,
+            @Value("${app.orders.feed.queue-capacity:256}") int queueCapacity,
+            @Value("${app.orders.feed.max-subscribers-per-tenant:200}") int maxSubscribersPerTenant,
+            @Value("${app.orders.feed.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.orders.feed.reconnect-ms:3000}") long reconnectMs,
+            @Value("${app.orders.feed.retry-after-seconds:5}") long retryAfterSeconds
+    ) {
+        this.orderFeedMapper = orderFeedMapper;
+        this.dispatchExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-feed-", 0).factory())
+                : Executors.newFixedThreadPool(dispatchThreads,
+                        Thread.ofPlatform().name("order-feed-", 0).daemon(true).factory());
+        this.droppedCounter = Counter.builder(DROPPED_METRIC).register(meterRegistry);
+        Gauge.builder(SUBSCRIBERS_METRIC, subscriberCount, AtomicInteger::get).register(meterRegistry);
+        this.replaySize = replaySize;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribersPerTenant = maxSubscribersPerTenant;
+        this.timeoutMs = timeoutMs;
+        this.reconnectMs = reconnectMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    private static Supplier<SseEmitter.SseEventBuilder> resyncEvent(String id) {
+        return () -> SseEmitter.event()
+                .id(id)
+                .name(RESYNC_EVENT)
+                .data(Map.of("reason", "history-unavailable"), MediaType.APPLICATION_JSON);
+    }
+
+    public SseEmitter subscribe(Long tenantId, String lastEventId) {
+        TenantFeed feed = feeds.computeIfAbsent(tenantId, TenantFeed::new);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        OrderFeedSubscription subscription = new OrderFeedSubscription(
+                tenantId, emitter, queueCapacity, dispatchExecutor, closed -> unsubscribe(feed, closed)
+        );
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::complete);
+        emitter.onError(e -> subscription.close());
+
+        feed.subscribe(subscription, lastEventId);
+        log.debug("Order feed subscriber added for tenant {} (resume from {})", tenantId, lastEventId);
+        return emitter;
+    }
+
+    // Вызывается после фиксации транзакции; только ставит событие в очереди подписчиков
+    public void publish(OrderChangedEvent event) {
+        feeds.computeIfAbsent(event.tenantId(), TenantFeed::new)
+                .publish(orderFeedMapper.toOrderFeedEventResponse(event));
+    }
+
+    // Комментарий раз в несколько секунд не дает прокси закрыть простаивающее подключение
+    // и выявляет оборванные подключения
+    @Scheduled(fixedDelayString = "${app.orders.feed.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        for (TenantFeed feed : feeds.values()) {
+            for (OrderFeedSubscription subscription : feed.subscribers) {
+                if (subscription.isIdle()) {
+                    subscription.offer(() -> SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        feeds.values().forEach(feed -> feed.subscribers.forEach(OrderFeedSubscription::complete));
+        dispatchExecutor.shutdown();
+    }
+
+    private void unsubscribe(TenantFeed feed, OrderFeedSubscription subscription) {
+        if (feed.subscribers.remove(subscription)) {
+            subscriberCount.decrementAndGet();
+            if (subscription.isOverflowed()) {
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    private final class TenantFeed {
+
+        private final Long tenantId;
+        private final Set<OrderFeedSubscription> subscribers = ConcurrentHashMap.newKeySet();
+        private final Deque<OrderFeedEntry> replay = new ArrayDeque<>();
+        private long lastSequence;
+
+        private TenantFeed(Long tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        // Добавление в буфер и раздача подписчикам под одной блокировкой сохраняют порядок событий
+        synchronized void publish(OrderFeedEventResponse payload) {
+            long sequence = ++lastSequence;
+            OrderFeedEntry entry = new OrderFeedEntry(epoch + "-" + sequence, sequence, payload);
+            replay.addLast(entry);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (OrderFeedSubscription subscription : subscribers) {
+                subscription.offer(entry::toSseEvent);
+            }
+        }
+
+        // Проверка лимита и добавление под одной блокировкой: одновременные подключения не превысят лимит
+        synchronized void subscribe(OrderFeedSubscription subscription, String lastEventId) {
+            if (subscribers.size() >= maxSubscribersPerTenant) {
+                log.warn("Tenant {} reached {} order feed connections", tenantId, maxSubscribersPerTenant);
+                throw new TenantBulkheadFullException(tenantId, retryAfterSeconds);
+            }
+            subscribers.add(subscription);
+            subscriberCount.incrementAndGet();
+            subscription.offer(() -> SseEmitter.event().reconnectTime(reconnectMs).comment("connected"));
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return;
+            }
+
+            long resumeFrom = parseSequence(lastEventId.trim());
+            long oldest = replay.isEmpty() ? lastSequence + 1 : replay.getFirst().sequence();
+            boolean unavailable = resumeFrom < 0
+                    || resumeFrom > lastSequence
+                    || resumeFrom < oldest - 1
+                    || lastSequence - resumeFrom > queueCapacity - 1;
+            if (unavailable) {
+                // Пропущенные события вытеснены из буфера или относятся к прошлому запуску:
+                // клиент должен перечитать список заказов
+                log.debug("Order feed of tenant {} cannot resume from {}, requesting resync", tenantId, lastEventId);
+                subscription.offer(resyncEvent(epoch + "-" + lastSequence));
+                return;
+            }
+            for (OrderFeedEntry entry : replay) {
+                if (entry.sequence() > resumeFrom) {
+                    subscription.offer(entry::toSseEvent);
+                }
+            }
+        }
+
+        private long parseSequence(String lastEventId) {
+            int separator = lastEventId.lastIndexOf('-');
+            if (separator <= 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(lastEventId.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
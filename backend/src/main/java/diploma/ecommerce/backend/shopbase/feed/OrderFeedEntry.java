@@ -0,0 +1,25 @@
+package diploma.ecommerce.backend.shopbase.feed;
+
+import java.util.Locale;
+
+import diploma.ecommerce.backend.shopbase.dto.response.OrderFeedEventResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Событие ленты заказов с порядковым номером внутри тенанта. Хранится в буфере повтора
+ * и сериализуется отдельно для каждого подписчика: SseEventBuilder нельзя отправлять повторно.
+ */
+record OrderFeedEntry(String id, long sequence, OrderFeedEventResponse payload) {
+
+    static String eventName(OrderFeedEventResponse payload) {
+        return "order-" + payload.getType().name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    SseEmitter.SseEventBuilder toSseEvent() {
+        return SseEmitter.event()
+                .id(id)
+                .name(eventName(payload))
+                .data(payload, MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,118 @@
+package diploma.ecommerce.backend.shopbase.feed;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Одно SSE-подключение. События складываются в ограниченную очередь и отправляются задачей
+ * на общем исполнителе, поэтому публикующий поток никогда не ждет медленного клиента.
+ * Переполнение очереди закрывает подключение: клиент переподключится с Last-Event-ID.
+ */
+@Slf4j
+final class OrderFeedSubscription {
+
+    private static final int MAX_EVENTS_PER_DRAIN = 64;
+
+    private final Long tenantId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Supplier<SseEmitter.SseEventBuilder>> pending;
+    private final Executor executor;
+    private final Consumer<OrderFeedSubscription> onClose;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean overflowed;
+
+    OrderFeedSubscription(
+            Long tenantId,
+            SseEmitter emitter,
+            int capacity,
+            Executor executor,
+            Consumer<OrderFeedSubscription> onClose
+    ) {
+        this.tenantId = tenantId;
+        this.emitter = emitter;
+        this.pending = new ArrayBlockingQueue<>(capacity);
+        this.executor = executor;
+        this.onClose = onClose;
+    }
+
+    void offer(Supplier<SseEmitter.SseEventBuilder> event) {
+        if (closed.get()) {
+            return;
+        }
+        if (!pending.offer(event)) {
+            overflowed = true;
+            log.warn("Order feed subscriber of tenant {} is too slow, closing connection", tenantId);
+            complete();
+            return;
+        }
+        scheduleDrain();
+    }
+
+    boolean isIdle() {
+        return pending.isEmpty();
+    }
+
+    boolean isOverflowed() {
+        return overflowed;
+    }
+
+    // Освобождает подписку; само подключение закрывает контейнер или вызывающий код
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            pending.clear();
+            onClose.accept(this);
+        }
+    }
+
+    // complete() может ждать отправки, которая идет в другом потоке, поэтому тоже выполняется на исполнителе
+    void complete() {
+        close();
+        try {
+            executor.execute(emitter::complete);
+        } catch (RejectedExecutionException e) {
+            log.debug("Order feed executor is shut down, connection of tenant {} left to time out", tenantId);
+        }
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            close();
+        }
+    }
+
+    private void drain() {
+        int sent = 0;
+        try {
+            Supplier<SseEmitter.SseEventBuilder> next;
+            while (!closed.get() && sent < MAX_EVENTS_PER_DRAIN && (next = pending.poll()) != null) {
+                emitter.send(next.get());
+                sent++;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Контейнер сам завершит асинхронный запрос и вызовет onError/onCompletion
+            log.debug("Order feed connection of tenant {} is gone: {}", tenantId, e.getMessage());
+            close();
+            return;
+        }
+        draining.set(false);
+        if (!closed.get() && !pending.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package diploma.ecommerce.backend.shopbase.image;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Уменьшенные копии загруженного изображения. Размер задает наибольшую сторону; изображение меньше
+ * этого размера не увеличивается, а только пересохраняется без метаданных.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ImageVariant {
+    THUMBNAIL("thumb", 160),
+    CARD("card", 480),
+    FULL("full", 1280);
+
+    private final String suffix;
+    private final int maxSide;
+
+    public String fileName(String baseName, String extension) {
+        return baseName + "-" + suffix + "." + extension;
+    }
+}
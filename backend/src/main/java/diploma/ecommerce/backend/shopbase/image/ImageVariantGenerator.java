@@ -0,0 +1,189 @@
+package diploma.ecommerce.backend.shopbase.image;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import diploma.ecommerce.backend.shopbase.storage.UploadFiles;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Создает уменьшенные копии изображения рядом с оригиналом. Копии кодируются заново из пикселей,
+ * поэтому EXIF, GPS и прочие метаданные оригинала в них не попадают. Изображения с прозрачностью
+ * сохраняются в PNG, остальные - в JPEG.
+ */
+@Slf4j
+@Component
+public class ImageVariantGenerator {
+
+    // Защита от «бомб»: маленький файл может распаковаться в гигабайты пикселей
+    static final long MAX_SOURCE_PIXELS = 50_000_000L;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    static String baseName(Path original) {
+        String fileName = original.getFileName().toString();
+        int lastDotIndex = fileName.lastIndexOf('.');
+        return lastDotIndex > 0 ? fileName.substring(0, lastDotIndex) : fileName;
+    }
+
+    /**
+     * Ищет готовую копию: формат зависит от прозрачности оригинала, поэтому проверяются оба расширения.
+     */
+    static Path findExisting(Path original, ImageVariant variant) {
+        for (String extension : new String[]{"jpg", "png"}) {
+            Path candidate = original.resolveSibling(variant.fileName(baseName(original), extension));
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    // Уменьшение за один шаг дает «лесенку» на контрастных краях, поэтому размер уменьшается вдвое,
+    // пока не станет меньше удвоенного целевого, и только последний шаг идет сразу к цели
+    private static BufferedImage scale(BufferedImage source, int maxSide) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxSide / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        do {
+            if (width / 2 >= targetWidth && height / 2 >= targetHeight) {
+                width /= 2;
+                height /= 2;
+            } else {
+                width = targetWidth;
+                height = targetHeight;
+            }
+            current = draw(current, width, height, source.getColorModel().hasAlpha());
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean alpha) {
+        BufferedImage target = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            if (!alpha) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Создает недостающие копии и возвращает пути ко всем копиям изображения.
+     *
+     * @return пустая карта, если файл не является поддерживаемым изображением или слишком велик
+     */
+    public Map<ImageVariant, Path> generate(Path original) throws IOException {
+        Map<ImageVariant, Path> variants = new EnumMap<>(ImageVariant.class);
+        for (ImageVariant variant : ImageVariant.values()) {
+            Path existing = findExisting(original, variant);
+            if (existing != null) {
+                variants.put(variant, existing);
+            }
+        }
+        if (variants.size() == ImageVariant.values().length) {
+            return variants;
+        }
+
+        BufferedImage source = read(original, ImageVariant.FULL.getMaxSide());
+        if (source == null) {
+            return Map.of();
+        }
+        String extension = source.getColorModel().hasAlpha() ? "png" : "jpg";
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!variants.containsKey(variant)) {
+                Path target = original.resolveSibling(variant.fileName(baseName(original), extension));
+                write(scale(source, variant.getMaxSide()), extension, target);
+                variants.put(variant, target);
+            }
+        }
+        log.debug("Generated image variants for {}", original);
+        return variants;
+    }
+
+    /**
+     * Читает изображение с прореживанием: оригинал в десятки мегапикселей не нужен целиком
+     * для копии со стороной maxSide.
+     */
+    private BufferedImage read(Path original, int maxSide) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                log.debug("No image reader for {}", original);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    log.warn("Image {} is too large for variants: {}x{}", original, width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (maxSide * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void write(BufferedImage image, String extension, Path target) throws IOException {
+        UploadFiles.writeAtomically(target, tempPath -> {
+            if ("png".equals(extension)) {
+                ImageIO.write(image, "png", tempPath.toFile());
+            } else {
+                writeJpeg(image, tempPath);
+            }
+        });
+    }
+}
@@ -0,0 +1,164 @@
+package diploma.ecommerce.backend.shopbase.image;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import diploma.ecommerce.backend.shopbase.event.ProductPhotosChangedEvent;
+import diploma.ecommerce.backend.shopbase.repository.ProductPhotoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Фоновая обработка загруженных изображений: копии разных размеров создаются на отдельном пуле
+ * с ограниченной очередью, чтобы сжатие изображений не занимало потоки запросов и общий исполнитель.
+ * Если очередь заполнена, задача отбрасывается: витрина продолжает показывать оригинал, а копии
+ * будут созданы, когда файл добавят к товару.
+ * <p>
+ * Копии пишутся рядом с оригиналом в локальном каталоге загрузок, поэтому при объектном хранилище
+ * (app.storage.type=s3) обработка отключена и витрина показывает оригиналы.
+ */
+@Slf4j
+@Component
+public class ImageVariantProcessor {
+
+    static final String REJECTED_METRIC = "images.variants.rejected";
+    private static final String UPLOADS_PATH = "/uploads/";
+    private static final String LOCAL_STORAGE = "local";
+
+    private final ImageVariantGenerator imageVariantGenerator;
+    private final ProductPhotoRepository productPhotoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedCounter;
+    private final Path uploadRoot;
+    private final boolean enabled;
+
+    public ImageVariantProcessor(
+            ImageVariantGenerator imageVariantGenerator,
+            ProductPhotoRepository productPhotoRepository,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${app.upload.dir:uploads}") String uploadDir,
+            @Value("${app.storage.type:local}") String storageType,
+            @Value("${app.images.variant-workers:2}") int workers,
+            @Value("${app.images.variant-queue-capacity:200}") int queueCapacity
+    ) {
+        this.imageVariantGenerator = imageVariantGenerator;
+        this.productPhotoRepository = productPhotoRepository;
+        this.eventPublisher = eventPublisher;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("image-variants-", 0).daemon(true).factory());
+        this.rejectedCounter = Counter.builder(REJECTED_METRIC).register(meterRegistry);
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.enabled = LOCAL_STORAGE.equals(storageType);
+        if (!enabled) {
+            log.info("Image variants are disabled for {} storage", storageType);
+        }
+    }
+
+    private static String siblingUrl(String fileUrl, Path variant) {
+        return fileUrl.substring(0, fileUrl.lastIndexOf('/') + 1) + variant.getFileName();
+    }
+
+    private static ImageVariantUrls toUrls(String fileUrl, Map<ImageVariant, Path> variants) {
+        return new ImageVariantUrls(
+                siblingUrl(fileUrl, variants.get(ImageVariant.THUMBNAIL)),
+                siblingUrl(fileUrl, variants.get(ImageVariant.CARD)),
+                siblingUrl(fileUrl, variants.get(ImageVariant.FULL))
+        );
+    }
+
+    /**
+     * Ставит в очередь создание копий для загруженного файла. По готовности копии записываются
+     * во все фотографии тенанта, ссылающиеся на этот файл. Внешние адреса пропускаются.
+     */
+    public void submit(Long tenantId, String fileUrl) {
+        Path original = resolveUpload(fileUrl);
+        if (original == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> process(tenantId, fileUrl, original));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Image variant queue is full, skipping {}", fileUrl);
+        }
+    }
+
+    /**
+     * Возвращает адреса копий, если все они уже созданы.
+     */
+    public Optional<ImageVariantUrls> findVariants(String fileUrl) {
+        Path original = resolveUpload(fileUrl);
+        if (original == null) {
+            return Optional.empty();
+        }
+        Map<ImageVariant, Path> variants = new EnumMap<>(ImageVariant.class);
+        for (ImageVariant variant : ImageVariant.values()) {
+            Path existing = ImageVariantGenerator.findExisting(original, variant);
+            if (existing == null) {
+                return Optional.empty();
+            }
+            variants.put(variant, existing);
+        }
+        return Optional.of(toUrls(fileUrl, variants));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void process(Long tenantId, String fileUrl, Path original) {
+        try {
+            Map<ImageVariant, Path> variants = imageVariantGenerator.generate(original);
+            if (variants.isEmpty()) {
+                return;
+            }
+            ImageVariantUrls urls = toUrls(fileUrl, variants);
+            int updated = productPhotoRepository.updateVariants(
+                    tenantId, fileUrl, urls.thumbnail(), urls.card(), urls.full());
+            log.debug("Image variants for {} recorded on {} photos", fileUrl, updated);
+            if (updated > 0) {
+                // Фотографии с этим файлом могут быть у нескольких товаров, поэтому сбрасывается кэш всего каталога
+                eventPublisher.publishEvent(new ProductPhotosChangedEvent(tenantId, List.of()));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to create image variants for {}", fileUrl, e);
+        }
+    }
+
+    // Адрес файла переводится в путь внутри каталога загрузок; выход за его пределы не допускается
+    private Path resolveUpload(String fileUrl) {
+        if (!enabled || fileUrl == null) {
+            return null;
+        }
+        int uploadsIndex = fileUrl.indexOf(UPLOADS_PATH);
+        if (uploadsIndex < 0) {
+            return null;
+        }
+        try {
+            Path path = uploadRoot.resolve(fileUrl.substring(uploadsIndex + UPLOADS_PATH.length())).normalize();
+            return path.startsWith(uploadRoot) && Files.isRegularFile(path) ? path : null;
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+}
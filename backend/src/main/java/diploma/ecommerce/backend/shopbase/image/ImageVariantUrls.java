@@ -0,0 +1,4 @@
+package diploma.ecommerce.backend.shopbase.image;
+
+public record ImageVariantUrls(String thumbnail, String card, String full) {
+}
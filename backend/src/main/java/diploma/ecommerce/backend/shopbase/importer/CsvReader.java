@@ -0,0 +1,128 @@
+package diploma.ecommerce.backend.shopbase.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение CSV (RFC 4180): в памяти находится только текущая запись.
+ * Поддерживаются поля в кавычках, экранирование двойной кавычкой и переводы строк внутри кавычек.
+ */
+public class CsvReader implements Closeable {
+
+    static final int MAX_FIELD_LENGTH = 64 * 1024;
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private final char delimiter;
+    private int pushedBack = NONE;
+    private long currentLine = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Определяет разделитель по строке заголовка: ';' (выгрузка из Excel с русской локалью) или ','.
+     */
+    public static char detectDelimiter(String headerLine) {
+        if (headerLine == null) {
+            return ',';
+        }
+        long semicolons = headerLine.chars().filter(c -> c == ';').count();
+        long commas = headerLine.chars().filter(c -> c == ',').count();
+        return semicolons > commas ? ';' : ',';
+    }
+
+    /**
+     * Возвращает следующую запись или {@code null}, если файл закончился.
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = currentLine;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting at line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                    append(field, '"');
+                } else {
+                    if (c == '\n') {
+                        currentLine++;
+                    }
+                    append(field, (char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    pushedBack = next;
+                }
+                currentLine++;
+                break;
+            } else if (c == '\n') {
+                currentLine++;
+                break;
+            } else if (c == -1) {
+                break;
+            } else {
+                append(field, (char) c);
+            }
+            c = read();
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Номер строки файла, с которой началась последняя прочитанная запись.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void append(StringBuilder field, char c) throws IOException {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IOException("Field at line " + recordLine + " exceeds " + MAX_FIELD_LENGTH + " characters");
+        }
+        field.append(c);
+    }
+}
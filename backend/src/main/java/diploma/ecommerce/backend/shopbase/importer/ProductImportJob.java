@@ -0,0 +1,110 @@
+package diploma.ecommerce.backend.shopbase.importer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import diploma.ecommerce.backend.shopbase.dto.record.ProductImportRowError;
+import lombok.Getter;
+
+/**
+ * Состояние фоновой задачи импорта товаров. Обновляется потоком импорта и читается запросами статуса.
+ */
+public class ProductImportJob {
+
+    static final int MAX_STORED_ERRORS = 1000;
+
+    @Getter
+    private final String id = UUID.randomUUID().toString();
+    @Getter
+    private final Long tenantId;
+    @Getter
+    private final String fileName;
+    @Getter
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    @Getter
+    private volatile Status status = Status.QUEUED;
+    @Getter
+    private volatile LocalDateTime startedAt;
+    @Getter
+    private volatile LocalDateTime finishedAt;
+    @Getter
+    private volatile String message;
+
+    private final AtomicLong processedRows = new AtomicLong();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final List<ProductImportRowError> errors = new ArrayList<>();
+
+    public ProductImportJob(Long tenantId, String fileName) {
+        this.tenantId = tenantId;
+        this.fileName = fileName;
+    }
+
+    public long getProcessedRows() {
+        return processedRows.get();
+    }
+
+    public long getImportedRows() {
+        return importedRows.get();
+    }
+
+    public long getFailedRows() {
+        return failedRows.get();
+    }
+
+    public synchronized List<ProductImportRowError> getErrors() {
+        return List.copyOf(errors);
+    }
+
+    public boolean isErrorsTruncated() {
+        return failedRows.get() > MAX_STORED_ERRORS;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public void markRunning() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    public void markCompleted() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void markFailed(String message) {
+        this.message = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public void recordProcessed() {
+        processedRows.incrementAndGet();
+    }
+
+    public void recordImported(long rows) {
+        importedRows.addAndGet(rows);
+    }
+
+    public void recordFailure(long line, String error) {
+        failedRows.incrementAndGet();
+        synchronized (this) {
+            if (errors.size() < MAX_STORED_ERRORS) {
+                errors.add(new ProductImportRowError(line, error));
+            }
+        }
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,17 @@
+package diploma.ecommerce.backend.shopbase.importer;
+
+import java.math.BigDecimal;
+
+/**
+ * Провалидированная строка файла импорта товаров. Пустые необязательные поля равны null.
+ */
+public record ProductImportRow(
+        long line,
+        String name,
+        String description,
+        BigDecimal price,
+        Integer stockQuantity,
+        String category,
+        Boolean active
+) {
+}
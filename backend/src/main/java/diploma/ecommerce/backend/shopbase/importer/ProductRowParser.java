@@ -0,0 +1,123 @@
+package diploma.ecommerce.backend.shopbase.importer;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Сопоставляет колонки CSV по заголовку и валидирует строки по ограничениям таблицы product.
+ * Обязательные колонки: name, price. Необязательные: description, stock_quantity (по умолчанию 0),
+ * category, active (по умолчанию true). Умолчания действуют только для новых товаров: пустые
+ * необязательные значения не затирают текущие значения существующего товара.
+ */
+public class ProductRowParser {
+
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_CATEGORY_LENGTH = 100;
+    // NUMERIC(10, 2)
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private static final Map<String, String> HEADER_ALIASES = Map.of(
+            "stock", "stock_quantity",
+            "stockquantity", "stock_quantity",
+            "quantity", "stock_quantity",
+            "is_active", "active"
+    );
+
+    private final Map<String, Integer> columns;
+
+    private ProductRowParser(Map<String, Integer> columns) {
+        this.columns = columns;
+    }
+
+    public static ProductRowParser forHeader(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(HEADER_ALIASES.getOrDefault(column, column), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new IllegalArgumentException("Header must contain 'name' and 'price' columns, got: " + header);
+        }
+        return new ProductRowParser(columns);
+    }
+
+    public ProductImportRow parse(long line, List<String> record) {
+        String name = value(record, "name");
+        if (name == null) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Name must not exceed " + MAX_NAME_LENGTH + " characters");
+        }
+
+        String category = value(record, "category");
+        if (category != null && category.length() > MAX_CATEGORY_LENGTH) {
+            throw new IllegalArgumentException("Category must not exceed " + MAX_CATEGORY_LENGTH + " characters");
+        }
+
+        return new ProductImportRow(
+                line,
+                name,
+                value(record, "description"),
+                parsePrice(value(record, "price")),
+                parseStock(value(record, "stock_quantity")),
+                category,
+                parseActive(value(record, "active"))
+        );
+    }
+
+    private String value(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal parsePrice(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Price is required");
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(value.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price: " + value);
+        }
+        if (price.signum() < 0 || price.compareTo(MAX_PRICE) > 0 || price.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Price must be between 0 and " + MAX_PRICE + " with at most 2 decimals");
+        }
+        return price;
+    }
+
+    private static Integer parseStock(String value) {
+        if (value == null) {
+            return null;
+        }
+        int stock;
+        try {
+            stock = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid stock quantity: " + value);
+        }
+        if (stock < 0) {
+            throw new IllegalArgumentException("Stock quantity cannot be negative");
+        }
+        return stock;
+    }
+
+    private static Boolean parseActive(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes", "y", "да" -> true;
+            case "false", "0", "no", "n", "нет" -> false;
+            default -> throw new IllegalArgumentException("Invalid active flag: " + value);
+        };
+    }
+}
@@ -0,0 +1,160 @@
+package diploma.ecommerce.backend.shopbase.intake;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import diploma.ecommerce.backend.shopbase.event.OrderIntakeSubmittedEvent;
+import diploma.ecommerce.backend.shopbase.exception.TenantBulkheadFullException;
+import diploma.ecommerce.backend.shopbase.model.OrderIntake;
+import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
+import diploma.ecommerce.backend.shopbase.repository.OrderIntakeRepository;
+import diploma.ecommerce.backend.shopbase.service.OrderIntakeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Обработчики очереди приема заказов. Каждый обработчик забирает пачку заявок, группирует ее по тенантам
+ * и создает заказы тенанта одной транзакцией: одна фиксация и одна блокировка товаров на пачку вместо
+ * отдельной транзакции на заказ. Если пачка целиком откатилась, заявки повторяются по одной,
+ * чтобы ошибка одного заказа не блокировала остальные.
+ */
+@Slf4j
+@Component
+public class OrderIntakeWorkerPool {
+
+    static final String BATCH_METRIC = "orders.intake.batch";
+    // Подробности сбоя остаются в логе: статус заявки доступен покупателю без авторизации
+    static final String PROCESSING_FAILED_MESSAGE = "Order could not be processed";
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final OrderIntakeService orderIntakeService;
+    private final Timer batchTimer;
+    private final boolean virtualThreads;
+    private final int workerCount;
+    private final int batchSize;
+    private final long pollIntervalMs;
+
+    public OrderIntakeWorkerPool(
+            OrderIntakeRepository orderIntakeRepository,
+            OrderIntakeService orderIntakeService,
+            MeterRegistry meterRegistry,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${app.orders.intake.workers:2}") int workerCount,
+            @Value("${app.orders.intake.batch-size:50}") int batchSize,
+            @Value("${app.orders.intake.poll-interval-ms:200}") long pollIntervalMs
+    ) {
+        this.orderIntakeRepository = orderIntakeRepository;
+        this.orderIntakeService = orderIntakeService;
+        this.batchTimer = Timer.builder(BATCH_METRIC).register(meterRegistry);
+        this.virtualThreads = virtualThreads;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running || workerCount <= 0) {
+            return;
+        }
+        running = true;
+        ThreadFactory factory = virtualThreads
+                ? Thread.ofVirtual().name("order-intake-", 0).factory()
+                : Thread.ofPlatform().name("order-intake-", 0).daemon(true).factory();
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = factory.newThread(this::runWorker);
+            workers.add(worker);
+            worker.start();
+        }
+        log.info("Started {} order intake workers (batch size {})", workerCount, batchSize);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    // Новая заявка будит один простаивающий обработчик, не дожидаясь интервала опроса
+    @EventListener
+    public void onSubmitted(OrderIntakeSubmittedEvent event) {
+        if (wakeUps.availablePermits() < workerCount) {
+            wakeUps.release();
+        }
+    }
+
+    /**
+     * Забирает и обрабатывает одну пачку заявок.
+     *
+     * @return число забранных заявок
+     */
+    public int drainOnce() {
+        List<OrderIntake> claimed = orderIntakeRepository.claimBatch(batchSize, LocalDateTime.now());
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<OrderIntake>> byTenant = claimed.stream()
+                .collect(Collectors.groupingBy(OrderIntake::getTenantId, LinkedHashMap::new, Collectors.toList()));
+        byTenant.forEach((tenantId, rows) -> batchTimer.record(() -> processTenantBatch(tenantId, rows)));
+        return claimed.size();
+    }
+
+    private void runWorker() {
+        while (running) {
+            try {
+                // Полная пачка - очередь, скорее всего, не пуста: забираем следующую без ожидания
+                if (drainOnce() < batchSize) {
+                    wakeUps.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order intake worker iteration failed", e);
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void processTenantBatch(Long tenantId, List<OrderIntake> rows) {
+        try {
+            TenantContext.runWithTenant(tenantId, () -> orderIntakeService.processClaimed(tenantId, rows));
+        } catch (TenantBulkheadFullException e) {
+            log.debug("Tenant {} is at its transaction limit, returning {} intake entries", tenantId, rows.size());
+            orderIntakeService.release(rows);
+        } catch (RuntimeException e) {
+            if (rows.size() == 1) {
+                log.warn("Order intake {} failed for tenant {}", rows.getFirst().getTicket(), tenantId, e);
+                orderIntakeService.markFailed(rows, PROCESSING_FAILED_MESSAGE);
+                return;
+            }
+            log.warn("Batch of {} intake entries failed for tenant {}, retrying one by one", rows.size(), tenantId, e);
+            for (OrderIntake row : rows) {
+                processTenantBatch(tenantId, List.of(row));
+            }
+        }
+    }
+}
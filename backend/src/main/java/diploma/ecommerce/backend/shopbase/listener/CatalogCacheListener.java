@@ -0,0 +1,114 @@
+package diploma.ecommerce.backend.shopbase.listener;
+
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.catalog.CatalogCachePurger;
+import diploma.ecommerce.backend.shopbase.catalog.CatalogSurrogateKeys;
+import diploma.ecommerce.backend.shopbase.catalog.CatalogVersions;
+import diploma.ecommerce.backend.shopbase.catalog.CategoryFacets;
+import diploma.ecommerce.backend.shopbase.event.CatalogChangedEvent;
+import diploma.ecommerce.backend.shopbase.event.OrderChangedEvent;
+import diploma.ecommerce.backend.shopbase.event.ProductChangedEvent;
+import diploma.ecommerce.backend.shopbase.event.ProductPhotosChangedEvent;
+import diploma.ecommerce.backend.shopbase.event.ProductsBulkChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Увеличивает версию каталога и сбрасывает кэш прокси после фиксации изменений товаров.
+ * Счетчики категорий обновляются раньше версии: ответ с новой версией уже видит новые счетчики.
+ * Версия увеличивается после фиксации, а не внутри транзакции: иначе блокировка строки версии
+ * выстроила бы в очередь все одновременные заказы и правки товаров магазина.
+ * <p>
+ * Увеличение выполняется синхронно, в потоке зафиксировавшего изменение запроса: из очереди фоновых задач
+ * его могли бы вытеснить. Неудавшееся увеличение повторяет {@link CatalogVersions#reconcile}.
+ * Асинхронно выполняется только сброс прокси.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogCacheListener {
+
+    private final CatalogVersions catalogVersions;
+    private final CatalogCachePurger catalogCachePurger;
+    private final CategoryFacets categoryFacets;
+
+    private static boolean releasesStock(String status) {
+        return "Canceled".equals(status) || "Returned".equals(status);
+    }
+
+    // Остатки меняются при создании заказа и возвращаются при первой отмене или возврате
+    static boolean changesStock(OrderChangedEvent event) {
+        return event.type() == OrderChangedEvent.Type.CREATED
+                || releasesStock(event.status()) && !releasesStock(event.previousStatus());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        refreshCategories(event.tenantId(), List.of(event.productId()));
+        invalidate(event.tenantId(), List.of(event.productId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsBulkChanged(ProductsBulkChangedEvent event) {
+        refreshCategories(event.tenantId(), event.productIds());
+        invalidate(event.tenantId(), event.productIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        refreshCategories(event.tenantId(), event.productIds());
+        invalidate(event.tenantId(), event.productIds());
+    }
+
+    // Фотографии не влияют на счетчики категорий: снимок только переносится на новую версию
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductPhotosChanged(ProductPhotosChangedEvent event) {
+        invalidate(event.tenantId(), event.productIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (changesStock(event)) {
+            invalidate(event.tenantId(), List.of());
+        }
+    }
+
+    // Заказы и фотографии не меняют категорий, поэтому счетчики обновляются лишь по событиям товаров
+    private void refreshCategories(Long tenantId, List<Long> productIds) {
+        if (tenantId == null) {
+            return;
+        }
+        try {
+            categoryFacets.refresh(tenantId, productIds);
+        } catch (DataAccessException e) {
+            log.warn("Failed to refresh category facets of tenant {}: {}", tenantId, e.getMessage());
+            categoryFacets.evict(tenantId);
+        }
+    }
+
+    private void invalidate(Long tenantId, List<Long> productIds) {
+        if (tenantId == null) {
+            return;
+        }
+        try {
+            // Категории к этому моменту уже обновлены или изменение их не касается
+            categoryFacets.catalogVersionBumped(tenantId, catalogVersions.bump(tenantId));
+        } catch (DataAccessException | TransactionException e) {
+            // Изменение уже зафиксировано: ошибка не должна дойти до запроса
+            log.warn("Failed to increment catalog version of tenant {}, will retry: {}", tenantId, e.getMessage());
+            catalogVersions.bumpLater(tenantId);
+        }
+        try {
+            catalogCachePurger.purge(CatalogSurrogateKeys.forChange(tenantId, productIds));
+        } catch (TaskRejectedException e) {
+            log.warn("Catalog cache purge of tenant {} rejected: {}", tenantId, e.getMessage());
+        }
+    }
+}
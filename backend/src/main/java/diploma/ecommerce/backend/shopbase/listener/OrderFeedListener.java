@@ -0,0 +1,27 @@
+package diploma.ecommerce.backend.shopbase.listener;
+
+import diploma.ecommerce.backend.shopbase.event.OrderChangedEvent;
+import diploma.ecommerce.backend.shopbase.feed.OrderFeedBroker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderFeedListener {
+
+    private final OrderFeedBroker orderFeedBroker;
+
+    // Рассылка только ставит событие в очереди подписчиков, поэтому @Async здесь не нужен
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.tenantId() == null) {
+            return;
+        }
+        log.debug("Order {} {} for tenant {}, notifying feed", event.orderId(), event.type(), event.tenantId());
+        orderFeedBroker.publish(event);
+    }
+}
@@ -1,15 +1,16 @@
 package diploma.ecommerce.backend.shopbase.listener;
 
-import diploma.ecommerce.backend.shopbase.model.Product;
+import diploma.ecommerce.backend.shopbase.event.ProductChangedEvent;
+import diploma.ecommerce.backend.shopbase.event.ProductsBulkChangedEvent;
 import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
 import diploma.ecommerce.backend.shopbase.service.UnifiedMarketplaceSyncService;
 import diploma.ecommerce.backend.shopbase.service.marketplace.MarketplaceAdapter.MarketplaceType;
-import jakarta.persistence.PostPersist;
-import jakarta.persistence.PostUpdate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @Slf4j
 @Component
@@ -18,28 +19,44 @@ public class ProductChangeListener {
 
     private final UnifiedMarketplaceSyncService syncService;
 
-    @PostUpdate
-    @PostPersist
+    // Синхронизация запускается только после фиксации транзакции и не задерживает ответ клиенту
     @Async
-    public void onProductChanged(Product product) {
-        Long tenantId = TenantContext.getTenantId();
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long tenantId = event.tenantId();
         if (tenantId == null) {
             return;
         }
 
-        log.info("Product {} changed, triggering marketplace sync", product.getId());
+        log.info("Product {} changed, triggering marketplace sync", event.productId());
 
-        // Синхронизируем со всеми маркетплейсами где есть маппинг
-        try {
-            syncService.syncSingleProduct(tenantId, product.getId(), MarketplaceType.OZON);
-        } catch (Exception e) {
-            log.debug("No Ozon mapping for product {}", product.getId());
-        }
+        TenantContext.runWithTenant(tenantId, () -> {
+            // Синхронизируем со всеми маркетплейсами где есть маппинг
+            try {
+                syncService.syncSingleProduct(tenantId, event.productId(), MarketplaceType.OZON);
+            } catch (Exception e) {
+                log.debug("No Ozon mapping for product {}", event.productId());
+            }
+
+            try {
+                syncService.syncSingleProduct(tenantId, event.productId(), MarketplaceType.WILDBERRIES);
+            } catch (Exception e) {
+                log.debug("No Wildberries mapping for product {}", event.productId());
+            }
+        });
+    }
 
-        try {
-            syncService.syncSingleProduct(tenantId, product.getId(), MarketplaceType.WILDBERRIES);
-        } catch (Exception e) {
-            log.debug("No Wildberries mapping for product {}", product.getId());
+    // Массовое изменение синхронизируется одним пакетом на маркетплейс, а не отдельным запросом на товар
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductsBulkChanged(ProductsBulkChangedEvent event) {
+        Long tenantId = event.tenantId();
+        if (tenantId == null || event.productIds().isEmpty()) {
+            return;
         }
+
+        log.info("{} products changed in bulk, triggering marketplace sync", event.productIds().size());
+
+        TenantContext.runWithTenant(tenantId, () -> syncService.syncChangedProducts(tenantId, event.productIds()));
     }
-}
\ No newline at end of file
+}
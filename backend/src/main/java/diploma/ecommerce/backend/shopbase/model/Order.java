@@ -16,7 +16,9 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -25,6 +27,7 @@ import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Getter
@@ -39,12 +42,18 @@ import org.hibernate.annotations.UpdateTimestamp;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "store_order_seq")
+    @SequenceGenerator(name = "store_order_seq", sequenceName = "store_order_order_id_seq", allocationSize = 50)
     @Column(name = "order_id")
     private Long id;
 
+    // Ключ секции: Hibernate добавляет его в условие UPDATE и DELETE заказа вместе с order_id и версией
+    @PartitionKey
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private Long tenantId;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "tenant_id", nullable = false)
+    @JoinColumn(name = "tenant_id", nullable = false, insertable = false, updatable = false)
     private Tenant tenant;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -76,10 +85,20 @@ public class Order {
     @Column(name = "comment", columnDefinition = "TEXT")
     private String comment;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 
+    // Позиции лежат в секции заказа: с фильтром тенанта загрузка позиций не обходит остальные секции
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
     private List<OrderItem> orderItems = new ArrayList<>();
 
+    public void setTenant(Tenant tenant) {
+        this.tenant = tenant;
+        this.tenantId = tenant != null ? tenant.getId() : null;
+    }
 
     public void addOrderItem(OrderItem item) {
         orderItems.add(item);
@@ -91,7 +110,7 @@ public class Order {
 
     public void removeOrderItem(OrderItem item) {
         orderItems.remove(item);
+        // Тенант остается: по нему DELETE удаляемой позиции выбирает ее секцию
         item.setOrder(null);
-        item.setTenant(null);
     }
 }
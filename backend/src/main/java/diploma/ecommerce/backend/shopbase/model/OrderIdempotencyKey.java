@@ -0,0 +1,68 @@
+package diploma.ecommerce.backend.shopbase.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Ключ идемпотентности оформления заказа. Строки вставляются и обновляются только SQL-запросами
+ * ({@link diploma.ecommerce.backend.shopbase.repository.OrderIdempotencyKeyRepository}), через JPA - только чтение.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"tenantId", "idempotencyKey"})
+@ToString
+@Entity
+@Immutable
+@IdClass(OrderIdempotencyKey.Key.class)
+@Table(name = "order_idempotency_key")
+@Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
+public class OrderIdempotencyKey {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long tenantId;
+        private String idempotencyKey;
+    }
+}
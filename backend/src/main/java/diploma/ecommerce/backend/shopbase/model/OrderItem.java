@@ -10,6 +10,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
@@ -19,6 +20,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.PartitionKey;
 
 @Getter
 @Setter
@@ -33,12 +35,18 @@ import org.hibernate.annotations.Filter;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_product_seq")
+    @SequenceGenerator(name = "order_product_seq", sequenceName = "order_product_order_product_id_seq", allocationSize = 50)
     @Column(name = "order_product_id")
     private Long id;
 
+    // Ключ секции: Hibernate добавляет его в условие UPDATE и DELETE позиции
+    @PartitionKey
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private Long tenantId;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "tenant_id", nullable = false)
+    @JoinColumn(name = "tenant_id", nullable = false, insertable = false, updatable = false)
     private Tenant tenant;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -57,4 +65,9 @@ public class OrderItem {
 
     @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalPrice;
+
+    public void setTenant(Tenant tenant) {
+        this.tenant = tenant;
+        this.tenantId = tenant != null ? tenant.getId() : null;
+    }
 }
@@ -18,12 +18,13 @@ import java.util.List;
 @EqualsAndHashCode(of = "id")
 @ToString(exclude = {"tenant", "photos"})
 @Entity
-@Table(name = "product")
+@Table(name = "product", uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "name"}))
 @Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_product_id_seq", allocationSize = 50)
     @Column(name = "product_id")
     private Long id;
 
@@ -57,6 +58,10 @@ public class Product {
     @Column(name = "is_active", nullable = false)
     private Boolean active = true;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<ProductPhoto> photos = new ArrayList<>();
 
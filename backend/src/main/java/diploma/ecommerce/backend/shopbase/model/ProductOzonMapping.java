@@ -25,7 +25,8 @@ import java.time.LocalDateTime;
 public class ProductOzonMapping {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_ozon_mapping_seq")
+    @SequenceGenerator(name = "product_ozon_mapping_seq", sequenceName = "product_ozon_mapping_mapping_id_seq", allocationSize = 50)
     @Column(name = "mapping_id")
     private Long id;
 
@@ -10,6 +10,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
@@ -32,7 +33,8 @@ import org.hibernate.annotations.Filter;
 public class ProductPhoto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_photo_seq")
+    @SequenceGenerator(name = "product_photo_seq", sequenceName = "product_photo_photo_id_seq", allocationSize = 50)
     @Column(name = "photo_id")
     private Long id;
 
@@ -47,6 +49,16 @@ public class ProductPhoto {
     @Column(name = "file_path", nullable = false)
     private String filePath;
 
+    // Уменьшенные копии оригинала; заполняются фоновой обработкой, до ее завершения пусты
+    @Column(name = "thumbnail_path")
+    private String thumbnailPath;
+
+    @Column(name = "card_path")
+    private String cardPath;
+
+    @Column(name = "full_path")
+    private String fullPath;
+
     @Column(name = "display_order")
     private Integer displayOrder = 0;
 
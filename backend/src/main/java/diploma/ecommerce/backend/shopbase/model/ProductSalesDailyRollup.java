@@ -0,0 +1,76 @@
+package diploma.ecommerce.backend.shopbase.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Дневной агрегат продаж товара. Связи с Product нет намеренно: история продаж переживает удаление товара.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"tenantId", "salesDate", "productId"})
+@ToString
+@Entity
+@Immutable
+@IdClass(ProductSalesDailyRollup.Key.class)
+@Table(name = "product_sales_daily_rollup")
+@Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
+public class ProductSalesDailyRollup {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "orders_count", nullable = false)
+    private int ordersCount;
+
+    @Column(name = "units_sold", nullable = false)
+    private long unitsSold;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "canceled_units", nullable = false)
+    private long canceledUnits;
+
+    @Column(name = "canceled_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal canceledRevenue = BigDecimal.ZERO;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long tenantId;
+        private LocalDate salesDate;
+        private Long productId;
+    }
+}
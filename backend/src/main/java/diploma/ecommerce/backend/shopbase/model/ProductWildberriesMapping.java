@@ -26,7 +26,8 @@ import org.hibernate.annotations.UpdateTimestamp;
 public class ProductWildberriesMapping {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_wildberries_mapping_seq")
+    @SequenceGenerator(name = "product_wildberries_mapping_seq", sequenceName = "product_wildberries_mapping_mapping_id_seq", allocationSize = 50)
     @Column(name = "mapping_id")
     private Long id;
 
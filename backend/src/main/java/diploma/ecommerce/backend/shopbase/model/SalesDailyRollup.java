@@ -0,0 +1,82 @@
+package diploma.ecommerce.backend.shopbase.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Дневной агрегат продаж магазина. Строки меняются только SQL-инкрементами
+ * ({@link diploma.ecommerce.backend.shopbase.repository.SalesRollupRepository}), через JPA - только чтение.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"tenantId", "salesDate"})
+@ToString
+@Entity
+@Immutable
+@IdClass(SalesDailyRollup.Key.class)
+@Table(name = "sales_daily_rollup")
+@Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
+public class SalesDailyRollup {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Column(name = "orders_count", nullable = false)
+    private int ordersCount;
+
+    @Column(name = "units_sold", nullable = false)
+    private long unitsSold;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "canceled_orders", nullable = false)
+    private int canceledOrders;
+
+    @Column(name = "canceled_units", nullable = false)
+    private long canceledUnits;
+
+    @Column(name = "canceled_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal canceledRevenue = BigDecimal.ZERO;
+
+    public static SalesDailyRollup empty(Long tenantId, LocalDate salesDate) {
+        SalesDailyRollup rollup = new SalesDailyRollup();
+        rollup.setTenantId(tenantId);
+        rollup.setSalesDate(salesDate);
+        return rollup;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long tenantId;
+        private LocalDate salesDate;
+    }
+}
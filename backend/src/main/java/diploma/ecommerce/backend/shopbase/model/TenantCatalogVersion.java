@@ -0,0 +1,43 @@
+package diploma.ecommerce.backend.shopbase.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Версия каталога тенанта. Строки вставляются и обновляются только SQL-запросами
+ * ({@link diploma.ecommerce.backend.shopbase.repository.TenantCatalogVersionRepository}), через JPA - только чтение.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "tenantId")
+@ToString
+@Entity
+@Immutable
+@Table(name = "tenant_catalog_version")
+@Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
+public class TenantCatalogVersion {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
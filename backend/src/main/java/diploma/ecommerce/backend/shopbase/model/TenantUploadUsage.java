@@ -0,0 +1,46 @@
+package diploma.ecommerce.backend.shopbase.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Объем загруженных файлов тенанта. Строки вставляются и обновляются только SQL-запросами
+ * ({@link diploma.ecommerce.backend.shopbase.repository.TenantUploadUsageRepository}), через JPA - только чтение.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "tenantId")
+@ToString
+@Entity
+@Immutable
+@Table(name = "tenant_upload_usage")
+@Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
+public class TenantUploadUsage {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Column(name = "used_bytes", nullable = false)
+    private long usedBytes;
+
+    @Column(name = "file_count", nullable = false)
+    private long fileCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -108,6 +108,10 @@ public class Theme {
     @Column(name = "card_shadow")
     private String cardShadow;
 
+    // Скомпилированная таблица стилей (адрес с хешем содержимого)
+    @Column(name = "stylesheet_url", length = 500)
+    private String stylesheetUrl;
+
     // Временные метки
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -1,7 +1,19 @@
 package diploma.ecommerce.backend.shopbase.multitenancy;
 
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Текущий тенант потока.
+ * <p>
+ * Основной способ работы - ограниченные области видимости ({@link #open}, {@link #runWithTenant},
+ * {@link #callWithTenant}): значение привязывается на время выполнения блока и при выходе
+ * восстанавливается предыдущее, как у {@code ScopedValue}. В Java 21 {@code ScopedValue} доступен
+ * только как preview, поэтому хранилищем остается {@link ThreadLocal}, а в дочерние задачи тенант
+ * передается явно через {@link #wrap}, захватывая значение в момент постановки задачи.
+ */
 @Slf4j
 public class TenantContext {
 
@@ -22,4 +34,69 @@ public class TenantContext {
         log.debug("Clearing TenantContext: {}", currentTenant.get());
         currentTenant.remove();
     }
+
+    /**
+     * Привязывает тенанта до закрытия возвращаемой области.
+     * Используется в try-with-resources там, где блок бросает проверяемые исключения (фильтры).
+     */
+    public static Scope open(Long tenantId) {
+        Long previous = currentTenant.get();
+        bind(tenantId);
+        return new Scope(previous);
+    }
+
+    public static void runWithTenant(Long tenantId, Runnable action) {
+        try (Scope ignored = open(tenantId)) {
+            action.run();
+        }
+    }
+
+    public static <T> T callWithTenant(Long tenantId, Supplier<T> action) {
+        try (Scope ignored = open(tenantId)) {
+            return action.get();
+        }
+    }
+
+    /**
+     * Захватывает текущего тенанта и возвращает задачу, которая выполнится с ним в любом потоке.
+     */
+    public static Runnable wrap(Runnable task) {
+        Long tenantId = currentTenant.get();
+        return () -> runWithTenant(tenantId, task);
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Long tenantId = currentTenant.get();
+        return () -> {
+            try (Scope ignored = open(tenantId)) {
+                return task.call();
+            }
+        };
+    }
+
+    private static void bind(Long tenantId) {
+        if (tenantId == null) {
+            currentTenant.remove();
+        } else {
+            currentTenant.set(tenantId);
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Long previous;
+        private boolean closed;
+
+        private Scope(Long previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                bind(previous);
+            }
+        }
+    }
 }
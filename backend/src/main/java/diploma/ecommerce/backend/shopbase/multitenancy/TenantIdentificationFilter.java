@@ -28,10 +28,12 @@ public class TenantIdentificationFilter extends OncePerRequestFilter {
     private static final String ROOT_DOMAIN = ".diploma.ru";
     private static final String LOCAL_DEV_HOST = "localhost";
 
+    // Загрузки раздаются как статика: поиск тенанта по поддомену для них не нужен
     private static boolean isIgnoredPath(String path) {
         return path.startsWith("/swagger-ui/") ||
                path.startsWith("/v3/api-docs") ||
-               path.startsWith("/api/v1/auth/");
+               path.startsWith("/api/v1/auth/") ||
+               path.startsWith("/uploads/");
     }
 
     private static String extractSubdomain(String host) {
@@ -91,14 +93,13 @@ public class TenantIdentificationFilter extends OncePerRequestFilter {
             }
         }
 
-        if (tenantId != null) {
-            TenantContext.setTenantId(tenantId);
+        if (tenantId == null) {
+            // Тенант мог быть установлен JwtAuthFilter из claims токена
+            tenantId = TenantContext.getTenantId();
         }
 
-        try {
+        try (TenantContext.Scope ignored = TenantContext.open(tenantId)) {
             filterChain.doFilter(request, response);
-        } finally {
-            TenantContext.clear();
         }
     }
 
@@ -1,5 +1,6 @@
 package diploma.ecommerce.backend.shopbase.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,8 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
 
     List<Address> findAllByTenantId(Long tenantId);
 
+    List<Address> findAllByTenantIdAndIdIn(Long tenantId, Collection<Long> ids);
+
     Page<Address> findAllByTenantId(Long tenantId, Pageable pageable);
 
     boolean existsByTenantIdAndId(Long tenantId, Long id);
@@ -0,0 +1,85 @@
+package diploma.ecommerce.backend.shopbase.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import diploma.ecommerce.backend.shopbase.model.OrderIdempotencyKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Ключи идемпотентности оформления заказа. Резервирование - вставка с ON CONFLICT: пока транзакция
+ * первого запроса не зафиксирована, повтор с тем же ключом ждет на уникальном индексе и затем видит
+ * готовую строку, поэтому дубли не доходят до списания остатков даже на разных узлах.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderIdempotencyKeyRepository {
+
+    // Просроченный ключ можно занять заново, живой - нет
+    private static final String RESERVE_SQL = """
+            INSERT INTO order_idempotency_key (tenant_id, idempotency_key, request_hash, created_at, expires_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (tenant_id, idempotency_key) DO UPDATE SET
+                request_hash = EXCLUDED.request_hash,
+                order_id     = NULL,
+                created_at   = EXCLUDED.created_at,
+                expires_at   = EXCLUDED.expires_at
+            WHERE order_idempotency_key.expires_at < EXCLUDED.created_at
+            """;
+
+    private static final String ATTACH_ORDER_SQL = """
+            UPDATE order_idempotency_key SET order_id = ?
+            WHERE tenant_id = ? AND idempotency_key = ?
+            """;
+
+    private static final String FIND_SQL = """
+            SELECT tenant_id, idempotency_key, request_hash, order_id, created_at, expires_at
+            FROM order_idempotency_key
+            WHERE tenant_id = ? AND idempotency_key = ?
+            """;
+
+    // Удаление порциями не держит долгих блокировок на большой таблице
+    private static final String DELETE_EXPIRED_SQL = """
+            DELETE FROM order_idempotency_key
+            WHERE ctid IN (SELECT ctid FROM order_idempotency_key WHERE expires_at < ? LIMIT ?)
+            """;
+
+    private static final RowMapper<OrderIdempotencyKey> ROW_MAPPER = (rs, rowNum) -> new OrderIdempotencyKey(
+            rs.getLong("tenant_id"),
+            rs.getString("idempotency_key"),
+            rs.getString("request_hash"),
+            rs.getObject("order_id", Long.class),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getTimestamp("expires_at").toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Резервирует ключ в текущей транзакции.
+     *
+     * @return true, если ключ свободен (или просрочен) и запрос нужно выполнить
+     */
+    public boolean reserve(OrderIdempotencyKey key) {
+        return jdbcTemplate.update(RESERVE_SQL, key.getTenantId(), key.getIdempotencyKey(), key.getRequestHash(),
+                Timestamp.valueOf(key.getCreatedAt()), Timestamp.valueOf(key.getExpiresAt())) == 1;
+    }
+
+    public void attachOrder(Long tenantId, String key, Long orderId) {
+        jdbcTemplate.update(ATTACH_ORDER_SQL, orderId, tenantId, key);
+    }
+
+    public Optional<OrderIdempotencyKey> find(Long tenantId, String key) {
+        List<OrderIdempotencyKey> rows = jdbcTemplate.query(FIND_SQL, ROW_MAPPER, tenantId, key);
+        return rows.stream().findFirst();
+    }
+
+    public int deleteExpired(LocalDateTime now, int limit) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, Timestamp.valueOf(now), limit);
+    }
+}
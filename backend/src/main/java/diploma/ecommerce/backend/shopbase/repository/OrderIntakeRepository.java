@@ -0,0 +1,205 @@
+package diploma.ecommerce.backend.shopbase.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import diploma.ecommerce.backend.shopbase.model.OrderIntake;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Очередь асинхронного приема заказов. Обработчики забирают пачки через FOR UPDATE SKIP LOCKED,
+ * поэтому несколько узлов разбирают очередь параллельно, не ожидая друг друга и не получая одну строку дважды.
+ * Номер попытки (attempts) служит меткой владельца: строку, возвращенную в очередь по таймауту,
+ * прежний обработчик уже не завершит.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderIntakeRepository {
+
+    private static final String COLUMNS = """
+            intake_id, tenant_id, ticket, status, payload, order_id, error_message, attempts, created_at, updated_at
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO order_intake (tenant_id, ticket, status, payload, attempts, created_at, updated_at)
+            VALUES (?, ?, 'PENDING', CAST(? AS JSONB), 0, ?, ?)
+            """;
+
+    private static final String CLAIM_SQL = """
+            UPDATE order_intake SET status = 'PROCESSING', attempts = attempts + 1, updated_at = ?
+            WHERE intake_id IN (
+                SELECT intake_id FROM order_intake
+                WHERE status = 'PENDING'
+                ORDER BY intake_id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING\s""" + COLUMNS;
+
+    private static final String LOCK_OWNED_SQL = """
+            SELECT o.intake_id
+            FROM order_intake o
+            JOIN (VALUES %s) AS c(intake_id, attempts) ON o.intake_id = c.intake_id AND o.attempts = c.attempts
+            WHERE o.status = 'PROCESSING'
+            FOR UPDATE OF o
+            """;
+
+    private static final String OWNED_VALUES_ROW = "(CAST(? AS BIGINT), CAST(? AS INT))";
+
+    private static final String MARK_COMPLETED_SQL = """
+            UPDATE order_intake SET status = 'COMPLETED', order_id = ?, error_message = NULL, updated_at = ?
+            WHERE intake_id = ?
+            """;
+
+    private static final String MARK_FAILED_SQL = """
+            UPDATE order_intake SET status = 'FAILED', error_message = ?, updated_at = ?
+            WHERE intake_id = ? AND status = 'PROCESSING'
+            """;
+
+    // Возврат в очередь без расхода попытки (например, когда тенант исчерпал лимит транзакций)
+    private static final String RELEASE_SQL = """
+            UPDATE order_intake SET status = 'PENDING', attempts = attempts - 1, updated_at = ?
+            WHERE intake_id = ? AND attempts = ? AND status = 'PROCESSING'
+            """;
+
+    private static final String FAIL_EXHAUSTED_SQL = """
+            UPDATE order_intake SET status = 'FAILED', error_message = 'Processing attempts exhausted', updated_at = ?
+            WHERE status = 'PROCESSING' AND updated_at < ? AND attempts >= ?
+            """;
+
+    private static final String REQUEUE_STALE_SQL = """
+            UPDATE order_intake SET status = 'PENDING', updated_at = ?
+            WHERE status = 'PROCESSING' AND updated_at < ?
+            """;
+
+    private static final String FIND_SQL = "SELECT " + COLUMNS + """
+            FROM order_intake
+            WHERE tenant_id = ? AND ticket = ?
+            """;
+
+    private static final String DELETE_FINISHED_SQL = """
+            DELETE FROM order_intake
+            WHERE ctid IN (
+                SELECT ctid FROM order_intake
+                WHERE status IN ('COMPLETED', 'FAILED') AND updated_at < ?
+                LIMIT ?
+            )
+            """;
+
+    private static final RowMapper<OrderIntake> ROW_MAPPER = (rs, rowNum) -> new OrderIntake(
+            rs.getLong("intake_id"),
+            rs.getLong("tenant_id"),
+            rs.getObject("ticket", UUID.class),
+            OrderIntake.Status.valueOf(rs.getString("status")),
+            rs.getString("payload"),
+            rs.getObject("order_id", Long.class),
+            rs.getString("error_message"),
+            rs.getInt("attempts"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getTimestamp("updated_at").toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(Long tenantId, UUID ticket, String payload, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.update(INSERT_SQL, tenantId, ticket, payload, timestamp, timestamp);
+    }
+
+    /**
+     * Переводит до {@code limit} заявок в статус PROCESSING и возвращает их в порядке поступления.
+     */
+    public List<OrderIntake> claimBatch(int limit, LocalDateTime now) {
+        List<OrderIntake> rows = new ArrayList<>(
+                jdbcTemplate.query(CLAIM_SQL, ROW_MAPPER, Timestamp.valueOf(now), limit)
+        );
+        rows.sort(Comparator.comparing(OrderIntake::getId));
+        return rows;
+    }
+
+    /**
+     * Блокирует в текущей транзакции заявки, которые по-прежнему принадлежат этому обработчику.
+     *
+     * @return идентификаторы заявок, которые можно обрабатывать
+     */
+    public Set<Long> lockOwned(Collection<OrderIntake> claimed) {
+        if (claimed.isEmpty()) {
+            return Set.of();
+        }
+        String sql = LOCK_OWNED_SQL.formatted(
+                String.join(", ", Collections.nCopies(claimed.size(), OWNED_VALUES_ROW))
+        );
+        List<Object> args = new ArrayList<>(claimed.size() * 2);
+        for (OrderIntake row : claimed) {
+            args.add(row.getId());
+            args.add(row.getAttempts());
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, args.toArray()));
+    }
+
+    public void markCompleted(Map<Long, Long> orderIdsByIntakeId, LocalDateTime now) {
+        if (orderIdsByIntakeId.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> args = new ArrayList<>(orderIdsByIntakeId.size());
+        orderIdsByIntakeId.forEach((intakeId, orderId) -> args.add(new Object[]{orderId, timestamp, intakeId}));
+        jdbcTemplate.batchUpdate(MARK_COMPLETED_SQL, args);
+    }
+
+    public void markFailed(Map<Long, String> errorsByIntakeId, LocalDateTime now) {
+        if (errorsByIntakeId.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> args = new ArrayList<>(errorsByIntakeId.size());
+        errorsByIntakeId.forEach((intakeId, error) -> args.add(new Object[]{error, timestamp, intakeId}));
+        jdbcTemplate.batchUpdate(MARK_FAILED_SQL, args);
+    }
+
+    public void release(Collection<OrderIntake> claimed, LocalDateTime now) {
+        if (claimed.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> args = new ArrayList<>(claimed.size());
+        for (OrderIntake row : claimed) {
+            args.add(new Object[]{timestamp, row.getId(), row.getAttempts()});
+        }
+        jdbcTemplate.batchUpdate(RELEASE_SQL, args);
+    }
+
+    /**
+     * Возвращает в очередь заявки, зависшие в PROCESSING дольше таймаута (обработчик упал или узел остановлен).
+     * Заявки, исчерпавшие попытки, завершаются со статусом FAILED.
+     *
+     * @return число возвращенных в очередь заявок
+     */
+    public int requeueStale(LocalDateTime staleBefore, int maxAttempts, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        Timestamp threshold = Timestamp.valueOf(staleBefore);
+        jdbcTemplate.update(FAIL_EXHAUSTED_SQL, timestamp, threshold, maxAttempts);
+        return jdbcTemplate.update(REQUEUE_STALE_SQL, timestamp, threshold);
+    }
+
+    public Optional<OrderIntake> find(Long tenantId, UUID ticket) {
+        return jdbcTemplate.query(FIND_SQL, ROW_MAPPER, tenantId, ticket).stream().findFirst();
+    }
+
+    public int deleteFinished(LocalDateTime before, int limit) {
+        return jdbcTemplate.update(DELETE_FINISHED_SQL, Timestamp.valueOf(before), limit);
+    }
+}
@@ -1,13 +1,21 @@
 package diploma.ecommerce.backend.shopbase.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import diploma.ecommerce.backend.shopbase.dto.record.OrderExportRow;
 import diploma.ecommerce.backend.shopbase.model.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -27,4 +35,25 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
             Long customerId,
             List<String> statusNames
     );
+
+    // Порядок по (tenant_id, created_at) читается по idx_order_tenant_date без сортировки в памяти
+    @Query("""
+            select new diploma.ecommerce.backend.shopbase.dto.record.OrderExportRow(
+                o.id, o.createdAt, o.updatedAt, s.statusName,
+                c.id, c.email, c.firstName, c.lastName, o.totalAmount, o.comment)
+            from Order o
+            join o.status s
+            join o.customer c
+            where o.tenant.id = :tenantId and o.createdAt >= :from and o.createdAt < :to
+            order by o.createdAt, o.id
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<OrderExportRow> streamForExport(
+            @Param("tenantId") Long tenantId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
 }
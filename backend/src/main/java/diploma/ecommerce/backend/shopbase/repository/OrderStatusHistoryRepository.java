@@ -0,0 +1,15 @@
+package diploma.ecommerce.backend.shopbase.repository;
+
+import diploma.ecommerce.backend.shopbase.model.OrderStatusHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, Long> {
+
+    @EntityGraph(attributePaths = {"status", "previousStatus"})
+    Page<OrderStatusHistory> findByTenantIdAndOrderId(Long tenantId, Long orderId, Pageable pageable);
+}
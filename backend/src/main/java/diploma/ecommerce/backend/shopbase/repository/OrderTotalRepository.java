@@ -0,0 +1,55 @@
+package diploma.ecommerce.backend.shopbase.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import diploma.ecommerce.backend.shopbase.model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Инкрементальное ведение суммы заказа: изменение позиции сдвигает total_amount на разницу одним UPDATE,
+ * без перечитывания и пересуммирования всех позиций. Сдвиги коммутируют, поэтому параллельные изменения
+ * позиций одного заказа не теряются; версия заказа растет, чтобы устаревшая копия заказа в другой
+ * транзакции не перезаписала сумму.
+ */
+@Repository
+public class OrderTotalRepository {
+
+    private static final String ADD_TO_TOTAL_JPQL = """
+            update Order o
+            set o.totalAmount = o.totalAmount + :delta,
+                o.updatedAt = :now,
+                o.version = o.version + 1
+            where o.tenant.id = :tenantId and o.id = :orderId
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void addToTotalAmount(Order order, BigDecimal delta) {
+        if (delta == null || delta.signum() == 0) {
+            return;
+        }
+        // Отложенные изменения заказа должны попасть в БД раньше, чем UPDATE поднимет версию
+        entityManager.flush();
+        entityManager.createQuery(ADD_TO_TOTAL_JPQL)
+                .setParameter("delta", delta)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("tenantId", order.getTenant().getId())
+                .setParameter("orderId", order.getId())
+                .executeUpdate();
+
+        // Управляемая копия приводится к состоянию строки; снимок пересоздается при снятии read-only,
+        // поэтому при следующем flush заказ не считается измененным и повторно не записывается
+        BigDecimal currentTotal = order.getTotalAmount();
+        Long currentVersion = order.getVersion();
+        Session session = entityManager.unwrap(Session.class);
+        session.setReadOnly(order, true);
+        order.setTotalAmount(currentTotal.add(delta));
+        order.setVersion(currentVersion + 1);
+        session.setReadOnly(order, false);
+    }
+}
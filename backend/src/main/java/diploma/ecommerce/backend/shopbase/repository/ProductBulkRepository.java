@@ -0,0 +1,166 @@
+package diploma.ecommerce.backend.shopbase.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.dto.record.ProductStockPriceChange;
+import diploma.ecommerce.backend.shopbase.dto.record.ProductStockPriceChangeResult;
+import diploma.ecommerce.backend.shopbase.importer.ProductImportRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Массовые операции над товарами в обход persistence context: JDBC-батчи без загрузки сущностей.
+ * Фильтр тенанта Hibernate здесь не действует, поэтому tenant_id передается в каждый запрос явно.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductBulkRepository {
+
+    // Блоки идентификаторов совпадают с pooled-оптимизатором Hibernate (allocationSize = 50 в Product)
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final String NEXT_ID_BLOCK_SQL = "SELECT nextval('product_product_id_seq')";
+
+    /*
+     * Остаток и активность обязательны в таблице, поэтому умолчания подставляются только во вставку.
+     * EXCLUDED уже содержит подставленные умолчания, и обновление берет исходные значения из отдельных
+     * параметров: пропущенные в файле значения не затирают текущие.
+     */
+    private static final String UPSERT_BY_NAME_SQL = """
+            INSERT INTO product (product_id, tenant_id, name, description, price, stock_quantity,
+                                 category, is_active, created_at, updated_at, version)
+            VALUES (?, ?, ?, ?, ?, COALESCE(?::integer, 0), ?, COALESCE(?::boolean, true), now(), now(), 0)
+            ON CONFLICT (tenant_id, name) DO UPDATE SET
+                description    = COALESCE(EXCLUDED.description, product.description),
+                price          = EXCLUDED.price,
+                stock_quantity = COALESCE(?::integer, product.stock_quantity),
+                category       = COALESCE(EXCLUDED.category, product.category),
+                is_active      = COALESCE(?::boolean, product.is_active),
+                updated_at     = now(),
+                version        = product.version + 1
+            """;
+
+    // Одна строка VALUES на изменение; явные типы нужны, т.к. по NULL в VALUES Postgres тип не выводит
+    private static final String STOCK_PRICE_VALUES_ROW = "(?::integer, ?::bigint, ?::varchar, ?::integer, ?::numeric)";
+
+    /*
+     * resolved - сопоставление позиций с товарами тенанта (по id, иначе по названию); при повторе товара
+     * применяется только первая позиция. Итоговый SELECT возвращает все найденные позиции, а для
+     * непримененных повторов поля из updated остаются NULL.
+     */
+    private static final String UPDATE_STOCK_PRICE_SQL = """
+            WITH v (idx, product_id, name, stock, price) AS (VALUES %s),
+            resolved AS (
+                SELECT v.idx, p.product_id, v.stock, v.price,
+                       row_number() OVER (PARTITION BY p.product_id ORDER BY v.idx) AS rn
+                FROM v
+                JOIN product p ON p.tenant_id = ?
+                              AND p.product_id = COALESCE(v.product_id,
+                                      (SELECT n.product_id FROM product n WHERE n.tenant_id = ? AND n.name = v.name))
+            ),
+            updated AS (
+                UPDATE product p SET
+                    stock_quantity = COALESCE(r.stock, p.stock_quantity),
+                    price          = COALESCE(r.price, p.price),
+                    updated_at     = now(),
+                    version        = p.version + 1
+                FROM resolved r
+                WHERE r.rn = 1 AND p.tenant_id = ? AND p.product_id = r.product_id
+                RETURNING r.idx, p.stock_quantity, p.price, p.version
+            )
+            SELECT r.idx, r.product_id, u.idx IS NOT NULL AS applied, u.stock_quantity, u.price, u.version
+            FROM resolved r
+            LEFT JOIN updated u ON u.idx = r.idx
+            ORDER BY r.idx
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Вставляет новые товары и обновляет существующие с тем же названием одним JDBC-батчем.
+     * Названия в {@code rows} должны быть уникальны: Postgres не обновляет одну строку дважды за запрос.
+     */
+    public void upsertByName(Long tenantId, List<ProductImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Long> ids = allocateIds(rows.size());
+        jdbcTemplate.batchUpdate(UPSERT_BY_NAME_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ProductImportRow row = rows.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setLong(2, tenantId);
+                ps.setString(3, row.name());
+                ps.setObject(4, row.description(), Types.VARCHAR);
+                ps.setBigDecimal(5, row.price());
+                ps.setObject(6, row.stockQuantity(), Types.INTEGER);
+                ps.setObject(7, row.category(), Types.VARCHAR);
+                ps.setObject(8, row.active(), Types.BOOLEAN);
+                ps.setObject(9, row.stockQuantity(), Types.INTEGER);
+                ps.setObject(10, row.active(), Types.BOOLEAN);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    /**
+     * Применяет изменения остатков и цен одним SQL-запросом {@code UPDATE ... FROM (VALUES ...)}.
+     * Позиции, для которых товар не найден, в результат не попадают.
+     * Размер {@code changes} ограничивает вызывающий код: на позицию приходится 5 параметров запроса.
+     */
+    public List<ProductStockPriceChangeResult> updateStockAndPrice(Long tenantId, List<ProductStockPriceChange> changes) {
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+        String sql = UPDATE_STOCK_PRICE_SQL.formatted(
+                String.join(", ", Collections.nCopies(changes.size(), STOCK_PRICE_VALUES_ROW))
+        );
+
+        List<Object> args = new ArrayList<>(changes.size() * 5 + 3);
+        for (int i = 0; i < changes.size(); i++) {
+            ProductStockPriceChange change = changes.get(i);
+            args.add(i);
+            args.add(change.productId());
+            args.add(change.productId() == null ? change.name() : null);
+            args.add(change.stockQuantity());
+            args.add(change.price());
+        }
+        args.add(tenantId);
+        args.add(tenantId);
+        args.add(tenantId);
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            boolean applied = rs.getBoolean("applied");
+            return new ProductStockPriceChangeResult(
+                    rs.getInt("idx"),
+                    rs.getLong("product_id"),
+                    applied,
+                    applied ? rs.getInt("stock_quantity") : null,
+                    applied ? rs.getBigDecimal("price") : null,
+                    applied ? rs.getLong("version") : null
+            );
+        }, args.toArray());
+    }
+
+    private List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            Long hi = jdbcTemplate.queryForObject(NEXT_ID_BLOCK_SQL, Long.class);
+            for (long id = Math.max(1, hi - ID_BLOCK_SIZE + 1); id <= hi && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
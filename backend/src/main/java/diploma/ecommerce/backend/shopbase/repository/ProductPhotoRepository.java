@@ -1,11 +1,20 @@
 package diploma.ecommerce.backend.shopbase.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import diploma.ecommerce.backend.shopbase.model.ProductPhoto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface ProductPhotoRepository extends JpaRepository<ProductPhoto, Long> {
@@ -16,6 +25,8 @@ public interface ProductPhotoRepository extends JpaRepository<ProductPhoto, Long
 
     Optional<ProductPhoto> findByTenantIdAndProductIdAndMainTrue(Long tenantId, Long productId);
 
+    List<ProductPhoto> findByTenantIdAndProductIdInAndMainTrue(Long tenantId, Collection<Long> productIds);
+
     List<ProductPhoto> findAllByTenantId(Long tenantId);
 
     Optional<ProductPhoto> findByTenantIdAndProductIdAndId(Long tenantId, Long productId, Long photoId);
@@ -29,4 +40,34 @@ public interface ProductPhotoRepository extends JpaRepository<ProductPhoto, Long
     boolean existsByTenantIdAndProductId(Long tenantId, Long productId);
 
     boolean existsByTenantIdAndId(Long tenantId, Long id);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            update ProductPhoto p
+            set p.thumbnailPath = :thumbnailPath, p.cardPath = :cardPath, p.fullPath = :fullPath
+            where p.tenant.id = :tenantId and p.filePath = :filePath
+            """)
+    int updateVariants(
+            @Param("tenantId") Long tenantId,
+            @Param("filePath") String filePath,
+            @Param("thumbnailPath") String thumbnailPath,
+            @Param("cardPath") String cardPath,
+            @Param("fullPath") String fullPath
+    );
+
+    /**
+     * Все адреса файлов фотографий тенанта: оригиналы и уменьшенные копии. Читается курсором.
+     */
+    @Query("""
+            select p.filePath from ProductPhoto p where p.tenant.id = :tenantId
+            union select p.thumbnailPath from ProductPhoto p where p.tenant.id = :tenantId
+            union select p.cardPath from ProductPhoto p where p.tenant.id = :tenantId
+            union select p.fullPath from ProductPhoto p where p.tenant.id = :tenantId
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<String> streamFilePathsByTenantId(@Param("tenantId") Long tenantId);
 }
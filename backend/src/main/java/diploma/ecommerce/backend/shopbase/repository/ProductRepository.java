@@ -1,12 +1,24 @@
 package diploma.ecommerce.backend.shopbase.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import diploma.ecommerce.backend.shopbase.dto.record.ProductCategoryRow;
+import diploma.ecommerce.backend.shopbase.dto.record.ProductExportRow;
 import diploma.ecommerce.backend.shopbase.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -23,4 +35,41 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     boolean existsByTenantIdAndId(Long tenantId, Long id);
 
     void deleteByTenantIdAndId(Long tenantId, Long id);
+
+    @Query("""
+            select new diploma.ecommerce.backend.shopbase.dto.record.ProductCategoryRow(p.id, p.category)
+            from Product p
+            where p.tenant.id = :tenantId and p.active = true and trim(p.category) <> ''
+            """)
+    List<ProductCategoryRow> findActiveCategoryRows(@Param("tenantId") Long tenantId);
+
+    @Query("""
+            select new diploma.ecommerce.backend.shopbase.dto.record.ProductCategoryRow(p.id, p.category)
+            from Product p
+            where p.tenant.id = :tenantId and p.id in :ids and p.active = true and trim(p.category) <> ''
+            """)
+    List<ProductCategoryRow> findActiveCategoryRowsByIdIn(@Param("tenantId") Long tenantId,
+                                                          @Param("ids") Collection<Long> ids);
+
+    // Блокировки берутся в порядке id: пачки заказов с общими товарами не получают взаимную блокировку
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select p from Product p
+            where p.tenant.id = :tenantId and p.id in :ids
+            order by p.id
+            """)
+    List<Product> lockAllByTenantIdAndIdIn(@Param("tenantId") Long tenantId, @Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new diploma.ecommerce.backend.shopbase.dto.record.ProductExportRow(
+                p.id, p.name, p.description, p.price, p.stockQuantity, p.category, p.active, p.updatedAt)
+            from Product p
+            where p.tenant.id = :tenantId
+            order by p.id
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductExportRow> streamForExport(@Param("tenantId") Long tenantId);
 }
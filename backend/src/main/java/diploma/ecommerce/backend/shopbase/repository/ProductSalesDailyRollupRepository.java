@@ -0,0 +1,52 @@
+package diploma.ecommerce.backend.shopbase.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.dto.record.ProductSalesSummary;
+import diploma.ecommerce.backend.shopbase.model.ProductSalesDailyRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductSalesDailyRollupRepository
+        extends JpaRepository<ProductSalesDailyRollup, ProductSalesDailyRollup.Key> {
+
+    // Читается диапазон первичного ключа (tenant_id, sales_date, ...): число строк - дни x проданные товары
+    @Query("""
+            select new diploma.ecommerce.backend.shopbase.dto.record.ProductSalesSummary(
+                r.productId, p.name, sum(r.ordersCount), sum(r.unitsSold), sum(r.revenue),
+                sum(r.canceledUnits), sum(r.canceledRevenue))
+            from ProductSalesDailyRollup r
+            left join Product p on p.id = r.productId
+            where r.tenantId = :tenantId and r.salesDate between :from and :to
+            group by r.productId, p.name
+            order by sum(r.revenue) - sum(r.canceledRevenue) desc, r.productId
+            """)
+    List<ProductSalesSummary> findTopByRevenue(
+            @Param("tenantId") Long tenantId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            Pageable pageable
+    );
+
+    @Query("""
+            select new diploma.ecommerce.backend.shopbase.dto.record.ProductSalesSummary(
+                r.productId, p.name, sum(r.ordersCount), sum(r.unitsSold), sum(r.revenue),
+                sum(r.canceledUnits), sum(r.canceledRevenue))
+            from ProductSalesDailyRollup r
+            left join Product p on p.id = r.productId
+            where r.tenantId = :tenantId and r.salesDate between :from and :to
+            group by r.productId, p.name
+            order by sum(r.unitsSold) - sum(r.canceledUnits) desc, r.productId
+            """)
+    List<ProductSalesSummary> findTopByUnits(
+            @Param("tenantId") Long tenantId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            Pageable pageable
+    );
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,4 +35,7 @@ public interface ProductWildberriesMappingRepository extends JpaRepository<Produ
 
     @Query("SELECT m FROM ProductWildberriesMapping m WHERE m.tenant.id = :tenantId AND m.active = true AND m.syncStatus != 'ERROR'")
     List<ProductWildberriesMapping> findActiveMappingsForSync(Long tenantId);
+
+    @Query("SELECT m FROM ProductWildberriesMapping m JOIN FETCH m.product WHERE m.tenant.id = :tenantId AND m.product.id IN :productIds AND m.active = true AND m.syncStatus != 'ERROR'")
+    List<ProductWildberriesMapping> findActiveMappingsForSyncByProductIds(Long tenantId, Collection<Long> productIds);
 }
\ No newline at end of file
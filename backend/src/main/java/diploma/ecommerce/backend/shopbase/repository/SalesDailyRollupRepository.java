@@ -0,0 +1,18 @@
+package diploma.ecommerce.backend.shopbase.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.model.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, SalesDailyRollup.Key> {
+
+    List<SalesDailyRollup> findByTenantIdAndSalesDateBetweenOrderBySalesDate(
+            Long tenantId,
+            LocalDate from,
+            LocalDate to
+    );
+}
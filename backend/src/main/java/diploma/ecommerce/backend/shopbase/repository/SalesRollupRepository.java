@@ -0,0 +1,203 @@
+package diploma.ecommerce.backend.shopbase.repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.analytics.ProductSalesDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Инкрементальное обновление и пересчет дневных агрегатов продаж.
+ * Все записи - upsert с прибавлением, поэтому параллельные заказы за один день не теряют приращений.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SalesRollupRepository {
+
+    private static final String UPSERT_SALES_SQL = """
+            INSERT INTO sales_daily_rollup (tenant_id, sales_date, orders_count, units_sold, revenue,
+                                            canceled_orders, canceled_units, canceled_revenue)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (tenant_id, sales_date) DO UPDATE SET
+                orders_count     = sales_daily_rollup.orders_count + EXCLUDED.orders_count,
+                units_sold       = sales_daily_rollup.units_sold + EXCLUDED.units_sold,
+                revenue          = sales_daily_rollup.revenue + EXCLUDED.revenue,
+                canceled_orders  = sales_daily_rollup.canceled_orders + EXCLUDED.canceled_orders,
+                canceled_units   = sales_daily_rollup.canceled_units + EXCLUDED.canceled_units,
+                canceled_revenue = sales_daily_rollup.canceled_revenue + EXCLUDED.canceled_revenue
+            """;
+
+    private static final String UPSERT_PRODUCT_SALES_SQL = """
+            INSERT INTO product_sales_daily_rollup (tenant_id, product_id, sales_date, orders_count, units_sold,
+                                                    revenue, canceled_units, canceled_revenue)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (tenant_id, sales_date, product_id) DO UPDATE SET
+                orders_count     = product_sales_daily_rollup.orders_count + EXCLUDED.orders_count,
+                units_sold       = product_sales_daily_rollup.units_sold + EXCLUDED.units_sold,
+                revenue          = product_sales_daily_rollup.revenue + EXCLUDED.revenue,
+                canceled_units   = product_sales_daily_rollup.canceled_units + EXCLUDED.canceled_units,
+                canceled_revenue = product_sales_daily_rollup.canceled_revenue + EXCLUDED.canceled_revenue
+            """;
+
+    private static final String DELETE_SALES_SQL =
+            "DELETE FROM sales_daily_rollup WHERE tenant_id = ? AND sales_date BETWEEN ? AND ?";
+    private static final String DELETE_PRODUCT_SALES_SQL =
+            "DELETE FROM product_sales_daily_rollup WHERE tenant_id = ? AND sales_date BETWEEN ? AND ?";
+
+    // Переход в Canceled/Returned из любого другого статуса - то же условие, что и у возврата остатков
+    private static final String CANCELLATION_EVENTS = """
+            order_status_history h
+            JOIN order_status s ON s.status_id = h.status_id
+            LEFT JOIN order_status ps ON ps.status_id = h.previous_status_id
+            """;
+    private static final String CANCELLATION_CONDITION = """
+            s.status_name IN ('Canceled', 'Returned')
+              AND (ps.status_name IS NULL OR ps.status_name NOT IN ('Canceled', 'Returned'))
+            """;
+    private static final String ORDER_TOTALS = """
+            (SELECT order_id, sum(quantity) AS units, sum(total_price) AS revenue
+             FROM order_product
+             WHERE tenant_id = ?
+             GROUP BY order_id)
+            """;
+
+    private static final String REBUILD_PLACED_SQL = """
+            INSERT INTO sales_daily_rollup (tenant_id, sales_date, orders_count, units_sold, revenue,
+                                            canceled_orders, canceled_units, canceled_revenue)
+            SELECT o.tenant_id, o.created_at::date, count(*), COALESCE(sum(i.units), 0), COALESCE(sum(i.revenue), 0),
+                   0, 0, 0
+            FROM store_order o
+            LEFT JOIN %s i ON i.order_id = o.order_id
+            WHERE o.tenant_id = ? AND o.created_at >= ? AND o.created_at < ?
+            GROUP BY o.tenant_id, o.created_at::date
+            ON CONFLICT (tenant_id, sales_date) DO UPDATE SET
+                orders_count = sales_daily_rollup.orders_count + EXCLUDED.orders_count,
+                units_sold   = sales_daily_rollup.units_sold + EXCLUDED.units_sold,
+                revenue      = sales_daily_rollup.revenue + EXCLUDED.revenue
+            """.formatted(ORDER_TOTALS);
+
+    private static final String REBUILD_CANCELED_SQL = """
+            INSERT INTO sales_daily_rollup (tenant_id, sales_date, orders_count, units_sold, revenue,
+                                            canceled_orders, canceled_units, canceled_revenue)
+            SELECT h.tenant_id, h.changed_at::date, 0, 0, 0,
+                   count(*), COALESCE(sum(i.units), 0), COALESCE(sum(i.revenue), 0)
+            FROM %s
+            LEFT JOIN %s i ON i.order_id = h.order_id
+            WHERE h.tenant_id = ? AND h.changed_at >= ? AND h.changed_at < ?
+              AND %s
+            GROUP BY h.tenant_id, h.changed_at::date
+            ON CONFLICT (tenant_id, sales_date) DO UPDATE SET
+                canceled_orders  = sales_daily_rollup.canceled_orders + EXCLUDED.canceled_orders,
+                canceled_units   = sales_daily_rollup.canceled_units + EXCLUDED.canceled_units,
+                canceled_revenue = sales_daily_rollup.canceled_revenue + EXCLUDED.canceled_revenue
+            """.formatted(CANCELLATION_EVENTS, ORDER_TOTALS, CANCELLATION_CONDITION);
+
+    private static final String REBUILD_PRODUCT_PLACED_SQL = """
+            INSERT INTO product_sales_daily_rollup (tenant_id, product_id, sales_date, orders_count, units_sold,
+                                                    revenue, canceled_units, canceled_revenue)
+            SELECT i.tenant_id, i.product_id, o.created_at::date, count(*), sum(i.quantity), sum(i.total_price), 0, 0
+            FROM store_order o
+            JOIN order_product i ON i.tenant_id = o.tenant_id AND i.order_id = o.order_id
+            WHERE o.tenant_id = ? AND o.created_at >= ? AND o.created_at < ? AND i.product_id IS NOT NULL
+            GROUP BY i.tenant_id, i.product_id, o.created_at::date
+            ON CONFLICT (tenant_id, sales_date, product_id) DO UPDATE SET
+                orders_count = product_sales_daily_rollup.orders_count + EXCLUDED.orders_count,
+                units_sold   = product_sales_daily_rollup.units_sold + EXCLUDED.units_sold,
+                revenue      = product_sales_daily_rollup.revenue + EXCLUDED.revenue
+            """;
+
+    private static final String REBUILD_PRODUCT_CANCELED_SQL = """
+            INSERT INTO product_sales_daily_rollup (tenant_id, product_id, sales_date, orders_count, units_sold,
+                                                    revenue, canceled_units, canceled_revenue)
+            SELECT i.tenant_id, i.product_id, h.changed_at::date, 0, 0, 0, sum(i.quantity), sum(i.total_price)
+            FROM %s
+            JOIN order_product i ON i.tenant_id = h.tenant_id AND i.order_id = h.order_id
+            WHERE h.tenant_id = ? AND h.changed_at >= ? AND h.changed_at < ? AND i.product_id IS NOT NULL
+              AND %s
+            GROUP BY i.tenant_id, i.product_id, h.changed_at::date
+            ON CONFLICT (tenant_id, sales_date, product_id) DO UPDATE SET
+                canceled_units   = product_sales_daily_rollup.canceled_units + EXCLUDED.canceled_units,
+                canceled_revenue = product_sales_daily_rollup.canceled_revenue + EXCLUDED.canceled_revenue
+            """.formatted(CANCELLATION_EVENTS, CANCELLATION_CONDITION);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Прибавляет приращения к агрегатам дня: строка магазина получает сумму по всем позициям.
+     * Позиции должны быть упорядочены по productId, чтобы параллельные транзакции блокировали строки
+     * в одном порядке.
+     */
+    public void increment(
+            Long tenantId,
+            LocalDate salesDate,
+            int ordersDelta,
+            int canceledOrdersDelta,
+            List<ProductSalesDelta> lines
+    ) {
+        long units = 0;
+        long canceledUnits = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal canceledRevenue = BigDecimal.ZERO;
+        for (ProductSalesDelta line : lines) {
+            units += line.units();
+            canceledUnits += line.canceledUnits();
+            revenue = revenue.add(line.revenue());
+            canceledRevenue = canceledRevenue.add(line.canceledRevenue());
+        }
+        Date date = Date.valueOf(salesDate);
+
+        jdbcTemplate.update(UPSERT_SALES_SQL, tenantId, date, ordersDelta, units, revenue,
+                canceledOrdersDelta, canceledUnits, canceledRevenue);
+
+        if (lines.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_PRODUCT_SALES_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ProductSalesDelta line = lines.get(i);
+                ps.setLong(1, tenantId);
+                ps.setLong(2, line.productId());
+                ps.setDate(3, date);
+                ps.setInt(4, line.orders());
+                ps.setLong(5, line.units());
+                ps.setBigDecimal(6, line.revenue());
+                ps.setLong(7, line.canceledUnits());
+                ps.setBigDecimal(8, line.canceledRevenue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+    }
+
+    /**
+     * Пересчитывает агрегаты за дни {@code [from, to]} из заказов и журнала статусов.
+     * Вставки тоже прибавляют к существующим строкам: приращения заказов, зафиксированных во время
+     * пересчета, но не видимых его запросам, не теряются.
+     */
+    public void rebuild(Long tenantId, LocalDate from, LocalDate to) {
+        Date fromDate = Date.valueOf(from);
+        Date toDate = Date.valueOf(to);
+        Timestamp fromTs = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp toTs = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+
+        jdbcTemplate.update(DELETE_SALES_SQL, tenantId, fromDate, toDate);
+        jdbcTemplate.update(DELETE_PRODUCT_SALES_SQL, tenantId, fromDate, toDate);
+
+        jdbcTemplate.update(REBUILD_PLACED_SQL, tenantId, tenantId, fromTs, toTs);
+        jdbcTemplate.update(REBUILD_CANCELED_SQL, tenantId, tenantId, fromTs, toTs);
+        jdbcTemplate.update(REBUILD_PRODUCT_PLACED_SQL, tenantId, fromTs, toTs);
+        jdbcTemplate.update(REBUILD_PRODUCT_CANCELED_SQL, tenantId, fromTs, toTs);
+    }
+}
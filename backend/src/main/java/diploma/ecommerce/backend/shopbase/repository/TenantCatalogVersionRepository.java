@@ -0,0 +1,71 @@
+package diploma.ecommerce.backend.shopbase.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import diploma.ecommerce.backend.shopbase.model.TenantCatalogVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Версии каталога по тенантам. Увеличение выполняется одним upsert-ом, поэтому одновременные
+ * изменения с разных узлов не теряются. Строка вставляется через выборку из tenants: изменение
+ * удаленного тенанта молча пропускается.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TenantCatalogVersionRepository {
+
+    private static final String INCREMENT_SQL = """
+            INSERT INTO tenant_catalog_version (tenant_id, version, updated_at)
+            SELECT tenant_id, 1, CURRENT_TIMESTAMP FROM tenants WHERE tenant_id = ?
+            ON CONFLICT (tenant_id) DO UPDATE SET
+                version = tenant_catalog_version.version + 1,
+                updated_at = CURRENT_TIMESTAMP
+            RETURNING version
+            """;
+
+    // Страховка от потерянного увеличения: товар изменен позже последнего увеличения версии его тенанта
+    private static final String INCREMENT_STALE_SQL = """
+            UPDATE tenant_catalog_version v SET
+                version = v.version + 1,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE EXISTS (SELECT 1 FROM product p WHERE p.tenant_id = v.tenant_id AND p.updated_at > v.updated_at)
+            RETURNING v.tenant_id
+            """;
+
+    private static final String FIND_SQL =
+            "SELECT tenant_id, version, updated_at FROM tenant_catalog_version WHERE tenant_id = ?";
+
+    private static final RowMapper<TenantCatalogVersion> ROW_MAPPER = (rs, rowNum) -> new TenantCatalogVersion(
+            rs.getLong("tenant_id"),
+            rs.getLong("version"),
+            rs.getTimestamp("updated_at").toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return новая версия или 0, если тенант удален
+     */
+    public long increment(Long tenantId) {
+        return jdbcTemplate.query(INCREMENT_SQL, (rs, rowNum) -> rs.getLong("version"), tenantId).stream()
+                .findFirst()
+                .orElse(0L);
+    }
+
+    /**
+     * Увеличивает версии тенантов, у которых есть товары, измененные после последнего увеличения.
+     *
+     * @return тенанты, версии которых увеличены
+     */
+    public List<Long> incrementStale() {
+        return jdbcTemplate.query(INCREMENT_STALE_SQL, (rs, rowNum) -> rs.getLong("tenant_id"));
+    }
+
+    public Optional<TenantCatalogVersion> find(Long tenantId) {
+        return jdbcTemplate.query(FIND_SQL, ROW_MAPPER, tenantId).stream().findFirst();
+    }
+}
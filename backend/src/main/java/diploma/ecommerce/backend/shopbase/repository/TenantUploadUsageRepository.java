@@ -0,0 +1,90 @@
+package diploma.ecommerce.backend.shopbase.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import diploma.ecommerce.backend.shopbase.model.TenantUploadUsage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Счетчики объема загрузок по тенантам. Приращения применяются upsert-ом с прибавлением,
+ * поэтому узлы, сбрасывающие накопленные изменения одновременно, не теряют друг друга.
+ * Строка вставляется через выборку из tenants: приращения удаленного тенанта молча пропускаются.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TenantUploadUsageRepository {
+
+    private static final String ADD_SQL = """
+            INSERT INTO tenant_upload_usage (tenant_id, used_bytes, file_count, updated_at)
+            SELECT tenant_id, GREATEST(?, 0), GREATEST(?, 0), CURRENT_TIMESTAMP FROM tenants WHERE tenant_id = ?
+            ON CONFLICT (tenant_id) DO UPDATE SET
+                used_bytes = GREATEST(tenant_upload_usage.used_bytes + ?, 0),
+                file_count = GREATEST(tenant_upload_usage.file_count + ?, 0),
+                updated_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final String REPLACE_SQL = """
+            INSERT INTO tenant_upload_usage (tenant_id, used_bytes, file_count, updated_at)
+            SELECT tenant_id, ?, ?, CURRENT_TIMESTAMP FROM tenants WHERE tenant_id = ?
+            ON CONFLICT (tenant_id) DO UPDATE SET
+                used_bytes = EXCLUDED.used_bytes,
+                file_count = EXCLUDED.file_count,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String FIND_SQL =
+            "SELECT tenant_id, used_bytes, file_count, updated_at FROM tenant_upload_usage WHERE tenant_id = ?";
+
+    private static final RowMapper<TenantUploadUsage> ROW_MAPPER = (rs, rowNum) -> new TenantUploadUsage(
+            rs.getLong("tenant_id"),
+            rs.getLong("used_bytes"),
+            rs.getLong("file_count"),
+            rs.getTimestamp("updated_at").toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Прибавляет приращения к счетчикам; значения не опускаются ниже нуля.
+     *
+     * @param deltas приращения по тенантам: [байты, файлы]
+     */
+    public void addAll(Map<Long, long[]> deltas) {
+        List<Map.Entry<Long, long[]>> rows = List.copyOf(deltas.entrySet());
+        jdbcTemplate.batchUpdate(ADD_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                long[] delta = rows.get(i).getValue();
+                ps.setLong(1, delta[0]);
+                ps.setLong(2, delta[1]);
+                ps.setLong(3, rows.get(i).getKey());
+                ps.setLong(4, delta[0]);
+                ps.setLong(5, delta[1]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    /**
+     * Записывает точные значения, посчитанные по каталогу тенанта.
+     */
+    public void replace(Long tenantId, long usedBytes, long fileCount) {
+        jdbcTemplate.update(REPLACE_SQL, usedBytes, fileCount, tenantId);
+    }
+
+    public Optional<TenantUploadUsage> find(Long tenantId) {
+        return jdbcTemplate.query(FIND_SQL, ROW_MAPPER, tenantId).stream().findFirst();
+    }
+}
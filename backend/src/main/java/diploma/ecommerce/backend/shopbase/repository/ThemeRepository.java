@@ -1,10 +1,44 @@
 package diploma.ecommerce.backend.shopbase.repository;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import diploma.ecommerce.backend.shopbase.dto.record.TenantThemeVersion;
 import diploma.ecommerce.backend.shopbase.model.Theme;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ThemeRepository extends JpaRepository<Theme, Long> {
 
-}
\ No newline at end of file
+    @Query("select t.theme from Tenant t where t.id = :tenantId")
+    Optional<Theme> findByTenantId(@Param("tenantId") Long tenantId);
+
+    @Query("""
+            select new diploma.ecommerce.backend.shopbase.dto.record.TenantThemeVersion(th.id, th.updatedAt)
+            from Tenant t left join t.theme th
+            where t.id = :tenantId
+            """)
+    Optional<TenantThemeVersion> findVersionByTenantId(@Param("tenantId") Long tenantId);
+
+    /**
+     * Все адреса изображений и таблиц стилей тем. Читается курсором.
+     */
+    @Query("""
+            select t.logoUrl from Theme t
+            union select t.headerImageUrl from Theme t
+            union select t.footerLogoUrl from Theme t
+            union select t.faviconUrl from Theme t
+            union select t.stylesheetUrl from Theme t
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<String> streamFileUrls();
+}
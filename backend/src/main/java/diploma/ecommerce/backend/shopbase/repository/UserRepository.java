@@ -1,5 +1,6 @@
 package diploma.ecommerce.backend.shopbase.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,8 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     List<User> findAllByTenantId(Long tenantId);
 
+    List<User> findAllByTenantIdAndIdIn(Long tenantId, Collection<Long> ids);
+
     Page<User> findAllByTenantId(Long tenantId, Pageable pageable);
 
     boolean existsByTenantIdAndEmail(Long tenantId, String email);
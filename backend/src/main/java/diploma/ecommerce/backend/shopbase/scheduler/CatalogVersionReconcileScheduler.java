@@ -0,0 +1,29 @@
+package diploma.ecommerce.backend.shopbase.scheduler;
+
+import diploma.ecommerce.backend.shopbase.catalog.CatalogVersions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogVersionReconcileScheduler {
+
+    private final CatalogVersions catalogVersions;
+
+    // Сверка идемпотентна: узлы, запустившие ее одновременно, увеличат отставшую версию один раз
+    @Scheduled(fixedDelayString = "${app.catalog.version-reconcile-interval-ms:60000}")
+    public void reconcileVersions() {
+        try {
+            int bumped = catalogVersions.reconcile();
+            if (bumped > 0) {
+                log.info("Reconciled {} catalog versions", bumped);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Catalog version reconciliation failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package diploma.ecommerce.backend.shopbase.scheduler;
+
+import java.time.LocalDateTime;
+
+import diploma.ecommerce.backend.shopbase.concurrency.IdempotentRequestRegistry;
+import diploma.ecommerce.backend.shopbase.repository.OrderIdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyCleanupScheduler {
+
+    static final int DELETE_BATCH_SIZE = 5000;
+
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    private final IdempotentRequestRegistry idempotentRequestRegistry;
+
+    // Каждая порция удаляется отдельной короткой транзакцией
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:600000}")
+    public void removeExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        int removed = 0;
+        int batch;
+        do {
+            batch = orderIdempotencyKeyRepository.deleteExpired(now, DELETE_BATCH_SIZE);
+            removed += batch;
+        } while (batch == DELETE_BATCH_SIZE);
+
+        int evicted = idempotentRequestRegistry.evictExpired();
+        if (removed > 0 || evicted > 0) {
+            log.info("Removed {} expired idempotency keys ({} cached entries evicted)", removed, evicted);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package diploma.ecommerce.backend.shopbase.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import diploma.ecommerce.backend.shopbase.repository.OrderIntakeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class OrderIntakeReaperScheduler {
+
+    static final int DELETE_BATCH_SIZE = 5000;
+
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final long processingTimeoutMs;
+    private final int maxAttempts;
+    private final long retentionHours;
+
+    public OrderIntakeReaperScheduler(
+            OrderIntakeRepository orderIntakeRepository,
+            @Value("${app.orders.intake.processing-timeout-ms:60000}") long processingTimeoutMs,
+            @Value("${app.orders.intake.max-attempts:3}") int maxAttempts,
+            @Value("${app.orders.intake.retention-hours:24}") long retentionHours
+    ) {
+        this.orderIntakeRepository = orderIntakeRepository;
+        this.processingTimeoutMs = processingTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.retentionHours = retentionHours;
+    }
+
+    // Заявки упавшего обработчика возвращаются в очередь; завершенные удаляются порциями после срока хранения
+    @Scheduled(fixedDelayString = "${app.orders.intake.reaper-interval-ms:30000}")
+    public void reap() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(Duration.ofMillis(processingTimeoutMs));
+        int requeued = orderIntakeRepository.requeueStale(staleBefore, maxAttempts, now);
+
+        LocalDateTime retentionThreshold = now.minusHours(retentionHours);
+        int removed = 0;
+        int batch;
+        do {
+            batch = orderIntakeRepository.deleteFinished(retentionThreshold, DELETE_BATCH_SIZE);
+            removed += batch;
+        } while (batch == DELETE_BATCH_SIZE);
+
+        if (requeued > 0 || removed > 0) {
+            log.info("Requeued {} stale order intake entries, removed {} finished entries", requeued, removed);
+        }
+    }
+}
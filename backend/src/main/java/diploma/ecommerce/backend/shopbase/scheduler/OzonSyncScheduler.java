@@ -15,7 +15,8 @@ import java.util.List;
 @Slf4j
 @Component
 @RequiredArgsConstructor
-@ConditionalOnProperty(name = "ozon.sync.enabled", havingValue = "true", matchIfMissing = true)
+// Ozon синхронизирует и UnifiedMarketplaceSyncScheduler, поэтому отдельный планировщик по умолчанию выключен
+@ConditionalOnProperty(name = "ozon.sync.enabled", havingValue = "true")
 public class OzonSyncScheduler {
 
     private final OzonSyncService ozonSyncService;
@@ -33,13 +34,12 @@ public class OzonSyncScheduler {
 
         for (Tenant tenant : tenantsWithOzon) {
             try {
-                TenantContext.setTenantId(tenant.getId());
-                log.info("Syncing tenant {} ({})", tenant.getId(), tenant.getName());
-                ozonSyncService.syncProductsForTenant(tenant.getId());
+                TenantContext.runWithTenant(tenant.getId(), () -> {
+                    log.info("Syncing tenant {} ({})", tenant.getId(), tenant.getName());
+                    ozonSyncService.syncProductsForTenant(tenant.getId());
+                });
             } catch (Exception e) {
                 log.error("Error syncing tenant {}: ", tenant.getId(), e);
-            } finally {
-                TenantContext.clear();
             }
         }
 
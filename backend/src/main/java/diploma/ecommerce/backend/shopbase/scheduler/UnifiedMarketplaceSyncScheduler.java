@@ -33,13 +33,12 @@ public class UnifiedMarketplaceSyncScheduler {
 
         for (Tenant tenant : tenantsWithMarketplaces) {
             try {
-                TenantContext.setTenantId(tenant.getId());
-                log.info("Syncing marketplaces for tenant {} ({})", tenant.getId(), tenant.getName());
-                syncService.syncAllMarketplaces(tenant.getId());
+                TenantContext.runWithTenant(tenant.getId(), () -> {
+                    log.info("Syncing marketplaces for tenant {} ({})", tenant.getId(), tenant.getName());
+                    syncService.syncAllMarketplaces(tenant.getId());
+                });
             } catch (Exception e) {
                 log.error("Error syncing marketplaces for tenant {}: ", tenant.getId(), e);
-            } finally {
-                TenantContext.clear();
             }
         }
 
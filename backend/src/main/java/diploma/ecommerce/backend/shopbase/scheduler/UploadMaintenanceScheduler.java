@@ -0,0 +1,38 @@
+package diploma.ecommerce.backend.shopbase.scheduler;
+
+import diploma.ecommerce.backend.shopbase.storage.UploadGarbageCollector;
+import diploma.ecommerce.backend.shopbase.storage.UploadUsageTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadMaintenanceScheduler {
+
+    private final UploadUsageTracker uploadUsageTracker;
+    // Есть только при локальном хранилище; объектное хранилище чистят правила жизненного цикла бакета
+    private final ObjectProvider<UploadGarbageCollector> uploadGarbageCollector;
+
+    @Scheduled(fixedDelayString = "${app.uploads.usage-flush-interval-ms:10000}")
+    public void flushUsage() {
+        uploadUsageTracker.flush();
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.uploads.gc.initial-delay-ms:600000}",
+            fixedDelayString = "${app.uploads.gc.interval-ms:3600000}"
+    )
+    public void collectUnreferencedUploads() {
+        uploadGarbageCollector.ifAvailable(collector -> {
+            try {
+                collector.collect();
+            } catch (RuntimeException e) {
+                log.error("Upload garbage collection failed", e);
+            }
+        });
+    }
+}
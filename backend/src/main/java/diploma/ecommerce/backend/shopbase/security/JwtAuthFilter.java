@@ -46,6 +46,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
+        Long authenticatedTenantId = null;
 
         try {
             String username = jwtUtil.extractUsername(jwt);
@@ -87,10 +88,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                     );
                     SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                    // Устанавливаем tenant_id в контекст, если он был в токене
-                    if (tenantId != null) {
-                        TenantContext.setTenantId(tenantId);
-                    }
+                    // tenant_id из токена действует только на время обработки запроса
+                    authenticatedTenantId = tenantId;
 
                     log.debug("Authentication set for user: {}", username);
                 } else {
@@ -101,6 +100,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             log.warn("Cannot set user authentication due to: {}", e.getMessage(), e);
         }
 
-        filterChain.doFilter(request, response);
+        try (TenantContext.Scope ignored = TenantContext.open(authenticatedTenantId)) {
+            filterChain.doFilter(request, response);
+        }
     }
 }
@@ -0,0 +1,22 @@
+package diploma.ecommerce.backend.shopbase.service;
+
+import diploma.ecommerce.backend.shopbase.dto.request.DirectUploadCompleteRequest;
+import diploma.ecommerce.backend.shopbase.dto.request.DirectUploadRequest;
+import diploma.ecommerce.backend.shopbase.dto.response.DirectUploadResponse;
+
+/**
+ * Загрузка файлов из браузера напрямую в объектное хранилище по подписанным адресам: байты файла
+ * не проходят через бэкенд. Доступна только для хранилища, которое поддерживает такие адреса.
+ */
+public interface DirectUploadService {
+
+    DirectUploadResponse createUpload(Long tenantId, String folder, DirectUploadRequest request);
+
+    /**
+     * Проверяет загруженный объект (для составной загрузки - сначала собирает его из частей)
+     * и возвращает адрес файла.
+     */
+    String completeUpload(Long tenantId, DirectUploadCompleteRequest request);
+
+    void abortUpload(Long tenantId, String key, String uploadId);
+}
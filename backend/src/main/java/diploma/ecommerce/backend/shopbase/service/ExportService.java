@@ -0,0 +1,15 @@
+package diploma.ecommerce.backend.shopbase.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+import diploma.ecommerce.backend.shopbase.export.ExportFormat;
+
+public interface ExportService {
+
+    long exportOrders(Long tenantId, LocalDate from, LocalDate to, ExportFormat format, OutputStream out)
+            throws IOException;
+
+    long exportProducts(Long tenantId, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -1,6 +1,7 @@
 package diploma.ecommerce.backend.shopbase.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.springframework.web.multipart.MultipartFile;
 
@@ -8,5 +9,18 @@ public interface FileStorageService {
 
     String storeFile(MultipartFile file, Long tenantId, String folder) throws IOException;
 
+    /**
+     * Сохраняет файл из потока, не буферизуя его целиком. Расширение берется из originalFilename.
+     */
+    String storeFile(InputStream content, String originalFilename, Long tenantId, String folder) throws IOException;
+
     boolean deleteFile(String fileUrl);
+
+    /**
+     * Сохраняет общий для всех тенантов файл под заданным именем. Имя должно зависеть только
+     * от содержимого: существующий файл с таким именем не перезаписывается.
+     *
+     * @return адрес файла
+     */
+    String storeSharedFile(String folder, String filename, byte[] content) throws IOException;
 }
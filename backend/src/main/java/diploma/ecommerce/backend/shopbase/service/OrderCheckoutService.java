@@ -0,0 +1,9 @@
+package diploma.ecommerce.backend.shopbase.service;
+
+import diploma.ecommerce.backend.shopbase.dto.record.OrderCreationResult;
+import diploma.ecommerce.backend.shopbase.model.Order;
+
+public interface OrderCheckoutService {
+
+    OrderCreationResult placeOrder(Long tenantId, Order orderRequest, String idempotencyKey);
+}
@@ -0,0 +1,23 @@
+package diploma.ecommerce.backend.shopbase.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import diploma.ecommerce.backend.shopbase.dto.request.OrderCreateRequest;
+import diploma.ecommerce.backend.shopbase.model.OrderIntake;
+
+public interface OrderIntakeService {
+
+    OrderIntake submit(Long tenantId, OrderCreateRequest request);
+
+    OrderIntake getStatus(Long tenantId, UUID ticket);
+
+    /**
+     * Создает заказы по заявкам одного тенанта, забранным обработчиком, и фиксирует их итог в очереди.
+     */
+    void processClaimed(Long tenantId, List<OrderIntake> claimed);
+
+    void markFailed(List<OrderIntake> claimed, String reason);
+
+    void release(List<OrderIntake> claimed);
+}
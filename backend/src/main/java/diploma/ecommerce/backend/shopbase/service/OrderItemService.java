@@ -14,4 +14,6 @@ public interface OrderItemService {
     OrderItem updateOrderItem(Long tenantId, Long id, OrderItem orderItemDetails);
 
     void deleteOrderItem(Long tenantId, Long id);
+
+    List<OrderItem> updateOrderItems(Long tenantId, Long orderId, List<OrderItem> items, boolean replace);
 }
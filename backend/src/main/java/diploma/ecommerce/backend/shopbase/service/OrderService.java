@@ -1,6 +1,12 @@
 package diploma.ecommerce.backend.shopbase.service;
 
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.dto.record.OrderBatchOutcome;
+import diploma.ecommerce.backend.shopbase.dto.record.OrderCreationResult;
 import diploma.ecommerce.backend.shopbase.model.Order;
+import diploma.ecommerce.backend.shopbase.model.OrderIdempotencyKey;
+import diploma.ecommerce.backend.shopbase.model.OrderStatusHistory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -12,6 +18,14 @@ public interface OrderService {
 
     Order createOrder(Long tenantId, Order orderRequest);
 
+    OrderCreationResult createOrder(Long tenantId, Order orderRequest, OrderIdempotencyKey idempotencyKey);
+
+    /**
+     * Создает пачку заказов одной транзакцией. Заказы, которые нельзя создать (нет товара, покупателя,
+     * недостаточно остатка), отклоняются по отдельности; результаты возвращаются в порядке запросов.
+     */
+    List<OrderBatchOutcome> createOrdersBatch(Long tenantId, List<Order> orderRequests);
+
     Order updateOrderStatus(Long tenantId, Long id, Long statusId, String comment);
 
     void deleteOrder(Long tenantId, Long id);
@@ -19,5 +33,7 @@ public interface OrderService {
     Order cancelOrder(Long tenantId, Long id, String reason);
 
     Order processOrderPayment(Long tenantId, Long id, String paymentReference);
+
+    Page<OrderStatusHistory> getOrderStatusHistory(Long tenantId, Long orderId, Pageable pageable);
 }
 
@@ -0,0 +1,11 @@
+package diploma.ecommerce.backend.shopbase.service;
+
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.dto.request.ProductBulkUpdateRequest;
+import diploma.ecommerce.backend.shopbase.dto.response.ProductBulkUpdateResponse;
+
+public interface ProductBulkUpdateService {
+
+    ProductBulkUpdateResponse updateStockAndPrice(Long tenantId, List<ProductBulkUpdateRequest.Item> items);
+}
@@ -0,0 +1,12 @@
+package diploma.ecommerce.backend.shopbase.service;
+
+import java.io.InputStream;
+
+import diploma.ecommerce.backend.shopbase.importer.ProductImportJob;
+
+public interface ProductImportService {
+
+    ProductImportJob startImport(Long tenantId, String fileName, InputStream content);
+
+    ProductImportJob getJob(Long tenantId, String jobId);
+}
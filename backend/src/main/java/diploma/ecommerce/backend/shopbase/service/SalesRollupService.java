@@ -0,0 +1,34 @@
+package diploma.ecommerce.backend.shopbase.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.analytics.ProductSalesDelta;
+import diploma.ecommerce.backend.shopbase.analytics.ProductSalesSort;
+import diploma.ecommerce.backend.shopbase.dto.record.ProductSalesSummary;
+import diploma.ecommerce.backend.shopbase.model.Order;
+import diploma.ecommerce.backend.shopbase.model.SalesDailyRollup;
+
+public interface SalesRollupService {
+
+    void recordOrderPlaced(Order order);
+
+    void recordOrderCanceled(Order order);
+
+    void recordItemChange(Order order, Long productId, int ordersDelta, int unitsDelta, BigDecimal revenueDelta);
+
+    void recordItemChanges(Order order, List<ProductSalesDelta> changes);
+
+    List<SalesDailyRollup> getDailySales(Long tenantId, LocalDate from, LocalDate to);
+
+    List<ProductSalesSummary> getTopProducts(
+            Long tenantId,
+            LocalDate from,
+            LocalDate to,
+            ProductSalesSort sort,
+            int limit
+    );
+
+    void rebuild(Long tenantId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,24 @@
+package diploma.ecommerce.backend.shopbase.service;
+
+import diploma.ecommerce.backend.shopbase.catalog.CategoryFacets;
+import diploma.ecommerce.backend.shopbase.dto.response.StorefrontBootstrapResponse;
+import diploma.ecommerce.backend.shopbase.theme.PublicThemeCache;
+
+public interface StorefrontService {
+
+    PublicThemeCache.Snapshot getPublicTheme(Long tenantId);
+
+    /**
+     * Валидатор стартовых данных витрины. Меняется вместе с каталогом, сведениями о магазине и темой,
+     * вычисляется без выборки товаров.
+     */
+    String getBootstrapETag(Long tenantId, PublicThemeCache.Snapshot theme);
+
+    StorefrontBootstrapResponse getBootstrap(Long tenantId, PublicThemeCache.Snapshot theme);
+
+    /**
+     * Категории активных товаров с их числом. Отдаются из памяти; база читается только для сверки
+     * версии каталога.
+     */
+    CategoryFacets.Snapshot getCategoryFacets(Long tenantId);
+}
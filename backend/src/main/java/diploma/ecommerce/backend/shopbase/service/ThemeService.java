@@ -10,4 +10,6 @@ public interface ThemeService {
     Theme updateTheme(Long id, Theme themeDetails);
 
     Theme getDefaultTheme();
+
+    Theme getTenantThemeOrDefault(Long tenantId);
 }
\ No newline at end of file
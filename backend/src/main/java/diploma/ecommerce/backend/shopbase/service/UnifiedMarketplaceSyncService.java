@@ -1,5 +1,7 @@
 package diploma.ecommerce.backend.shopbase.service;
 
+import java.util.Collection;
+
 import diploma.ecommerce.backend.shopbase.service.marketplace.MarketplaceAdapter.MarketplaceType;
 
 public interface UnifiedMarketplaceSyncService {
@@ -9,4 +11,6 @@ public interface UnifiedMarketplaceSyncService {
     void syncSingleProduct(Long tenantId, Long productId, MarketplaceType marketplaceType);
 
     void syncAllMarketplaces(Long tenantId);
+
+    void syncChangedProducts(Long tenantId, Collection<Long> productIds);
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package diploma.ecommerce.backend.shopbase.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import diploma.ecommerce.backend.shopbase.dto.record.OrderExportRow;
+import diploma.ecommerce.backend.shopbase.dto.record.ProductExportRow;
+import diploma.ecommerce.backend.shopbase.export.CsvWriter;
+import diploma.ecommerce.backend.shopbase.export.ExportFormat;
+import diploma.ecommerce.backend.shopbase.repository.OrderRepository;
+import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
+import diploma.ecommerce.backend.shopbase.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_EVERY_ROWS = 5_000;
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    private static final List<String> ORDER_HEADER = List.of(
+            "order_id", "created_at", "updated_at", "status", "customer_id", "customer_email",
+            "customer_first_name", "customer_last_name", "total_amount", "comment"
+    );
+    private static final List<String> PRODUCT_HEADER = List.of(
+            "id", "name", "description", "price", "stock_quantity", "category", "active", "updated_at"
+    );
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    // Курсор Postgres работает только внутри транзакции, поэтому она держится на всю выгрузку
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrders(Long tenantId, LocalDate from, LocalDate to, ExportFormat format, OutputStream out)
+            throws IOException {
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : MIN_DATE;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : MAX_DATE;
+
+        try (Stream<OrderExportRow> rows = orderRepository.streamForExport(tenantId, fromTime, toTime)) {
+            long count = writeRows(rows, format, out, ORDER_HEADER, row -> Arrays.asList(
+                    row.orderId(), row.createdAt(), row.updatedAt(), row.status(), row.customerId(),
+                    row.customerEmail(), row.customerFirstName(), row.customerLastName(),
+                    row.totalAmount(), row.comment()
+            ));
+            log.info("Exported {} orders for tenant {} ({} - {})", count, tenantId, from, to);
+            return count;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportProducts(Long tenantId, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<ProductExportRow> rows = productRepository.streamForExport(tenantId)) {
+            long count = writeRows(rows, format, out, PRODUCT_HEADER, row -> Arrays.asList(
+                    row.id(), row.name(), row.description(), row.price(), row.stockQuantity(),
+                    row.category(), row.active(), row.updatedAt()
+            ));
+            log.info("Exported {} products for tenant {}", count, tenantId);
+            return count;
+        }
+    }
+
+    private <T> long writeRows(
+            Stream<T> rows,
+            ExportFormat format,
+            OutputStream out,
+            List<String> header,
+            Function<T, List<Object>> csvValues
+    ) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        CsvWriter csv = new CsvWriter(writer);
+        ObjectWriter json = objectMapper.writer();
+
+        if (format == ExportFormat.CSV) {
+            csv.writeRecord(header);
+        }
+
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                csv.writeRecord(csvValues.apply(row));
+            } else {
+                writer.write(json.writeValueAsString(row));
+                writer.write('\n');
+            }
+            // Периодический сброс: клиент получает данные сразу, буфер не растет
+            if (++count % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+}
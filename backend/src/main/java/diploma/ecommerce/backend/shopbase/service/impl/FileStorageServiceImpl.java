@@ -1,63 +1,143 @@
 package diploma.ecommerce.backend.shopbase.service.impl;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
 import diploma.ecommerce.backend.shopbase.service.FileStorageService;
+import diploma.ecommerce.backend.shopbase.storage.UploadFiles;
+import diploma.ecommerce.backend.shopbase.storage.UploadUsageTracker;
+import diploma.ecommerce.backend.shopbase.util.Sha256;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+/**
+ * Хранилище загрузок с адресацией по содержимому. Байты файла хранятся один раз в blobs/ под именем
+ * SHA-256, а каждая загрузка получает в каталоге тенанта жесткую ссылку на этот блоб. Повторная загрузка
+ * того же изображения (в том числе другим тенантом) не занимает места. Счетчиком ссылок служит число
+ * жестких ссылок файловой системы: блоб удаляется, когда удалена последняя ссылка на него.
+ * Общие файлы тенантов (таблицы стилей тем) лежат отдельно, под именем с хешем содержимого.
+ * Используется по умолчанию; при app.storage.type=s3 его заменяет {@link S3FileStorageServiceImpl}.
+ * Объем файлов тенанта учитывается приращениями в {@link UploadUsageTracker}.
+ */
 @Slf4j
 @Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local", matchIfMissing = true)
 public class FileStorageServiceImpl implements FileStorageService {
 
+    static final String BLOBS_FOLDER = "blobs";
+    private static final long TRANSFER_CHUNK_BYTES = 64 * 1024;
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    // Имя ссылки: хеш содержимого и случайный суффикс, чтобы у каждой загрузки был свой адрес
+    private static final Pattern LINK_NAME = Pattern.compile("^([0-9a-f]{64})-[0-9a-f]{8}(\\.[A-Za-z0-9]{1,10})?$");
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("^\\.[A-Za-z0-9]{1,10}$");
+    private static final Pattern TENANT_PATH = Pattern.compile("^tenant_(\\d+)/");
+    private static final Pattern SHARED_NAME = Pattern.compile("^[A-Za-z0-9-]+(\\.[A-Za-z0-9]{1,10})?$");
+    // Для этих файлов рядом кладется сжатая копия .gz, которую nginx отдает без сжатия на каждый запрос
+    private static final Set<String> PRECOMPRESSED_EXTENSIONS = Set.of(".css", ".js");
+
+    private final UploadUsageTracker uploadUsageTracker;
+
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize = DataSize.ofMegabytes(10);
+
+    private static String extensionOf(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int lastDotIndex = originalFilename.lastIndexOf('.');
+        String extension = lastDotIndex > 0 ? originalFilename.substring(lastDotIndex) : "";
+        // Расширение попадает в путь файла, поэтому допускаются только буквы и цифры
+        return SAFE_EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 2 + 64);
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(content);
+        }
+        return buffer.toByteArray();
+    }
+
     @Override
     public String storeFile(MultipartFile file, Long tenantId, String folder) throws IOException {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("Cannot store empty file");
         }
 
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null || originalFilename.isEmpty()) {
-            originalFilename = "file";
+        try (InputStream content = file.getInputStream()) {
+            return storeFile(content, file.getOriginalFilename(), tenantId, folder);
         }
+    }
 
-        // Создаем безопасное имя файла с уникальным ID
-        String fileExtension = "";
-        int lastDotIndex = originalFilename.lastIndexOf('.');
-        if (lastDotIndex > 0) {
-            fileExtension = originalFilename.substring(lastDotIndex);
-        }
+    @Override
+    public String storeFile(InputStream content, String originalFilename, Long tenantId, String folder)
+            throws IOException {
+        String fileExtension = extensionOf(originalFilename);
 
-        String filename = UUID.randomUUID() + fileExtension;
+        Path blobRoot = Paths.get(uploadDir, BLOBS_FOLDER);
+        Files.createDirectories(blobRoot);
+        Path tempPath = UploadFiles.tempPath(blobRoot, "upload");
+        try {
+            // Файл пишется один раз, хеш считается по ходу записи
+            String hash = writeAndHash(content, tempPath);
+            Path blobPath = blobPath(hash, fileExtension);
+            Files.createDirectories(blobPath.getParent());
+            boolean duplicate = !publishBlob(tempPath, blobPath);
 
-        // Создаем директории для tenant/folder если они не существуют
-        Path tenantFolderPath = Paths.get(uploadDir, "tenant_" + tenantId, folder);
-        Files.createDirectories(tenantFolderPath);
+            // Создаем директории для tenant/folder если они не существуют
+            Path tenantFolderPath = Paths.get(uploadDir, "tenant_" + tenantId, folder);
+            Files.createDirectories(tenantFolderPath);
 
-        // Сохраняем файл
-        Path targetPath = tenantFolderPath.resolve(filename);
-        Files.copy(file.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
+            String suffix = UUID.randomUUID().toString().substring(0, 8);
+            String filename = hash + "-" + suffix + fileExtension;
+            Path targetPath = tenantFolderPath.resolve(filename);
+            linkOrMove(blobPath, tempPath, targetPath);
+            uploadUsageTracker.record(tenantId, Files.size(targetPath), 1);
 
-        log.info("File saved: {}", targetPath);
+            log.info("File saved: {} ({})", targetPath, duplicate ? "deduplicated" : "new blob");
 
-        // Формируем и возвращаем URL для доступа к файлу
-        return ServletUriComponentsBuilder.fromCurrentContextPath()
-                .path("/uploads/")
-                .path("tenant_" + tenantId + "/")
-                .path(folder + "/")
-                .path(filename)
-                .toUriString();
+            // Формируем и возвращаем URL для доступа к файлу
+            return ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/uploads/")
+                    .path("tenant_" + tenantId + "/")
+                    .path(folder + "/")
+                    .path(filename)
+                    .toUriString();
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
     }
 
     @Override
@@ -73,11 +153,132 @@ public class FileStorageServiceImpl implements FileStorageService {
         }
 
         try {
-            Path filePath = Paths.get(uploadDir, relativePath);
-            return Files.deleteIfExists(filePath);
+            Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+            Path filePath = root.resolve(relativePath).normalize();
+            if (!filePath.startsWith(root)) {
+                log.warn("Refusing to delete file outside upload directory: {}", fileUrl);
+                return false;
+            }
+            long size = Files.isRegularFile(filePath) ? Files.size(filePath) : 0;
+            boolean deleted = Files.deleteIfExists(filePath);
+            if (deleted) {
+                reclaimBlobIfUnreferenced(filePath);
+                recordDeletion(root.relativize(filePath), size);
+            }
+            return deleted;
         } catch (IOException e) {
             log.error("Error deleting file: {}", fileUrl, e);
             return false;
         }
     }
+
+    @Override
+    public String storeSharedFile(String folder, String filename, byte[] content) throws IOException {
+        if (!SHARED_NAME.matcher(folder).matches() || !SHARED_NAME.matcher(filename).matches()) {
+            throw new IllegalArgumentException("Invalid shared file name: " + folder + "/" + filename);
+        }
+        Path folderPath = Paths.get(uploadDir, folder);
+        Path targetPath = folderPath.resolve(filename);
+        if (!Files.exists(targetPath)) {
+            Files.createDirectories(folderPath);
+            if (PRECOMPRESSED_EXTENSIONS.contains(extensionOf(filename))) {
+                // Сжатая копия пишется первой: когда появится сам файл, его .gz уже готов
+                UploadFiles.writeAtomically(folderPath.resolve(filename + ".gz"), gzip(content));
+            }
+            UploadFiles.writeAtomically(targetPath, content);
+            log.info("Shared file saved: {}", targetPath);
+        }
+        return "/uploads/" + folder + "/" + filename;
+    }
+
+    // Файлы из корзины сборщика уже не учитываются в объеме тенанта
+    private void recordDeletion(Path relativePath, long size) {
+        Matcher matcher = TENANT_PATH.matcher(relativePath.toString().replace('\\', '/'));
+        if (matcher.find()) {
+            uploadUsageTracker.record(Long.parseLong(matcher.group(1)), -size, -1);
+        }
+    }
+
+    private String writeAndHash(InputStream content, Path target) throws IOException {
+        MessageDigest digest = Sha256.newDigest();
+        long maxBytes = maxFileSize.toBytes();
+        try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(content, digest));
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = out.transferFrom(source, position, TRANSFER_CHUNK_BYTES)) > 0) {
+                position += transferred;
+                if (position > maxBytes) {
+                    throw new BadRequestException("File exceeds " + maxBytes / BYTES_PER_MB + " MB");
+                }
+            }
+            if (position == 0) {
+                throw new IllegalArgumentException("Cannot store empty file");
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Блобы раскладываются по подкаталогам по первым символам хеша, чтобы каталоги не разрастались
+    private Path blobPath(String hash, String fileExtension) {
+        return Paths.get(uploadDir, BLOBS_FOLDER, hash.substring(0, 2), hash + fileExtension);
+    }
+
+    /**
+     * Делает временный файл блобом. Создание ссылки атомарно и не перезаписывает существующий файл,
+     * поэтому из двух одновременных загрузок одного содержимого блобом станет ровно одна.
+     *
+     * @return false, если такой блоб уже есть
+     */
+    private boolean publishBlob(Path tempPath, Path blobPath) throws IOException {
+        try {
+            Files.createLink(blobPath, tempPath);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // Файловая система без жестких ссылок: файл сохраняется без дедупликации
+            log.debug("Hard links are not available for {}: {}", blobPath, e.getMessage());
+            return true;
+        }
+    }
+
+    private void linkOrMove(Path blobPath, Path tempPath, Path targetPath) throws IOException {
+        try {
+            Files.createLink(targetPath, blobPath);
+        } catch (NoSuchFileException | UnsupportedOperationException e) {
+            // Блоб успели удалить вместе с последней ссылкой или ссылки не поддерживаются
+            Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileSystemException e) {
+            if (e instanceof FileAlreadyExistsException) {
+                throw e;
+            }
+            log.debug("Cannot link {} to {}: {}", targetPath, blobPath, e.getMessage());
+            Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Удаляет блоб, на который больше не ссылается ни одна загрузка. Если между проверкой и удалением
+     * появилась новая ссылка, ее данные не теряются: жесткая ссылка удерживает содержимое сама.
+     */
+    private void reclaimBlobIfUnreferenced(Path deletedLink) {
+        Matcher matcher = LINK_NAME.matcher(deletedLink.getFileName().toString());
+        if (!matcher.matches()) {
+            return;
+        }
+        String fileExtension = matcher.group(2) != null ? matcher.group(2) : "";
+        Path blobPath = blobPath(matcher.group(1), fileExtension);
+        try {
+            int links = (Integer) Files.getAttribute(blobPath, "unix:nlink");
+            if (links <= 1) {
+                Files.deleteIfExists(blobPath);
+                log.info("Blob reclaimed: {}", blobPath);
+            }
+        } catch (NoSuchFileException e) {
+            log.debug("Blob {} is already gone", blobPath);
+        } catch (UnsupportedOperationException | IllegalArgumentException | IOException e) {
+            log.debug("Cannot check references of blob {}: {}", blobPath, e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package diploma.ecommerce.backend.shopbase.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import diploma.ecommerce.backend.shopbase.concurrency.IdempotentRequestRegistry;
+import diploma.ecommerce.backend.shopbase.concurrency.IdempotentRequestRegistry.CompletedRequest;
+import diploma.ecommerce.backend.shopbase.dto.record.OrderCreationResult;
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+import diploma.ecommerce.backend.shopbase.exception.IdempotencyKeyReuseException;
+import diploma.ecommerce.backend.shopbase.model.Order;
+import diploma.ecommerce.backend.shopbase.model.OrderIdempotencyKey;
+import diploma.ecommerce.backend.shopbase.model.OrderItem;
+import diploma.ecommerce.backend.shopbase.service.OrderCheckoutService;
+import diploma.ecommerce.backend.shopbase.service.OrderService;
+import diploma.ecommerce.backend.shopbase.util.Sha256;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Оформление заказа с заголовком Idempotency-Key. Сам метод не транзакционный: ожидание параллельного
+ * запроса с тем же ключом не держит соединение с базой и разрешение bulkhead.
+ */
+@Slf4j
+@Service
+public class OrderCheckoutServiceImpl implements OrderCheckoutService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final OrderService orderService;
+    private final IdempotentRequestRegistry idempotentRequestRegistry;
+    private final Duration keyTtl;
+
+    public OrderCheckoutServiceImpl(
+            OrderService orderService,
+            IdempotentRequestRegistry idempotentRequestRegistry,
+            @Value("${app.idempotency.ttl-hours:24}") long keyTtlHours
+    ) {
+        this.orderService = orderService;
+        this.idempotentRequestRegistry = idempotentRequestRegistry;
+        this.keyTtl = Duration.ofHours(keyTtlHours);
+    }
+
+    // Отпечаток содержимого заказа: тот же ключ с другим заказом отклоняется
+    static String fingerprint(Order orderRequest) {
+        Long customerId = orderRequest.getCustomer() == null ? null : orderRequest.getCustomer().getId();
+        Long addressId = orderRequest.getAddress() == null ? null : orderRequest.getAddress().getId();
+        StringBuilder sb = new StringBuilder()
+                .append("customer=").append(customerId)
+                .append(";address=").append(addressId)
+                .append(";items=");
+        for (OrderItem item : orderRequest.getOrderItems()) {
+            sb.append(item.getProduct() == null ? null : item.getProduct().getId())
+                    .append('x').append(item.getQuantity()).append(',');
+        }
+        return Sha256.hex(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public OrderCreationResult placeOrder(Long tenantId, Order orderRequest, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return new OrderCreationResult(orderService.createOrder(tenantId, orderRequest), false);
+        }
+        String key = idempotencyKey.trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = fingerprint(orderRequest);
+
+        return idempotentRequestRegistry.execute(tenantId, key, () -> {
+            Optional<CompletedRequest> completed = idempotentRequestRegistry.findCompleted(tenantId, key);
+            if (completed.isPresent()) {
+                if (!completed.get().requestHash().equals(requestHash)) {
+                    throw new IdempotencyKeyReuseException(key);
+                }
+                log.info("Replaying cached order {} for Idempotency-Key '{}' (tenant {})",
+                        completed.get().resourceId(), key, tenantId);
+                Order order = orderService.getOrderById(tenantId, completed.get().resourceId());
+                return new OrderCreationResult(order, true);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            OrderIdempotencyKey reservation = new OrderIdempotencyKey(
+                    tenantId, key, requestHash, null, now, now.plus(keyTtl)
+            );
+            OrderCreationResult result = orderService.createOrder(tenantId, orderRequest, reservation);
+            idempotentRequestRegistry.remember(tenantId, key, new CompletedRequest(
+                    requestHash, result.order().getId(), reservation.getExpiresAt()
+            ));
+            return result;
+        });
+    }
+}
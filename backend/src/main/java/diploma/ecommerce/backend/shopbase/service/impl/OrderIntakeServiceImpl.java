@@ -0,0 +1,140 @@
+package diploma.ecommerce.backend.shopbase.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import diploma.ecommerce.backend.shopbase.concurrency.RetryOnConflict;
+import diploma.ecommerce.backend.shopbase.dto.mapper.OrderMapper;
+import diploma.ecommerce.backend.shopbase.dto.record.OrderBatchOutcome;
+import diploma.ecommerce.backend.shopbase.dto.request.OrderCreateRequest;
+import diploma.ecommerce.backend.shopbase.event.OrderIntakeSubmittedEvent;
+import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
+import diploma.ecommerce.backend.shopbase.model.Order;
+import diploma.ecommerce.backend.shopbase.model.OrderIntake;
+import diploma.ecommerce.backend.shopbase.repository.OrderIntakeRepository;
+import diploma.ecommerce.backend.shopbase.service.OrderIntakeService;
+import diploma.ecommerce.backend.shopbase.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Асинхронный прием заказов. Запрос проверяется только на уровне формата и сохраняется в очередь одной вставкой;
+ * остатки, покупатель и адрес проверяются обработчиком, который создает заказы пачками.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderIntakeServiceImpl implements OrderIntakeService {
+
+    static final int MAX_ERROR_LENGTH = 500;
+
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final OrderService orderService;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static String truncate(String message) {
+        if (message == null || message.isBlank()) {
+            return "Order processing failed";
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    // Без транзакции: вставка фиксируется сразу, до пробуждения обработчиков
+    @Override
+    public OrderIntake submit(Long tenantId, OrderCreateRequest request) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Order request cannot be serialized", e);
+        }
+        UUID ticket = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        orderIntakeRepository.insert(tenantId, ticket, payload, now);
+        log.debug("Order intake {} queued for tenant {}", ticket, tenantId);
+
+        eventPublisher.publishEvent(new OrderIntakeSubmittedEvent(tenantId, ticket));
+        return new OrderIntake(null, tenantId, ticket, OrderIntake.Status.PENDING, payload, null, null, 0, now, now);
+    }
+
+    @Override
+    public OrderIntake getStatus(Long tenantId, UUID ticket) {
+        return orderIntakeRepository.find(tenantId, ticket)
+                .orElseThrow(() -> new ResourceNotFoundException("OrderIntake", "ticket", ticket, tenantId));
+    }
+
+    @Override
+    @Transactional
+    @RetryOnConflict("order.intake")
+    public void processClaimed(Long tenantId, List<OrderIntake> claimed) {
+        // Заявки, возвращенные в очередь по таймауту, мог забрать другой обработчик - их пропускаем
+        Set<Long> owned = orderIntakeRepository.lockOwned(claimed);
+
+        List<OrderIntake> accepted = new ArrayList<>(owned.size());
+        List<Order> orderRequests = new ArrayList<>(owned.size());
+        Map<Long, String> failures = new LinkedHashMap<>();
+        for (OrderIntake row : claimed) {
+            if (!owned.contains(row.getId())) {
+                continue;
+            }
+            try {
+                OrderCreateRequest request = objectMapper.readValue(row.getPayload(), OrderCreateRequest.class);
+                orderRequests.add(orderMapper.toOrder(request));
+                accepted.add(row);
+            } catch (JsonProcessingException e) {
+                log.warn("Order intake {} has malformed payload: {}", row.getTicket(), e.getOriginalMessage());
+                failures.put(row.getId(), "Malformed order payload");
+            }
+        }
+
+        Map<Long, Long> completed = new LinkedHashMap<>();
+        if (!orderRequests.isEmpty()) {
+            List<OrderBatchOutcome> outcomes = orderService.createOrdersBatch(tenantId, orderRequests);
+            for (int i = 0; i < outcomes.size(); i++) {
+                OrderBatchOutcome outcome = outcomes.get(i);
+                Long intakeId = accepted.get(i).getId();
+                if (outcome.isCreated()) {
+                    completed.put(intakeId, outcome.order().getId());
+                } else {
+                    failures.put(intakeId, truncate(outcome.failureReason()));
+                }
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        orderIntakeRepository.markCompleted(completed, now);
+        orderIntakeRepository.markFailed(failures, now);
+        log.info(
+                "Processed {} order intake entries for tenant {}: {} created, {} rejected",
+                owned.size(),
+                tenantId,
+                completed.size(),
+                failures.size()
+        );
+    }
+
+    @Override
+    public void markFailed(List<OrderIntake> claimed, String reason) {
+        String message = truncate(reason);
+        Map<Long, String> failures = new LinkedHashMap<>();
+        claimed.forEach(row -> failures.put(row.getId(), message));
+        orderIntakeRepository.markFailed(failures, LocalDateTime.now());
+    }
+
+    @Override
+    public void release(List<OrderIntake> claimed) {
+        orderIntakeRepository.release(claimed, LocalDateTime.now());
+    }
+}
@@ -1,8 +1,18 @@
 package diploma.ecommerce.backend.shopbase.service.impl;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import diploma.ecommerce.backend.shopbase.analytics.ProductSalesDelta;
+import diploma.ecommerce.backend.shopbase.concurrency.RetryOnConflict;
+import diploma.ecommerce.backend.shopbase.event.CatalogChangedEvent;
 import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
 import diploma.ecommerce.backend.shopbase.model.Order;
 import diploma.ecommerce.backend.shopbase.model.OrderItem;
@@ -10,10 +20,13 @@ import diploma.ecommerce.backend.shopbase.model.Product;
 import diploma.ecommerce.backend.shopbase.model.Tenant;
 import diploma.ecommerce.backend.shopbase.repository.OrderItemRepository;
 import diploma.ecommerce.backend.shopbase.repository.OrderRepository;
+import diploma.ecommerce.backend.shopbase.repository.OrderTotalRepository;
 import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
 import diploma.ecommerce.backend.shopbase.repository.TenantRepository;
 import diploma.ecommerce.backend.shopbase.service.OrderItemService;
+import diploma.ecommerce.backend.shopbase.service.SalesRollupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,8 +36,11 @@ public class OrderItemServiceImpl implements OrderItemService {
 
     private final OrderItemRepository orderItemRepository;
     private final OrderRepository orderRepository;
+    private final OrderTotalRepository orderTotalRepository;
     private final ProductRepository productRepository;
     private final TenantRepository tenantRepository;
+    private final SalesRollupService salesRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static Product getProduct(OrderItem orderItemDetails, OrderItem existingOrderItem) {
         Product product = existingOrderItem.getProduct();
@@ -58,6 +74,7 @@ public class OrderItemServiceImpl implements OrderItemService {
 
     @Override
     @Transactional
+    @RetryOnConflict("order-item.create")
     public OrderItem createOrderItem(Long tenantId, Long orderId, OrderItem orderItem) {
         if (orderItem.getProduct() == null || orderItem.getProduct().getId() == null) {
             throw new IllegalArgumentException("Product ID must be provided in OrderItem");
@@ -87,6 +104,7 @@ public class OrderItemServiceImpl implements OrderItemService {
 
         product.setStockQuantity(product.getStockQuantity() - orderItem.getQuantity());
         productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(tenantId, List.of(productId)));
 
         orderItem.setTenant(tenant);
         orderItem.setOrder(order);
@@ -103,13 +121,21 @@ public class OrderItemServiceImpl implements OrderItemService {
 
         OrderItem savedOrderItem = orderItemRepository.save(orderItem);
 
-        updateOrderTotalAmount(order);
+        orderTotalRepository.addToTotalAmount(order, orderItem.getTotalPrice());
+        salesRollupService.recordItemChange(
+                order,
+                productId,
+                1,
+                orderItem.getQuantity(),
+                orderItem.getTotalPrice()
+        );
 
         return savedOrderItem;
     }
 
     @Override
     @Transactional
+    @RetryOnConflict("order-item.update")
     public OrderItem updateOrderItem(Long tenantId, Long id, OrderItem orderItemDetails) {
         if (orderItemDetails.getQuantity() == null || orderItemDetails.getQuantity() <= 0) {
             throw new IllegalArgumentException("Valid quantity must be provided");
@@ -118,8 +144,12 @@ public class OrderItemServiceImpl implements OrderItemService {
         OrderItem existingOrderItem = orderItemRepository.findByTenantIdAndId(tenantId, id)
                 .orElseThrow(() -> new ResourceNotFoundException("OrderItem", "id", id, tenantId));
 
+        int previousQuantity = existingOrderItem.getQuantity();
+        BigDecimal previousTotalPrice = existingOrderItem.getTotalPrice();
+
         Product product = getProduct(orderItemDetails, existingOrderItem);
         productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(tenantId, List.of(product.getId())));
 
         existingOrderItem.setQuantity(orderItemDetails.getQuantity());
         existingOrderItem.setTotalPrice(
@@ -130,13 +160,22 @@ public class OrderItemServiceImpl implements OrderItemService {
 
         OrderItem updatedOrderItem = orderItemRepository.save(existingOrderItem);
 
-        updateOrderTotalAmount(existingOrderItem.getOrder());
+        Order order = getOrderOf(tenantId, existingOrderItem);
+        orderTotalRepository.addToTotalAmount(order, existingOrderItem.getTotalPrice().subtract(previousTotalPrice));
+        salesRollupService.recordItemChange(
+                order,
+                product.getId(),
+                0,
+                existingOrderItem.getQuantity() - previousQuantity,
+                existingOrderItem.getTotalPrice().subtract(previousTotalPrice)
+        );
 
         return updatedOrderItem;
     }
 
     @Override
     @Transactional
+    @RetryOnConflict("order-item.delete")
     public void deleteOrderItem(Long tenantId, Long id) {
         OrderItem orderItem = orderItemRepository.findByTenantIdAndId(tenantId, id)
                 .orElseThrow(() -> new ResourceNotFoundException("OrderItem", "id", id, tenantId));
@@ -144,23 +183,157 @@ public class OrderItemServiceImpl implements OrderItemService {
         Product product = orderItem.getProduct();
         product.setStockQuantity(product.getStockQuantity() + orderItem.getQuantity());
         productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(tenantId, List.of(product.getId())));
 
-        Order order = orderItem.getOrder();
+        Order order = getOrderOf(tenantId, orderItem);
 
         orderItemRepository.delete(orderItem);
 
-        updateOrderTotalAmount(order);
+        orderTotalRepository.addToTotalAmount(order, orderItem.getTotalPrice().negate());
+        salesRollupService.recordItemChange(
+                order,
+                product.getId(),
+                -1,
+                -orderItem.getQuantity(),
+                orderItem.getTotalPrice().negate()
+        );
+    }
+
+    @Override
+    @Transactional
+    @RetryOnConflict("order-item.batch")
+    public List<OrderItem> updateOrderItems(Long tenantId, Long orderId, List<OrderItem> items, boolean replace) {
+        Map<Long, Integer> requestedQuantities = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            if (item.getProduct() == null || item.getProduct().getId() == null) {
+                throw new IllegalArgumentException("Product ID must be provided in OrderItem");
+            }
+            if (item.getQuantity() == null || item.getQuantity() < 0) {
+                throw new IllegalArgumentException("Quantity must not be negative");
+            }
+            Long productId = item.getProduct().getId();
+            if (requestedQuantities.putIfAbsent(productId, item.getQuantity()) != null) {
+                throw new IllegalArgumentException("Product with ID " + productId + " is listed more than once");
+            }
+        }
+
+        Order order = orderRepository.findByTenantIdAndId(tenantId, orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId, tenantId));
+        List<OrderItem> currentItems = orderItemRepository.findByTenantIdAndOrderId(tenantId, orderId);
+        Map<Long, OrderItem> existingItems = currentItems.stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), Function.identity()));
+
+        // Товары блокируются одним запросом до первого обращения к их остаткам
+        Set<Long> productIds = new HashSet<>(requestedQuantities.keySet());
+        if (replace) {
+            productIds.addAll(existingItems.keySet());
+        }
+        Map<Long, Product> products = productRepository.lockAllByTenantIdAndIdIn(tenantId, productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        BigDecimal totalDelta = BigDecimal.ZERO;
+        List<ProductSalesDelta> rollupChanges = new ArrayList<>();
+        List<OrderItem> addedItems = new ArrayList<>();
+        Set<OrderItem> removedItems = new HashSet<>();
+        for (Map.Entry<Long, Integer> requested : requestedQuantities.entrySet()) {
+            Long productId = requested.getKey();
+            int quantity = requested.getValue();
+            OrderItem existingItem = existingItems.remove(productId);
+            if (existingItem == null) {
+                if (quantity == 0) {
+                    continue;
+                }
+                Product product = products.get(productId);
+                if (product == null) {
+                    throw new ResourceNotFoundException("Product", "id", productId, tenantId);
+                }
+                OrderItem addedItem = addItem(order, product, quantity, rollupChanges);
+                addedItems.add(addedItem);
+                totalDelta = totalDelta.add(addedItem.getTotalPrice());
+            } else if (quantity == 0) {
+                removedItems.add(existingItem);
+                totalDelta = totalDelta.add(removeItem(existingItem, rollupChanges));
+            } else {
+                totalDelta = totalDelta.add(changeItemQuantity(existingItem, quantity, rollupChanges));
+            }
+        }
+        if (replace) {
+            for (OrderItem remainingItem : existingItems.values()) {
+                removedItems.add(remainingItem);
+                totalDelta = totalDelta.add(removeItem(remainingItem, rollupChanges));
+            }
+        }
+
+        productRepository.saveAll(products.values());
+        eventPublisher.publishEvent(new CatalogChangedEvent(tenantId, List.copyOf(products.keySet())));
+        orderItemRepository.deleteAll(removedItems);
+        orderItemRepository.saveAll(addedItems);
+        orderTotalRepository.addToTotalAmount(order, totalDelta);
+        salesRollupService.recordItemChanges(order, rollupChanges);
+
+        List<OrderItem> updatedItems = new ArrayList<>();
+        for (OrderItem item : currentItems) {
+            if (!removedItems.contains(item)) {
+                updatedItems.add(item);
+            }
+        }
+        updatedItems.addAll(addedItems);
+        return updatedItems;
+    }
+
+    // Ленивая ссылка позиции загрузила бы заказ по одному order_id из всех секций; запрос с тенантом читает одну
+    private Order getOrderOf(Long tenantId, OrderItem orderItem) {
+        Long orderId = orderItem.getOrder().getId();
+        return orderRepository.findByTenantIdAndId(tenantId, orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId, tenantId));
     }
 
-    private void updateOrderTotalAmount(Order order) {
-        List<OrderItem> items = orderItemRepository.findByTenantIdAndOrderId(
-                order.getTenant().getId(), order.getId());
+    private OrderItem addItem(Order order, Product product, int quantity, List<ProductSalesDelta> rollupChanges) {
+        if (product.getStockQuantity() < quantity) {
+            throw new IllegalArgumentException("Not enough product in stock. Available: " +
+                                                       product.getStockQuantity() + ", requested: " + quantity);
+        }
+        product.setStockQuantity(product.getStockQuantity() - quantity);
+
+        OrderItem orderItem = new OrderItem();
+        orderItem.setTenant(order.getTenant());
+        orderItem.setOrder(order);
+        orderItem.setProduct(product);
+        orderItem.setQuantity(quantity);
+        orderItem.setUnitPrice(product.getPrice());
+        orderItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
+
+        rollupChanges.add(ProductSalesDelta.placed(product.getId(), 1, quantity, orderItem.getTotalPrice()));
+        return orderItem;
+    }
 
-        BigDecimal totalAmount = items.stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private BigDecimal changeItemQuantity(OrderItem existingOrderItem, int quantity,
+                                          List<ProductSalesDelta> rollupChanges) {
+        int previousQuantity = existingOrderItem.getQuantity();
+        if (previousQuantity == quantity) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal previousTotalPrice = existingOrderItem.getTotalPrice();
+
+        OrderItem orderItemDetails = new OrderItem();
+        orderItemDetails.setQuantity(quantity);
+        Product product = getProduct(orderItemDetails, existingOrderItem);
+
+        existingOrderItem.setQuantity(quantity);
+        existingOrderItem.setTotalPrice(existingOrderItem.getUnitPrice().multiply(BigDecimal.valueOf(quantity)));
+
+        BigDecimal totalPriceDifference = existingOrderItem.getTotalPrice().subtract(previousTotalPrice);
+        rollupChanges.add(ProductSalesDelta.placed(product.getId(), 0, quantity - previousQuantity,
+                                                   totalPriceDifference));
+        return totalPriceDifference;
+    }
+
+    private BigDecimal removeItem(OrderItem orderItem, List<ProductSalesDelta> rollupChanges) {
+        Product product = orderItem.getProduct();
+        product.setStockQuantity(product.getStockQuantity() + orderItem.getQuantity());
 
-        order.setTotalAmount(totalAmount);
-        orderRepository.save(order);
+        rollupChanges.add(ProductSalesDelta.placed(product.getId(), -1, -orderItem.getQuantity(),
+                                                   orderItem.getTotalPrice().negate()));
+        return orderItem.getTotalPrice().negate();
     }
 }
@@ -1,28 +1,47 @@
 package diploma.ecommerce.backend.shopbase.service.impl;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import diploma.ecommerce.backend.shopbase.concurrency.RetryOnConflict;
+import diploma.ecommerce.backend.shopbase.dto.record.OrderBatchOutcome;
+import diploma.ecommerce.backend.shopbase.dto.record.OrderCreationResult;
+import diploma.ecommerce.backend.shopbase.event.OrderChangedEvent;
 import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+import diploma.ecommerce.backend.shopbase.exception.IdempotencyKeyInProgressException;
+import diploma.ecommerce.backend.shopbase.exception.IdempotencyKeyReuseException;
 import diploma.ecommerce.backend.shopbase.exception.InsufficientStockException;
 import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
 import diploma.ecommerce.backend.shopbase.model.Address;
 import diploma.ecommerce.backend.shopbase.model.Order;
+import diploma.ecommerce.backend.shopbase.model.OrderIdempotencyKey;
 import diploma.ecommerce.backend.shopbase.model.OrderItem;
 import diploma.ecommerce.backend.shopbase.model.OrderStatus;
+import diploma.ecommerce.backend.shopbase.model.OrderStatusHistory;
 import diploma.ecommerce.backend.shopbase.model.Product;
 import diploma.ecommerce.backend.shopbase.model.Tenant;
 import diploma.ecommerce.backend.shopbase.model.User;
 import diploma.ecommerce.backend.shopbase.repository.AddressRepository;
+import diploma.ecommerce.backend.shopbase.repository.OrderIdempotencyKeyRepository;
 import diploma.ecommerce.backend.shopbase.repository.OrderRepository;
+import diploma.ecommerce.backend.shopbase.repository.OrderStatusHistoryRepository;
 import diploma.ecommerce.backend.shopbase.repository.OrderStatusRepository;
 import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
 import diploma.ecommerce.backend.shopbase.repository.TenantRepository;
 import diploma.ecommerce.backend.shopbase.repository.UserRepository;
 import diploma.ecommerce.backend.shopbase.service.OrderService;
+import diploma.ecommerce.backend.shopbase.service.SalesRollupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -40,6 +59,10 @@ public class OrderServiceImpl implements OrderService {
     private final ProductRepository productRepository;
     private final OrderStatusRepository orderStatusRepository;
     private final TenantRepository tenantRepository;
+    private final OrderStatusHistoryRepository orderStatusHistoryRepository;
+    private final SalesRollupService salesRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
 
     @Override
     @Transactional(readOnly = true)
@@ -66,17 +89,10 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
+    @RetryOnConflict("order.create")
     public Order createOrder(Long tenantId, Order orderRequest) {
         log.info("Attempting to create order for tenant {}", tenantId);
-        if (orderRequest.getCustomer() == null || orderRequest.getCustomer().getId() == null) {
-            throw new IllegalArgumentException("Customer ID must be provided");
-        }
-        if (orderRequest.getAddress() == null || orderRequest.getAddress().getId() == null) {
-            throw new IllegalArgumentException("Address ID must be provided");
-        }
-        if (CollectionUtils.isEmpty(orderRequest.getOrderItems())) {
-            throw new IllegalArgumentException("Order must contain at least one item");
-        }
+        validateOrderRequest(orderRequest);
         Long customerId = orderRequest.getCustomer().getId();
         Long addressId = orderRequest.getAddress().getId();
 
@@ -89,25 +105,9 @@ public class OrderServiceImpl implements OrderService {
         OrderStatus createdStatus = orderStatusRepository.findByStatusName("Created")
                 .orElseThrow(() -> new ResourceNotFoundException("OrderStatus", "name", "Created"));
 
-        Order newOrder = new Order();
-        newOrder.setTenant(tenant);
-        newOrder.setCustomer(customer);
-        newOrder.setAddress(address);
-        newOrder.setStatus(createdStatus);
-        newOrder.setTotalAmount(BigDecimal.ZERO);
-        newOrder.setOrderItems(new ArrayList<>());
-
-        BigDecimal calculatedTotalAmount = BigDecimal.ZERO;
+        Order newOrder = newOrder(tenant, customer, address, createdStatus);
 
         for (OrderItem itemRequest : orderRequest.getOrderItems()) {
-            if (itemRequest.getProduct() == null || itemRequest.getProduct().getId() == null) {
-                throw new IllegalArgumentException("Product ID missing in one of the order items");
-            }
-            if (itemRequest.getQuantity() == null || itemRequest.getQuantity() <= 0) {
-                throw new IllegalArgumentException("Invalid quantity for product ID "
-                                                           + itemRequest.getProduct().getId()
-                );
-            }
             Long productId = itemRequest.getProduct().getId();
             int requestedQuantity = itemRequest.getQuantity();
 
@@ -125,37 +125,105 @@ public class OrderServiceImpl implements OrderService {
                 throw new InsufficientStockException(productId, requestedQuantity, product.getStockQuantity());
             }
 
-            OrderItem orderItem = new OrderItem();
-            orderItem.setTenant(tenant);
-            orderItem.setProduct(product);
-            orderItem.setQuantity(requestedQuantity);
-            orderItem.setUnitPrice(product.getPrice());
-            orderItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(requestedQuantity)));
+            addOrderItem(newOrder, product, requestedQuantity);
+            productRepository.save(product);
+        }
 
-            newOrder.addOrderItem(orderItem);
+        return saveNewOrder(newOrder);
+    }
 
-            product.setStockQuantity(product.getStockQuantity() - requestedQuantity);
-            productRepository.save(product);
+    @Override
+    @Transactional
+    public List<OrderBatchOutcome> createOrdersBatch(Long tenantId, List<Order> orderRequests) {
+        log.info("Creating batch of {} orders for tenant {}", orderRequests.size(), tenantId);
+        Tenant tenant = tenantRepository.findById(tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tenant", "id", tenantId));
+        OrderStatus createdStatus = orderStatusRepository.findByStatusName("Created")
+                .orElseThrow(() -> new ResourceNotFoundException("OrderStatus", "name", "Created"));
 
-            calculatedTotalAmount = calculatedTotalAmount.add(orderItem.getTotalPrice());
-            log.debug(
-                    "Processed item: product={}, quantity={}, price={}, totalItemPrice={}",
-                    productId,
-                    requestedQuantity,
-                    orderItem.getUnitPrice(),
-                    orderItem.getTotalPrice()
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> addressIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (Order request : orderRequests) {
+            if (request.getCustomer() != null && request.getCustomer().getId() != null) {
+                customerIds.add(request.getCustomer().getId());
+            }
+            if (request.getAddress() != null && request.getAddress().getId() != null) {
+                addressIds.add(request.getAddress().getId());
+            }
+            if (request.getOrderItems() != null) {
+                request.getOrderItems().stream()
+                        .filter(item -> item.getProduct() != null && item.getProduct().getId() != null)
+                        .forEach(item -> productIds.add(item.getProduct().getId()));
+            }
+        }
+
+        // Покупатели, адреса и товары читаются одним запросом на пачку; товары блокируются один раз
+        Map<Long, User> customers = customerIds.isEmpty() ? Map.of() : userRepository
+                .findAllByTenantIdAndIdIn(tenantId, customerIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Address> addresses = addressIds.isEmpty() ? Map.of() : addressRepository
+                .findAllByTenantIdAndIdIn(tenantId, addressIds).stream()
+                .collect(Collectors.toMap(Address::getId, Function.identity()));
+        Map<Long, Product> products = productIds.isEmpty() ? Map.of() : productRepository
+                .lockAllByTenantIdAndIdIn(tenantId, productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<OrderBatchOutcome> outcomes = new ArrayList<>(orderRequests.size());
+        Map<Long, Product> changedProducts = new LinkedHashMap<>();
+        for (Order request : orderRequests) {
+            String failureReason = checkBatchOrder(tenantId, request, customers, addresses, products);
+            if (failureReason != null) {
+                log.debug("Rejected order in batch for tenant {}: {}", tenantId, failureReason);
+                outcomes.add(OrderBatchOutcome.rejected(failureReason));
+                continue;
+            }
+
+            // Остатки списываются в порядке заказов в пачке
+            Order newOrder = newOrder(
+                    tenant,
+                    customers.get(request.getCustomer().getId()),
+                    addresses.get(request.getAddress().getId()),
+                    createdStatus
             );
+            for (OrderItem itemRequest : request.getOrderItems()) {
+                Product product = products.get(itemRequest.getProduct().getId());
+                addOrderItem(newOrder, product, itemRequest.getQuantity());
+                changedProducts.put(product.getId(), product);
+            }
+            outcomes.add(OrderBatchOutcome.created(saveNewOrder(newOrder)));
         }
 
-        newOrder.setTotalAmount(calculatedTotalAmount);
-        Order savedOrder = orderRepository.save(newOrder);
-        log.info("Order {} created successfully for tenant {}", savedOrder.getId(), tenantId);
+        if (!changedProducts.isEmpty()) {
+            productRepository.saveAll(changedProducts.values());
+        }
+        return outcomes;
+    }
 
-        return savedOrder;
+    @Override
+    @Transactional
+    @RetryOnConflict("order.create")
+    public OrderCreationResult createOrder(Long tenantId, Order orderRequest, OrderIdempotencyKey idempotencyKey) {
+        // Повтор с тем же ключом ждет здесь фиксации первой транзакции и до остатков не доходит
+        if (!orderIdempotencyKeyRepository.reserve(idempotencyKey)) {
+            String key = idempotencyKey.getIdempotencyKey();
+            OrderIdempotencyKey existing = orderIdempotencyKeyRepository.find(tenantId, key)
+                    .orElseThrow(() -> new IdempotencyKeyInProgressException(key));
+            if (!existing.getRequestHash().equals(idempotencyKey.getRequestHash())) {
+                throw new IdempotencyKeyReuseException(key);
+            }
+            log.info("Replaying order {} for Idempotency-Key '{}' (tenant {})", existing.getOrderId(), key, tenantId);
+            return new OrderCreationResult(getOrderById(tenantId, existing.getOrderId()), true);
+        }
+
+        Order savedOrder = createOrder(tenantId, orderRequest);
+        orderIdempotencyKeyRepository.attachOrder(tenantId, idempotencyKey.getIdempotencyKey(), savedOrder.getId());
+        return new OrderCreationResult(savedOrder, false);
     }
 
     @Override
     @Transactional
+    @RetryOnConflict("order.update-status")
     public Order updateOrderStatus(Long tenantId, Long id, Long statusId, String comment) {
         log.info("Attempting to update status for order {} (tenant {}) to statusId {}", id, tenantId, statusId);
         Order order = orderRepository.findByTenantIdAndId(tenantId, id)
@@ -167,25 +235,25 @@ public class OrderServiceImpl implements OrderService {
         OrderStatus oldStatus = order.getStatus();
 
         order.setStatus(newStatus);
-        if (comment != null && !comment.isBlank()) {
-            String existingComment = order.getComment() == null ? "" : order.getComment() + "\n";
-            order.setComment(existingComment + "Status changed to " + newStatus.getStatusName() + ": " + comment);
-        }
 
         if (("Canceled".equals(newStatus.getStatusName()) || "Returned".equals(newStatus.getStatusName())) &&
                 !"Canceled".equals(oldStatus.getStatusName()) &&
                 !"Returned".equals(oldStatus.getStatusName())) {
             log.info("Order {} is being canceled or returned, restoring inventory", order.getId());
             restoreInventoryForOrder(order);
+            salesRollupService.recordOrderCanceled(order);
         }
 
         Order updatedOrder = orderRepository.save(order);
+        recordStatusChange(updatedOrder, oldStatus, newStatus, comment);
+        publishOrderChanged(updatedOrder, OrderChangedEvent.Type.STATUS_CHANGED, oldStatus);
         log.info("Order {} (tenant {}) status updated successfully to {}", id, tenantId, newStatus.getStatusName());
         return updatedOrder;
     }
 
     @Override
     @Transactional
+    @RetryOnConflict("order.delete")
     public void deleteOrder(Long tenantId, Long id) {
         log.warn("Attempting to delete order {} for tenant {}", id, tenantId);
         Order order = orderRepository.findByTenantIdAndId(tenantId, id)
@@ -209,6 +277,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
+    @RetryOnConflict("order.cancel")
     public Order cancelOrder(Long tenantId, Long id, String reason) {
         Order order = getOrderById(tenantId, id);
 
@@ -225,6 +294,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
+    @RetryOnConflict("order.payment")
     public Order processOrderPayment(Long tenantId, Long id, String paymentReference) {
         Order order = getOrderById(tenantId, id);
 
@@ -239,6 +309,150 @@ public class OrderServiceImpl implements OrderService {
         return updateOrderStatus(tenantId, id, paidStatus.getId(), comment);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderStatusHistory> getOrderStatusHistory(Long tenantId, Long orderId, Pageable pageable) {
+        if (!orderRepository.existsByTenantIdAndId(tenantId, orderId)) {
+            throw new ResourceNotFoundException("Order", "id", orderId, tenantId);
+        }
+        return orderStatusHistoryRepository.findByTenantIdAndOrderId(tenantId, orderId, pageable);
+    }
+
+    private void validateOrderRequest(Order orderRequest) {
+        if (orderRequest.getCustomer() == null || orderRequest.getCustomer().getId() == null) {
+            throw new IllegalArgumentException("Customer ID must be provided");
+        }
+        if (orderRequest.getAddress() == null || orderRequest.getAddress().getId() == null) {
+            throw new IllegalArgumentException("Address ID must be provided");
+        }
+        if (CollectionUtils.isEmpty(orderRequest.getOrderItems())) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+        for (OrderItem itemRequest : orderRequest.getOrderItems()) {
+            if (itemRequest.getProduct() == null || itemRequest.getProduct().getId() == null) {
+                throw new IllegalArgumentException("Product ID missing in one of the order items");
+            }
+            if (itemRequest.getQuantity() == null || itemRequest.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for product ID "
+                                                           + itemRequest.getProduct().getId()
+                );
+            }
+        }
+    }
+
+    // Возвращает причину отказа или null, если заказ из пачки можно создать при текущих остатках
+    private String checkBatchOrder(
+            Long tenantId,
+            Order request,
+            Map<Long, User> customers,
+            Map<Long, Address> addresses,
+            Map<Long, Product> products
+    ) {
+        try {
+            validateOrderRequest(request);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        Long customerId = request.getCustomer().getId();
+        if (!customers.containsKey(customerId)) {
+            return new ResourceNotFoundException("Customer", "id", customerId, tenantId).getMessage();
+        }
+        Long addressId = request.getAddress().getId();
+        if (!addresses.containsKey(addressId)) {
+            return new ResourceNotFoundException("Address", "id", addressId, tenantId).getMessage();
+        }
+
+        Map<Long, Integer> requiredQuantities = new LinkedHashMap<>();
+        for (OrderItem itemRequest : request.getOrderItems()) {
+            requiredQuantities.merge(itemRequest.getProduct().getId(), itemRequest.getQuantity(), Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> required : requiredQuantities.entrySet()) {
+            Product product = products.get(required.getKey());
+            if (product == null) {
+                return new ResourceNotFoundException("Product", "id", required.getKey(), tenantId).getMessage();
+            }
+            if (product.getStockQuantity() < required.getValue()) {
+                return new InsufficientStockException(
+                        product.getId(), required.getValue(), product.getStockQuantity()
+                ).getMessage();
+            }
+        }
+        return null;
+    }
+
+    private Order newOrder(Tenant tenant, User customer, Address address, OrderStatus status) {
+        Order order = new Order();
+        order.setTenant(tenant);
+        order.setCustomer(customer);
+        order.setAddress(address);
+        order.setStatus(status);
+        order.setTotalAmount(BigDecimal.ZERO);
+        order.setOrderItems(new ArrayList<>());
+        return order;
+    }
+
+    // Добавляет позицию по текущей цене товара и списывает остаток; наличие проверяет вызывающий код
+    private void addOrderItem(Order order, Product product, int quantity) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setTenant(order.getTenant());
+        orderItem.setProduct(product);
+        orderItem.setQuantity(quantity);
+        orderItem.setUnitPrice(product.getPrice());
+        orderItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
+
+        order.addOrderItem(orderItem);
+        order.setTotalAmount(order.getTotalAmount().add(orderItem.getTotalPrice()));
+        product.setStockQuantity(product.getStockQuantity() - quantity);
+
+        log.debug(
+                "Processed item: product={}, quantity={}, price={}, totalItemPrice={}",
+                product.getId(),
+                quantity,
+                orderItem.getUnitPrice(),
+                orderItem.getTotalPrice()
+        );
+    }
+
+    private Order saveNewOrder(Order order) {
+        Order savedOrder = orderRepository.save(order);
+        recordStatusChange(savedOrder, null, savedOrder.getStatus(), null);
+        salesRollupService.recordOrderPlaced(savedOrder);
+        publishOrderChanged(savedOrder, OrderChangedEvent.Type.CREATED, null);
+        log.info("Order {} created successfully for tenant {}", savedOrder.getId(), savedOrder.getTenant().getId());
+        return savedOrder;
+    }
+
+    // История статусов пишется отдельной строкой вместо дописывания в comment заказа
+    private void recordStatusChange(Order order, OrderStatus previousStatus, OrderStatus newStatus, String comment) {
+        OrderStatusHistory history = new OrderStatusHistory();
+        history.setTenant(order.getTenant());
+        history.setOrder(order);
+        history.setPreviousStatus(previousStatus);
+        history.setStatus(newStatus);
+        history.setComment(comment == null || comment.isBlank() ? null : comment.trim());
+        orderStatusHistoryRepository.save(history);
+        log.debug(
+                "Recorded status change for order {} (tenant {}): {} -> {}",
+                order.getId(),
+                order.getTenant().getId(),
+                previousStatus == null ? null : previousStatus.getStatusName(),
+                newStatus.getStatusName()
+        );
+    }
+
+    // Лента заказов получает событие только после фиксации транзакции
+    private void publishOrderChanged(Order order, OrderChangedEvent.Type type, OrderStatus previousStatus) {
+        eventPublisher.publishEvent(new OrderChangedEvent(
+                order.getTenant().getId(),
+                order.getId(),
+                type,
+                order.getStatus().getStatusName(),
+                previousStatus == null ? null : previousStatus.getStatusName(),
+                order.getTotalAmount(),
+                order.getCustomer() == null ? null : order.getCustomer().getId(),
+                LocalDateTime.now()
+        ));
+    }
 
     private void restoreInventoryForOrder(Order order) {
         if (order == null || CollectionUtils.isEmpty(order.getOrderItems())) {
@@ -0,0 +1,105 @@
+package diploma.ecommerce.backend.shopbase.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import diploma.ecommerce.backend.shopbase.dto.record.ProductStockPriceChange;
+import diploma.ecommerce.backend.shopbase.dto.record.ProductStockPriceChangeResult;
+import diploma.ecommerce.backend.shopbase.dto.request.ProductBulkUpdateRequest;
+import diploma.ecommerce.backend.shopbase.dto.response.ProductBulkUpdateResponse;
+import diploma.ecommerce.backend.shopbase.dto.response.ProductBulkUpdateResponse.ItemResult;
+import diploma.ecommerce.backend.shopbase.dto.response.ProductBulkUpdateResponse.Status;
+import diploma.ecommerce.backend.shopbase.event.ProductsBulkChangedEvent;
+import diploma.ecommerce.backend.shopbase.repository.ProductBulkRepository;
+import diploma.ecommerce.backend.shopbase.service.ProductBulkUpdateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductBulkUpdateServiceImpl implements ProductBulkUpdateService {
+
+    // 1000 позиций = 5000 параметров запроса, с запасом ниже лимита протокола Postgres (32767)
+    static final int CHUNK_SIZE = 1000;
+
+    private final ProductBulkRepository productBulkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public ProductBulkUpdateResponse updateStockAndPrice(Long tenantId, List<ProductBulkUpdateRequest.Item> items) {
+        ItemResult[] results = new ItemResult[items.size()];
+        List<Integer> positions = new ArrayList<>(items.size());
+        List<ProductStockPriceChange> changes = new ArrayList<>(items.size());
+        Set<String> seenKeys = new HashSet<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            ProductBulkUpdateRequest.Item item = items.get(i);
+            String name = item.getName() != null && !item.getName().isBlank() ? item.getName().strip() : null;
+            if (item.getProductId() == null && name == null) {
+                results[i] = rejected(i, item, Status.INVALID, "Product ID or name is required");
+                continue;
+            }
+            if (item.getStockQuantity() == null && item.getPrice() == null) {
+                results[i] = rejected(i, item, Status.INVALID, "Stock quantity or price is required");
+                continue;
+            }
+            String key = item.getProductId() != null ? "id:" + item.getProductId() : "name:" + name;
+            if (!seenKeys.add(key)) {
+                results[i] = rejected(i, item, Status.DUPLICATE, "Product is already updated by a previous item");
+                continue;
+            }
+            positions.add(i);
+            changes.add(new ProductStockPriceChange(item.getProductId(), name, item.getStockQuantity(), item.getPrice()));
+        }
+
+        List<Long> changedProductIds = new ArrayList<>(changes.size());
+        for (int from = 0; from < changes.size(); from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, changes.size());
+            List<ProductStockPriceChangeResult> chunkResults = productBulkRepository.updateStockAndPrice(
+                    tenantId,
+                    changes.subList(from, to)
+            );
+            for (ProductStockPriceChangeResult result : chunkResults) {
+                int position = positions.get(from + result.index());
+                ProductBulkUpdateRequest.Item item = items.get(position);
+                if (result.applied()) {
+                    results[position] = new ItemResult(position, result.productId(), item.getName(), Status.UPDATED,
+                            result.stockQuantity(), result.price(), result.version(), null);
+                    changedProductIds.add(result.productId());
+                } else {
+                    // Товар указан и по ID, и по названию в разных позициях
+                    results[position] = new ItemResult(position, result.productId(), item.getName(),
+                            Status.DUPLICATE, null, null, null, "Product is already updated by a previous item");
+                }
+            }
+        }
+
+        int failed = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = rejected(i, items.get(i), Status.NOT_FOUND, "Product not found");
+            }
+            if (results[i].getStatus() != Status.UPDATED) {
+                failed++;
+            }
+        }
+
+        if (!changedProductIds.isEmpty()) {
+            eventPublisher.publishEvent(new ProductsBulkChangedEvent(tenantId, List.copyOf(changedProductIds)));
+        }
+        log.info("Bulk stock/price update for tenant {}: {} updated, {} failed", tenantId, changedProductIds.size(),
+                failed);
+        return new ProductBulkUpdateResponse(changedProductIds.size(), failed, List.of(results));
+    }
+
+    private ItemResult rejected(int index, ProductBulkUpdateRequest.Item item, Status status, String message) {
+        return new ItemResult(index, item.getProductId(), item.getName(), status, null, null, null, message);
+    }
+}
@@ -0,0 +1,241 @@
+package diploma.ecommerce.backend.shopbase.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import diploma.ecommerce.backend.shopbase.event.CatalogChangedEvent;
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
+import diploma.ecommerce.backend.shopbase.importer.CsvReader;
+import diploma.ecommerce.backend.shopbase.importer.ProductImportJob;
+import diploma.ecommerce.backend.shopbase.importer.ProductImportRow;
+import diploma.ecommerce.backend.shopbase.importer.ProductRowParser;
+import diploma.ecommerce.backend.shopbase.repository.ProductBulkRepository;
+import diploma.ecommerce.backend.shopbase.service.ProductImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    private static final int HEADER_PEEK_CHARS = 64 * 1024;
+
+    private final ProductBulkRepository productBulkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor taskExecutor;
+    private final int batchSize;
+    private final long maxFileSizeBytes;
+    private final long jobRetentionMinutes;
+
+    // Задачи хранятся в памяти экземпляра: статус доступен на том узле, который принял файл
+    private final Map<String, ProductImportJob> jobs = new ConcurrentHashMap<>();
+    // Незавершенный импорт тенанта; магазин занимается атомарно, поэтому два импорта не стартуют одновременно
+    private final ConcurrentMap<Long, ProductImportJob> activeImports = new ConcurrentHashMap<>();
+
+    public ProductImportServiceImpl(
+            ProductBulkRepository productBulkRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${app.import.batch-size:1000}") int batchSize,
+            @Value("${app.import.max-file-size-mb:100}") long maxFileSizeMb,
+            @Value("${app.import.job-retention-minutes:60}") long jobRetentionMinutes
+    ) {
+        this.productBulkRepository = productBulkRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.taskExecutor = taskExecutor;
+        this.batchSize = batchSize;
+        this.maxFileSizeBytes = maxFileSizeMb * BYTES_PER_MB;
+        this.jobRetentionMinutes = jobRetentionMinutes;
+    }
+
+    @Override
+    public ProductImportJob startImport(Long tenantId, String fileName, InputStream content) {
+        evictExpiredJobs();
+        ProductImportJob job = new ProductImportJob(tenantId, fileName);
+        ProductImportJob active = activeImports.compute(tenantId,
+                (id, current) -> current == null || current.isFinished() ? job : current);
+        if (active != job) {
+            throw new BadRequestException("Another product import is already in progress for this store");
+        }
+
+        Path file;
+        try {
+            file = storeUpload(content);
+        } catch (RuntimeException e) {
+            activeImports.remove(tenantId, job);
+            throw e;
+        }
+        jobs.put(job.getId(), job);
+        log.info("Product import {} queued for tenant {} (file '{}')", job.getId(), tenantId, fileName);
+
+        try {
+            taskExecutor.execute(() -> runImport(job, file));
+        } catch (TaskRejectedException e) {
+            log.warn("Product import {} rejected: executor is saturated", job.getId());
+            job.markFailed("Import queue is full, please retry later");
+            activeImports.remove(tenantId, job);
+            deleteQuietly(file);
+        }
+        return job;
+    }
+
+    @Override
+    public ProductImportJob getJob(Long tenantId, String jobId) {
+        ProductImportJob job = jobs.get(jobId);
+        if (job == null || !job.getTenantId().equals(tenantId)) {
+            throw new ResourceNotFoundException("ProductImportJob", "id", jobId);
+        }
+        return job;
+    }
+
+    void runImport(ProductImportJob job, Path file) {
+        job.markRunning();
+        long started = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.mark(HEADER_PEEK_CHARS);
+            char delimiter = CsvReader.detectDelimiter(reader.readLine());
+            reader.reset();
+
+            try (CsvReader csv = new CsvReader(reader, delimiter)) {
+                List<String> header = csv.readRecord();
+                if (header == null) {
+                    job.markFailed("File is empty");
+                    return;
+                }
+                importRecords(job, csv, ProductRowParser.forHeader(header));
+            }
+            job.markCompleted();
+            log.info(
+                    "Product import {} for tenant {} completed in {} ms: {} rows, {} imported, {} failed",
+                    job.getId(), job.getTenantId(), (System.nanoTime() - started) / 1_000_000,
+                    job.getProcessedRows(), job.getImportedRows(), job.getFailedRows()
+            );
+        } catch (IllegalArgumentException | IOException e) {
+            log.warn("Product import {} failed: {}", job.getId(), e.getMessage());
+            job.markFailed(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Product import {} failed unexpectedly", job.getId(), e);
+            job.markFailed("Unexpected error: " + e.getMessage());
+        } finally {
+            deleteQuietly(file);
+            activeImports.remove(job.getTenantId(), job);
+            // Пакеты уже зафиксированы по отдельности: каталог сбрасывается один раз на весь импорт
+            if (job.getImportedRows() > 0) {
+                eventPublisher.publishEvent(new CatalogChangedEvent(job.getTenantId(), List.of()));
+            }
+        }
+    }
+
+    private void importRecords(ProductImportJob job, CsvReader csv, ProductRowParser parser) throws IOException {
+        // Одинаковые названия внутри пачки схлопываются: побеждает последняя строка
+        Map<String, ProductImportRow> chunk = new LinkedHashMap<>();
+        long chunkLines = 0;
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            job.recordProcessed();
+            try {
+                ProductImportRow row = parser.parse(csv.getRecordLine(), record);
+                chunk.put(row.name(), row);
+                chunkLines++;
+            } catch (IllegalArgumentException e) {
+                job.recordFailure(csv.getRecordLine(), e.getMessage());
+            }
+
+            if (chunk.size() >= batchSize) {
+                flush(job, chunk, chunkLines);
+                chunk.clear();
+                chunkLines = 0;
+            }
+        }
+        flush(job, chunk, chunkLines);
+    }
+
+    private void flush(ProductImportJob job, Map<String, ProductImportRow> chunk, long chunkLines) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ProductImportRow> rows = new ArrayList<>(chunk.values());
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> productBulkRepository.upsertByName(job.getTenantId(), rows)
+            );
+            job.recordImported(chunkLines);
+        } catch (DataAccessException e) {
+            String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Product import {}: batch of {} rows failed: {}", job.getId(), rows.size(), reason);
+            rows.forEach(row -> job.recordFailure(row.line(), "Database error: " + reason));
+        }
+    }
+
+    private Path storeUpload(InputStream content) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("product-import-", ".csv");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[8192];
+                long total = 0;
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxFileSizeBytes) {
+                        throw new BadRequestException(
+                                "Import file exceeds " + maxFileSizeBytes / BYTES_PER_MB + " MB"
+                        );
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return file;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new BadRequestException("Failed to read import file", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    private void evictExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary import file {}", file, e);
+        }
+    }
+}
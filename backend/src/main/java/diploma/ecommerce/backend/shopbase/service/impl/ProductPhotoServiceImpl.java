@@ -3,8 +3,11 @@ package diploma.ecommerce.backend.shopbase.service.impl;
 import java.util.List;
 import java.util.Optional;
 
+import diploma.ecommerce.backend.shopbase.event.ProductPhotosChangedEvent;
 import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
 import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
+import diploma.ecommerce.backend.shopbase.image.ImageVariantProcessor;
+import diploma.ecommerce.backend.shopbase.image.ImageVariantUrls;
 import diploma.ecommerce.backend.shopbase.model.Product;
 import diploma.ecommerce.backend.shopbase.model.ProductPhoto;
 import diploma.ecommerce.backend.shopbase.model.Tenant;
@@ -14,8 +17,11 @@ import diploma.ecommerce.backend.shopbase.repository.TenantRepository;
 import diploma.ecommerce.backend.shopbase.service.ProductPhotoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Slf4j
 @Service
@@ -25,6 +31,14 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
     private final ProductPhotoRepository productPhotoRepository;
     private final ProductRepository productRepository;
     private final TenantRepository tenantRepository;
+    private final ImageVariantProcessor imageVariantProcessor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static void applyVariants(ProductPhoto photo, ImageVariantUrls variants) {
+        photo.setThumbnailPath(variants.thumbnail());
+        photo.setCardPath(variants.card());
+        photo.setFullPath(variants.full());
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -64,7 +78,14 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
 
         newPhoto.setId(null);
 
+        Optional<ImageVariantUrls> variants = imageVariantProcessor.findVariants(newPhoto.getFilePath());
+        variants.ifPresent(urls -> applyVariants(newPhoto, urls));
+
         ProductPhoto savedPhoto = productPhotoRepository.save(newPhoto);
+        if (variants.isEmpty()) {
+            submitVariantsAfterCommit(tenantId, savedPhoto.getFilePath());
+        }
+        eventPublisher.publishEvent(new ProductPhotosChangedEvent(tenantId, List.of(productId)));
         log.info("Photo {} added successfully for product {} (tenant {})", savedPhoto.getId(), productId, tenantId);
         return savedPhoto;
     }
@@ -112,6 +133,7 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
         }
 
         productPhotoRepository.delete(photoToDelete);
+        eventPublisher.publishEvent(new ProductPhotosChangedEvent(tenantId, List.of(productId)));
         log.info("Photo {} deleted successfully for product {} (tenant {})", photoId, productId, tenantId);
     }
 
@@ -151,10 +173,28 @@ public class ProductPhotoServiceImpl implements ProductPhotoService {
 
         newMainPhoto.setMain(true);
         ProductPhoto savedPhoto = productPhotoRepository.save(newMainPhoto);
+        eventPublisher.publishEvent(new ProductPhotosChangedEvent(tenantId, List.of(productId)));
         log.info("Photo {} is now the main photo for product {} (tenant {})", photoId, productId, tenantId);
         return savedPhoto;
     }
 
+    /**
+     * Копии еще не готовы: задача запускается после фиксации, чтобы ее UPDATE увидел новую фотографию.
+     * Если копии уже создаются после загрузки файла, повторная задача только запишет их адреса.
+     */
+    private void submitVariantsAfterCommit(Long tenantId, String filePath) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            imageVariantProcessor.submit(tenantId, filePath);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                imageVariantProcessor.submit(tenantId, filePath);
+            }
+        });
+    }
+
     private void unsetCurrentMainPhoto(Long tenantId, Long productId) {
         Optional<ProductPhoto> currentMainPhotoOpt = productPhotoRepository.findByTenantIdAndProductIdAndMainTrue(
                 tenantId,
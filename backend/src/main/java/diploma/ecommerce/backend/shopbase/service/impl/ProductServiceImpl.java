@@ -2,8 +2,12 @@ package diploma.ecommerce.backend.shopbase.service.impl;
 
 import java.util.List;
 
+import diploma.ecommerce.backend.shopbase.concurrency.RetryOnConflict;
 import diploma.ecommerce.backend.shopbase.dto.record.ProductSearchCriteria;
+import diploma.ecommerce.backend.shopbase.event.CatalogChangedEvent;
+import diploma.ecommerce.backend.shopbase.event.ProductChangedEvent;
 import diploma.ecommerce.backend.shopbase.exception.DataIntegrityViolationException;
+import diploma.ecommerce.backend.shopbase.exception.OptimisticLockConflictException;
 import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
 import diploma.ecommerce.backend.shopbase.model.OrderItem;
 import diploma.ecommerce.backend.shopbase.model.Product;
@@ -15,6 +19,7 @@ import diploma.ecommerce.backend.shopbase.repository.TenantRepository;
 import diploma.ecommerce.backend.shopbase.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -29,6 +34,7 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final TenantRepository tenantRepository;
     private final OrderItemRepository orderItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
@@ -85,11 +91,13 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
         log.info("Product {} created successfully for tenant {}", savedProduct.getId(), tenantId);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, savedProduct.getId()));
         return savedProduct;
     }
 
     @Override
     @Transactional
+    @RetryOnConflict("product.update")
     public Product updateProduct(
             Long tenantId,
             Long id,
@@ -99,6 +107,17 @@ public class ProductServiceImpl implements ProductService {
         Product existingProduct = productRepository.findByTenantIdAndId(tenantId, id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id, tenantId));
 
+        if (productDetails.getVersion() != null && !productDetails.getVersion().equals(existingProduct.getVersion())) {
+            log.warn(
+                    "Rejecting update of product {} (tenant {}): stale version {}, current {}",
+                    id, tenantId, productDetails.getVersion(), existingProduct.getVersion()
+            );
+            throw new OptimisticLockConflictException(String.format(
+                    "Product %d was modified by another request (expected version %d, current version %d)",
+                    id, productDetails.getVersion(), existingProduct.getVersion()
+            ));
+        }
+
         existingProduct.setName(productDetails.getName());
         existingProduct.setDescription(productDetails.getDescription());
         existingProduct.setPrice(productDetails.getPrice());
@@ -111,11 +130,13 @@ public class ProductServiceImpl implements ProductService {
 
         Product updatedProduct = productRepository.save(existingProduct);
         log.info("Product {} updated successfully for tenant {}", id, tenantId);
+        eventPublisher.publishEvent(new ProductChangedEvent(tenantId, id));
         return updatedProduct;
     }
 
     @Override
     @Transactional
+    @RetryOnConflict("product.delete")
     public void deleteProduct(Long tenantId, Long id) {
         log.warn("Attempting to delete product {} for tenant {}", id, tenantId);
 
@@ -134,6 +155,7 @@ public class ProductServiceImpl implements ProductService {
             );
         }
         productRepository.deleteByTenantIdAndId(tenantId, id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(tenantId, List.of(id)));
         log.info("Product {} deleted successfully for tenant {}", id, tenantId);
     }
 
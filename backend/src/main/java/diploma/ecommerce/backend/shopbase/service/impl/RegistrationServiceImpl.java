@@ -9,6 +9,7 @@ import diploma.ecommerce.backend.shopbase.repository.TenantRepository;
 import diploma.ecommerce.backend.shopbase.repository.TenantUserRepository;
 import diploma.ecommerce.backend.shopbase.security.JwtUtil;
 import diploma.ecommerce.backend.shopbase.service.RegistrationService;
+import diploma.ecommerce.backend.shopbase.service.ThemeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,6 +27,7 @@ public class RegistrationServiceImpl implements RegistrationService {
     private final TenantUserRepository tenantUserRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final ThemeService themeService;
 
     @Value("${app.base-url:https://diploma.ru}")
     private String baseUrl;
@@ -123,6 +125,8 @@ public class RegistrationServiceImpl implements RegistrationService {
         tenant.setName(request.getTenantName());
         tenant.setSubdomain(request.getSubdomain().toLowerCase().trim());
         tenant.setActive(true);
+        // Тема создается сразу, чтобы чтение темы витриной никогда не приводило к записи
+        tenant.setTheme(themeService.createTheme(themeService.getDefaultTheme()));
 
         return tenantRepository.save(tenant);
     }
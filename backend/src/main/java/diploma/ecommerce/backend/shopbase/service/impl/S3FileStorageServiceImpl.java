@@ -0,0 +1,390 @@
+package diploma.ecommerce.backend.shopbase.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import diploma.ecommerce.backend.shopbase.dto.request.DirectUploadCompleteRequest;
+import diploma.ecommerce.backend.shopbase.dto.request.DirectUploadRequest;
+import diploma.ecommerce.backend.shopbase.dto.response.DirectUploadResponse;
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
+import diploma.ecommerce.backend.shopbase.service.DirectUploadService;
+import diploma.ecommerce.backend.shopbase.service.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetUrlRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+
+/**
+ * Хранилище загрузок в S3-совместимом объектном хранилище. Ключи повторяют раскладку локального
+ * хранилища (tenant_{id}/{папка}/{uuid}.{расширение}), поэтому все реплики бэкенда видят одни и те же
+ * файлы. Кроме загрузки через бэкенд поддерживается загрузка из браузера по подписанным адресам:
+ * одним PUT-запросом или, для больших файлов, составной загрузкой по частям.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+public class S3FileStorageServiceImpl implements FileStorageService, DirectUploadService {
+
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    // S3 не принимает части меньше 5 МБ, кроме последней, и не больше 10000 частей
+    private static final long MIN_PART_SIZE = 5 * BYTES_PER_MB;
+    private static final int MAX_PARTS = 10_000;
+    // Имена объектов уникальны, содержимое по ключу не меняется
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("^\\.[A-Za-z0-9]{1,10}$");
+    private static final Pattern KEY = Pattern.compile("^tenant_\\d+/[a-z]+/[0-9a-f-]{36}(\\.[A-Za-z0-9]{1,10})?$");
+    private static final Pattern SHARED_KEY = Pattern.compile("^[a-z]+/[A-Za-z0-9-]+(\\.[A-Za-z0-9]{1,10})?$");
+
+    private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+    private final String bucket;
+    private final String publicUrl;
+    private final Duration presignTtl;
+    private final long partSize;
+    private final long maxDirectUploadSize;
+    private final long maxFileSize;
+
+    public S3FileStorageServiceImpl(
+            S3Client s3Client,
+            S3Presigner s3Presigner,
+            @Value("${app.storage.s3.bucket}") String bucket,
+            @Value("${app.storage.s3.public-url:}") String publicUrl,
+            @Value("${app.storage.s3.presign-ttl-minutes:15}") long presignTtlMinutes,
+            @Value("${app.storage.s3.part-size-mb:8}") long partSizeMb,
+            @Value("${app.storage.s3.max-direct-upload-mb:100}") long maxDirectUploadMb,
+            @Value("${spring.servlet.multipart.max-file-size:10MB}") DataSize maxFileSize
+    ) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
+        this.bucket = bucket;
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+        this.presignTtl = Duration.ofMinutes(presignTtlMinutes);
+        this.partSize = Math.max(MIN_PART_SIZE, partSizeMb * BYTES_PER_MB);
+        this.maxDirectUploadSize = maxDirectUploadMb * BYTES_PER_MB;
+        this.maxFileSize = maxFileSize.toBytes();
+    }
+
+    private static String extensionOf(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int lastDotIndex = originalFilename.lastIndexOf('.');
+        String extension = lastDotIndex > 0 ? originalFilename.substring(lastDotIndex) : "";
+        return SAFE_EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+
+    private static String newKey(Long tenantId, String folder, String originalFilename) {
+        return "tenant_" + tenantId + "/" + folder + "/" + UUID.randomUUID() + extensionOf(originalFilename);
+    }
+
+    private static String contentTypeOf(String originalFilename) {
+        String contentType = originalFilename != null ? URLConnection.guessContentTypeFromName(originalFilename) : null;
+        return contentType != null ? contentType : DEFAULT_CONTENT_TYPE;
+    }
+
+    private static void checkSize(long size, long maxBytes) {
+        if (size > maxBytes) {
+            throw new BadRequestException("File exceeds " + maxBytes / BYTES_PER_MB + " MB");
+        }
+    }
+
+    // Host и Content-Length браузер выставляет сам и задать их не может
+    private static Map<String, String> headersToSend(Map<String, List<String>> signedHeaders) {
+        return signedHeaders.entrySet().stream()
+                .filter(header -> !"host".equalsIgnoreCase(header.getKey())
+                        && !"content-length".equalsIgnoreCase(header.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, header -> String.join(",", header.getValue())));
+    }
+
+    @Override
+    public String storeFile(MultipartFile file, Long tenantId, String folder) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Cannot store empty file");
+        }
+        checkSize(file.getSize(), maxFileSize);
+
+        String key = newKey(tenantId, folder, file.getOriginalFilename());
+        String contentType = file.getContentType() != null
+                ? file.getContentType()
+                : contentTypeOf(file.getOriginalFilename());
+        try (InputStream content = file.getInputStream()) {
+            s3Client.putObject(putRequest(key, contentType, file.getSize()),
+                    RequestBody.fromInputStream(content, file.getSize()));
+        }
+        log.info("File saved to object storage: {}", key);
+        return fileUrl(key);
+    }
+
+    @Override
+    public String storeFile(InputStream content, String originalFilename, Long tenantId, String folder)
+            throws IOException {
+        String key = newKey(tenantId, folder, originalFilename);
+        String contentType = contentTypeOf(originalFilename);
+
+        byte[] firstPart = content.readNBytes((int) partSize);
+        if (firstPart.length == 0) {
+            throw new IllegalArgumentException("Cannot store empty file");
+        }
+        if (firstPart.length < partSize) {
+            checkSize(firstPart.length, maxFileSize);
+            s3Client.putObject(putRequest(key, contentType, firstPart.length), RequestBody.fromBytes(firstPart));
+        } else {
+            // Размер заранее неизвестен: файл передается частями, в памяти держится не больше одной части
+            putInParts(key, contentType, firstPart, content);
+        }
+        log.info("File saved to object storage: {}", key);
+        return fileUrl(key);
+    }
+
+    @Override
+    public boolean deleteFile(String fileUrl) {
+        String key = keyOf(fileUrl);
+        if (key == null) {
+            return false;
+        }
+        try {
+            s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (SdkException e) {
+            log.error("Error deleting object: {}", key, e);
+            return false;
+        }
+    }
+
+    @Override
+    public String storeSharedFile(String folder, String filename, byte[] content) {
+        String key = folder + "/" + filename;
+        if (!SHARED_KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid shared file name: " + key);
+        }
+        // Содержимое по имени не меняется, поэтому повторная запись того же файла ничего не портит
+        s3Client.putObject(putRequest(key, contentTypeOf(filename), content.length), RequestBody.fromBytes(content));
+        log.info("Shared file saved to object storage: {}", key);
+        return fileUrl(key);
+    }
+
+    @Override
+    public DirectUploadResponse createUpload(Long tenantId, String folder, DirectUploadRequest request) {
+        checkSize(request.getSize(), maxDirectUploadSize);
+        String key = newKey(tenantId, folder, request.getFileName());
+
+        DirectUploadResponse response = new DirectUploadResponse();
+        response.setKey(key);
+        response.setFileUrl(fileUrl(key));
+
+        if (request.getSize() <= partSize) {
+            // Размер входит в подпись: хранилище отклонит файл другого размера
+            PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                    .signatureDuration(presignTtl)
+                    .putObjectRequest(putRequest(key, request.getContentType(), request.getSize()))
+                    .build());
+            response.setUploadUrl(presigned.url().toString());
+            response.setHeaders(headersToSend(presigned.signedHeaders()));
+            response.setExpiresAt(presigned.expiration());
+            return response;
+        }
+
+        int partCount = (int) ((request.getSize() + partSize - 1) / partSize);
+        if (partCount > MAX_PARTS) {
+            throw new BadRequestException("File requires more than " + MAX_PARTS + " parts");
+        }
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(request.getContentType())
+                .cacheControl(CACHE_CONTROL)
+                .build()).uploadId();
+
+        List<DirectUploadResponse.PartUrl> parts = new ArrayList<>(partCount);
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            UploadPartRequest partRequest = UploadPartRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .build();
+            String url = s3Presigner.presignUploadPart(UploadPartPresignRequest.builder()
+                    .signatureDuration(presignTtl)
+                    .uploadPartRequest(partRequest)
+                    .build()).url().toString();
+            parts.add(new DirectUploadResponse.PartUrl(partNumber, url));
+        }
+        response.setUploadId(uploadId);
+        response.setPartSize(partSize);
+        response.setParts(parts);
+        response.setHeaders(Map.of());
+        response.setExpiresAt(Instant.now().plus(presignTtl));
+        log.info("Multipart upload {} started for {} ({} parts)", uploadId, key, partCount);
+        return response;
+    }
+
+    @Override
+    public String completeUpload(Long tenantId, DirectUploadCompleteRequest request) {
+        String key = request.getKey();
+        checkOwnership(tenantId, key);
+
+        if (request.getUploadId() != null) {
+            if (request.getParts() == null || request.getParts().isEmpty()) {
+                throw new BadRequestException("Multipart upload must list its parts");
+            }
+            List<CompletedPart> parts = request.getParts().stream()
+                    .sorted(Comparator.comparing(DirectUploadCompleteRequest.Part::getPartNumber))
+                    .map(part -> CompletedPart.builder()
+                            .partNumber(part.getPartNumber())
+                            .eTag(part.getEtag())
+                            .build())
+                    .toList();
+            try {
+                s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(request.getUploadId())
+                        .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                        .build());
+            } catch (SdkException e) {
+                throw new BadRequestException("Cannot complete upload: " + e.getMessage(), e);
+            }
+        }
+
+        // Части составной загрузки подписаны без размера, поэтому итоговый объект проверяется здесь
+        HeadObjectResponse head;
+        try {
+            head = s3Client.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (NoSuchKeyException e) {
+            throw new ResourceNotFoundException("Upload", "key", key, tenantId);
+        }
+        if (head.contentLength() > maxDirectUploadSize
+                || head.contentType() == null || !head.contentType().startsWith("image/")) {
+            s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+            throw new BadRequestException("Uploaded file must be an image up to "
+                    + maxDirectUploadSize / BYTES_PER_MB + " MB");
+        }
+        log.info("Direct upload completed: {} ({} bytes)", key, head.contentLength());
+        return fileUrl(key);
+    }
+
+    @Override
+    public void abortUpload(Long tenantId, String key, String uploadId) {
+        checkOwnership(tenantId, key);
+        abortQuietly(key, uploadId);
+    }
+
+    private PutObjectRequest putRequest(String key, String contentType, long contentLength) {
+        return PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .cacheControl(CACHE_CONTROL)
+                .build();
+    }
+
+    private void putInParts(String key, String contentType, byte[] firstPart, InputStream content)
+            throws IOException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .cacheControl(CACHE_CONTROL)
+                .build()).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            long total = 0;
+            byte[] part = firstPart;
+            while (part.length > 0) {
+                total += part.length;
+                checkSize(total, maxFileSize);
+                int partNumber = parts.size() + 1;
+                String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) part.length)
+                        .build(), RequestBody.fromBytes(part)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                part = content.readNBytes((int) partSize);
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            abortQuietly(key, uploadId);
+            throw e;
+        }
+    }
+
+    // Незавершенные части занимают место в хранилище, пока загрузку не отменят
+    private void abortQuietly(String key, String uploadId) {
+        if (uploadId == null) {
+            return;
+        }
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (SdkException e) {
+            log.warn("Failed to abort multipart upload {} for {}", uploadId, key, e);
+        }
+    }
+
+    private void checkOwnership(Long tenantId, String key) {
+        if (key == null || !KEY.matcher(key).matches() || !key.startsWith("tenant_" + tenantId + "/")) {
+            throw new ResourceNotFoundException("Upload", "key", key, tenantId);
+        }
+    }
+
+    private String fileUrl(String key) {
+        if (!publicUrl.isEmpty()) {
+            return publicUrl + "/" + key;
+        }
+        return s3Client.utilities().getUrl(GetUrlRequest.builder().bucket(bucket).key(key).build()).toExternalForm();
+    }
+
+    private String keyOf(String fileUrl) {
+        if (fileUrl == null || fileUrl.isEmpty()) {
+            return null;
+        }
+        int tenantIndex = fileUrl.lastIndexOf("tenant_");
+        String key = tenantIndex >= 0 ? fileUrl.substring(tenantIndex) : fileUrl;
+        return KEY.matcher(key).matches() ? key : null;
+    }
+}
@@ -0,0 +1,187 @@
+package diploma.ecommerce.backend.shopbase.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import diploma.ecommerce.backend.shopbase.analytics.ProductSalesDelta;
+import diploma.ecommerce.backend.shopbase.analytics.ProductSalesSort;
+import diploma.ecommerce.backend.shopbase.dto.record.ProductSalesSummary;
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+import diploma.ecommerce.backend.shopbase.model.Order;
+import diploma.ecommerce.backend.shopbase.model.OrderItem;
+import diploma.ecommerce.backend.shopbase.model.SalesDailyRollup;
+import diploma.ecommerce.backend.shopbase.repository.ProductSalesDailyRollupRepository;
+import diploma.ecommerce.backend.shopbase.repository.SalesDailyRollupRepository;
+import diploma.ecommerce.backend.shopbase.repository.SalesRollupRepository;
+import diploma.ecommerce.backend.shopbase.service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesRollupServiceImpl implements SalesRollupService {
+
+    static final int MAX_REPORT_DAYS = 731;
+    static final int MAX_TOP_PRODUCTS = 100;
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+    private final ProductSalesDailyRollupRepository productSalesDailyRollupRepository;
+
+    // Продажа относится к дню создания заказа; до flush время создания может быть еще не заполнено
+    private static LocalDate salesDateOf(Order order) {
+        return order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' date must not be after 'to' date");
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderPlaced(Order order) {
+        Map<Long, ProductSalesDelta> lines = new TreeMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getProduct() == null) {
+                continue;
+            }
+            Long productId = item.getProduct().getId();
+            lines.merge(
+                    productId,
+                    ProductSalesDelta.placed(productId, 1, item.getQuantity(), item.getTotalPrice()),
+                    (a, b) -> ProductSalesDelta.placed(productId, 1, a.units() + b.units(),
+                            a.revenue().add(b.revenue()))
+            );
+        }
+        salesRollupRepository.increment(
+                order.getTenant().getId(),
+                salesDateOf(order),
+                1,
+                0,
+                new ArrayList<>(lines.values())
+        );
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderCanceled(Order order) {
+        Map<Long, ProductSalesDelta> lines = new TreeMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getProduct() == null) {
+                continue;
+            }
+            Long productId = item.getProduct().getId();
+            lines.merge(
+                    productId,
+                    ProductSalesDelta.canceled(productId, item.getQuantity(), item.getTotalPrice()),
+                    (a, b) -> ProductSalesDelta.canceled(productId, a.canceledUnits() + b.canceledUnits(),
+                            a.canceledRevenue().add(b.canceledRevenue()))
+            );
+        }
+        // Отмена учитывается в день отмены, а не в день создания заказа
+        salesRollupRepository.increment(
+                order.getTenant().getId(),
+                LocalDate.now(),
+                0,
+                1,
+                new ArrayList<>(lines.values())
+        );
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordItemChange(
+            Order order,
+            Long productId,
+            int ordersDelta,
+            int unitsDelta,
+            BigDecimal revenueDelta
+    ) {
+        recordItemChanges(order, List.of(ProductSalesDelta.placed(productId, ordersDelta, unitsDelta, revenueDelta)));
+    }
+
+    // Изменения позиций одного заказа записываются одним приращением с позициями по порядку productId
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordItemChanges(Order order, List<ProductSalesDelta> changes) {
+        Map<Long, ProductSalesDelta> lines = new TreeMap<>();
+        for (ProductSalesDelta change : changes) {
+            Long productId = change.productId();
+            lines.merge(
+                    productId,
+                    change,
+                    (a, b) -> ProductSalesDelta.placed(productId, a.orders() + b.orders(), a.units() + b.units(),
+                            a.revenue().add(b.revenue()))
+            );
+        }
+        lines.values().removeIf(line -> line.orders() == 0 && line.units() == 0 && line.revenue().signum() == 0);
+        if (lines.isEmpty()) {
+            return;
+        }
+        salesRollupRepository.increment(
+                order.getTenant().getId(),
+                salesDateOf(order),
+                0,
+                0,
+                new ArrayList<>(lines.values())
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesDailyRollup> getDailySales(Long tenantId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (from.plusDays(MAX_REPORT_DAYS).isBefore(to)) {
+            throw new BadRequestException("Report period cannot exceed " + MAX_REPORT_DAYS + " days");
+        }
+        Map<LocalDate, SalesDailyRollup> stored = new TreeMap<>();
+        salesDailyRollupRepository.findByTenantIdAndSalesDateBetweenOrderBySalesDate(tenantId, from, to)
+                .forEach(rollup -> stored.put(rollup.getSalesDate(), rollup));
+
+        // Дни без заказов не хранятся, в отчете они нулевые
+        List<SalesDailyRollup> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            days.add(stored.getOrDefault(day, SalesDailyRollup.empty(tenantId, day)));
+        }
+        return days;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSalesSummary> getTopProducts(
+            Long tenantId,
+            LocalDate from,
+            LocalDate to,
+            ProductSalesSort sort,
+            int limit
+    ) {
+        validateRange(from, to);
+        if (limit < 1 || limit > MAX_TOP_PRODUCTS) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_TOP_PRODUCTS);
+        }
+        PageRequest page = PageRequest.of(0, limit);
+        return switch (sort) {
+            case REVENUE -> productSalesDailyRollupRepository.findTopByRevenue(tenantId, from, to, page);
+            case UNITS -> productSalesDailyRollupRepository.findTopByUnits(tenantId, from, to, page);
+        };
+    }
+
+    @Override
+    @Transactional
+    public void rebuild(Long tenantId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        log.info("Rebuilding sales rollups for tenant {} ({} - {})", tenantId, from, to);
+        salesRollupRepository.rebuild(tenantId, from, to);
+    }
+}
@@ -0,0 +1,170 @@
+package diploma.ecommerce.backend.shopbase.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import diploma.ecommerce.backend.shopbase.catalog.CatalogVersion;
+import diploma.ecommerce.backend.shopbase.catalog.CatalogVersions;
+import diploma.ecommerce.backend.shopbase.catalog.CategoryFacets;
+import diploma.ecommerce.backend.shopbase.dto.mapper.ProductMapper;
+import diploma.ecommerce.backend.shopbase.dto.mapper.ProductPhotoMapper;
+import diploma.ecommerce.backend.shopbase.dto.mapper.ThemeMapper;
+import diploma.ecommerce.backend.shopbase.dto.response.CategoryFacetResponse;
+import diploma.ecommerce.backend.shopbase.dto.response.ProductResponse;
+import diploma.ecommerce.backend.shopbase.dto.response.StorefrontBootstrapResponse;
+import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
+import diploma.ecommerce.backend.shopbase.model.Product;
+import diploma.ecommerce.backend.shopbase.model.ProductPhoto;
+import diploma.ecommerce.backend.shopbase.model.Tenant;
+import diploma.ecommerce.backend.shopbase.repository.ProductPhotoRepository;
+import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
+import diploma.ecommerce.backend.shopbase.repository.ProductSpecification;
+import diploma.ecommerce.backend.shopbase.repository.TenantRepository;
+import diploma.ecommerce.backend.shopbase.service.StorefrontService;
+import diploma.ecommerce.backend.shopbase.service.ThemeService;
+import diploma.ecommerce.backend.shopbase.theme.PublicThemeCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Стартовые данные витрины одним ответом. Число запросов к базе не зависит от размера каталога:
+ * версия каталога, магазин, страница товаров с подсчетом и главные фотографии этой страницы
+ * одним запросом. Тема берется из {@link PublicThemeCache}, категории из {@link CategoryFacets}.
+ */
+@Slf4j
+@Service
+public class StorefrontServiceImpl implements StorefrontService {
+
+    private final TenantRepository tenantRepository;
+    private final ProductRepository productRepository;
+    private final ProductPhotoRepository productPhotoRepository;
+    private final ProductMapper productMapper;
+    private final ProductPhotoMapper productPhotoMapper;
+    private final ThemeService themeService;
+    private final ThemeMapper themeMapper;
+    private final PublicThemeCache publicThemeCache;
+    private final CatalogVersions catalogVersions;
+    private final CategoryFacets categoryFacets;
+    private final int bootstrapPageSize;
+
+    public StorefrontServiceImpl(
+            TenantRepository tenantRepository,
+            ProductRepository productRepository,
+            ProductPhotoRepository productPhotoRepository,
+            ProductMapper productMapper,
+            ProductPhotoMapper productPhotoMapper,
+            ThemeService themeService,
+            ThemeMapper themeMapper,
+            PublicThemeCache publicThemeCache,
+            CatalogVersions catalogVersions,
+            CategoryFacets categoryFacets,
+            @Value("${app.storefront.bootstrap-page-size:20}") int bootstrapPageSize
+    ) {
+        this.tenantRepository = tenantRepository;
+        this.productRepository = productRepository;
+        this.productPhotoRepository = productPhotoRepository;
+        this.productMapper = productMapper;
+        this.productPhotoMapper = productPhotoMapper;
+        this.themeService = themeService;
+        this.themeMapper = themeMapper;
+        this.publicThemeCache = publicThemeCache;
+        this.catalogVersions = catalogVersions;
+        this.categoryFacets = categoryFacets;
+        this.bootstrapPageSize = bootstrapPageSize;
+    }
+
+    private static long updatedAtMillis(Tenant tenant) {
+        return tenant.getUpdatedAt() != null ? tenant.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+    }
+
+    @Override
+    public PublicThemeCache.Snapshot getPublicTheme(Long tenantId) {
+        return publicThemeCache.get(tenantId,
+                () -> themeMapper.toThemeResponse(themeService.getTenantThemeOrDefault(tenantId)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getBootstrapETag(Long tenantId, PublicThemeCache.Snapshot theme) {
+        CatalogVersion catalogVersion = catalogVersions.current(tenantId);
+        Tenant tenant = getTenant(tenantId);
+        // ETag темы уже в кавычках; в составном теге остается только его значение
+        String themeTag = theme.eTag().substring(1, theme.eTag().length() - 1);
+        return "\"b" + tenantId + "-" + catalogVersion.version() + "-" + updatedAtMillis(tenant) + "-"
+                + themeTag + "\"";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StorefrontBootstrapResponse getBootstrap(Long tenantId, PublicThemeCache.Snapshot theme) {
+        Tenant tenant = getTenant(tenantId);
+        List<CategoryFacetResponse> categories = categoryFacets.get(tenantId).categories();
+
+        Page<Product> page = productRepository.findAll(
+                ProductSpecification.hasTenantId(tenantId).and(ProductSpecification.isActive(true)),
+                PageRequest.of(0, bootstrapPageSize, Sort.by("name")));
+        List<ProductResponse> products = toProductCards(tenantId, page.getContent());
+
+        log.debug("Storefront bootstrap for tenant {}: {} categories, {} of {} products",
+                tenantId, categories.size(), products.size(), page.getTotalElements());
+        return StorefrontBootstrapResponse.builder()
+                .theme(new String(theme.body(), StandardCharsets.UTF_8))
+                .store(StorefrontBootstrapResponse.Store.builder()
+                        .id(tenant.getId())
+                        .name(tenant.getName())
+                        .subdomain(tenant.getSubdomain())
+                        .contactPhone(tenant.getContactPhone())
+                        .contactEmail(tenant.getContactEmail())
+                        .build())
+                .categories(categories)
+                .products(products)
+                .totalProducts(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .pageSize(bootstrapPageSize)
+                .build();
+    }
+
+    @Override
+    public CategoryFacets.Snapshot getCategoryFacets(Long tenantId) {
+        return categoryFacets.get(tenantId);
+    }
+
+    private Tenant getTenant(Long tenantId) {
+        return tenantRepository.findById(tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tenant", "id", tenantId));
+    }
+
+    // Ленивая коллекция фотографий не читается: главные фотографии всей страницы приходят одним запросом
+    private List<ProductResponse> toProductCards(Long tenantId, List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductPhoto> mainPhotos = productPhotoRepository
+                .findByTenantIdAndProductIdInAndMainTrue(tenantId, products.stream().map(Product::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(photo -> photo.getProduct().getId(), Function.identity(), (a, b) -> a));
+
+        return products.stream()
+                .map(product -> {
+                    ProductResponse card = productMapper.toProductResponseWithoutPhotos(product);
+                    ProductPhoto mainPhoto = mainPhotos.get(product.getId());
+                    if (mainPhoto != null) {
+                        card.setImageUrl(productMapper.photoCardUrl(mainPhoto));
+                        card.setPhotos(List.of(productPhotoMapper.toProductPhotoResponse(mainPhoto)));
+                    } else {
+                        card.setPhotos(List.of());
+                    }
+                    return card;
+                })
+                .toList();
+    }
+}
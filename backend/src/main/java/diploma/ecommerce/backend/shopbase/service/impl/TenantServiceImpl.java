@@ -10,6 +10,7 @@ import diploma.ecommerce.backend.shopbase.repository.TenantRepository;
 import diploma.ecommerce.backend.shopbase.service.CryptoService;
 import diploma.ecommerce.backend.shopbase.service.TenantService;
 import diploma.ecommerce.backend.shopbase.service.ThemeService;
+import diploma.ecommerce.backend.shopbase.theme.PublicThemeCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,7 @@ public class TenantServiceImpl implements TenantService {
     private final TenantRepository tenantRepository;
     private final ThemeService themeService;
     private final CryptoService cryptoService;
+    private final PublicThemeCache publicThemeCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -143,6 +145,7 @@ public class TenantServiceImpl implements TenantService {
         if (existingTenant.getTheme() == null) {
             Theme newTheme = themeService.createTheme(themeData);
             existingTenant.setTheme(newTheme);
+            publicThemeCache.evictTenant(tenantId);
         } else {
             Theme existingTheme = existingTenant.getTheme();
             themeService.updateTheme(existingTheme.getId(), themeData);
@@ -4,6 +4,8 @@ import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
 import diploma.ecommerce.backend.shopbase.model.Theme;
 import diploma.ecommerce.backend.shopbase.repository.ThemeRepository;
 import diploma.ecommerce.backend.shopbase.service.ThemeService;
+import diploma.ecommerce.backend.shopbase.theme.PublicThemeCache;
+import diploma.ecommerce.backend.shopbase.theme.ThemeStylesheetPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,6 +17,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class ThemeServiceImpl implements ThemeService {
 
     private final ThemeRepository themeRepository;
+    private final PublicThemeCache publicThemeCache;
+    private final ThemeStylesheetPublisher themeStylesheetPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -31,6 +35,7 @@ public class ThemeServiceImpl implements ThemeService {
     @Transactional
     public Theme createTheme(Theme theme) {
         log.info("Creating a new theme");
+        theme.setStylesheetUrl(themeStylesheetPublisher.publish(theme));
         Theme savedTheme = themeRepository.save(theme);
         log.info("Theme created successfully with ID: {}", savedTheme.getId());
         return savedTheme;
@@ -123,7 +128,10 @@ public class ThemeServiceImpl implements ThemeService {
             existingTheme.setCardShadow(themeDetails.getCardShadow());
         }
 
+        existingTheme.setStylesheetUrl(themeStylesheetPublisher.publish(existingTheme));
+
         Theme updatedTheme = themeRepository.save(existingTheme);
+        publicThemeCache.evictTheme(themeId);
         log.info("Theme with ID {} updated successfully", themeId);
 
         return updatedTheme;
@@ -150,4 +158,21 @@ public class ThemeServiceImpl implements ThemeService {
 
         return defaultTheme;
     }
-}
\ No newline at end of file
+
+    // Тема создается при регистрации магазина; для магазина без темы отдается несохраненная тема по умолчанию
+    @Override
+    @Transactional(readOnly = true)
+    public Theme getTenantThemeOrDefault(Long tenantId) {
+        Theme theme = themeRepository.findByTenantId(tenantId)
+                .orElseGet(() -> {
+                    log.debug("No theme assigned to tenant {}, using default theme", tenantId);
+                    return getDefaultTheme();
+                });
+        // Темы, сохраненные до появления таблиц стилей: адрес зависит только от содержимого, поэтому
+        // его можно вычислить при чтении; в транзакции только для чтения он в базу не записывается
+        if (theme.getStylesheetUrl() == null) {
+            theme.setStylesheetUrl(themeStylesheetPublisher.publish(theme));
+        }
+        return theme;
+    }
+}
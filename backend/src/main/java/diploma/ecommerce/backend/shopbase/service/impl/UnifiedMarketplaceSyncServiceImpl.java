@@ -23,6 +23,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Slf4j
@@ -114,6 +115,42 @@ public class UnifiedMarketplaceSyncServiceImpl implements UnifiedMarketplaceSync
         }
     }
 
+    @Override
+    @Transactional
+    public void syncChangedProducts(Long tenantId, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        log.info("Syncing {} changed products for tenant {}", productIds.size(), tenantId);
+
+        Tenant tenant = tenantRepository.findById(tenantId)
+                .orElseThrow(() -> new RuntimeException("Tenant not found"));
+
+        // Адаптер создается один раз на маркетплейс, остатки и цены уходят одним запросом на пакет
+        for (MarketplaceType marketplaceType : MarketplaceType.values()) {
+            MarketplaceAdapter adapter = createAdapter(tenant, marketplaceType);
+            if (adapter == null) {
+                continue;
+            }
+            try {
+                switch (marketplaceType) {
+                    case OZON -> pushOzonMappings(
+                            tenant,
+                            adapter,
+                            ozonMappingRepository.findActiveMappingsForSyncByProductIds(tenantId, productIds)
+                    );
+                    case WILDBERRIES -> pushWildberriesMappings(
+                            tenant,
+                            adapter,
+                            wbMappingRepository.findActiveMappingsForSyncByProductIds(tenantId, productIds)
+                    );
+                }
+            } catch (Exception e) {
+                log.error("Error syncing changed products to {} for tenant {}: ", marketplaceType, tenantId, e);
+            }
+        }
+    }
+
     private MarketplaceAdapter createAdapter(Tenant tenant, MarketplaceType type) {
         return switch (type) {
             case OZON -> {
@@ -143,6 +180,14 @@ public class UnifiedMarketplaceSyncServiceImpl implements UnifiedMarketplaceSync
             return;
         }
 
+        pushOzonMappings(tenant, adapter, mappings);
+    }
+
+    private void pushOzonMappings(Tenant tenant, MarketplaceAdapter adapter, List<ProductOzonMapping> mappings) {
+        if (mappings.isEmpty()) {
+            return;
+        }
+
         List<StockUpdate> stockUpdates = new ArrayList<>();
         List<PriceUpdate> priceUpdates = new ArrayList<>();
 
@@ -192,6 +237,18 @@ public class UnifiedMarketplaceSyncServiceImpl implements UnifiedMarketplaceSync
             return;
         }
 
+        pushWildberriesMappings(tenant, adapter, mappings);
+    }
+
+    private void pushWildberriesMappings(
+            Tenant tenant,
+            MarketplaceAdapter adapter,
+            List<ProductWildberriesMapping> mappings
+    ) {
+        if (mappings.isEmpty()) {
+            return;
+        }
+
         List<StockUpdate> stockUpdates = new ArrayList<>();
         List<PriceUpdate> priceUpdates = new ArrayList<>();
 
@@ -0,0 +1,51 @@
+package diploma.ecommerce.backend.shopbase.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Запись файлов в каталог загрузок, который nginx отдает напрямую.
+ * <p>
+ * Файл пишется во временный рядом с целевым и затем переименовывается, поэтому читатель никогда
+ * не увидит недописанный файл. Временные файлы создаются обычной записью, а не createTempFile:
+ * тот выставляет права 0600, которые сохраняются при переименовании и переходят через жесткую
+ * ссылку, и nginx не смог бы такой файл отдать.
+ */
+public final class UploadFiles {
+
+    private UploadFiles() {
+    }
+
+    /**
+     * Путь временного файла в указанном каталоге. Сам файл не создается.
+     */
+    public static Path tempPath(Path folder, String prefix) {
+        return folder.resolve(prefix + "-" + UUID.randomUUID() + ".tmp");
+    }
+
+    public static void writeAtomically(Path target, byte[] content) throws IOException {
+        writeAtomically(target, tempPath -> Files.write(tempPath, content));
+    }
+
+    /**
+     * Записывает файл через временный и заменяет им целевой одним переименованием.
+     */
+    public static void writeAtomically(Path target, ContentWriter writer) throws IOException {
+        Path tempPath = tempPath(target.getParent(), "write");
+        try {
+            writer.write(tempPath);
+            Files.move(tempPath, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ContentWriter {
+
+        void write(Path tempPath) throws IOException;
+    }
+}
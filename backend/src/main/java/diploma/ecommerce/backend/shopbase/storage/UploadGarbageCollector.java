@@ -0,0 +1,303 @@
+package diploma.ecommerce.backend.shopbase.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import diploma.ecommerce.backend.shopbase.repository.ProductPhotoRepository;
+import diploma.ecommerce.backend.shopbase.repository.TenantUploadUsageRepository;
+import diploma.ecommerce.backend.shopbase.repository.ThemeRepository;
+import diploma.ecommerce.backend.shopbase.service.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Сборщик неиспользуемых загрузок локального хранилища. Удаление фотографии и замена изображений темы
+ * не трогают файлы: один адрес может использоваться несколькими записями. Вместо этого сборщик сверяет
+ * дерево загрузок с адресами из product_photo и themes. Адреса читаются курсором по одному тенанту,
+ * каталог обходится без построения списка файлов.
+ * <p>
+ * Файл без ссылок старше min-age переносится в .trash/{время прохода}/ с сохранением относительного
+ * пути, откуда его можно вернуть вручную, а через trash-retention удаляется окончательно. Попутно
+ * записываются точные объем и число файлов тенанта и удаляются блобы без ссылок.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local", matchIfMissing = true)
+public class UploadGarbageCollector {
+
+    static final String TRASH_FOLDER = ".trash";
+    private static final String BLOBS_FOLDER = "blobs";
+    private static final String THEMES_FOLDER = "themes";
+    private static final String UPLOADS_PATH = "/uploads/";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final Pattern TENANT_FOLDER = Pattern.compile("^tenant_(\\d+)$");
+    private static final Pattern TRASH_BATCH = Pattern.compile("^\\d+$");
+
+    private final ProductPhotoRepository productPhotoRepository;
+    private final ThemeRepository themeRepository;
+    private final TenantUploadUsageRepository tenantUploadUsageRepository;
+    private final UploadUsageTracker uploadUsageTracker;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path uploadRoot;
+    private final Duration minAge;
+    private final Duration trashRetention;
+
+    public UploadGarbageCollector(
+            ProductPhotoRepository productPhotoRepository,
+            ThemeRepository themeRepository,
+            TenantUploadUsageRepository tenantUploadUsageRepository,
+            UploadUsageTracker uploadUsageTracker,
+            FileStorageService fileStorageService,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.upload.dir:uploads}") String uploadDir,
+            @Value("${app.uploads.gc.min-age-hours:24}") long minAgeHours,
+            @Value("${app.uploads.gc.trash-retention-days:7}") long trashRetentionDays
+    ) {
+        this.productPhotoRepository = productPhotoRepository;
+        this.themeRepository = themeRepository;
+        this.tenantUploadUsageRepository = tenantUploadUsageRepository;
+        this.uploadUsageTracker = uploadUsageTracker;
+        this.fileStorageService = fileStorageService;
+        this.transactionTemplate = transactionTemplate;
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.minAge = Duration.ofHours(minAgeHours);
+        this.trashRetention = Duration.ofDays(trashRetentionDays);
+    }
+
+    /**
+     * Путь файла относительно каталога загрузок или null для внешних адресов.
+     */
+    static String relativePath(String fileUrl) {
+        if (fileUrl == null) {
+            return null;
+        }
+        int uploadsIndex = fileUrl.indexOf(UPLOADS_PATH);
+        if (uploadsIndex < 0) {
+            return null;
+        }
+        String path = fileUrl.substring(uploadsIndex + UPLOADS_PATH.length());
+        int queryIndex = path.indexOf('?');
+        return queryIndex >= 0 ? path.substring(0, queryIndex) : path;
+    }
+
+    // У жесткой ссылки mtime общий с блобом и может быть давним, а ctime обновляется при создании ссылки
+    private static boolean olderThan(Path file, BasicFileAttributes attrs, Instant cutoff) {
+        Instant changedAt = attrs.lastModifiedTime().toInstant();
+        try {
+            Instant ctime = ((FileTime) Files.getAttribute(file, "unix:ctime")).toInstant();
+            changedAt = ctime.isAfter(changedAt) ? ctime : changedAt;
+        } catch (UnsupportedOperationException | IllegalArgumentException | IOException e) {
+            log.trace("Change time is not available for {}", file);
+        }
+        return changedAt.isBefore(cutoff);
+    }
+
+    /**
+     * Один проход сборщика.
+     *
+     * @return число файлов, перенесенных в корзину
+     */
+    public int collect() {
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(minAge);
+        Path trashBatch = uploadRoot.resolve(TRASH_FOLDER).resolve(Long.toString(now.toEpochMilli()));
+        int trashed = 0;
+        if (!Files.isDirectory(uploadRoot)) {
+            return trashed;
+        }
+
+        try {
+            purgeTrash(now.minus(trashRetention));
+            Set<String> themeReferences = loadReferences(themeRepository::streamFileUrls);
+
+            try (DirectoryStream<Path> folders = Files.newDirectoryStream(uploadRoot)) {
+                for (Path folder : folders) {
+                    Matcher matcher = TENANT_FOLDER.matcher(folder.getFileName().toString());
+                    if (!matcher.matches() || !Files.isDirectory(folder)) {
+                        continue;
+                    }
+                    try {
+                        trashed += collectTenant(Long.parseLong(matcher.group(1)), folder, themeReferences,
+                                cutoff, trashBatch);
+                    } catch (IOException e) {
+                        log.error("Upload garbage collection failed for {}", folder, e);
+                    }
+                }
+            }
+
+            trashed += collectThemes(themeReferences, cutoff, trashBatch);
+            collectBlobs(cutoff);
+        } catch (IOException e) {
+            log.error("Upload garbage collection failed in {}", uploadRoot, e);
+        }
+
+        if (trashed > 0) {
+            log.info("Moved {} unreferenced uploads to {}", trashed, trashBatch);
+        }
+        return trashed;
+    }
+
+    private int collectTenant(Long tenantId, Path folder, Set<String> themeReferences, Instant cutoff,
+                              Path trashBatch) throws IOException {
+        Set<String> references = loadReferences(() -> productPhotoRepository.streamFilePathsByTenantId(tenantId));
+        // Обход сам посчитает все, что было загружено и удалено с прошлой записи
+        uploadUsageTracker.discard(tenantId);
+
+        long[] usage = new long[2];
+        int[] trashed = new int[1];
+        Files.walkFileTree(folder, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                String path = relativize(file);
+                boolean referenced = references.contains(path) || themeReferences.contains(path);
+                if (!referenced && olderThan(file, attrs, cutoff)) {
+                    moveToTrash(file, path, trashBatch);
+                    trashed[0]++;
+                } else {
+                    usage[0] += attrs.size();
+                    usage[1]++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        tenantUploadUsageRepository.replace(tenantId, usage[0], usage[1]);
+        log.debug("Tenant {} uploads: {} bytes in {} files, {} moved to trash",
+                tenantId, usage[0], usage[1], trashed[0]);
+        return trashed[0];
+    }
+
+    // Таблицы стилей общие для всех тенантов; сжатая копия живет, пока жив ее .css
+    private int collectThemes(Set<String> themeReferences, Instant cutoff, Path trashBatch) throws IOException {
+        Path folder = uploadRoot.resolve(THEMES_FOLDER);
+        if (!Files.isDirectory(folder)) {
+            return 0;
+        }
+        int trashed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, Files::isRegularFile)) {
+            for (Path file : files) {
+                String path = relativize(file);
+                String stylesheet = path.endsWith(GZIP_SUFFIX)
+                        ? path.substring(0, path.length() - GZIP_SUFFIX.length())
+                        : path;
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                if (!themeReferences.contains(stylesheet) && olderThan(file, attrs, cutoff)) {
+                    moveToTrash(file, path, trashBatch);
+                    trashed++;
+                }
+            }
+        }
+        return trashed;
+    }
+
+    /**
+     * Удаляет блобы, на которые не осталось жестких ссылок, и временные файлы прерванных загрузок.
+     * Обычно блоб удаляется вместе с последней ссылкой, а сюда попадают остатки сбоев.
+     */
+    private void collectBlobs(Instant cutoff) throws IOException {
+        Path folder = uploadRoot.resolve(BLOBS_FOLDER);
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        int[] removed = new int[1];
+        Files.walkFileTree(folder, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (olderThan(file, attrs, cutoff) && !hasOtherLinks(file)) {
+                    Files.deleteIfExists(file);
+                    removed[0]++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (removed[0] > 0) {
+            log.info("Removed {} unreferenced blobs", removed[0]);
+        }
+    }
+
+    private boolean hasOtherLinks(Path file) throws IOException {
+        try {
+            return (Integer) Files.getAttribute(file, "unix:nlink") > 1;
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            // Без жестких ссылок блобы не создаются, и удалять здесь нечего
+            return true;
+        }
+    }
+
+    // Удаление идет через хранилище: вместе с последней ссылкой на содержимое удаляется и блоб
+    private void purgeTrash(Instant cutoff) throws IOException {
+        Path trashRoot = uploadRoot.resolve(TRASH_FOLDER);
+        if (!Files.isDirectory(trashRoot)) {
+            return;
+        }
+        try (DirectoryStream<Path> batches = Files.newDirectoryStream(trashRoot)) {
+            for (Path batch : batches) {
+                String name = batch.getFileName().toString();
+                if (!TRASH_BATCH.matcher(name).matches()
+                        || !Instant.ofEpochMilli(Long.parseLong(name)).isBefore(cutoff)) {
+                    continue;
+                }
+                Files.walkFileTree(batch, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        fileStorageService.deleteFile(relativize(file));
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                        Files.deleteIfExists(dir);
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+                log.info("Purged upload trash {}", batch);
+            }
+        }
+    }
+
+    private Set<String> loadReferences(Supplier<Stream<String>> query) {
+        Set<String> references = new HashSet<>();
+        // Курсор Postgres работает только внутри транзакции
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> urls = query.get()) {
+                urls.map(UploadGarbageCollector::relativePath)
+                        .filter(path -> path != null && !path.isEmpty())
+                        .forEach(references::add);
+            }
+        });
+        return references;
+    }
+
+    private void moveToTrash(Path file, String path, Path trashBatch) throws IOException {
+        Path target = trashBatch.resolve(path);
+        Files.createDirectories(target.getParent());
+        // Перенос внутри одного каталога сохраняет жесткую ссылку на блоб
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Unreferenced upload moved to trash: {}", path);
+    }
+
+    private String relativize(Path file) {
+        return uploadRoot.relativize(file.toAbsolutePath().normalize()).toString().replace(File.separatorChar, '/');
+    }
+}
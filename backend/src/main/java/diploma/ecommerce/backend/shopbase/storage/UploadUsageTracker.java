@@ -0,0 +1,88 @@
+package diploma.ecommerce.backend.shopbase.storage;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import diploma.ecommerce.backend.shopbase.model.TenantUploadUsage;
+import diploma.ecommerce.backend.shopbase.repository.TenantUploadUsageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Инкрементальный учет объема загрузок по тенантам. Загрузка и удаление файла только меняют счетчик
+ * в памяти, а накопленные приращения периодически записываются в tenant_upload_usage одним пакетом.
+ * Отчет об объеме читает одну строку и не обходит каталог тенанта. Точные значения раз в проход
+ * записывает {@link UploadGarbageCollector}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadUsageTracker {
+
+    private final TenantUploadUsageRepository tenantUploadUsageRepository;
+
+    // Приращения, еще не записанные в базу: [байты, файлы]
+    private final Map<Long, long[]> pending = new ConcurrentHashMap<>();
+
+    private static long[] sum(long[] left, long[] right) {
+        return new long[]{left[0] + right[0], left[1] + right[1]};
+    }
+
+    public void record(Long tenantId, long bytes, long files) {
+        pending.merge(tenantId, new long[]{bytes, files}, UploadUsageTracker::sum);
+    }
+
+    /**
+     * Отбрасывает незаписанные приращения тенанта перед точным пересчетом его каталога.
+     */
+    public void discard(Long tenantId) {
+        pending.remove(tenantId);
+    }
+
+    /**
+     * Записывает накопленные приращения. Если запись не удалась, они возвращаются в очередь
+     * и уйдут со следующей попыткой.
+     */
+    public void flush() {
+        Map<Long, long[]> batch = new HashMap<>();
+        for (Long tenantId : pending.keySet()) {
+            long[] delta = pending.remove(tenantId);
+            if (delta != null && (delta[0] != 0 || delta[1] != 0)) {
+                batch.put(tenantId, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            tenantUploadUsageRepository.addAll(batch);
+            log.debug("Upload usage flushed for {} tenants", batch.size());
+        } catch (DataAccessException e) {
+            batch.forEach((tenantId, delta) -> record(tenantId, delta[0], delta[1]));
+            log.warn("Failed to flush upload usage for {} tenants, will retry", batch.size(), e);
+        }
+    }
+
+    /**
+     * Объем загрузок тенанта: записанное значение вместе с еще не записанными приращениями.
+     */
+    public TenantUploadUsage usage(Long tenantId) {
+        TenantUploadUsage stored = tenantUploadUsageRepository.find(tenantId)
+                .orElseGet(() -> new TenantUploadUsage(tenantId, 0, 0, LocalDateTime.now()));
+        long[] delta = pending.getOrDefault(tenantId, new long[2]);
+        return new TenantUploadUsage(tenantId,
+                Math.max(0, stored.getUsedBytes() + delta[0]),
+                Math.max(0, stored.getFileCount() + delta[1]),
+                stored.getUpdatedAt());
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,104 @@
+package diploma.ecommerce.backend.shopbase.theme;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import diploma.ecommerce.backend.shopbase.dto.record.TenantThemeVersion;
+import diploma.ecommerce.backend.shopbase.dto.response.ThemeResponse;
+import diploma.ecommerce.backend.shopbase.repository.ThemeRepository;
+import diploma.ecommerce.backend.shopbase.util.Sha256;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Кэш публичной темы по тенантам: готовое JSON-тело и сильный ETag от его содержимого.
+ * Записей не больше, чем магазинов, а тело темы занимает единицы килобайт, поэтому размер кэша не ограничивается.
+ * <p>
+ * Тему могут изменить через другой узел, поэтому каждое чтение сверяет запись с версией темы тенанта
+ * ({@link TenantThemeVersion}, одно чтение по первичному ключу) и перечитывает тему при расхождении.
+ * Пока версия совпадает, тело, ETag и подсказки preload не пересчитываются. Сброс на этом узле только
+ * сразу освобождает запись.
+ */
+@Component
+@RequiredArgsConstructor
+public class PublicThemeCache {
+
+    // Адрес попадает в заголовок Link как есть, поэтому разделители заголовка в нем недопустимы
+    private static final Pattern LINK_SAFE_URL = Pattern.compile("^[^<>\"\\s,;]+$");
+
+    private final ConcurrentMap<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper;
+    private final ThemeRepository themeRepository;
+
+    private static String strongETag(byte[] body) {
+        return Sha256.strongETag(Sha256.newDigest().digest(body));
+    }
+
+    /**
+     * Подсказки preload для таблицы стилей и изображений темы: браузер начинает их загрузку вместе
+     * с ответом, не дожидаясь разбора JSON. Шрифты заданы названиями семейств без адресов файлов,
+     * поэтому для них подсказок нет.
+     */
+    private static String preloadLinks(ThemeResponse theme) {
+        List<String> links = new ArrayList<>();
+        addPreload(links, theme.getStylesheetUrl(), "style");
+        addPreload(links, theme.getLogoUrl(), "image");
+        addPreload(links, theme.getHeaderImageUrl(), "image");
+        addPreload(links, theme.getFaviconUrl(), "image");
+        return links.isEmpty() ? null : String.join(", ", links);
+    }
+
+    private static void addPreload(List<String> links, String url, String as) {
+        if (url != null && LINK_SAFE_URL.matcher(url).matches()) {
+            links.add("<" + url + ">; rel=preload; as=" + as);
+        }
+    }
+
+    public Snapshot get(Long tenantId, Supplier<ThemeResponse> loader) {
+        // Версия читается до темы: запись не новее своих данных и в худшем случае перечитается лишний раз
+        TenantThemeVersion version = themeRepository.findVersionByTenantId(tenantId).orElse(null);
+        Snapshot cached = snapshots.get(tenantId);
+        if (cached != null && Objects.equals(cached.version(), version)) {
+            return cached;
+        }
+
+        ThemeResponse theme = loader.get();
+        byte[] body = serialize(theme);
+        Snapshot loaded = new Snapshot(theme.getId(), version, body, strongETag(body), preloadLinks(theme));
+        snapshots.put(tenantId, loaded);
+        return loaded;
+    }
+
+    public void evictTheme(Long themeId) {
+        if (themeId == null) {
+            return;
+        }
+        snapshots.values().removeIf(snapshot -> themeId.equals(snapshot.themeId()));
+    }
+
+    public void evictTenant(Long tenantId) {
+        if (tenantId == null) {
+            return;
+        }
+        snapshots.remove(tenantId);
+    }
+
+    private byte[] serialize(ThemeResponse theme) {
+        try {
+            return objectMapper.writeValueAsBytes(theme);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize theme " + theme.getId(), e);
+        }
+    }
+
+    public record Snapshot(Long themeId, TenantThemeVersion version, byte[] body, String eTag, String preloadLinks) {
+    }
+}
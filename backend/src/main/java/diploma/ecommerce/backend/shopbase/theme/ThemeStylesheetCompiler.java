@@ -0,0 +1,93 @@
+package diploma.ecommerce.backend.shopbase.theme;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import diploma.ecommerce.backend.shopbase.model.Theme;
+import org.springframework.stereotype.Component;
+
+/**
+ * Собирает из темы статическую таблицу стилей с CSS-переменными. Результат детерминирован (без дат и
+ * случайных значений), поэтому одинаковые темы дают одинаковый файл и одинаковый хеш в URL.
+ */
+@Component
+public class ThemeStylesheetCompiler {
+
+    // Значения вставляются в CSS как есть: все, что может закрыть объявление или правило, отбрасывается
+    private static final Pattern SAFE_VALUE = Pattern.compile("^[\\w #.,%()'\"+\\-/]*$");
+    private static final Pattern SAFE_URL = Pattern.compile("^[^\"'\\\\()\\s<>{};]+$");
+
+    private static boolean isSafe(String value) {
+        return value != null && !value.isBlank() && SAFE_VALUE.matcher(value).matches() && isBalanced(value);
+    }
+
+    // Незакрытая кавычка или скобка поглотила бы следующие объявления
+    private static boolean isBalanced(String value) {
+        int depth = 0;
+        char quote = 0;
+        for (char c : value.toCharArray()) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth < 0) {
+                return false;
+            }
+        }
+        return quote == 0 && depth == 0;
+    }
+
+    private static boolean isSafeUrl(String url) {
+        return url != null && SAFE_URL.matcher(url).matches();
+    }
+
+    public String compile(Theme theme) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("primary-color", theme.getPrimaryColor());
+        values.put("secondary-color", theme.getSecondaryColor());
+        values.put("accent-color", theme.getAccentColor());
+        values.put("text-color", theme.getTextColor());
+        values.put("background-color", theme.getBackgroundColor());
+        values.put("font-family", theme.getFontFamily());
+        values.put("heading-font-family", theme.getHeadingFontFamily());
+        values.put("body-font-family", theme.getBodyFontFamily());
+        values.put("button-radius", theme.getButtonRadius());
+        values.put("card-radius", theme.getCardRadius());
+        values.put("input-radius", theme.getInputRadius());
+        values.put("button-text-color", theme.getButtonTextColor());
+        values.put("footer-background-color", theme.getFooterBackgroundColor());
+        values.put("footer-text-color", theme.getFooterTextColor());
+        values.put("success-color", theme.getSuccessColor());
+        values.put("error-color", theme.getErrorColor());
+        values.put("warning-color", theme.getWarningColor());
+        values.put("info-color", theme.getInfoColor());
+        values.put("hover-color", theme.getHoverColor());
+        values.put("active-color", theme.getActiveColor());
+        values.put("box-shadow", theme.getBoxShadow());
+        values.put("card-shadow", theme.getCardShadow());
+
+        Map<String, String> images = new LinkedHashMap<>();
+        images.put("logo-url", theme.getLogoUrl());
+        images.put("header-image-url", theme.getHeaderImageUrl());
+        images.put("footer-logo-url", theme.getFooterLogoUrl());
+
+        StringBuilder css = new StringBuilder(":root {\n");
+        values.forEach((name, value) -> {
+            if (isSafe(value)) {
+                css.append("  --theme-").append(name).append(": ").append(value.trim()).append(";\n");
+            }
+        });
+        images.forEach((name, url) -> {
+            if (isSafeUrl(url)) {
+                css.append("  --theme-").append(name).append(": url(\"").append(url).append("\");\n");
+            }
+        });
+        css.append("}\n");
+        return css.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package diploma.ecommerce.backend.shopbase.theme;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import diploma.ecommerce.backend.shopbase.model.Theme;
+import diploma.ecommerce.backend.shopbase.service.FileStorageService;
+import diploma.ecommerce.backend.shopbase.util.Sha256;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Публикует скомпилированную таблицу стилей темы в хранилище загрузок под именем с хешем содержимого.
+ * Файл по такому адресу никогда не меняется, поэтому nginx и CDN отдают его с immutable-кэшированием,
+ * а новая версия темы получает новый адрес. Прежние файлы остаются на время, пока на них ссылаются
+ * закэшированные страницы, и затем убираются сборщиком неиспользуемых загрузок (в объектном хранилище -
+ * правилами жизненного цикла бакета).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ThemeStylesheetPublisher {
+
+    static final String FOLDER = "themes";
+    private static final int HASH_LENGTH = 16;
+
+    private final ThemeStylesheetCompiler compiler;
+    private final FileStorageService fileStorageService;
+
+    private static String contentHash(byte[] content) {
+        return Sha256.hex(content).substring(0, HASH_LENGTH);
+    }
+
+    /**
+     * Возвращает адрес таблицы стилей или null, если файл сохранить не удалось: тема при этом
+     * сохраняется, а витрина берет значения из JSON темы.
+     */
+    public String publish(Theme theme) {
+        byte[] css = compiler.compile(theme).getBytes(StandardCharsets.UTF_8);
+        String filename = "theme-" + contentHash(css) + ".css";
+
+        try {
+            return fileStorageService.storeSharedFile(FOLDER, filename, css);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to publish stylesheet for theme {}", theme.getId(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package diploma.ecommerce.backend.shopbase.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 для адресации по содержимому, ETag и отпечатков запросов. Алгоритм обязателен для любой JVM,
+ * поэтому его отсутствие считается ошибкой окружения, а не проверяемым исключением.
+ */
+public final class Sha256 {
+
+    private Sha256() {
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static String hex(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    /**
+     * Сильный ETag из готового хеша: base64url без дополнения, в кавычках.
+     */
+    public static String strongETag(byte[] digest) {
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+    }
+}
@@ -0,0 +1,180 @@
+package diploma.ecommerce.backend.shopbase.integration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.model.Address;
+import diploma.ecommerce.backend.shopbase.model.Order;
+import diploma.ecommerce.backend.shopbase.model.OrderItem;
+import diploma.ecommerce.backend.shopbase.model.OrderStatus;
+import diploma.ecommerce.backend.shopbase.model.Product;
+import diploma.ecommerce.backend.shopbase.model.User;
+import diploma.ecommerce.backend.shopbase.repository.AddressRepository;
+import diploma.ecommerce.backend.shopbase.repository.OrderRepository;
+import diploma.ecommerce.backend.shopbase.repository.OrderStatusRepository;
+import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
+import diploma.ecommerce.backend.shopbase.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Замер пропускной способности массовых вставок с pooled-последовательностями и JDBC-батчами.
+ * Запуск: ./mvnw test -Dbenchmark=true -Dtest=BatchInsertBenchmarkIntegrationTest
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Batch insert benchmark")
+class BatchInsertBenchmarkIntegrationTest extends BaseIntegrationTest {
+
+    private static final int PRODUCT_COUNT = 10_000;
+    private static final int ORDER_COUNT = 2_000;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderStatusRepository orderStatusRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("saveAll products - inserts are sent in JDBC batches")
+    void saveAllProducts_shouldUseJdbcBatches() {
+        List<Product> products = new ArrayList<>(PRODUCT_COUNT);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            products.add(newProduct("Benchmark product " + i));
+        }
+
+        long started = System.nanoTime();
+        productRepository.saveAll(products);
+        entityManager.flush();
+        long elapsedNanos = System.nanoTime() - started;
+
+        report("products", PRODUCT_COUNT, elapsedNanos);
+        assertEquals(PRODUCT_COUNT, statistics.getEntityInsertCount());
+        // Без батчей было бы по одному prepare на строку
+        assertTrue(statistics.getPrepareStatementCount() < PRODUCT_COUNT / 10);
+    }
+
+    @Test
+    @DisplayName("saveAll orders with items - inserts are ordered and batched per table")
+    void saveAllOrdersWithItems_shouldUseJdbcBatches() {
+        OrderStatus created = orderStatusRepository.findByStatusName("Created")
+                .orElseGet(() -> orderStatusRepository.saveAndFlush(new OrderStatus("Created")));
+        User customer = newCustomer();
+        Address address = newAddress();
+        List<Product> products = productRepository.saveAll(List.of(
+                newProduct("Benchmark item A"),
+                newProduct("Benchmark item B"),
+                newProduct("Benchmark item C")
+        ));
+        entityManager.flush();
+        statistics.clear();
+
+        List<Order> orders = new ArrayList<>(ORDER_COUNT);
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Order order = new Order();
+            order.setTenant(tenant1);
+            order.setCustomer(customer);
+            order.setAddress(address);
+            order.setStatus(created);
+            order.setTotalAmount(BigDecimal.ZERO);
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                OrderItem item = new OrderItem();
+                item.setProduct(products.get(j));
+                item.setQuantity(1);
+                item.setUnitPrice(products.get(j).getPrice());
+                item.setTotalPrice(products.get(j).getPrice());
+                order.addOrderItem(item);
+                order.setTotalAmount(order.getTotalAmount().add(item.getTotalPrice()));
+            }
+            orders.add(order);
+        }
+
+        long started = System.nanoTime();
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+        long elapsedNanos = System.nanoTime() - started;
+
+        int rows = ORDER_COUNT * (1 + ITEMS_PER_ORDER);
+        report("orders + items", rows, elapsedNanos);
+        assertEquals(rows, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < rows / 10);
+    }
+
+    private Product newProduct(String name) {
+        Product product = new Product();
+        product.setTenant(tenant1);
+        product.setName(name);
+        product.setPrice(new BigDecimal("99.90"));
+        product.setStockQuantity(100);
+        product.setCategory("Benchmark");
+        product.setActive(true);
+        return product;
+    }
+
+    private User newCustomer() {
+        User customer = new User();
+        customer.setTenant(tenant1);
+        customer.setFirstName("Bench");
+        customer.setLastName("Mark");
+        customer.setEmail("bench@tenant1.com");
+        customer.setActive(true);
+        customer.setCreatedAt(LocalDateTime.now());
+        return userRepository.saveAndFlush(customer);
+    }
+
+    private Address newAddress() {
+        Address address = new Address();
+        address.setTenant(tenant1);
+        address.setCountry("Country");
+        address.setCity("City");
+        address.setStreet("Street");
+        address.setHouseNumber("1");
+        address.setPostalCode("10000");
+        return addressRepository.saveAndFlush(address);
+    }
+
+    private void report(String label, int rows, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        log.info(
+                "Batch insert benchmark [{}]: {} rows in {} ms ({} rows/s), {} statements prepared, {} flushes",
+                label,
+                rows,
+                Math.round(seconds * 1000),
+                Math.round(rows / seconds),
+                statistics.getPrepareStatementCount(),
+                statistics.getFlushCount()
+        );
+    }
+}
@@ -8,6 +8,7 @@ import java.util.Map;
 import java.util.Optional;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.jayway.jsonpath.JsonPath;
 import diploma.ecommerce.backend.shopbase.dto.request.OrderCreateRequest;
 import diploma.ecommerce.backend.shopbase.dto.request.OrderItemCreateRequest;
 import diploma.ecommerce.backend.shopbase.dto.request.OrderUpdateRequest;
@@ -46,6 +47,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -335,6 +337,47 @@ public class OrderControllerIntegrationTest extends BaseIntegrationTest {
             assertEquals(initialStock - 2, updatedProduct.getStockQuantity());
         }
 
+        @Test
+        @DisplayName("POST /orders - Tenant 1 - Should replay order created with the same Idempotency-Key")
+        void createOrder_withSameIdempotencyKey_shouldNotCreateDuplicate() throws Exception {
+            OrderCreateRequest request = new OrderCreateRequest();
+            request.setCustomerId(customer1Tenant1.getId());
+            request.setAddressId(address1Tenant1.getId());
+            request.setOrderItems(List.of(new OrderItemCreateRequest(product1Tenant1.getId(), 2)));
+            String body = objectMapper.writeValueAsString(request);
+            int initialStock = product1Tenant1.getStockQuantity();
+
+            MvcResult first = mockMvc.perform(post(ORDERS_API_URL)
+                                                      .headers(getAuthHeaders(jwtTenant1))
+                                                      .header("Idempotency-Key", "checkout-42")
+                                                      .contentType(MediaType.APPLICATION_JSON)
+                                                      .content(body))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                    .andReturn();
+            Integer orderId = JsonPath.read(first.getResponse().getContentAsString(), "$.id");
+
+            mockMvc.perform(post(ORDERS_API_URL)
+                                    .headers(getAuthHeaders(jwtTenant1))
+                                    .header("Idempotency-Key", "checkout-42")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("Idempotent-Replayed", "true"))
+                    .andExpect(jsonPath("$.id", is(orderId)));
+
+            Product updatedProduct = productRepository.findById(product1Tenant1.getId()).orElseThrow();
+            assertEquals(initialStock - 2, updatedProduct.getStockQuantity());
+
+            request.setOrderItems(List.of(new OrderItemCreateRequest(product1Tenant1.getId(), 3)));
+            mockMvc.perform(post(ORDERS_API_URL)
+                                    .headers(getAuthHeaders(jwtTenant1))
+                                    .header("Idempotency-Key", "checkout-42")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isUnprocessableEntity());
+        }
+
         @Test
         @DisplayName("POST /orders - Tenant 1 - Should reject if customer doesn't exist or belongs to another tenant")
         void createOrder_forTenant1_ifCustomerNonExistentOrOtherTenant_shouldReject() throws Exception {
@@ -500,12 +543,19 @@ public class OrderControllerIntegrationTest extends BaseIntegrationTest {
                     .andExpect(jsonPath("$.id", is(order1Tenant1.getId().intValue())))
                     .andExpect(jsonPath("$.statusId", is(statusPaid.getId().intValue())))
                     .andExpect(jsonPath("$.statusName", is(statusPaid.getStatusName())))
-                    .andExpect(jsonPath("$.comment", is("Status changed to Paid: Payment confirmed by admin")));
+                    .andExpect(jsonPath("$.comment").doesNotExist());
 
             Optional<Order> updatedOrderOpt = orderRepository.findById(order1Tenant1.getId());
             assertTrue(updatedOrderOpt.isPresent());
             assertEquals(statusPaid.getId(), updatedOrderOpt.get().getStatus().getId());
-            assertEquals("Status changed to Paid: Payment confirmed by admin", updatedOrderOpt.get().getComment());
+
+            mockMvc.perform(get(ORDERS_API_URL + "/" + order1Tenant1.getId() + "/status-history")
+                                    .headers(getAuthHeaders(jwtTenant1)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.content[0].statusName", is(statusPaid.getStatusName())))
+                    .andExpect(jsonPath("$.content[0].previousStatusName", is(statusCreated.getStatusName())))
+                    .andExpect(jsonPath("$.content[0].comment", is("Payment confirmed by admin")));
         }
 
         @Test
@@ -645,8 +695,13 @@ public class OrderControllerIntegrationTest extends BaseIntegrationTest {
                     .andExpect(status().isOk())
                     .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$.id", is(order1Tenant1.getId().intValue())))
-                    .andExpect(jsonPath("$.statusName", is("Canceled")))
-                    .andExpect(jsonPath("$.comment", containsString("Customer requested cancellation")));
+                    .andExpect(jsonPath("$.statusName", is("Canceled")));
+
+            mockMvc.perform(get(ORDERS_API_URL + "/" + order1Tenant1.getId() + "/status-history")
+                                    .headers(getAuthHeaders(jwtTenant1)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].statusName", is("Canceled")))
+                    .andExpect(jsonPath("$.content[0].comment", is("Customer requested cancellation")));
 
             Order updatedOrder = orderRepository.findById(order1Tenant1.getId()).orElseThrow();
             assertEquals("Canceled", updatedOrder.getStatus().getStatusName());
@@ -707,8 +762,13 @@ public class OrderControllerIntegrationTest extends BaseIntegrationTest {
                     .andExpect(status().isOk())
                     .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$.id", is(order1Tenant1.getId().intValue())))
-                    .andExpect(jsonPath("$.statusName", is("Paid")))
-                    .andExpect(jsonPath("$.comment", containsString(paymentReference)));
+                    .andExpect(jsonPath("$.statusName", is("Paid")));
+
+            mockMvc.perform(get(ORDERS_API_URL + "/" + order1Tenant1.getId() + "/status-history")
+                                    .headers(getAuthHeaders(jwtTenant1)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].statusName", is("Paid")))
+                    .andExpect(jsonPath("$.content[0].comment", containsString(paymentReference)));
 
             Order updatedOrder = orderRepository.findById(order1Tenant1.getId()).orElseThrow();
             assertEquals("Paid", updatedOrder.getStatus().getStatusName());
@@ -803,6 +863,23 @@ public class OrderControllerIntegrationTest extends BaseIntegrationTest {
 
             Product finalProduct = productRepository.findById(product1Tenant1.getId()).orElseThrow();
             assertEquals(initialStock, finalProduct.getStockQuantity());
+
+            mockMvc.perform(get(ORDERS_API_URL + "/" + orderId + "/status-history")
+                                    .param("sort", "changedAt,asc")
+                                    .headers(getAuthHeaders(jwtTenant1)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(3)))
+                    .andExpect(jsonPath("$.content[0].statusName", is("Created")))
+                    .andExpect(jsonPath("$.content[1].statusName", is("Paid")))
+                    .andExpect(jsonPath("$.content[2].statusName", is("Canceled")));
+        }
+
+        @Test
+        @DisplayName("GET /{id}/status-history - Tenant 1 - Should NOT return history of another tenant's order")
+        void getStatusHistory_forTenant1_whenAnothersOrder_shouldReturnNotFound() throws Exception {
+            mockMvc.perform(get(ORDERS_API_URL + "/" + order1Tenant2.getId() + "/status-history")
+                                    .headers(getAuthHeaders(jwtTenant1)))
+                    .andExpect(status().isNotFound());
         }
     }
 
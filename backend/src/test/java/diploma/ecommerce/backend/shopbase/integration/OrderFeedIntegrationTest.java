@@ -0,0 +1,99 @@
+package diploma.ecommerce.backend.shopbase.integration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import diploma.ecommerce.backend.shopbase.event.OrderChangedEvent;
+import diploma.ecommerce.backend.shopbase.feed.OrderFeedBroker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@DisplayName("Order feed (SSE) integration tests")
+class OrderFeedIntegrationTest extends BaseIntegrationTest {
+
+    private static final String STREAM_URL = "/api/v1/orders/stream";
+    private static final long AWAIT_MS = 5000;
+
+    @Autowired
+    private OrderFeedBroker orderFeedBroker;
+
+    private static OrderChangedEvent created(Long tenantId, Long orderId) {
+        return new OrderChangedEvent(tenantId, orderId, OrderChangedEvent.Type.CREATED, "Created", null,
+                new BigDecimal("100.00"), 1L, LocalDateTime.now());
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + AWAIT_MS;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), "Expected '" + expected + "' in stream: " + content);
+        return content;
+    }
+
+    private static String eventIdOf(String content, long orderId) {
+        Matcher matcher = Pattern.compile("id:(\\S+)\\nevent:order-created\\ndata:\\{[^\\n]*\"orderId\":" + orderId
+                + "\\b").matcher(content);
+        assertTrue(matcher.find(), "No event for order " + orderId + " in stream: " + content);
+        return matcher.group(1);
+    }
+
+    private MvcResult openStream(String jwt, String lastEventId) throws Exception {
+        var builder = get(STREAM_URL).headers(getAuthHeaders(jwt));
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    @Test
+    @DisplayName("Subscriber receives events of its own tenant only")
+    void streamShouldDeliverTenantEvents() throws Exception {
+        MvcResult stream = openStream(jwtTenant1, null);
+
+        orderFeedBroker.publish(created(tenant2.getId(), 9001L));
+        orderFeedBroker.publish(created(tenant1.getId(), 9002L));
+
+        String content = awaitContent(stream, "\"orderId\":9002");
+        assertTrue(content.contains("event:order-created"));
+        assertFalse(content.contains("\"orderId\":9001"));
+    }
+
+    @Test
+    @DisplayName("Reconnect with Last-Event-ID replays only missed events")
+    void streamShouldResumeFromLastEventId() throws Exception {
+        MvcResult first = openStream(jwtTenant1, null);
+        orderFeedBroker.publish(created(tenant1.getId(), 9101L));
+        String firstContent = awaitContent(first, "\"orderId\":9101");
+        String lastSeenId = eventIdOf(firstContent, 9101L);
+
+        orderFeedBroker.publish(created(tenant1.getId(), 9102L));
+        orderFeedBroker.publish(created(tenant1.getId(), 9103L));
+
+        MvcResult resumed = openStream(jwtTenant1, lastSeenId);
+        String content = awaitContent(resumed, "\"orderId\":9103");
+        assertTrue(content.contains("\"orderId\":9102"));
+        assertFalse(content.contains("\"orderId\":9101"));
+    }
+
+    @Test
+    @DisplayName("Unknown Last-Event-ID asks the client to resync")
+    void streamShouldRequestResyncForUnknownEventId() throws Exception {
+        MvcResult stream = openStream(jwtTenant1, "previous-run-42");
+
+        awaitContent(stream, "event:resync");
+    }
+}
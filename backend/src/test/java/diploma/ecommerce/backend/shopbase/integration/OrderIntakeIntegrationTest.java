@@ -0,0 +1,170 @@
+package diploma.ecommerce.backend.shopbase.integration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.jayway.jsonpath.JsonPath;
+import diploma.ecommerce.backend.shopbase.dto.request.OrderCreateRequest;
+import diploma.ecommerce.backend.shopbase.dto.request.OrderItemCreateRequest;
+import diploma.ecommerce.backend.shopbase.intake.OrderIntakeWorkerPool;
+import diploma.ecommerce.backend.shopbase.model.Address;
+import diploma.ecommerce.backend.shopbase.model.OrderStatus;
+import diploma.ecommerce.backend.shopbase.model.Product;
+import diploma.ecommerce.backend.shopbase.model.User;
+import diploma.ecommerce.backend.shopbase.repository.AddressRepository;
+import diploma.ecommerce.backend.shopbase.repository.OrderRepository;
+import diploma.ecommerce.backend.shopbase.repository.OrderStatusRepository;
+import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
+import diploma.ecommerce.backend.shopbase.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Order intake queue integration tests")
+class OrderIntakeIntegrationTest extends BaseIntegrationTest {
+
+    private static final String INTAKE_URL = "/api/v1/orders/intake";
+
+    @Autowired
+    private OrderIntakeWorkerPool orderIntakeWorkerPool;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderStatusRepository orderStatusRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product product;
+    private User customer;
+    private Address address;
+
+    @BeforeEach
+    void setUpIntakeData() {
+        if (orderStatusRepository.findByStatusName("Created").isEmpty()) {
+            OrderStatus created = new OrderStatus();
+            created.setStatusName("Created");
+            orderStatusRepository.saveAndFlush(created);
+        }
+
+        product = new Product();
+        product.setTenant(tenant1);
+        product.setName("Flash sale item");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStockQuantity(3);
+        product.setActive(true);
+        product = productRepository.saveAndFlush(product);
+
+        customer = new User();
+        customer.setTenant(tenant1);
+        customer.setFirstName("Anna");
+        customer.setLastName("Buyer");
+        customer.setEmail("anna.buyer@tenant1.com");
+        customer.setActive(true);
+        customer.setCreatedAt(LocalDateTime.now());
+        customer = userRepository.saveAndFlush(customer);
+
+        address = new Address();
+        address.setTenant(tenant1);
+        address.setCountry("Country");
+        address.setCity("City");
+        address.setStreet("Street");
+        address.setHouseNumber("1");
+        address.setPostalCode("10000");
+        address = addressRepository.saveAndFlush(address);
+    }
+
+    private String submit(int quantity) throws Exception {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setCustomerId(customer.getId());
+        request.setAddressId(address.getId());
+        request.setOrderItems(List.of(new OrderItemCreateRequest(product.getId(), quantity)));
+
+        MvcResult result = mockMvc.perform(post(INTAKE_URL)
+                                                   .headers(getAuthHeaders(jwtTenant1))
+                                                   .contentType(MediaType.APPLICATION_JSON)
+                                                   .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", containsString(INTAKE_URL + "/")))
+                .andExpect(jsonPath("$.status", is("PENDING")))
+                .andExpect(jsonPath("$.orderId", nullValue()))
+                .andReturn();
+        return JsonPath.read(result.getResponse().getContentAsString(), "$.ticket");
+    }
+
+    @Test
+    @DisplayName("Queued orders are created in one batch and stock is allocated in arrival order")
+    void queuedOrdersShouldBeProcessedInBatch() throws Exception {
+        long ordersBefore = orderRepository.count();
+        String first = submit(2);
+        String second = submit(2);
+        String third = submit(1);
+
+        assertEquals(3, orderIntakeWorkerPool.drainOnce());
+        entityManager.flush();
+        entityManager.clear();
+
+        mockMvc.perform(get(INTAKE_URL + "/" + first).headers(getAuthHeaders(jwtTenant1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                .andExpect(jsonPath("$.orderId", notNullValue()));
+        mockMvc.perform(get(INTAKE_URL + "/" + second).headers(getAuthHeaders(jwtTenant1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("FAILED")))
+                .andExpect(jsonPath("$.errorMessage", containsString("Insufficient stock")));
+        mockMvc.perform(get(INTAKE_URL + "/" + third).headers(getAuthHeaders(jwtTenant1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("COMPLETED")));
+
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+        assertEquals(ordersBefore + 2, orderRepository.count());
+        assertEquals(0, orderIntakeWorkerPool.drainOnce());
+    }
+
+    @Test
+    @DisplayName("Invalid request is rejected before it reaches the queue")
+    void invalidRequestShouldBeRejected() throws Exception {
+        mockMvc.perform(post(INTAKE_URL)
+                                .headers(getAuthHeaders(jwtTenant1))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"customerId\": 1, \"orderItems\": []}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, orderIntakeWorkerPool.drainOnce());
+    }
+
+    @Test
+    @DisplayName("Ticket status is visible only within its tenant")
+    void ticketShouldBeTenantScoped() throws Exception {
+        String ticket = submit(1);
+
+        mockMvc.perform(get(INTAKE_URL + "/" + ticket).headers(getAuthHeaders(jwtTenant2)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get(INTAKE_URL + "/" + UUID.randomUUID()).headers(getAuthHeaders(jwtTenant1)))
+                .andExpect(status().isNotFound());
+        assertTrue(orderIntakeWorkerPool.drainOnce() > 0);
+    }
+}
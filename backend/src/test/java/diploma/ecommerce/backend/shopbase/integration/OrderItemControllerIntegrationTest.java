@@ -2,9 +2,11 @@ package diploma.ecommerce.backend.shopbase.integration;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import diploma.ecommerce.backend.shopbase.dto.request.OrderItemCreateRequest;
 import diploma.ecommerce.backend.shopbase.dto.request.OrderItemUpdateRequest;
+import diploma.ecommerce.backend.shopbase.dto.request.OrderItemsBatchRequest;
 import diploma.ecommerce.backend.shopbase.model.Address;
 import diploma.ecommerce.backend.shopbase.model.Order;
 import diploma.ecommerce.backend.shopbase.model.OrderItem;
@@ -491,4 +493,102 @@ public class OrderItemControllerIntegrationTest extends BaseIntegrationTest {
                     .andExpect(status().isNotFound());
         }
     }
+
+    @Nested
+    @DisplayName("PUT /order-items/order/{orderId} Tests")
+    class UpdateOrderItemsTests {
+
+        private OrderItemsBatchRequest.Item batchItem(Product product, int quantity) {
+            OrderItemsBatchRequest.Item item = new OrderItemsBatchRequest.Item();
+            item.setProductId(product.getId());
+            item.setQuantity(quantity);
+            return item;
+        }
+
+        @Test
+        @DisplayName("PUT /order/{orderId} - Tenant 1 - Should change, remove and add items in one request")
+        void updateOrderItems_forTenant1_whenValidData_shouldApplyAllChanges() throws Exception {
+            Product newProduct = new Product();
+            newProduct.setTenant(tenant1);
+            newProduct.setName("New Test Product For Batch");
+            newProduct.setPrice(new BigDecimal("15.00"));
+            newProduct.setStockQuantity(10);
+            newProduct.setActive(true);
+            newProduct = productRepository.saveAndFlush(newProduct);
+
+            OrderItemsBatchRequest request = new OrderItemsBatchRequest();
+            request.setItems(List.of(
+                    batchItem(product1Tenant1, 3),
+                    batchItem(product2Tenant1, 0),
+                    batchItem(newProduct, 4)
+            ));
+
+            BigDecimal expectedOrderTotal = new BigDecimal("3900.00").add(new BigDecimal("60.00"));
+
+            mockMvc.perform(put(ORDER_ITEMS_API_URL + "/order/" + order1Tenant1.getId())
+                                    .headers(getAuthHeaders(jwtTenant1))
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].productId", is(product1Tenant1.getId().intValue())))
+                    .andExpect(jsonPath("$[0].quantity", is(3)))
+                    .andExpect(jsonPath("$[1].productId", is(newProduct.getId().intValue())))
+                    .andExpect(jsonPath("$[1].quantity", is(4)));
+
+            assertFalse(orderItemRepository.existsById(item2Order1Tenant1.getId()));
+            assertEquals(18, productRepository.findById(product1Tenant1.getId()).orElseThrow().getStockQuantity());
+            assertEquals(42, productRepository.findById(product2Tenant1.getId()).orElseThrow().getStockQuantity());
+            assertEquals(6, productRepository.findById(newProduct.getId()).orElseThrow().getStockQuantity());
+
+            Order updatedOrder = orderRepository.findById(order1Tenant1.getId()).orElseThrow();
+            assertEquals(0, expectedOrderTotal.compareTo(updatedOrder.getTotalAmount()));
+        }
+
+        @Test
+        @DisplayName("PUT /order/{orderId} - Tenant 1 - Replace should drop items missing from the request")
+        void updateOrderItems_forTenant1_whenReplace_shouldRemoveUnlistedItems() throws Exception {
+            OrderItemsBatchRequest request = new OrderItemsBatchRequest();
+            request.setReplace(true);
+            request.setItems(List.of(batchItem(product2Tenant1, 1)));
+
+            mockMvc.perform(put(ORDER_ITEMS_API_URL + "/order/" + order1Tenant1.getId())
+                                    .headers(getAuthHeaders(jwtTenant1))
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].productId", is(product2Tenant1.getId().intValue())));
+
+            assertFalse(orderItemRepository.existsById(item1Order1Tenant1.getId()));
+            Order updatedOrder = orderRepository.findById(order1Tenant1.getId()).orElseThrow();
+            assertEquals(0, new BigDecimal("30.00").compareTo(updatedOrder.getTotalAmount()));
+        }
+
+        @Test
+        @DisplayName("PUT /order/{orderId} - Tenant 1 - Should reject insufficient stock without partial changes")
+        void updateOrderItems_forTenant1_whenInsufficientStock_shouldReturnBadRequest() throws Exception {
+            OrderItemsBatchRequest request = new OrderItemsBatchRequest();
+            request.setItems(List.of(batchItem(product1Tenant1, 100)));
+
+            mockMvc.perform(put(ORDER_ITEMS_API_URL + "/order/" + order1Tenant1.getId())
+                                    .headers(getAuthHeaders(jwtTenant1))
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("PUT /order/{orderId} - Tenant 1 - Should NOT touch another tenant's order")
+        void updateOrderItems_forTenant1_whenAnothersOrder_shouldReturnNotFound() throws Exception {
+            OrderItemsBatchRequest request = new OrderItemsBatchRequest();
+            request.setItems(List.of(batchItem(product1Tenant1, 1)));
+
+            mockMvc.perform(put(ORDER_ITEMS_API_URL + "/order/" + order1Tenant2.getId())
+                                    .headers(getAuthHeaders(jwtTenant1))
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isNotFound());
+        }
+    }
 }
@@ -0,0 +1,189 @@
+package diploma.ecommerce.backend.shopbase.integration;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.dto.record.ProductStockPriceChange;
+import diploma.ecommerce.backend.shopbase.dto.record.ProductStockPriceChangeResult;
+import diploma.ecommerce.backend.shopbase.importer.ProductImportRow;
+import diploma.ecommerce.backend.shopbase.importer.ProductRowParser;
+import diploma.ecommerce.backend.shopbase.model.Product;
+import diploma.ecommerce.backend.shopbase.repository.ProductBulkRepository;
+import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("ProductBulkRepository integration tests")
+class ProductBulkRepositoryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductBulkRepository productBulkRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private static ProductImportRow row(long line, String name, String price, int stock, String category) {
+        return new ProductImportRow(line, name, null, new BigDecimal(price), stock, category, true);
+    }
+
+    private Product saveProduct(String name, String price, int stock) {
+        Product product = new Product();
+        product.setTenant(tenant1);
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setStockQuantity(stock);
+        return productRepository.saveAndFlush(product);
+    }
+
+    @Test
+    @DisplayName("upsertByName inserts new products and updates existing ones by name")
+    void upsertByName_shouldInsertAndUpdate() {
+        Product existing = new Product();
+        existing.setTenant(tenant1);
+        existing.setName("Lamp");
+        existing.setDescription("Desk lamp");
+        existing.setPrice(new BigDecimal("10.00"));
+        existing.setStockQuantity(1);
+        existing.setCategory("Light");
+        existing = productRepository.saveAndFlush(existing);
+        Long existingVersion = existing.getVersion();
+
+        productBulkRepository.upsertByName(tenant1.getId(), List.of(
+                row(2, "Lamp", "12.50", 7, null),
+                row(3, "Chair", "99.90", 3, "Furniture")
+        ));
+        entityManager.clear();
+
+        List<Product> products = productRepository.findAllByTenantId(tenant1.getId(), Pageable.unpaged())
+                .getContent();
+        assertEquals(2, products.size());
+
+        Product lamp = productRepository.findById(existing.getId()).orElseThrow();
+        assertEquals(new BigDecimal("12.50"), lamp.getPrice());
+        assertEquals(7, lamp.getStockQuantity());
+        assertEquals("Desk lamp", lamp.getDescription());
+        assertEquals("Light", lamp.getCategory());
+        assertNotEquals(existingVersion, lamp.getVersion());
+
+        Product chair = products.stream().filter(p -> p.getName().equals("Chair")).findFirst().orElseThrow();
+        assertEquals("Furniture", chair.getCategory());
+        assertEquals(0L, chair.getVersion());
+    }
+
+    @Test
+    @DisplayName("upsertByName keeps stock and active flag when the file has only name and price")
+    void upsertByName_shouldKeepValuesMissingFromFile() {
+        Product lamp = saveProduct("Lamp", "10.00", 4);
+        lamp.setActive(false);
+        productRepository.saveAndFlush(lamp);
+        ProductRowParser parser = ProductRowParser.forHeader(List.of("name", "price"));
+
+        productBulkRepository.upsertByName(tenant1.getId(), List.of(
+                parser.parse(2, List.of("Lamp", "12.00")),
+                parser.parse(3, List.of("Chair", "99.90"))
+        ));
+        entityManager.clear();
+
+        Product updatedLamp = productRepository.findById(lamp.getId()).orElseThrow();
+        assertEquals(new BigDecimal("12.00"), updatedLamp.getPrice());
+        assertEquals(4, updatedLamp.getStockQuantity());
+        assertFalse(updatedLamp.getActive());
+
+        Product chair = productRepository.findAllByTenantId(tenant1.getId(), Pageable.unpaged()).getContent()
+                .stream().filter(p -> p.getName().equals("Chair")).findFirst().orElseThrow();
+        assertEquals(0, chair.getStockQuantity());
+        assertTrue(chair.getActive());
+    }
+
+    @Test
+    @DisplayName("upsertByName keeps products of other tenants untouched")
+    void upsertByName_shouldBeTenantScoped() {
+        productBulkRepository.upsertByName(tenant1.getId(), List.of(row(2, "Shared name", "5.00", 1, null)));
+        productBulkRepository.upsertByName(tenant2.getId(), List.of(row(2, "Shared name", "7.00", 2, null)));
+        entityManager.clear();
+
+        Product tenant1Product = productRepository.findAllByTenantId(tenant1.getId(), Pageable.unpaged())
+                .getContent().get(0);
+        Product tenant2Product = productRepository.findAllByTenantId(tenant2.getId(), Pageable.unpaged())
+                .getContent().get(0);
+        assertEquals(new BigDecimal("5.00"), tenant1Product.getPrice());
+        assertEquals(new BigDecimal("7.00"), tenant2Product.getPrice());
+        assertFalse(tenant1Product.getId().equals(tenant2Product.getId()));
+    }
+
+    @Test
+    @DisplayName("updateStockAndPrice applies changes by id and by name in one statement")
+    void updateStockAndPrice_shouldUpdateByIdAndName() {
+        Product lamp = saveProduct("Lamp", "10.00", 1);
+        Product chair = saveProduct("Chair", "50.00", 2);
+        Long lampVersion = lamp.getVersion();
+
+        List<ProductStockPriceChangeResult> results = productBulkRepository.updateStockAndPrice(tenant1.getId(),
+                List.of(
+                        new ProductStockPriceChange(lamp.getId(), null, 5, null),
+                        new ProductStockPriceChange(null, "Chair", null, new BigDecimal("45.00")),
+                        new ProductStockPriceChange(null, "Missing", 1, null)
+                ));
+        entityManager.clear();
+
+        assertEquals(2, results.size());
+        assertEquals(0, results.get(0).index());
+        assertTrue(results.get(0).applied());
+        assertEquals(5, results.get(0).stockQuantity());
+        assertEquals(new BigDecimal("10.00"), results.get(0).price());
+        assertEquals(1, results.get(1).index());
+        assertEquals(chair.getId(), results.get(1).productId());
+
+        Product updatedLamp = productRepository.findById(lamp.getId()).orElseThrow();
+        assertEquals(5, updatedLamp.getStockQuantity());
+        assertNotEquals(lampVersion, updatedLamp.getVersion());
+        Product updatedChair = productRepository.findById(chair.getId()).orElseThrow();
+        assertEquals(new BigDecimal("45.00"), updatedChair.getPrice());
+        assertEquals(2, updatedChair.getStockQuantity());
+    }
+
+    @Test
+    @DisplayName("updateStockAndPrice applies only the first item when a product is referenced twice")
+    void updateStockAndPrice_shouldReportRepeatedProduct() {
+        Product lamp = saveProduct("Lamp", "10.00", 1);
+
+        List<ProductStockPriceChangeResult> results = productBulkRepository.updateStockAndPrice(tenant1.getId(),
+                List.of(
+                        new ProductStockPriceChange(lamp.getId(), null, 3, null),
+                        new ProductStockPriceChange(null, "Lamp", 9, null)
+                ));
+        entityManager.clear();
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).applied());
+        assertFalse(results.get(1).applied());
+        assertNull(results.get(1).stockQuantity());
+        assertEquals(3, productRepository.findById(lamp.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    @DisplayName("updateStockAndPrice ignores products of other tenants")
+    void updateStockAndPrice_shouldBeTenantScoped() {
+        Product lamp = saveProduct("Lamp", "10.00", 1);
+
+        List<ProductStockPriceChangeResult> results = productBulkRepository.updateStockAndPrice(tenant2.getId(),
+                List.of(
+                        new ProductStockPriceChange(lamp.getId(), null, 3, null),
+                        new ProductStockPriceChange(null, "Lamp", 4, null)
+                ));
+        entityManager.clear();
+
+        assertTrue(results.isEmpty());
+        assertEquals(1, productRepository.findById(lamp.getId()).orElseThrow().getStockQuantity());
+    }
+}
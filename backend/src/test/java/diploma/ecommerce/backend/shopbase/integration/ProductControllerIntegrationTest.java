@@ -8,6 +8,7 @@ import diploma.ecommerce.backend.shopbase.dto.request.ProductUpdateRequest;
 import diploma.ecommerce.backend.shopbase.model.Product;
 import diploma.ecommerce.backend.shopbase.model.Tenant;
 import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
+import diploma.ecommerce.backend.shopbase.repository.TenantCatalogVersionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer;
@@ -16,12 +17,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -32,6 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -44,6 +48,8 @@ class ProductControllerIntegrationTest extends BaseIntegrationTest {
 
     @Autowired
     private ProductRepository productRepository;
+    @Autowired
+    private TenantCatalogVersionRepository tenantCatalogVersionRepository;
 
     private Product product1Tenant1;
     private Product product2Tenant1;
@@ -136,6 +142,66 @@ class ProductControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /products - Should tag the page and answer matching If-None-Match with 304")
+    void getProducts_withMatchingIfNoneMatch_returnsNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get(PRODUCTS_URL)
+                                                  .with(serverName(tenant1.getSubdomain() + rootDomain)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("s-maxage=")))
+                .andExpect(header().string(
+                        "Surrogate-Key",
+                        "t" + tenant1.getId() + " t" + tenant1.getId() + "-products"
+                ))
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+
+        mockMvc.perform(get(PRODUCTS_URL)
+                                .with(serverName(tenant1.getSubdomain() + rootDomain))
+                                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /products/{id} - Catalog change - Should return the product again with a new ETag")
+    void getProductById_afterCatalogChange_returnsNewVersion() throws Exception {
+        String oldETag = mockMvc.perform(get(PRODUCTS_URL + "/{productId}", product1Tenant1.getId())
+                                                 .with(serverName(tenant1.getSubdomain() + rootDomain)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(
+                        "Surrogate-Key",
+                        "t" + tenant1.getId() + " t" + tenant1.getId() + "-product-" + product1Tenant1.getId()
+                ))
+                .andReturn().getResponse().getHeader("ETag");
+
+        tenantCatalogVersionRepository.increment(tenant1.getId());
+
+        mockMvc.perform(get(PRODUCTS_URL + "/{productId}", product1Tenant1.getId())
+                                .with(serverName(tenant1.getSubdomain() + rootDomain))
+                                .header("If-None-Match", oldETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(oldETag)))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.name", is(product1Tenant1.getName())));
+    }
+
+    @Test
+    @DisplayName("GET /products - Should not accept another tenant's ETag")
+    void getProducts_withOtherTenantETag_returnsProducts() throws Exception {
+        String tenant2ETag = mockMvc.perform(get(PRODUCTS_URL)
+                                                     .with(serverName(tenant2.getSubdomain() + rootDomain)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(PRODUCTS_URL)
+                                .with(serverName(tenant1.getSubdomain() + rootDomain))
+                                .header("If-None-Match", tenant2ETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)));
+    }
+
 
     // test adminki
 
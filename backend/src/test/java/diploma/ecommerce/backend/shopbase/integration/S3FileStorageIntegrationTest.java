@@ -0,0 +1,216 @@
+package diploma.ecommerce.backend.shopbase.integration;
+
+import diploma.ecommerce.backend.shopbase.dto.request.DirectUploadCompleteRequest;
+import diploma.ecommerce.backend.shopbase.dto.request.DirectUploadRequest;
+import diploma.ecommerce.backend.shopbase.dto.response.DirectUploadResponse;
+import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
+import diploma.ecommerce.backend.shopbase.service.impl.S3FileStorageServiceImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Хранилище загрузок против настоящего S3-совместимого сервера (MinIO). Контекст Spring не нужен:
+ * сервис собирается из клиентов напрямую.
+ */
+@Testcontainers
+@DisplayName("S3 file storage against MinIO")
+public class S3FileStorageIntegrationTest {
+
+    private static final String BUCKET = "shopbase-test";
+    private static final long TENANT_ID = 1L;
+    private static final int MB = 1024 * 1024;
+
+    @Container
+    private static final MinIOContainer minio = new MinIOContainer("minio/minio:RELEASE.2024-10-13T13-34-11Z");
+
+    private static S3Client s3Client;
+    private static S3Presigner s3Presigner;
+    private static S3FileStorageServiceImpl storage;
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void setUpClients() {
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(minio.getUserName(), minio.getPassword()));
+        URI endpoint = URI.create(minio.getS3URL());
+        s3Client = S3Client.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .endpointOverride(endpoint)
+                .forcePathStyle(true)
+                .build();
+        s3Presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .endpointOverride(endpoint)
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build();
+        s3Client.createBucket(builder -> builder.bucket(BUCKET));
+
+        // Части по 5 МБ (минимум S3), чтобы составная загрузка проверялась на небольших файлах
+        storage = new S3FileStorageServiceImpl(s3Client, s3Presigner, BUCKET, "", 15, 5, 100,
+                DataSize.ofMegabytes(10));
+    }
+
+    @AfterAll
+    static void closeClients() {
+        s3Presigner.close();
+        s3Client.close();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+
+    private static String keyOf(String fileUrl) {
+        return fileUrl.substring(fileUrl.indexOf("tenant_"));
+    }
+
+    private static byte[] readObject(String key) {
+        return s3Client.getObjectAsBytes(GetObjectRequest.builder().bucket(BUCKET).key(key).build()).asByteArray();
+    }
+
+    private static HttpResponse<Void> put(String url, Map<String, String> headers, byte[] body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(body));
+        headers.forEach(request::header);
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    @Test
+    @DisplayName("Should store a multipart file under the tenant prefix")
+    void storeFile_MultipartFile_StoresObject() throws IOException {
+        byte[] content = randomBytes(1024);
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", content);
+
+        String fileUrl = storage.storeFile(file, TENANT_ID, "products");
+
+        assertTrue(keyOf(fileUrl).matches("tenant_1/products/[0-9a-f-]{36}\\.jpg"));
+        assertArrayEquals(content, readObject(keyOf(fileUrl)));
+        assertEquals("image/jpeg",
+                s3Client.headObject(HeadObjectRequest.builder().bucket(BUCKET).key(keyOf(fileUrl)).build())
+                        .contentType());
+    }
+
+    @Test
+    @DisplayName("Should stream a body larger than one part as a multipart upload")
+    void storeFile_StreamLargerThanPart_StoresAllParts() throws IOException {
+        byte[] content = randomBytes(6 * MB);
+
+        String fileUrl = storage.storeFile(new ByteArrayInputStream(content), "banner.png", TENANT_ID, "banners");
+
+        assertArrayEquals(content, readObject(keyOf(fileUrl)));
+    }
+
+    @Test
+    @DisplayName("Should accept a browser upload through a presigned URL")
+    void directUpload_SinglePut_CompletesWithFileUrl() throws Exception {
+        byte[] content = randomBytes(2048);
+        DirectUploadRequest request = new DirectUploadRequest();
+        request.setFileName("logo.png");
+        request.setContentType("image/png");
+        request.setSize((long) content.length);
+
+        DirectUploadResponse upload = storage.createUpload(TENANT_ID, "logos", request);
+        assertNotNull(upload.getUploadUrl());
+        assertEquals(200, put(upload.getUploadUrl(), upload.getHeaders(), content).statusCode());
+
+        DirectUploadCompleteRequest complete = new DirectUploadCompleteRequest();
+        complete.setKey(upload.getKey());
+        assertEquals(upload.getFileUrl(), storage.completeUpload(TENANT_ID, complete));
+        assertArrayEquals(content, readObject(upload.getKey()));
+    }
+
+    @Test
+    @DisplayName("Should assemble a browser multipart upload from presigned part URLs")
+    void directUpload_Multipart_AssemblesParts() throws Exception {
+        byte[] content = randomBytes(6 * MB);
+        DirectUploadRequest request = new DirectUploadRequest();
+        request.setFileName("header.jpg");
+        request.setContentType("image/jpeg");
+        request.setSize((long) content.length);
+
+        DirectUploadResponse upload = storage.createUpload(TENANT_ID, "headers", request);
+        assertNull(upload.getUploadUrl());
+        assertEquals(2, upload.getParts().size());
+
+        List<DirectUploadCompleteRequest.Part> parts = new ArrayList<>();
+        for (DirectUploadResponse.PartUrl partUrl : upload.getParts()) {
+            int from = (int) ((partUrl.getPartNumber() - 1) * upload.getPartSize());
+            int to = (int) Math.min(content.length, from + upload.getPartSize());
+            HttpResponse<Void> response = put(partUrl.getUrl(), Map.of(), Arrays.copyOfRange(content, from, to));
+            assertEquals(200, response.statusCode());
+
+            DirectUploadCompleteRequest.Part part = new DirectUploadCompleteRequest.Part();
+            part.setPartNumber(partUrl.getPartNumber());
+            part.setEtag(response.headers().firstValue("ETag").orElseThrow());
+            parts.add(part);
+        }
+
+        DirectUploadCompleteRequest complete = new DirectUploadCompleteRequest();
+        complete.setKey(upload.getKey());
+        complete.setUploadId(upload.getUploadId());
+        complete.setParts(parts);
+        storage.completeUpload(TENANT_ID, complete);
+
+        assertArrayEquals(content, readObject(upload.getKey()));
+    }
+
+    @Test
+    @DisplayName("Should not let a tenant complete another tenant's upload")
+    void completeUpload_ForeignKey_ThrowsNotFound() {
+        DirectUploadRequest request = new DirectUploadRequest();
+        request.setContentType("image/png");
+        request.setSize(100L);
+        DirectUploadResponse upload = storage.createUpload(TENANT_ID, "logos", request);
+
+        DirectUploadCompleteRequest complete = new DirectUploadCompleteRequest();
+        complete.setKey(upload.getKey());
+
+        assertThrows(ResourceNotFoundException.class, () -> storage.completeUpload(2L, complete));
+    }
+
+    @Test
+    @DisplayName("Should delete an object by its file URL")
+    void deleteFile_ExistingObject_RemovesIt() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", randomBytes(512));
+        String fileUrl = storage.storeFile(file, TENANT_ID, "products");
+
+        assertTrue(storage.deleteFile(fileUrl));
+
+        assertThrows(NoSuchKeyException.class, () -> readObject(keyOf(fileUrl)));
+    }
+}
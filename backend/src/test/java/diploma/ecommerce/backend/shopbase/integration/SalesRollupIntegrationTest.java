@@ -0,0 +1,191 @@
+package diploma.ecommerce.backend.shopbase.integration;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.analytics.ProductSalesSort;
+import diploma.ecommerce.backend.shopbase.dto.record.ProductSalesSummary;
+import diploma.ecommerce.backend.shopbase.model.Address;
+import diploma.ecommerce.backend.shopbase.model.Order;
+import diploma.ecommerce.backend.shopbase.model.OrderItem;
+import diploma.ecommerce.backend.shopbase.model.OrderStatus;
+import diploma.ecommerce.backend.shopbase.model.Product;
+import diploma.ecommerce.backend.shopbase.model.SalesDailyRollup;
+import diploma.ecommerce.backend.shopbase.model.User;
+import diploma.ecommerce.backend.shopbase.repository.AddressRepository;
+import diploma.ecommerce.backend.shopbase.repository.OrderStatusRepository;
+import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
+import diploma.ecommerce.backend.shopbase.repository.UserRepository;
+import diploma.ecommerce.backend.shopbase.service.OrderService;
+import diploma.ecommerce.backend.shopbase.service.SalesRollupService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Sales rollup integration tests")
+class SalesRollupIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private SalesRollupService salesRollupService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private OrderStatusRepository orderStatusRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product lamp;
+    private Product chair;
+    private User customer;
+    private Address address;
+    private OrderStatus canceled;
+
+    private static OrderItem item(Product product, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    @BeforeEach
+    void setUpSalesData() {
+        orderStatusRepository.findByStatusName("Created")
+                .orElseGet(() -> orderStatusRepository.saveAndFlush(new OrderStatus("Created")));
+        canceled = orderStatusRepository.findByStatusName("Canceled")
+                .orElseGet(() -> orderStatusRepository.saveAndFlush(new OrderStatus("Canceled")));
+
+        lamp = newProduct("Lamp", "10.00");
+        chair = newProduct("Chair", "50.00");
+
+        customer = new User();
+        customer.setTenant(tenant1);
+        customer.setFirstName("Sales");
+        customer.setLastName("Customer");
+        customer.setEmail("sales@tenant1.com");
+        customer.setActive(true);
+        customer.setCreatedAt(LocalDateTime.now());
+        customer = userRepository.saveAndFlush(customer);
+
+        address = new Address();
+        address.setTenant(tenant1);
+        address.setCountry("Country");
+        address.setCity("City");
+        address.setStreet("Street");
+        address.setHouseNumber("1");
+        address.setPostalCode("10000");
+        address = addressRepository.saveAndFlush(address);
+    }
+
+    private Product newProduct(String name, String price) {
+        Product product = new Product();
+        product.setTenant(tenant1);
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setStockQuantity(100);
+        product.setActive(true);
+        return productRepository.saveAndFlush(product);
+    }
+
+    private Order placeOrder(OrderItem... items) {
+        Order request = new Order();
+        request.setCustomer(customer);
+        request.setAddress(address);
+        request.setOrderItems(List.of(items));
+        return orderService.createOrder(tenant1.getId(), request);
+    }
+
+    private SalesDailyRollup today() {
+        LocalDate today = LocalDate.now();
+        return salesRollupService.getDailySales(tenant1.getId(), today, today).get(0);
+    }
+
+    @Test
+    @DisplayName("Placing and canceling orders updates daily and product rollups incrementally")
+    void ordersShouldUpdateRollups() {
+        placeOrder(item(lamp, 2), item(chair, 1));
+        Order second = placeOrder(item(lamp, 1));
+
+        SalesDailyRollup day = today();
+        assertEquals(2, day.getOrdersCount());
+        assertEquals(4, day.getUnitsSold());
+        assertEquals(0, new BigDecimal("80.00").compareTo(day.getRevenue()));
+
+        orderService.updateOrderStatus(tenant1.getId(), second.getId(), canceled.getId(), null);
+        entityManager.flush();
+        entityManager.clear();
+
+        day = today();
+        assertEquals(1, day.getCanceledOrders());
+        assertEquals(1, day.getCanceledUnits());
+        assertEquals(0, new BigDecimal("10.00").compareTo(day.getCanceledRevenue()));
+
+        List<ProductSalesSummary> top = salesRollupService.getTopProducts(
+                tenant1.getId(), LocalDate.now(), LocalDate.now(), ProductSalesSort.UNITS, 10);
+        assertEquals(2, top.size());
+        assertEquals(lamp.getId(), top.get(0).productId());
+        assertEquals("Lamp", top.get(0).name());
+        assertEquals(3L, top.get(0).unitsSold());
+        assertEquals(1L, top.get(0).canceledUnits());
+        assertEquals(2L, top.get(0).ordersCount());
+    }
+
+    @Test
+    @DisplayName("Rebuild reproduces incrementally maintained rollups")
+    void rebuildShouldMatchIncrementalRollups() {
+        placeOrder(item(lamp, 2), item(chair, 1));
+        Order second = placeOrder(item(chair, 3));
+        orderService.updateOrderStatus(tenant1.getId(), second.getId(), canceled.getId(), "Out of stock");
+        entityManager.flush();
+        entityManager.clear();
+
+        SalesDailyRollup incremental = today();
+        List<ProductSalesSummary> incrementalTop = salesRollupService.getTopProducts(
+                tenant1.getId(), LocalDate.now(), LocalDate.now(), ProductSalesSort.REVENUE, 10);
+
+        salesRollupService.rebuild(tenant1.getId(), LocalDate.now().minusDays(1), LocalDate.now());
+        entityManager.clear();
+
+        SalesDailyRollup rebuilt = today();
+        assertEquals(incremental.getOrdersCount(), rebuilt.getOrdersCount());
+        assertEquals(incremental.getUnitsSold(), rebuilt.getUnitsSold());
+        assertEquals(0, incremental.getRevenue().compareTo(rebuilt.getRevenue()));
+        assertEquals(incremental.getCanceledOrders(), rebuilt.getCanceledOrders());
+        assertEquals(incremental.getCanceledUnits(), rebuilt.getCanceledUnits());
+        assertEquals(0, incremental.getCanceledRevenue().compareTo(rebuilt.getCanceledRevenue()));
+        assertEquals(incrementalTop, salesRollupService.getTopProducts(
+                tenant1.getId(), LocalDate.now(), LocalDate.now(), ProductSalesSort.REVENUE, 10));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/analytics/sales returns zero-filled days with totals")
+    void salesEndpointShouldReturnDailySeries() throws Exception {
+        placeOrder(item(lamp, 1));
+        entityManager.flush();
+
+        LocalDate today = LocalDate.now();
+        mockMvc.perform(get("/api/v1/analytics/sales")
+                        .param("from", today.minusDays(2).toString())
+                        .param("to", today.toString())
+                        .headers(getAuthHeaders(jwtTenant1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ordersCount").value(1))
+                .andExpect(jsonPath("$.days.length()").value(3))
+                .andExpect(jsonPath("$.days[0].ordersCount").value(0))
+                .andExpect(jsonPath("$.days[2].unitsSold").value(1));
+    }
+}
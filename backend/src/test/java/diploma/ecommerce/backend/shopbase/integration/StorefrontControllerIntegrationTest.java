@@ -0,0 +1,176 @@
+package diploma.ecommerce.backend.shopbase.integration;
+
+import java.math.BigDecimal;
+
+import diploma.ecommerce.backend.shopbase.model.Product;
+import diploma.ecommerce.backend.shopbase.model.ProductPhoto;
+import diploma.ecommerce.backend.shopbase.model.Tenant;
+import diploma.ecommerce.backend.shopbase.repository.ProductPhotoRepository;
+import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
+import diploma.ecommerce.backend.shopbase.repository.TenantCatalogVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("StorefrontController Integration Tests")
+class StorefrontControllerIntegrationTest extends BaseIntegrationTest {
+
+    private static final String BOOTSTRAP_URL = "/api/v1/public/bootstrap";
+    private static final String CATEGORIES_URL = "/api/v1/public/categories";
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductPhotoRepository productPhotoRepository;
+    @Autowired
+    private TenantCatalogVersionRepository tenantCatalogVersionRepository;
+
+    private Product laptop;
+
+    private Product saveProduct(String name, Tenant tenant, String category, boolean active) {
+        Product product = new Product();
+        product.setName(name);
+        product.setTenant(tenant);
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStockQuantity(5);
+        product.setCategory(category);
+        product.setActive(active);
+        return productRepository.saveAndFlush(product);
+    }
+
+    private void savePhoto(Product product, String filePath, boolean main, int displayOrder) {
+        ProductPhoto photo = new ProductPhoto();
+        photo.setTenant(product.getTenant());
+        photo.setProduct(product);
+        photo.setFilePath(filePath);
+        photo.setCardPath(main ? filePath.replace(".jpg", "-card.jpg") : null);
+        photo.setMain(main);
+        photo.setDisplayOrder(displayOrder);
+        productPhotoRepository.saveAndFlush(photo);
+    }
+
+    @BeforeEach
+    void setUpCatalog() {
+        tenant1.setContactEmail("shop@store1.ru");
+        tenant1.setYookassaSecretKey("live_secret");
+        tenant1 = tenantRepository.saveAndFlush(tenant1);
+
+        laptop = saveProduct("Laptop Pro", tenant1, "Electronics", true);
+        saveProduct("Mouse Wireless", tenant1, "Accessories", true);
+        saveProduct("Cable", tenant1, "Accessories", true);
+        saveProduct("Archived Phone", tenant1, "Phones", false);
+        saveProduct("Keyboard Mechanical", tenant2, "Peripherals", true);
+
+        savePhoto(laptop, "/uploads/tenant_1/products/laptop-side.jpg", false, 0);
+        savePhoto(laptop, "/uploads/tenant_1/products/laptop.jpg", true, 1);
+    }
+
+    @Test
+    @DisplayName("GET /public/bootstrap - Should return theme, store, categories and active products with main photos")
+    void getBootstrap_returnsStorefrontData() throws Exception {
+        mockMvc.perform(get(BOOTSTRAP_URL)
+                                .with(serverName(tenant1.getSubdomain() + rootDomain)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.theme.primaryColor", is("#3498db")))
+                .andExpect(jsonPath("$.store.name", is("Test Store 1")))
+                .andExpect(jsonPath("$.store.contactEmail", is("shop@store1.ru")))
+                .andExpect(jsonPath("$.store.yookassaSecretKey").doesNotExist())
+                .andExpect(jsonPath("$.categories[*].name", contains("Accessories", "Electronics")))
+                .andExpect(jsonPath("$.categories[0].productCount", is(2)))
+                .andExpect(jsonPath("$.products[*].name", contains("Cable", "Laptop Pro", "Mouse Wireless")))
+                .andExpect(jsonPath("$.products[1].imageUrl", is("/uploads/tenant_1/products/laptop-card.jpg")))
+                .andExpect(jsonPath("$.products[1].photos", hasSize(1)))
+                .andExpect(jsonPath("$.products[0].photos", hasSize(0)))
+                .andExpect(jsonPath("$.totalProducts", is(3)))
+                .andExpect(header().string("Cache-Control", containsString("s-maxage=")))
+                .andExpect(header().string(
+                        "Surrogate-Key", "t" + tenant1.getId() + " t" + tenant1.getId() + "-products"));
+    }
+
+    @Test
+    @DisplayName("GET /public/bootstrap - Should answer matching If-None-Match with 304 until the catalog changes")
+    void getBootstrap_withMatchingIfNoneMatch_returnsNotModified() throws Exception {
+        String eTag = mockMvc.perform(get(BOOTSTRAP_URL)
+                                              .with(serverName(tenant1.getSubdomain() + rootDomain)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+
+        mockMvc.perform(get(BOOTSTRAP_URL)
+                                .with(serverName(tenant1.getSubdomain() + rootDomain))
+                                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        tenantCatalogVersionRepository.increment(tenant1.getId());
+
+        mockMvc.perform(get(BOOTSTRAP_URL)
+                                .with(serverName(tenant1.getSubdomain() + rootDomain))
+                                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)));
+    }
+
+    @Test
+    @DisplayName("GET /public/bootstrap - Should return only the tenant's own catalog")
+    void getBootstrap_forTenant2_returnsOnlyTenant2Products() throws Exception {
+        mockMvc.perform(get(BOOTSTRAP_URL)
+                                .with(serverName(tenant2.getSubdomain() + rootDomain)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories[*].name", contains("Peripherals")))
+                .andExpect(jsonPath("$.products[*].name", contains("Keyboard Mechanical")));
+    }
+
+    @Test
+    @DisplayName("GET /public/categories - Should return active product counts per category")
+    void getCategories_returnsCountsOfActiveProducts() throws Exception {
+        mockMvc.perform(get(CATEGORIES_URL)
+                                .with(serverName(tenant1.getSubdomain() + rootDomain)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name", is("Accessories")))
+                .andExpect(jsonPath("$[0].productCount", is(2)))
+                .andExpect(jsonPath("$[1].name", is("Electronics")))
+                .andExpect(jsonPath("$[1].productCount", is(1)))
+                .andExpect(header().string("Cache-Control", containsString("s-maxage=")));
+    }
+
+    @Test
+    @DisplayName("GET /public/categories - Should answer matching If-None-Match with 304")
+    void getCategories_withMatchingIfNoneMatch_returnsNotModified() throws Exception {
+        String eTag = mockMvc.perform(get(CATEGORIES_URL)
+                                              .with(serverName(tenant1.getSubdomain() + rootDomain)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+
+        mockMvc.perform(get(CATEGORIES_URL)
+                                .with(serverName(tenant1.getSubdomain() + rootDomain))
+                                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /public/bootstrap - No tenant context - Should return 404")
+    void getBootstrap_noTenantContext_returns404() throws Exception {
+        mockMvc.perform(get(BOOTSTRAP_URL)
+                                .with(serverName("unknown-domain.com")))
+                .andExpect(status().isNotFound());
+    }
+}
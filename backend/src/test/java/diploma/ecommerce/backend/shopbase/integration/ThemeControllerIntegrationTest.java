@@ -118,33 +118,26 @@ public class ThemeControllerIntegrationTest extends BaseIntegrationTest {
         }
 
         @Test
-        @DisplayName("GET /theme - Tenant without theme - Should create and return default theme")
-        void getCurrentTheme_tenantWithoutTheme_shouldCreateDefaultTheme() throws Exception {
+        @DisplayName("GET /theme - Tenant without theme - Should return default theme without creating it")
+        void getCurrentTheme_tenantWithoutTheme_shouldReturnDefaultTheme() throws Exception {
             // Удаляем тему у первого тенанта
             tenant1.setTheme(null);
             tenantRepository.saveAndFlush(tenant1);
+            long themesBefore = themeRepository.count();
 
-            MvcResult result = mockMvc.perform(get(THEME_API_URL)
+            mockMvc.perform(get(THEME_API_URL)
                             .headers(getAuthHeaders(jwtTenant1)))
                     .andExpect(status().isOk())
                     .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$.id", notNullValue()))
+                    .andExpect(jsonPath("$.id", nullValue()))
                     .andExpect(jsonPath("$.primaryColor", is("#3498db"))) // Default value
                     .andExpect(jsonPath("$.secondaryColor", is("#2ecc71"))) // Default value
-                    .andExpect(jsonPath("$.fontFamily", is("Roboto, sans-serif"))) // Default value
-                    .andReturn();
+                    .andExpect(jsonPath("$.fontFamily", is("Roboto, sans-serif"))); // Default value
 
-            // Проверяем, что тема была создана в базе данных
-            String responseContent = result.getResponse().getContentAsString();
-            ThemeResponse themeResponse = objectMapper.readValue(responseContent, ThemeResponse.class);
-
-            Optional<Theme> createdThemeOpt = themeRepository.findById(themeResponse.getId());
-            assertTrue(createdThemeOpt.isPresent(), "Default theme should be created in database");
-
-            // Проверяем, что тенант теперь связан с новой темой
+            // Чтение темы ничего не записывает: тема создается при регистрации магазина
+            assertEquals(themesBefore, themeRepository.count());
             tenant1 = tenantRepository.findById(tenant1.getId()).orElseThrow();
-            assertNotNull(tenant1.getTheme(), "Tenant should be linked to the new theme");
-            assertEquals(themeResponse.getId(), tenant1.getTheme().getId());
+            assertNull(tenant1.getTheme());
         }
 
         @Test
@@ -205,11 +198,13 @@ public class ThemeControllerIntegrationTest extends BaseIntegrationTest {
                     // Убеждаемся, что неизмененные поля остались прежними
                     .andExpect(jsonPath("$.textColor", is("#333333")))
                     .andExpect(jsonPath("$.backgroundColor", is("#ffffff")))
-                    .andExpect(jsonPath("$.fontFamily", is("Roboto, sans-serif")));
+                    .andExpect(jsonPath("$.fontFamily", is("Roboto, sans-serif")))
+                    .andExpect(jsonPath("$.stylesheetUrl", matchesPattern("/uploads/themes/theme-[0-9a-f]{16}\\.css")));
 
             // Проверяем, что изменения сохранились в базе данных
             Theme updatedTheme = themeRepository.findById(themeTenant1.getId()).orElseThrow();
             assertEquals("#2980b9", updatedTheme.getPrimaryColor());
+            assertNotNull(updatedTheme.getStylesheetUrl());
             assertEquals("#27ae60", updatedTheme.getSecondaryColor());
             assertEquals("8px", updatedTheme.getButtonRadius());
             assertEquals("https://store1.example.com/new-logo.png", updatedTheme.getLogoUrl());
@@ -384,28 +379,89 @@ public class ThemeControllerIntegrationTest extends BaseIntegrationTest {
         }
 
         @Test
-        @DisplayName("GET /public/theme - Tenant without theme - Should create and return default theme")
-        void getPublicTheme_tenantWithoutTheme_shouldCreateDefaultTheme() throws Exception {
+        @DisplayName("GET /public/theme - Tenant without theme - Should return default theme without creating it")
+        void getPublicTheme_tenantWithoutTheme_shouldReturnDefaultTheme() throws Exception {
             // Удаляем тему у первого тенанта
             tenant1.setTheme(null);
             tenantRepository.saveAndFlush(tenant1);
+            long themesBefore = themeRepository.count();
 
-            MvcResult result = mockMvc.perform(get(PUBLIC_THEME_API_URL)
+            mockMvc.perform(get(PUBLIC_THEME_API_URL)
                             .with(serverName("store1" + rootDomain))
                             .header("X-Tenant-Subdomain", "store1"))
                     .andExpect(status().isOk())
                     .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$.id", notNullValue()))
+                    .andExpect(jsonPath("$.id", nullValue()))
                     .andExpect(jsonPath("$.primaryColor", is("#3498db"))) // Default value
-                    .andExpect(jsonPath("$.fontFamily", is("Roboto, sans-serif"))) // Default value
+                    .andExpect(jsonPath("$.fontFamily", is("Roboto, sans-serif"))); // Default value
+
+            assertEquals(themesBefore, themeRepository.count());
+        }
+
+        @Test
+        @DisplayName("GET /public/theme - Should return ETag and answer matching If-None-Match with 304")
+        void getPublicTheme_withMatchingIfNoneMatch_shouldReturnNotModified() throws Exception {
+            MvcResult first = mockMvc.perform(get(PUBLIC_THEME_API_URL)
+                            .with(serverName("store1" + rootDomain))
+                            .header("X-Tenant-Subdomain", "store1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", containsString("max-age=")))
                     .andReturn();
+            String eTag = first.getResponse().getHeader("ETag");
+            assertNotNull(eTag);
+            assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""), "ETag must be strong");
 
-            // Проверяем, что дефолтная тема была создана
-            String responseContent = result.getResponse().getContentAsString();
-            ThemeResponse themeResponse = objectMapper.readValue(responseContent, ThemeResponse.class);
+            mockMvc.perform(get(PUBLIC_THEME_API_URL)
+                            .with(serverName("store1" + rootDomain))
+                            .header("X-Tenant-Subdomain", "store1")
+                            .header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", eTag))
+                    .andExpect(content().string(""));
+        }
 
-            Optional<Theme> createdThemeOpt = themeRepository.findById(themeResponse.getId());
-            assertTrue(createdThemeOpt.isPresent(), "Default theme should be created");
+        @Test
+        @DisplayName("GET /public/theme - Theme update - Should change ETag and body")
+        void getPublicTheme_afterThemeUpdate_shouldReturnNewVersion() throws Exception {
+            String oldETag = mockMvc.perform(get(PUBLIC_THEME_API_URL)
+                            .with(serverName("store1" + rootDomain))
+                            .header("X-Tenant-Subdomain", "store1"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            ThemeUpdateRequest updateRequest = new ThemeUpdateRequest();
+            updateRequest.setPrimaryColor("#123456");
+            mockMvc.perform(put(THEME_API_URL)
+                            .headers(getAuthHeaders(jwtTenant1))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(updateRequest)))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get(PUBLIC_THEME_API_URL)
+                            .with(serverName("store1" + rootDomain))
+                            .header("X-Tenant-Subdomain", "store1")
+                            .header("If-None-Match", oldETag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", not(oldETag)))
+                    .andExpect(jsonPath("$.primaryColor", is("#123456")));
+        }
+
+        @Test
+        @DisplayName("GET /public/theme - Should return preload hints for stylesheet and logo")
+        void getPublicTheme_shouldReturnPreloadLinks() throws Exception {
+            MvcResult result = mockMvc.perform(get(PUBLIC_THEME_API_URL)
+                            .with(serverName("store1" + rootDomain))
+                            .header("X-Tenant-Subdomain", "store1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Link",
+                            containsString("<https://store1.example.com/logo.png>; rel=preload; as=image")))
+                    .andReturn();
+
+            String stylesheetUrl = objectMapper.readValue(result.getResponse().getContentAsString(),
+                    ThemeResponse.class).getStylesheetUrl();
+            assertNotNull(stylesheetUrl);
+            assertTrue(result.getResponse().getHeader("Link")
+                    .contains("<" + stylesheetUrl + ">; rel=preload; as=style"));
         }
 
         @Test
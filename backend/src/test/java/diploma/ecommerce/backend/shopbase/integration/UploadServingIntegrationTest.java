@@ -0,0 +1,83 @@
+package diploma.ecommerce.backend.shopbase.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Upload serving Integration Tests")
+public class UploadServingIntegrationTest extends BaseIntegrationTest {
+
+    private static final String FILE_CONTENT = "0123456789";
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    private Path uploadedFile;
+    private String fileUrl;
+
+    @BeforeEach
+    void setUpFile() throws IOException {
+        String fileName = UUID.randomUUID() + ".txt";
+        Path folder = Paths.get(uploadDir, "tenant_" + tenant1.getId(), "products");
+        Files.createDirectories(folder);
+        uploadedFile = Files.writeString(folder.resolve(fileName), FILE_CONTENT);
+        fileUrl = "/uploads/tenant_" + tenant1.getId() + "/products/" + fileName;
+    }
+
+    @AfterEach
+    void tearDownFile() throws IOException {
+        Files.deleteIfExists(uploadedFile);
+    }
+
+    @Test
+    @DisplayName("GET /uploads - Should return the file with a strong ETag and immutable caching")
+    void getUpload_existingFile_shouldReturnCacheHeaders() throws Exception {
+        mockMvc.perform(get(fileUrl))
+                .andExpect(status().isOk())
+                .andExpect(content().string(FILE_CONTENT))
+                .andExpect(header().string(HttpHeaders.ETAG, matchesPattern("\"[0-9a-f]+-a\"")))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    @DisplayName("GET /uploads - Matching If-None-Match - Should return 304")
+    void getUpload_matchingETag_shouldReturnNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get(fileUrl)).andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(fileUrl).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET /uploads - Range header - Should return the requested part")
+    void getUpload_rangeHeader_shouldReturnPartialContent() throws Exception {
+        mockMvc.perform(get(fileUrl).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().bytes("2345".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("GET /uploads/blobs - Should not expose the blob store")
+    void getUpload_blobStore_shouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/uploads/blobs/00/anything.jpg"))
+                .andExpect(status().is(anyOf(is(401), is(403))));
+    }
+}
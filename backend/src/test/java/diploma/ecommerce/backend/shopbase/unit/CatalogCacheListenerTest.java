@@ -0,0 +1,171 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import diploma.ecommerce.backend.shopbase.catalog.CatalogCachePurger;
+import diploma.ecommerce.backend.shopbase.catalog.CatalogVersions;
+import diploma.ecommerce.backend.shopbase.catalog.CategoryFacets;
+import diploma.ecommerce.backend.shopbase.event.CatalogChangedEvent;
+import diploma.ecommerce.backend.shopbase.event.OrderChangedEvent;
+import diploma.ecommerce.backend.shopbase.event.ProductChangedEvent;
+import diploma.ecommerce.backend.shopbase.event.ProductPhotosChangedEvent;
+import diploma.ecommerce.backend.shopbase.event.ProductsBulkChangedEvent;
+import diploma.ecommerce.backend.shopbase.listener.CatalogCacheListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogCacheListenerTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+    @Mock
+    private CatalogCachePurger catalogCachePurger;
+    @Mock
+    private CategoryFacets categoryFacets;
+    @InjectMocks
+    private CatalogCacheListener catalogCacheListener;
+
+    private static OrderChangedEvent orderEvent(OrderChangedEvent.Type type, String status, String previousStatus) {
+        return new OrderChangedEvent(TENANT_ID, 10L, type, status, previousStatus, BigDecimal.TEN, null,
+                LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Should bump the version and purge the product lists and the changed product")
+    void onProductChanged_BumpsVersionAndPurgesProduct() {
+        catalogCacheListener.onProductChanged(new ProductChangedEvent(TENANT_ID, 42L));
+
+        verify(catalogVersions).bump(TENANT_ID);
+        verify(catalogCachePurger).purge(List.of("t1-products", "t1-product-42"));
+    }
+
+    @Test
+    @DisplayName("Should purge the whole tenant catalog when the change has no product list")
+    void onCatalogChanged_WithoutProducts_PurgesTenant() {
+        catalogCacheListener.onCatalogChanged(new CatalogChangedEvent(TENANT_ID, List.of()));
+
+        verify(catalogVersions).bump(TENANT_ID);
+        verify(catalogCachePurger).purge(List.of("t1"));
+    }
+
+    @Test
+    @DisplayName("Should purge the whole tenant catalog instead of too many product tags")
+    void onProductsBulkChanged_ManyProducts_PurgesTenant() {
+        List<Long> productIds = LongStream.rangeClosed(1, 500).boxed().toList();
+
+        catalogCacheListener.onProductsBulkChanged(new ProductsBulkChangedEvent(TENANT_ID, productIds));
+
+        verify(catalogCachePurger).purge(List.of("t1"));
+    }
+
+    @Test
+    @DisplayName("Should still purge and retry the bump later when the version cannot be bumped")
+    void onProductChanged_BumpFails_StillPurges() {
+        doThrow(new QueryTimeoutException("timeout")).when(catalogVersions).bump(TENANT_ID);
+
+        catalogCacheListener.onProductChanged(new ProductChangedEvent(TENANT_ID, 42L));
+
+        verify(catalogVersions).bumpLater(TENANT_ID);
+        verify(categoryFacets, never()).catalogVersionBumped(anyLong(), anyLong());
+        verify(catalogCachePurger).purge(List.of("t1-products", "t1-product-42"));
+    }
+
+    @Test
+    @DisplayName("Should not fail the committed change when the purge is rejected")
+    void onProductChanged_PurgeRejected_DoesNotThrow() {
+        doThrow(new TaskRejectedException("queue full")).when(catalogCachePurger).purge(anyList());
+
+        assertDoesNotThrow(() -> catalogCacheListener.onProductChanged(new ProductChangedEvent(TENANT_ID, 42L)));
+
+        verify(catalogVersions).bump(TENANT_ID);
+        verify(catalogVersions, never()).bumpLater(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should invalidate the catalog when an order takes or returns stock")
+    void onOrderChanged_StockChange_BumpsVersion() {
+        catalogCacheListener.onOrderChanged(orderEvent(OrderChangedEvent.Type.CREATED, "Pending", null));
+        catalogCacheListener.onOrderChanged(orderEvent(OrderChangedEvent.Type.STATUS_CHANGED, "Canceled", "Pending"));
+
+        verify(catalogVersions, times(2)).bump(TENANT_ID);
+    }
+
+    @Test
+    @DisplayName("Should ignore order status changes that do not touch stock")
+    void onOrderChanged_StatusOnly_IsIgnored() {
+        catalogCacheListener.onOrderChanged(orderEvent(OrderChangedEvent.Type.STATUS_CHANGED, "Shipped", "Pending"));
+        catalogCacheListener.onOrderChanged(orderEvent(OrderChangedEvent.Type.STATUS_CHANGED, "Returned", "Canceled"));
+
+        verifyNoInteractions(catalogVersions, catalogCachePurger);
+    }
+
+    @Test
+    @DisplayName("Should refresh category facets of changed products before bumping the version")
+    void onProductChanged_RefreshesFacetsBeforeBump() {
+        catalogCacheListener.onProductChanged(new ProductChangedEvent(TENANT_ID, 42L));
+
+        InOrder inOrder = inOrder(categoryFacets, catalogVersions);
+        inOrder.verify(categoryFacets).refresh(TENANT_ID, List.of(42L));
+        inOrder.verify(catalogVersions).bump(TENANT_ID);
+    }
+
+    @Test
+    @DisplayName("Should evict category facets when they cannot be refreshed")
+    void onCatalogChanged_RefreshFails_EvictsFacets() {
+        doThrow(new QueryTimeoutException("timeout")).when(categoryFacets).refresh(TENANT_ID, List.of(42L));
+
+        catalogCacheListener.onCatalogChanged(new CatalogChangedEvent(TENANT_ID, List.of(42L)));
+
+        verify(categoryFacets).evict(TENANT_ID);
+        verify(catalogVersions).bump(TENANT_ID);
+    }
+
+    @Test
+    @DisplayName("Should not refresh category facets on order stock changes but move them to the new version")
+    void onOrderChanged_StockChange_KeepsFacets() {
+        when(catalogVersions.bump(TENANT_ID)).thenReturn(8L);
+
+        catalogCacheListener.onOrderChanged(orderEvent(OrderChangedEvent.Type.CREATED, "Pending", null));
+
+        verify(categoryFacets, never()).refresh(anyLong(), anyList());
+        verify(categoryFacets, never()).evict(anyLong());
+        verify(categoryFacets).catalogVersionBumped(TENANT_ID, 8L);
+    }
+
+    @Test
+    @DisplayName("Should purge photo changes without refreshing category facets")
+    void onProductPhotosChanged_KeepsFacets() {
+        when(catalogVersions.bump(TENANT_ID)).thenReturn(3L);
+
+        catalogCacheListener.onProductPhotosChanged(new ProductPhotosChangedEvent(TENANT_ID, List.of()));
+
+        verify(categoryFacets, never()).refresh(anyLong(), anyList());
+        verify(categoryFacets, never()).evict(anyLong());
+        verify(categoryFacets).catalogVersionBumped(TENANT_ID, 3L);
+        verify(catalogCachePurger).purge(List.of("t1"));
+    }
+}
@@ -0,0 +1,70 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.catalog.CatalogVersions;
+import diploma.ecommerce.backend.shopbase.repository.TenantCatalogVersionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogVersionsTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Mock
+    private TenantCatalogVersionRepository tenantCatalogVersionRepository;
+    @InjectMocks
+    private CatalogVersions catalogVersions;
+
+    @Test
+    @DisplayName("Should retry a deferred bump once and sweep versions behind their products")
+    void reconcile_DeferredBump_RetriesOnce() {
+        when(tenantCatalogVersionRepository.increment(TENANT_ID)).thenReturn(5L);
+        when(tenantCatalogVersionRepository.incrementStale()).thenReturn(List.of(2L));
+        catalogVersions.bumpLater(TENANT_ID);
+
+        assertEquals(2, catalogVersions.reconcile());
+        assertEquals(1, catalogVersions.reconcile());
+
+        verify(tenantCatalogVersionRepository, times(1)).increment(TENANT_ID);
+        verify(tenantCatalogVersionRepository, times(2)).incrementStale();
+    }
+
+    @Test
+    @DisplayName("Should keep a deferred bump until the retry succeeds")
+    void reconcile_RetryFails_KeepsBump() {
+        when(tenantCatalogVersionRepository.increment(TENANT_ID))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(5L);
+        when(tenantCatalogVersionRepository.incrementStale()).thenReturn(List.of());
+        catalogVersions.bumpLater(TENANT_ID);
+
+        assertEquals(0, catalogVersions.reconcile());
+        assertEquals(1, catalogVersions.reconcile());
+        assertEquals(0, catalogVersions.reconcile());
+
+        verify(tenantCatalogVersionRepository, times(2)).increment(TENANT_ID);
+    }
+
+    @Test
+    @DisplayName("Should not touch tenants without deferred bumps")
+    void reconcile_NothingDeferred_OnlySweeps() {
+        when(tenantCatalogVersionRepository.incrementStale()).thenReturn(List.of());
+
+        assertEquals(0, catalogVersions.reconcile());
+
+        verify(tenantCatalogVersionRepository, never()).increment(TENANT_ID);
+    }
+}
@@ -0,0 +1,177 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import diploma.ecommerce.backend.shopbase.catalog.CatalogVersion;
+import diploma.ecommerce.backend.shopbase.catalog.CatalogVersions;
+import diploma.ecommerce.backend.shopbase.catalog.CategoryFacets;
+import diploma.ecommerce.backend.shopbase.dto.record.ProductCategoryRow;
+import diploma.ecommerce.backend.shopbase.dto.response.CategoryFacetResponse;
+import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CategoryFacetsTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CatalogVersions catalogVersions;
+    @InjectMocks
+    private CategoryFacets categoryFacets;
+
+    private void catalogVersionIs(long version) {
+        when(catalogVersions.current(TENANT_ID)).thenReturn(new CatalogVersion(TENANT_ID, version, null));
+    }
+
+    @BeforeEach
+    void setUp() {
+        catalogVersionIs(5);
+        when(productRepository.findActiveCategoryRows(TENANT_ID)).thenReturn(List.of(
+                new ProductCategoryRow(1L, "Electronics"),
+                new ProductCategoryRow(2L, "Accessories"),
+                new ProductCategoryRow(3L, "Accessories")
+        ));
+    }
+
+    @Test
+    @DisplayName("Should load counts once and serve them from memory in name order")
+    void get_LoadsOnceSortedByName() {
+        CategoryFacets.Snapshot first = categoryFacets.get(TENANT_ID);
+        CategoryFacets.Snapshot second = categoryFacets.get(TENANT_ID);
+
+        assertEquals(List.of(new CategoryFacetResponse("Accessories", 2), new CategoryFacetResponse("Electronics", 1)),
+                first.categories());
+        assertSame(first, second);
+        verify(productRepository, times(1)).findActiveCategoryRows(TENANT_ID);
+    }
+
+    @Test
+    @DisplayName("Should move a product between categories and drop empty categories")
+    void refresh_CategoryChanged_UpdatesCounts() {
+        String oldETag = categoryFacets.get(TENANT_ID).eTag();
+        when(productRepository.findActiveCategoryRowsByIdIn(TENANT_ID, List.of(1L)))
+                .thenReturn(List.of(new ProductCategoryRow(1L, "Accessories")));
+
+        categoryFacets.refresh(TENANT_ID, List.of(1L));
+
+        CategoryFacets.Snapshot snapshot = categoryFacets.get(TENANT_ID);
+        assertEquals(List.of(new CategoryFacetResponse("Accessories", 3)), snapshot.categories());
+        assertNotEquals(oldETag, snapshot.eTag());
+    }
+
+    @Test
+    @DisplayName("Should remove deleted or deactivated products and add newly activated ones")
+    void refresh_DeactivatedAndActivated_UpdatesCounts() {
+        categoryFacets.get(TENANT_ID);
+        when(productRepository.findActiveCategoryRowsByIdIn(TENANT_ID, List.of(2L, 4L)))
+                .thenReturn(List.of(new ProductCategoryRow(4L, "Phones")));
+
+        categoryFacets.refresh(TENANT_ID, List.of(2L, 4L));
+
+        assertEquals(List.of(
+                new CategoryFacetResponse("Accessories", 1),
+                new CategoryFacetResponse("Electronics", 1),
+                new CategoryFacetResponse("Phones", 1)
+        ), categoryFacets.get(TENANT_ID).categories());
+    }
+
+    @Test
+    @DisplayName("Should give the same result when a change is applied twice")
+    void refresh_Repeated_IsIdempotent() {
+        categoryFacets.get(TENANT_ID);
+        when(productRepository.findActiveCategoryRowsByIdIn(TENANT_ID, List.of(3L)))
+                .thenReturn(List.of(new ProductCategoryRow(3L, "Electronics")));
+
+        categoryFacets.refresh(TENANT_ID, List.of(3L));
+        categoryFacets.refresh(TENANT_ID, List.of(3L));
+
+        assertEquals(List.of(new CategoryFacetResponse("Accessories", 1), new CategoryFacetResponse("Electronics", 2)),
+                categoryFacets.get(TENANT_ID).categories());
+    }
+
+    @Test
+    @DisplayName("Should not query changes of a tenant whose facets are not loaded")
+    void refresh_NotLoaded_IsSkipped() {
+        categoryFacets.refresh(TENANT_ID, List.of(1L));
+
+        verify(productRepository, never()).findActiveCategoryRowsByIdIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reload the whole tenant after a catalog-wide or large change")
+    void refresh_WholeCatalog_ReloadsOnNextRead() {
+        categoryFacets.get(TENANT_ID);
+
+        categoryFacets.refresh(TENANT_ID, List.of());
+        categoryFacets.get(TENANT_ID);
+        categoryFacets.refresh(TENANT_ID, LongStream.rangeClosed(1, 5000).boxed().toList());
+        categoryFacets.get(TENANT_ID);
+
+        verify(productRepository, times(3)).findActiveCategoryRows(TENANT_ID);
+        verify(productRepository, never()).findActiveCategoryRowsByIdIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reload when the catalog version was moved by another node")
+    void get_CatalogVersionMoved_Reloads() {
+        categoryFacets.get(TENANT_ID);
+        when(productRepository.findActiveCategoryRows(TENANT_ID))
+                .thenReturn(List.of(new ProductCategoryRow(1L, "Electronics")));
+        catalogVersionIs(6);
+
+        CategoryFacets.Snapshot snapshot = categoryFacets.get(TENANT_ID);
+
+        assertEquals(List.of(new CategoryFacetResponse("Electronics", 1)), snapshot.categories());
+        assertEquals(6, snapshot.catalogVersion());
+        verify(productRepository, times(2)).findActiveCategoryRows(TENANT_ID);
+    }
+
+    @Test
+    @DisplayName("Should keep the snapshot when the next version comes from a change applied on this node")
+    void catalogVersionBumped_NextVersion_KeepsSnapshot() {
+        categoryFacets.get(TENANT_ID);
+        when(productRepository.findActiveCategoryRowsByIdIn(TENANT_ID, List.of(1L))).thenReturn(List.of());
+        categoryFacets.refresh(TENANT_ID, List.of(1L));
+
+        categoryFacets.catalogVersionBumped(TENANT_ID, 6);
+        catalogVersionIs(6);
+
+        assertEquals(List.of(new CategoryFacetResponse("Accessories", 2)), categoryFacets.get(TENANT_ID).categories());
+        verify(productRepository, times(1)).findActiveCategoryRows(TENANT_ID);
+    }
+
+    @Test
+    @DisplayName("Should reload when another node bumped the version in between")
+    void catalogVersionBumped_SkippedVersion_Reloads() {
+        categoryFacets.get(TENANT_ID);
+
+        categoryFacets.catalogVersionBumped(TENANT_ID, 7);
+        catalogVersionIs(7);
+        categoryFacets.get(TENANT_ID);
+
+        verify(productRepository, times(2)).findActiveCategoryRows(TENANT_ID);
+    }
+}
@@ -0,0 +1,88 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import diploma.ecommerce.backend.shopbase.concurrency.ContextCopyingTaskDecorator;
+import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("ContextCopyingTaskDecorator Tests")
+class ContextCopyingTaskDecoratorTest {
+
+    private final ContextCopyingTaskDecorator decorator = new ContextCopyingTaskDecorator();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        TenantContext.clear();
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+    }
+
+    @Test
+    void decorate_CopiesTenantSecurityAndMdcToWorker() throws Exception {
+        Authentication authentication = new TestingAuthenticationToken("admin", "secret", "ROLE_ADMIN");
+        TenantContext.setTenantId(7L);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        MDC.put("requestId", "req-1");
+
+        AtomicReference<Long> tenant = new AtomicReference<>();
+        AtomicReference<Authentication> auth = new AtomicReference<>();
+        AtomicReference<String> requestId = new AtomicReference<>();
+        Runnable task = decorator.decorate(() -> {
+            tenant.set(TenantContext.getTenantId());
+            auth.set(SecurityContextHolder.getContext().getAuthentication());
+            requestId.set(MDC.get("requestId"));
+        });
+
+        executor.submit(task).get(5, TimeUnit.SECONDS);
+
+        assertEquals(7L, tenant.get());
+        assertEquals(authentication, auth.get());
+        assertEquals("req-1", requestId.get());
+    }
+
+    @Test
+    void decorate_RestoresWorkerStateAfterTask() throws Exception {
+        TenantContext.setTenantId(7L);
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("admin", "secret", "ROLE_ADMIN")
+        );
+        MDC.put("requestId", "req-1");
+
+        executor.submit(decorator.decorate(() -> {
+        })).get(5, TimeUnit.SECONDS);
+
+        AtomicReference<Long> tenant = new AtomicReference<>(-1L);
+        AtomicReference<Authentication> auth = new AtomicReference<>();
+        AtomicReference<String> requestId = new AtomicReference<>("unset");
+        executor.submit(() -> {
+            tenant.set(TenantContext.getTenantId());
+            auth.set(SecurityContextHolder.getContext().getAuthentication());
+            requestId.set(MDC.get("requestId"));
+        }).get(5, TimeUnit.SECONDS);
+
+        assertNull(tenant.get());
+        assertNull(auth.get());
+        assertNull(requestId.get());
+    }
+}
@@ -0,0 +1,123 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import diploma.ecommerce.backend.shopbase.dto.record.OrderExportRow;
+import diploma.ecommerce.backend.shopbase.dto.record.ProductExportRow;
+import diploma.ecommerce.backend.shopbase.export.ExportFormat;
+import diploma.ecommerce.backend.shopbase.repository.OrderRepository;
+import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
+import diploma.ecommerce.backend.shopbase.service.impl.ExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ExportServiceImpl Tests")
+class ExportServiceImplTest {
+
+    private static final Long TENANT_ID = 1L;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 10, 15, 30);
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private ProductRepository productRepository;
+
+    private ExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportServiceImpl(orderRepository, productRepository, objectMapper);
+    }
+
+    private static OrderExportRow order(Long id, String comment) {
+        return new OrderExportRow(
+                id, CREATED, CREATED, "Created", 7L, "ivan@example.com", "Ivan", "Petrov",
+                new BigDecimal("150.00"), comment
+        );
+    }
+
+    @Test
+    void exportOrders_Csv_WritesHeaderAndEscapedRows() throws Exception {
+        when(orderRepository.streamForExport(eq(TENANT_ID), any(), any()))
+                .thenReturn(Stream.of(order(1L, null), order(2L, "Call, \"before\" delivery")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportOrders(TENANT_ID, null, null, ExportFormat.CSV, out);
+
+        assertEquals(2, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals(
+                "order_id,created_at,updated_at,status,customer_id,customer_email,customer_first_name,"
+                        + "customer_last_name,total_amount,comment",
+                lines[0]
+        );
+        assertEquals("1,2024-03-01T10:15:30,2024-03-01T10:15:30,Created,7,ivan@example.com,Ivan,Petrov,150.00,",
+                lines[1]);
+        assertEquals(
+                "2,2024-03-01T10:15:30,2024-03-01T10:15:30,Created,7,ivan@example.com,Ivan,Petrov,150.00,"
+                        + "\"Call, \"\"before\"\" delivery\"",
+                lines[2]
+        );
+    }
+
+    @Test
+    void exportOrders_DateRange_UsesInclusiveDaysAsHalfOpenInterval() throws Exception {
+        when(orderRepository.streamForExport(eq(TENANT_ID), any(), any())).thenReturn(Stream.empty());
+
+        exportService.exportOrders(
+                TENANT_ID, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), ExportFormat.CSV,
+                new ByteArrayOutputStream()
+        );
+
+        verify(orderRepository).streamForExport(
+                TENANT_ID,
+                LocalDateTime.of(2024, 3, 1, 0, 0),
+                LocalDateTime.of(2024, 4, 1, 0, 0)
+        );
+    }
+
+    @Test
+    void exportProducts_Ndjson_WritesOneObjectPerLine() throws Exception {
+        when(productRepository.streamForExport(TENANT_ID)).thenReturn(Stream.of(
+                new ProductExportRow(10L, "Lamp", null, new BigDecimal("12.50"), 3, "Light", true, CREATED),
+                new ProductExportRow(11L, "Chair", "Oak", new BigDecimal("99.90"), 0, null, false, CREATED)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportProducts(TENANT_ID, ExportFormat.NDJSON, out);
+
+        assertEquals(2, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        ObjectMapper reader = new ObjectMapper();
+        assertEquals("Lamp", reader.readTree(lines[0]).get("name").asText());
+        assertEquals(11, reader.readTree(lines[1]).get("id").asInt());
+        assertEquals("2024-03-01T10:15:30", reader.readTree(lines[1]).get("updatedAt").asText());
+    }
+}
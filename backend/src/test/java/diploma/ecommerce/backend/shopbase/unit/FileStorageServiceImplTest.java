@@ -1,6 +1,8 @@
 package diploma.ecommerce.backend.shopbase.unit;
 
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
 import diploma.ecommerce.backend.shopbase.service.impl.FileStorageServiceImpl;
+import diploma.ecommerce.backend.shopbase.storage.UploadUsageTracker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -8,18 +10,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -39,6 +46,9 @@ class FileStorageServiceImplTest {
     @TempDir
     Path tempDir;
 
+    @Mock
+    private UploadUsageTracker uploadUsageTracker;
+
     @InjectMocks
     private FileStorageServiceImpl fileStorageService;
 
@@ -434,4 +444,126 @@ class FileStorageServiceImplTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Content-addressed storage")
+    class DeduplicationTests {
+
+        private List<Path> listFiles(Path folder) throws IOException {
+            try (Stream<Path> files = Files.walk(folder)) {
+                return files.filter(Files::isRegularFile).sorted().toList();
+            }
+        }
+
+        private void storeWithMockedUri(MultipartFile file) throws IOException {
+            try (MockedStatic<ServletUriComponentsBuilder> mockedBuilder = mockStatic(ServletUriComponentsBuilder.class)) {
+                ServletUriComponentsBuilder mockBuilder = mock(ServletUriComponentsBuilder.class);
+                mockedBuilder.when(ServletUriComponentsBuilder::fromCurrentContextPath).thenReturn(mockBuilder);
+                when(mockBuilder.path(anyString())).thenReturn(mockBuilder);
+                when(mockBuilder.toUriString()).thenReturn(CONTEXT_PATH + "/uploads/tenant_1/images/some-uuid.jpg");
+
+                fileStorageService.storeFile(file, TENANT_ID, FOLDER);
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep a single blob for identical uploads")
+        void storeFile_SameContentTwice_StoresOneBlob() throws IOException {
+            storeWithMockedUri(validFile);
+            storeWithMockedUri(validFile);
+
+            List<Path> blobs = listFiles(tempDir.resolve("blobs"));
+            assertEquals(1, blobs.size());
+            assertEquals(FILE_CONTENT, Files.readString(blobs.get(0)));
+            assertEquals(2, listFiles(tempDir.resolve("tenant_1").resolve("images")).size());
+        }
+
+        @Test
+        @DisplayName("Should reclaim the blob only after its last reference is deleted")
+        void deleteFile_LastReference_ReclaimsBlob() throws IOException {
+            storeWithMockedUri(validFile);
+            storeWithMockedUri(validFile);
+            List<Path> links = listFiles(tempDir.resolve("tenant_1").resolve("images"));
+
+            assertTrue(fileStorageService.deleteFile("/uploads/tenant_1/images/" + links.get(0).getFileName()));
+            assertEquals(1, listFiles(tempDir.resolve("blobs")).size());
+            assertEquals(FILE_CONTENT, Files.readString(links.get(1)));
+
+            assertTrue(fileStorageService.deleteFile("/uploads/tenant_1/images/" + links.get(1).getFileName()));
+            assertTrue(listFiles(tempDir.resolve("blobs")).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should store a raw stream under a name derived from the content hash")
+        void storeFile_Stream_StoresContent() throws IOException {
+            try (MockedStatic<ServletUriComponentsBuilder> mockedBuilder = mockStatic(ServletUriComponentsBuilder.class)) {
+                ServletUriComponentsBuilder mockBuilder = mock(ServletUriComponentsBuilder.class);
+                mockedBuilder.when(ServletUriComponentsBuilder::fromCurrentContextPath).thenReturn(mockBuilder);
+                when(mockBuilder.path(anyString())).thenReturn(mockBuilder);
+                when(mockBuilder.toUriString()).thenReturn(CONTEXT_PATH + "/uploads/tenant_1/images/some-uuid.png");
+
+                fileStorageService.storeFile(
+                        new ByteArrayInputStream(FILE_CONTENT.getBytes()), "photo.png", TENANT_ID, FOLDER);
+            }
+
+            Path createdFile = listFiles(tempDir.resolve("tenant_1").resolve("images")).get(0);
+            assertTrue(createdFile.getFileName().toString().matches("[0-9a-f]{64}-[0-9a-f]{8}\\.png"));
+            assertEquals(FILE_CONTENT, Files.readString(createdFile));
+        }
+
+        @Test
+        @DisplayName("Should reject a stream over the size limit and leave no files behind")
+        void storeFile_StreamOverLimit_ThrowsBadRequest() throws IOException {
+            ReflectionTestUtils.setField(fileStorageService, "maxFileSize", DataSize.ofBytes(4));
+
+            assertThrows(BadRequestException.class, () -> fileStorageService.storeFile(
+                    new ByteArrayInputStream(FILE_CONTENT.getBytes()), FILENAME, TENANT_ID, FOLDER));
+            assertTrue(listFiles(tempDir).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should drop an extension that is not alphanumeric")
+        void storeFile_UnsafeExtension_StoresWithoutExtension() throws IOException {
+            MultipartFile unsafeFile = new MockMultipartFile(
+                    "file", "image.jpg/../../x", "image/jpeg", FILE_CONTENT.getBytes());
+
+            storeWithMockedUri(unsafeFile);
+
+            Path createdFile = listFiles(tempDir.resolve("tenant_1").resolve("images")).get(0);
+            assertTrue(createdFile.getFileName().toString().matches("[0-9a-f]{64}-[0-9a-f]{8}"));
+        }
+
+        @Test
+        @DisplayName("Should count stored and deleted files in the tenant upload usage")
+        void storeAndDelete_RecordsUsageDeltas() throws IOException {
+            storeWithMockedUri(validFile);
+            Path link = listFiles(tempDir.resolve("tenant_1").resolve("images")).get(0);
+
+            fileStorageService.deleteFile("/uploads/tenant_1/images/" + link.getFileName());
+
+            long size = FILE_CONTENT.getBytes().length;
+            verify(uploadUsageTracker).record(TENANT_ID, size, 1);
+            verify(uploadUsageTracker).record(TENANT_ID, -size, -1);
+        }
+
+        @Test
+        @DisplayName("Should not count files purged from the collector trash")
+        void deleteFile_TrashPath_DoesNotRecordUsage() throws IOException {
+            Path trashed = tempDir.resolve(".trash/1/tenant_1/images/old.jpg");
+            Files.createDirectories(trashed.getParent());
+            Files.writeString(trashed, FILE_CONTENT);
+
+            assertTrue(fileStorageService.deleteFile(".trash/1/tenant_1/images/old.jpg"));
+
+            verifyNoInteractions(uploadUsageTracker);
+        }
+
+        @Test
+        @DisplayName("Should reject shared file names that leave their folder")
+        void storeSharedFile_PathInName_ThrowsIllegalArgument() throws IOException {
+            assertThrows(IllegalArgumentException.class, () -> fileStorageService.storeSharedFile(
+                    "themes", "../tenant_1/images/x.css", FILE_CONTENT.getBytes()));
+            assertTrue(listFiles(tempDir).isEmpty());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import diploma.ecommerce.backend.shopbase.image.ImageVariant;
+import diploma.ecommerce.backend.shopbase.image.ImageVariantGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageVariantGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ImageVariantGenerator generator = new ImageVariantGenerator();
+
+    private Path writeImage(String fileName, int width, int height, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Path path = tempDir.resolve(fileName);
+        ImageIO.write(image, format, path.toFile());
+        return path;
+    }
+
+    @Test
+    @DisplayName("Should create JPEG variants bounded by the variant size")
+    void generate_LargeJpeg_CreatesScaledVariants() throws IOException {
+        Path original = writeImage("photo.jpg", 2000, 1000, BufferedImage.TYPE_INT_RGB, "jpg");
+
+        Map<ImageVariant, Path> variants = generator.generate(original);
+
+        assertEquals(3, variants.size());
+        assertEquals("photo-thumb.jpg", variants.get(ImageVariant.THUMBNAIL).getFileName().toString());
+        BufferedImage thumbnail = ImageIO.read(variants.get(ImageVariant.THUMBNAIL).toFile());
+        assertEquals(160, thumbnail.getWidth());
+        assertEquals(80, thumbnail.getHeight());
+        BufferedImage full = ImageIO.read(variants.get(ImageVariant.FULL).toFile());
+        assertEquals(1280, full.getWidth());
+    }
+
+    @Test
+    @DisplayName("Should not upscale small images")
+    void generate_SmallImage_KeepsOriginalSize() throws IOException {
+        Path original = writeImage("small.jpg", 100, 50, BufferedImage.TYPE_INT_RGB, "jpg");
+
+        Map<ImageVariant, Path> variants = generator.generate(original);
+
+        BufferedImage card = ImageIO.read(variants.get(ImageVariant.CARD).toFile());
+        assertEquals(100, card.getWidth());
+        assertEquals(50, card.getHeight());
+    }
+
+    @Test
+    @DisplayName("Should keep transparency by writing PNG variants")
+    void generate_TransparentPng_CreatesPngVariants() throws IOException {
+        Path original = writeImage("logo.png", 600, 600, BufferedImage.TYPE_INT_ARGB, "png");
+
+        Map<ImageVariant, Path> variants = generator.generate(original);
+
+        assertEquals("logo-card.png", variants.get(ImageVariant.CARD).getFileName().toString());
+        assertTrue(ImageIO.read(variants.get(ImageVariant.CARD).toFile()).getColorModel().hasAlpha());
+    }
+
+    @Test
+    @DisplayName("Should return no variants for a file that is not an image")
+    void generate_NotAnImage_ReturnsEmpty() throws IOException {
+        Path original = tempDir.resolve("notes.jpg");
+        Files.writeString(original, "not an image");
+
+        assertTrue(generator.generate(original).isEmpty());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import diploma.ecommerce.backend.shopbase.concurrency.OptimisticRetryTemplate;
+import diploma.ecommerce.backend.shopbase.exception.OptimisticLockConflictException;
+import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("OptimisticRetryTemplate Tests")
+class OptimisticRetryTemplateTest {
+
+    private static final String OPERATION = "product.update";
+
+    private MeterRegistry meterRegistry;
+    private OptimisticRetryTemplate retryTemplate;
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("Product", 1L);
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryTemplate = new OptimisticRetryTemplate(meterRegistry, 3, 1, 5);
+    }
+
+    private double count(String metric) {
+        var counter = meterRegistry.find(metric).tag("operation", OPERATION).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void execute_NoConflict_ReturnsResultWithoutRetry() throws Throwable {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retryTemplate.execute(OPERATION, () -> {
+            calls.incrementAndGet();
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(1, calls.get());
+        assertEquals(0, count("optimistic.lock.conflicts"));
+    }
+
+    @Test
+    void execute_ConflictThenSuccess_RetriesAndRecordsMetrics() throws Throwable {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retryTemplate.execute(OPERATION, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, count("optimistic.lock.conflicts"));
+        assertEquals(2, count("optimistic.lock.retries"));
+        assertEquals(0, count("optimistic.lock.exhausted"));
+    }
+
+    @Test
+    void execute_ConflictOnEveryAttempt_ThrowsOptimisticLockConflictException() {
+        AtomicInteger calls = new AtomicInteger();
+
+        OptimisticLockConflictException ex = assertThrows(
+                OptimisticLockConflictException.class,
+                () -> retryTemplate.execute(OPERATION, () -> {
+                    calls.incrementAndGet();
+                    throw conflict();
+                })
+        );
+
+        assertInstanceOf(ObjectOptimisticLockingFailureException.class, ex.getCause());
+        assertEquals(3, calls.get());
+        assertEquals(3, count("optimistic.lock.conflicts"));
+        assertEquals(2, count("optimistic.lock.retries"));
+        assertEquals(1, count("optimistic.lock.exhausted"));
+    }
+
+    @Test
+    void execute_ExplicitMaxAttempts_OverridesDefault() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(
+                OptimisticLockConflictException.class,
+                () -> retryTemplate.execute(OPERATION, 1, () -> {
+                    calls.incrementAndGet();
+                    throw conflict();
+                })
+        );
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_OtherException_IsNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(
+                ResourceNotFoundException.class,
+                () -> retryTemplate.execute(OPERATION, () -> {
+                    calls.incrementAndGet();
+                    throw new ResourceNotFoundException("Product", "id", 1L);
+                })
+        );
+
+        assertEquals(1, calls.get());
+        assertEquals(0, count("optimistic.lock.conflicts"));
+    }
+}
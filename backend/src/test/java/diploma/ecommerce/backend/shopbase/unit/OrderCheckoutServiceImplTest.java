@@ -0,0 +1,146 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import diploma.ecommerce.backend.shopbase.concurrency.IdempotentRequestRegistry;
+import diploma.ecommerce.backend.shopbase.dto.record.OrderCreationResult;
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+import diploma.ecommerce.backend.shopbase.exception.IdempotencyKeyReuseException;
+import diploma.ecommerce.backend.shopbase.model.Address;
+import diploma.ecommerce.backend.shopbase.model.Order;
+import diploma.ecommerce.backend.shopbase.model.OrderIdempotencyKey;
+import diploma.ecommerce.backend.shopbase.model.OrderItem;
+import diploma.ecommerce.backend.shopbase.model.Product;
+import diploma.ecommerce.backend.shopbase.model.User;
+import diploma.ecommerce.backend.shopbase.service.OrderService;
+import diploma.ecommerce.backend.shopbase.service.impl.OrderCheckoutServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderCheckoutServiceImplTest {
+
+    private static final Long TENANT_ID = 1L;
+    private static final Long ORDER_ID = 20L;
+
+    @Mock
+    private OrderService orderService;
+
+    private OrderCheckoutServiceImpl checkoutService;
+    private Order createdOrder;
+
+    private static Order orderRequest(int quantity) {
+        User customer = new User();
+        customer.setId(5L);
+        Address address = new Address();
+        address.setId(6L);
+        Product product = new Product();
+        product.setId(7L);
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+
+        Order request = new Order();
+        request.setCustomer(customer);
+        request.setAddress(address);
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+
+    @BeforeEach
+    void setUp() {
+        checkoutService = new OrderCheckoutServiceImpl(orderService, new IdempotentRequestRegistry(2000, 100), 24);
+        createdOrder = new Order();
+        createdOrder.setId(ORDER_ID);
+        when(orderService.createOrder(eq(TENANT_ID), any(Order.class), any(OrderIdempotencyKey.class)))
+                .thenReturn(new OrderCreationResult(createdOrder, false));
+        when(orderService.getOrderById(TENANT_ID, ORDER_ID)).thenReturn(createdOrder);
+    }
+
+    @Test
+    @DisplayName("Without Idempotency-Key the order is created directly")
+    void placeOrder_withoutKey_shouldCreateOrder() {
+        Order request = orderRequest(1);
+        when(orderService.createOrder(TENANT_ID, request)).thenReturn(createdOrder);
+
+        OrderCreationResult result = checkoutService.placeOrder(TENANT_ID, request, null);
+
+        assertFalse(result.replayed());
+        verify(orderService, never()).createOrder(eq(TENANT_ID), any(Order.class), any(OrderIdempotencyKey.class));
+    }
+
+    @Test
+    @DisplayName("Blank Idempotency-Key is rejected")
+    void placeOrder_withBlankKey_shouldThrowBadRequest() {
+        assertThrows(BadRequestException.class, () -> checkoutService.placeOrder(TENANT_ID, orderRequest(1), " "));
+    }
+
+    @Test
+    @DisplayName("Completed duplicate is replayed from the cache without creating an order")
+    void placeOrder_completedDuplicate_shouldReplay() {
+        OrderCreationResult first = checkoutService.placeOrder(TENANT_ID, orderRequest(2), "key-1");
+        OrderCreationResult second = checkoutService.placeOrder(TENANT_ID, orderRequest(2), "key-1");
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertSame(createdOrder, second.order());
+        verify(orderService, times(1)).createOrder(eq(TENANT_ID), any(Order.class), any(OrderIdempotencyKey.class));
+    }
+
+    @Test
+    @DisplayName("Same key with a different order is rejected")
+    void placeOrder_keyReusedWithDifferentRequest_shouldThrow() {
+        checkoutService.placeOrder(TENANT_ID, orderRequest(2), "key-1");
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> checkoutService.placeOrder(TENANT_ID, orderRequest(3), "key-1"));
+    }
+
+    @Test
+    @DisplayName("Concurrent duplicate waits for the in-flight request and gets its result")
+    void placeOrder_concurrentDuplicate_shouldWaitForInFlightRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrder(eq(TENANT_ID), any(Order.class), any(OrderIdempotencyKey.class)))
+                .thenAnswer(inv -> {
+                    started.countDown();
+                    assertTrue(release.await(2, TimeUnit.SECONDS));
+                    return new OrderCreationResult(createdOrder, false);
+                });
+
+        CompletableFuture<OrderCreationResult> first = CompletableFuture.supplyAsync(
+                () -> checkoutService.placeOrder(TENANT_ID, orderRequest(2), "key-1"));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        CompletableFuture<OrderCreationResult> duplicate = CompletableFuture.supplyAsync(
+                () -> checkoutService.placeOrder(TENANT_ID, orderRequest(2), "key-1"));
+        release.countDown();
+
+        assertFalse(first.get(2, TimeUnit.SECONDS).replayed());
+        OrderCreationResult replayed = duplicate.get(2, TimeUnit.SECONDS);
+        assertTrue(replayed.replayed());
+        assertEquals(ORDER_ID, replayed.order().getId());
+        verify(orderService, times(1)).createOrder(eq(TENANT_ID), any(Order.class), any(OrderIdempotencyKey.class));
+    }
+}
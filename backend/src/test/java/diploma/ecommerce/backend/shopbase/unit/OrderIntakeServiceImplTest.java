@@ -0,0 +1,137 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import diploma.ecommerce.backend.shopbase.dto.mapper.OrderMapper;
+import diploma.ecommerce.backend.shopbase.dto.record.OrderBatchOutcome;
+import diploma.ecommerce.backend.shopbase.dto.request.OrderCreateRequest;
+import diploma.ecommerce.backend.shopbase.dto.request.OrderItemCreateRequest;
+import diploma.ecommerce.backend.shopbase.event.OrderIntakeSubmittedEvent;
+import diploma.ecommerce.backend.shopbase.model.Order;
+import diploma.ecommerce.backend.shopbase.model.OrderIntake;
+import diploma.ecommerce.backend.shopbase.repository.OrderIntakeRepository;
+import diploma.ecommerce.backend.shopbase.service.OrderService;
+import diploma.ecommerce.backend.shopbase.service.impl.OrderIntakeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderIntakeServiceImplTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Mock
+    private OrderIntakeRepository orderIntakeRepository;
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private OrderMapper orderMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Captor
+    private ArgumentCaptor<List<Order>> batchCaptor;
+    @Captor
+    private ArgumentCaptor<Map<Long, String>> failuresCaptor;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OrderIntakeServiceImpl orderIntakeService;
+
+    private static OrderCreateRequest createRequest() {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setCustomerId(5L);
+        request.setAddressId(6L);
+        request.setOrderItems(List.of(new OrderItemCreateRequest(7L, 2)));
+        return request;
+    }
+
+    private OrderIntake claimedRow(long id, String payload) {
+        LocalDateTime now = LocalDateTime.now();
+        return new OrderIntake(id, TENANT_ID, UUID.randomUUID(), OrderIntake.Status.PROCESSING, payload, null, null,
+                1, now, now);
+    }
+
+    private String payload() throws Exception {
+        return objectMapper.writeValueAsString(createRequest());
+    }
+
+    @BeforeEach
+    void setUp() {
+        orderIntakeService = new OrderIntakeServiceImpl(
+                orderIntakeRepository, orderService, orderMapper, objectMapper, eventPublisher
+        );
+        when(orderMapper.toOrder(any(OrderCreateRequest.class))).thenAnswer(inv -> new Order());
+    }
+
+    @Test
+    @DisplayName("submit stores the request and wakes the workers")
+    void submit_shouldInsertPayloadAndPublishEvent() throws Exception {
+        OrderIntake intake = orderIntakeService.submit(TENANT_ID, createRequest());
+
+        assertEquals(OrderIntake.Status.PENDING, intake.getStatus());
+        ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+        verify(orderIntakeRepository).insert(eq(TENANT_ID), eq(intake.getTicket()), payloadCaptor.capture(),
+                any(LocalDateTime.class));
+        OrderCreateRequest stored = objectMapper.readValue(payloadCaptor.getValue(), OrderCreateRequest.class);
+        assertEquals(createRequest(), stored);
+        verify(eventPublisher).publishEvent(new OrderIntakeSubmittedEvent(TENANT_ID, intake.getTicket()));
+    }
+
+    @Test
+    @DisplayName("processClaimed creates orders in one batch and records every outcome")
+    void processClaimed_shouldMarkCreatedAndRejectedEntries() throws Exception {
+        OrderIntake first = claimedRow(1L, payload());
+        OrderIntake second = claimedRow(2L, payload());
+        OrderIntake lost = claimedRow(3L, payload());
+        Order created = new Order();
+        created.setId(100L);
+        when(orderIntakeRepository.lockOwned(List.of(first, second, lost))).thenReturn(Set.of(1L, 2L));
+        when(orderService.createOrdersBatch(eq(TENANT_ID), anyList())).thenReturn(List.of(
+                OrderBatchOutcome.created(created),
+                OrderBatchOutcome.rejected("Insufficient stock")
+        ));
+
+        orderIntakeService.processClaimed(TENANT_ID, List.of(first, second, lost));
+
+        verify(orderService).createOrdersBatch(eq(TENANT_ID), batchCaptor.capture());
+        assertEquals(2, batchCaptor.getValue().size());
+        verify(orderIntakeRepository).markCompleted(eq(Map.of(1L, 100L)), any(LocalDateTime.class));
+        verify(orderIntakeRepository).markFailed(eq(Map.of(2L, "Insufficient stock")), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("processClaimed fails entries with unreadable payload without calling the order service")
+    void processClaimed_shouldFailMalformedPayload() {
+        OrderIntake broken = claimedRow(1L, "{\"orderItems\": 5");
+        when(orderIntakeRepository.lockOwned(List.of(broken))).thenReturn(Set.of(1L));
+
+        orderIntakeService.processClaimed(TENANT_ID, List.of(broken));
+
+        verify(orderService, never()).createOrdersBatch(any(), anyList());
+        verify(orderIntakeRepository).markFailed(failuresCaptor.capture(), any(LocalDateTime.class));
+        assertTrue(failuresCaptor.getValue().containsKey(1L));
+    }
+}
@@ -3,7 +3,10 @@ package diploma.ecommerce.backend.shopbase.unit;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import diploma.ecommerce.backend.shopbase.analytics.ProductSalesDelta;
+import diploma.ecommerce.backend.shopbase.event.CatalogChangedEvent;
 import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
 import diploma.ecommerce.backend.shopbase.model.Order;
 import diploma.ecommerce.backend.shopbase.model.OrderItem;
@@ -11,8 +14,10 @@ import diploma.ecommerce.backend.shopbase.model.Product;
 import diploma.ecommerce.backend.shopbase.model.Tenant;
 import diploma.ecommerce.backend.shopbase.repository.OrderItemRepository;
 import diploma.ecommerce.backend.shopbase.repository.OrderRepository;
+import diploma.ecommerce.backend.shopbase.repository.OrderTotalRepository;
 import diploma.ecommerce.backend.shopbase.repository.ProductRepository;
 import diploma.ecommerce.backend.shopbase.repository.TenantRepository;
+import diploma.ecommerce.backend.shopbase.service.SalesRollupService;
 import diploma.ecommerce.backend.shopbase.service.impl.OrderItemServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -25,12 +30,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
@@ -50,9 +58,15 @@ class OrderItemServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
     @Mock
+    private OrderTotalRepository orderTotalRepository;
+    @Mock
     private ProductRepository productRepository;
     @Mock
     private TenantRepository tenantRepository;
+    @Mock
+    private SalesRollupService salesRollupService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private OrderItemServiceImpl orderItemService;
     private Tenant tenant;
@@ -184,6 +198,9 @@ class OrderItemServiceImplTest {
             assertEquals(new BigDecimal("10.00"), result.getTotalPrice());
             verify(orderItemRepository).save(captor.capture());
             verify(productRepository).save(any(Product.class)); // Проверяем сохранение продукта
+            verify(salesRollupService).recordItemChange(order, PRODUCT_ID, 1, 1, new BigDecimal("10.00"));
+            verify(orderTotalRepository).addToTotalAmount(order, new BigDecimal("10.00"));
+            verify(orderItemRepository, never()).findByTenantIdAndOrderId(anyLong(), anyLong());
         }
 
         @Test
@@ -255,6 +272,7 @@ class OrderItemServiceImplTest {
             orderItem.setProduct(productWithStock);
 
             when(orderItemRepository.findByTenantIdAndId(TENANT_ID, ORDER_ITEM_ID)).thenReturn(Optional.of(orderItem));
+            when(orderRepository.findByTenantIdAndId(TENANT_ID, ORDER_ID)).thenReturn(Optional.of(order));
             when(productRepository.findByTenantIdAndId(TENANT_ID, PRODUCT_ID)).thenReturn(Optional.of(productWithStock));
             when(orderItemRepository.save(any(OrderItem.class))).thenAnswer(inv -> inv.getArgument(0));
             when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -278,6 +296,9 @@ class OrderItemServiceImplTest {
             OrderItem savedItem = captor.getValue();
             assertEquals(ORDER_ITEM_ID, savedItem.getId());
             assertEquals(newQuantity, savedItem.getQuantity());
+            verify(orderRepository).findByTenantIdAndId(TENANT_ID, ORDER_ID);
+            verify(salesRollupService).recordItemChange(order, PRODUCT_ID, 0, 1, new BigDecimal("10.00"));
+            verify(orderTotalRepository).addToTotalAmount(order, new BigDecimal("10.00"));
         }
 
         @Test
@@ -312,6 +333,7 @@ class OrderItemServiceImplTest {
         @Test
         void deleteOrderItem_ItemFound_DeletesItem() {
             when(orderItemRepository.findByTenantIdAndId(TENANT_ID, ORDER_ITEM_ID)).thenReturn(Optional.of(orderItem));
+            when(orderRepository.findByTenantIdAndId(TENANT_ID, ORDER_ID)).thenReturn(Optional.of(order));
             doNothing().when(orderItemRepository).delete(any(OrderItem.class));
             ArgumentCaptor<OrderItem> captor = ArgumentCaptor.forClass(OrderItem.class);
 
@@ -320,6 +342,10 @@ class OrderItemServiceImplTest {
             verify(orderItemRepository).findByTenantIdAndId(TENANT_ID, ORDER_ITEM_ID);
             verify(orderItemRepository).delete(captor.capture());
             assertEquals(orderItem, captor.getValue());
+            verify(orderRepository).findByTenantIdAndId(TENANT_ID, ORDER_ID);
+            verify(salesRollupService).recordItemChange(order, PRODUCT_ID, -1, -2, new BigDecimal("-20.00"));
+            verify(orderTotalRepository).addToTotalAmount(order, new BigDecimal("-20.00"));
+            verify(eventPublisher).publishEvent(new CatalogChangedEvent(TENANT_ID, List.of(PRODUCT_ID)));
         }
 
         @Test
@@ -333,4 +359,116 @@ class OrderItemServiceImplTest {
             verify(orderItemRepository, never()).delete(any(OrderItem.class));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("updateOrderItems Tests")
+    class UpdateOrderItemsTests {
+
+        private Product otherProduct;
+
+        @BeforeEach
+        void setUpBatch() {
+            otherProduct = new Product();
+            otherProduct.setId(PRODUCT_ID + 1);
+            otherProduct.setTenant(tenant);
+            otherProduct.setPrice(new BigDecimal("5.00"));
+            otherProduct.setStockQuantity(4);
+
+            when(orderRepository.findByTenantIdAndId(TENANT_ID, ORDER_ID)).thenReturn(Optional.of(order));
+            when(orderItemRepository.findByTenantIdAndOrderId(TENANT_ID, ORDER_ID)).thenReturn(List.of(orderItem));
+            when(productRepository.lockAllByTenantIdAndIdIn(anyLong(), anyCollection()))
+                    .thenReturn(List.of(product, otherProduct));
+        }
+
+        private OrderItem batchItem(Long productId, Integer quantity) {
+            OrderItem item = new OrderItem();
+            item.setProduct(new Product());
+            item.getProduct().setId(productId);
+            item.setQuantity(quantity);
+            return item;
+        }
+
+        @Test
+        void updateOrderItems_AddsAndChangesItems_AppliesSingleTotalDelta() {
+            List<OrderItem> result = orderItemService.updateOrderItems(TENANT_ID, ORDER_ID, List.of(
+                    batchItem(PRODUCT_ID, 5),
+                    batchItem(PRODUCT_ID + 1, 2)
+            ), false);
+
+            assertEquals(2, result.size());
+            assertEquals(5, orderItem.getQuantity());
+            assertEquals(new BigDecimal("50.00"), orderItem.getTotalPrice());
+            assertEquals(7, product.getStockQuantity());
+            assertEquals(2, otherProduct.getStockQuantity());
+            OrderItem added = result.get(1);
+            assertEquals(otherProduct, added.getProduct());
+            assertEquals(order, added.getOrder());
+            assertEquals(tenant, added.getTenant());
+            assertEquals(new BigDecimal("10.00"), added.getTotalPrice());
+
+            verify(orderTotalRepository).addToTotalAmount(order, new BigDecimal("40.00"));
+            verify(salesRollupService).recordItemChanges(order, List.of(
+                    ProductSalesDelta.placed(PRODUCT_ID, 0, 3, new BigDecimal("30.00")),
+                    ProductSalesDelta.placed(PRODUCT_ID + 1, 1, 2, new BigDecimal("10.00"))
+            ));
+            verify(productRepository).saveAll(anyCollection());
+            verify(orderItemRepository).saveAll(List.of(added));
+        }
+
+        @Test
+        void updateOrderItems_ZeroQuantity_RemovesItemAndRestoresStock() {
+            List<OrderItem> result = orderItemService.updateOrderItems(TENANT_ID, ORDER_ID,
+                                                                       List.of(batchItem(PRODUCT_ID, 0)), false);
+
+            assertTrue(result.isEmpty());
+            assertEquals(12, product.getStockQuantity());
+            verify(orderItemRepository).deleteAll(Set.of(orderItem));
+            verify(orderTotalRepository).addToTotalAmount(order, new BigDecimal("-20.00"));
+            verify(salesRollupService).recordItemChanges(order, List.of(
+                    ProductSalesDelta.placed(PRODUCT_ID, -1, -2, new BigDecimal("-20.00"))
+            ));
+        }
+
+        @Test
+        void updateOrderItems_Replace_RemovesUnlistedItems() {
+            List<OrderItem> result = orderItemService.updateOrderItems(TENANT_ID, ORDER_ID,
+                                                                       List.of(batchItem(PRODUCT_ID + 1, 1)), true);
+
+            assertEquals(1, result.size());
+            assertEquals(otherProduct, result.get(0).getProduct());
+            assertEquals(12, product.getStockQuantity());
+            verify(orderTotalRepository).addToTotalAmount(order, new BigDecimal("-15.00"));
+        }
+
+        @Test
+        void updateOrderItems_DuplicateProduct_ThrowsException() {
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> orderItemService.updateOrderItems(TENANT_ID, ORDER_ID, List.of(
+                            batchItem(PRODUCT_ID, 1),
+                            batchItem(PRODUCT_ID, 2)
+                    ), false)
+            );
+            verify(orderTotalRepository, never()).addToTotalAmount(any(Order.class), any(BigDecimal.class));
+        }
+
+        @Test
+        void updateOrderItems_NotEnoughStock_ThrowsException() {
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> orderItemService.updateOrderItems(TENANT_ID, ORDER_ID,
+                                                            List.of(batchItem(PRODUCT_ID + 1, 5)), false)
+            );
+            verify(orderTotalRepository, never()).addToTotalAmount(any(Order.class), any(BigDecimal.class));
+        }
+
+        @Test
+        void updateOrderItems_UnknownProduct_ThrowsException() {
+            assertThrows(
+                    ResourceNotFoundException.class,
+                    () -> orderItemService.updateOrderItems(TENANT_ID, ORDER_ID,
+                                                            List.of(batchItem(PRODUCT_ID + 5, 1)), false)
+            );
+        }
+    }
+}
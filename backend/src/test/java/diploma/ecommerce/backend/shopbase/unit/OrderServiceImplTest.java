@@ -1,10 +1,15 @@
 package diploma.ecommerce.backend.shopbase.unit;
 
+import diploma.ecommerce.backend.shopbase.dto.record.OrderBatchOutcome;
+import diploma.ecommerce.backend.shopbase.dto.record.OrderCreationResult;
+import diploma.ecommerce.backend.shopbase.event.OrderChangedEvent;
+import diploma.ecommerce.backend.shopbase.exception.IdempotencyKeyReuseException;
 import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
 import diploma.ecommerce.backend.shopbase.exception.InsufficientStockException;
 import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
 import diploma.ecommerce.backend.shopbase.model.*;
 import diploma.ecommerce.backend.shopbase.repository.*;
+import diploma.ecommerce.backend.shopbase.service.SalesRollupService;
 import diploma.ecommerce.backend.shopbase.service.impl.OrderServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +23,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -52,6 +58,8 @@ class OrderServiceImplTest {
     ArgumentCaptor<Product> productCaptor;
     @Captor
     ArgumentCaptor<List<Product>> productListCaptor; // Добавляем новый captor для списка
+    @Captor
+    ArgumentCaptor<OrderStatusHistory> historyCaptor;
     @Mock
     private OrderRepository orderRepository;
     @Mock
@@ -66,6 +74,14 @@ class OrderServiceImplTest {
     private TenantRepository tenantRepository;
     @Mock
     private OrderItemRepository orderItemRepository;
+    @Mock
+    private OrderStatusHistoryRepository orderStatusHistoryRepository;
+    @Mock
+    private SalesRollupService salesRollupService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
     @InjectMocks
     private OrderServiceImpl orderService;
     private Tenant tenant;
@@ -277,6 +293,19 @@ class OrderServiceImplTest {
             assertEquals(2, savedItem2.getQuantity());
             assertEquals(product2.getPrice(), savedItem2.getUnitPrice());
 
+            verify(orderStatusHistoryRepository).save(historyCaptor.capture());
+            OrderStatusHistory history = historyCaptor.getValue();
+            assertEquals(statusCreated, history.getStatus());
+            assertNull(history.getPreviousStatus());
+            assertEquals(result, history.getOrder());
+            verify(salesRollupService).recordOrderPlaced(result);
+            ArgumentCaptor<OrderChangedEvent> eventCaptor = ArgumentCaptor.forClass(OrderChangedEvent.class);
+            verify(eventPublisher).publishEvent(eventCaptor.capture());
+            assertEquals(OrderChangedEvent.Type.CREATED, eventCaptor.getValue().type());
+            assertEquals(TENANT_ID, eventCaptor.getValue().tenantId());
+            assertEquals("Created", eventCaptor.getValue().status());
+            assertNull(eventCaptor.getValue().previousStatus());
+
             assertTrue(result.getId() > ORDER_ID);
         }
 
@@ -317,6 +346,123 @@ class OrderServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("createOrder with Idempotency-Key Tests")
+    class IdempotentCreateOrderTests {
+
+        private OrderIdempotencyKey reservation(String requestHash) {
+            LocalDateTime now = LocalDateTime.now();
+            return new OrderIdempotencyKey(TENANT_ID, "key-1", requestHash, null, now, now.plusHours(24));
+        }
+
+        @Test
+        void createOrder_WithUsedKeyAndSameRequest_ReplaysExistingOrder() {
+            OrderIdempotencyKey stored = reservation("hash");
+            stored.setOrderId(ORDER_ID);
+            when(orderIdempotencyKeyRepository.reserve(any(OrderIdempotencyKey.class))).thenReturn(false);
+            when(orderIdempotencyKeyRepository.find(TENANT_ID, "key-1")).thenReturn(Optional.of(stored));
+            when(orderRepository.findByTenantIdAndId(TENANT_ID, ORDER_ID)).thenReturn(Optional.of(order));
+
+            OrderCreationResult result = orderService.createOrder(TENANT_ID, new Order(), reservation("hash"));
+
+            assertTrue(result.replayed());
+            assertSame(order, result.order());
+            verify(productRepository, never()).save(any(Product.class));
+            verify(orderRepository, never()).save(any(Order.class));
+            verify(orderIdempotencyKeyRepository, never()).attachOrder(anyLong(), anyString(), anyLong());
+            verifyNoInteractions(salesRollupService, eventPublisher);
+        }
+
+        @Test
+        void createOrder_WithUsedKeyAndDifferentRequest_ThrowsIdempotencyKeyReuseException() {
+            OrderIdempotencyKey stored = reservation("other-hash");
+            stored.setOrderId(ORDER_ID);
+            when(orderIdempotencyKeyRepository.reserve(any(OrderIdempotencyKey.class))).thenReturn(false);
+            when(orderIdempotencyKeyRepository.find(TENANT_ID, "key-1")).thenReturn(Optional.of(stored));
+
+            assertThrows(
+                    IdempotencyKeyReuseException.class,
+                    () -> orderService.createOrder(TENANT_ID, new Order(), reservation("hash"))
+            );
+            verify(orderRepository, never()).save(any(Order.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("createOrdersBatch Tests")
+    class CreateOrdersBatchTests {
+
+        private Order request(Long customerId, Long productId, int quantity) {
+            Order request = new Order();
+            request.setCustomer(new User());
+            request.getCustomer().setId(customerId);
+            request.setAddress(new Address());
+            request.getAddress().setId(ADDRESS_ID);
+            OrderItem item = new OrderItem();
+            item.setProduct(new Product());
+            item.getProduct().setId(productId);
+            item.setQuantity(quantity);
+            request.setOrderItems(List.of(item));
+            return request;
+        }
+
+        @BeforeEach
+        void setupBatchMocks() {
+            when(tenantRepository.findById(TENANT_ID)).thenReturn(Optional.of(tenant));
+            when(orderStatusRepository.findByStatusName("Created")).thenReturn(Optional.of(statusCreated));
+            when(userRepository.findAllByTenantIdAndIdIn(eq(TENANT_ID), anyCollection())).thenReturn(List.of(customer));
+            when(addressRepository.findAllByTenantIdAndIdIn(eq(TENANT_ID), anyCollection()))
+                    .thenReturn(List.of(address));
+            when(productRepository.lockAllByTenantIdAndIdIn(eq(TENANT_ID), anyCollection()))
+                    .thenReturn(List.of(product1, product2));
+            when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        }
+
+        @Test
+        void createOrdersBatch_AllocatesStockInRequestOrder() {
+            List<OrderBatchOutcome> outcomes = orderService.createOrdersBatch(TENANT_ID, List.of(
+                    request(CUSTOMER_ID, PRODUCT2_ID, 3),
+                    request(CUSTOMER_ID, PRODUCT2_ID, 3),
+                    request(CUSTOMER_ID, PRODUCT2_ID, 2)
+            ));
+
+            assertEquals(3, outcomes.size());
+            assertTrue(outcomes.get(0).isCreated());
+            assertFalse(outcomes.get(1).isCreated());
+            assertTrue(outcomes.get(1).failureReason().contains("Insufficient stock"));
+            assertTrue(outcomes.get(2).isCreated());
+            assertEquals(0, product2.getStockQuantity());
+            assertEquals(0, new BigDecimal("30.00").compareTo(outcomes.get(0).order().getTotalAmount()));
+
+            verify(productRepository, times(1)).lockAllByTenantIdAndIdIn(eq(TENANT_ID), anyCollection());
+            verify(productRepository, never()).findByTenantIdAndId(anyLong(), anyLong());
+            verify(productRepository).saveAll(anyCollection());
+            verify(orderRepository, times(2)).save(any(Order.class));
+            verify(salesRollupService, times(2)).recordOrderPlaced(any(Order.class));
+            verify(eventPublisher, times(2)).publishEvent(any(OrderChangedEvent.class));
+        }
+
+        @Test
+        void createOrdersBatch_RejectsInvalidOrdersIndividually() {
+            Order withoutItems = request(CUSTOMER_ID, PRODUCT1_ID, 1);
+            withoutItems.setOrderItems(List.of());
+
+            List<OrderBatchOutcome> outcomes = orderService.createOrdersBatch(TENANT_ID, List.of(
+                    request(999L, PRODUCT1_ID, 1),
+                    withoutItems,
+                    request(CUSTOMER_ID, 998L, 1),
+                    request(CUSTOMER_ID, PRODUCT1_ID, 4)
+            ));
+
+            assertTrue(outcomes.get(0).failureReason().startsWith("Customer not found"));
+            assertEquals("Order must contain at least one item", outcomes.get(1).failureReason());
+            assertTrue(outcomes.get(2).failureReason().startsWith("Product not found"));
+            assertTrue(outcomes.get(3).isCreated());
+            assertEquals(6, product1.getStockQuantity());
+            verify(orderRepository, times(1)).save(any(Order.class));
+        }
+    }
+
     @Nested
     @DisplayName("updateOrderStatus Tests")
     class UpdateOrderStatusTests {
@@ -332,14 +478,28 @@ class OrderServiceImplTest {
             assertNotNull(result);
             assertEquals(ORDER_ID, result.getId());
             assertEquals(statusShipped, result.getStatus());
-            assertNotNull(result.getComment());
-            assertTrue(result.getComment().contains(comment));
+            assertNull(result.getComment());
+
+            verify(orderStatusHistoryRepository).save(historyCaptor.capture());
+            OrderStatusHistory history = historyCaptor.getValue();
+            assertEquals(tenant, history.getTenant());
+            assertEquals(order, history.getOrder());
+            assertEquals(statusCreated, history.getPreviousStatus());
+            assertEquals(statusShipped, history.getStatus());
+            assertEquals(comment, history.getComment());
 
             verify(orderRepository).findByTenantIdAndId(TENANT_ID, ORDER_ID);
             verify(orderStatusRepository).findById(STATUS_SHIPPED_ID);
             verify(orderRepository).save(orderCaptor.capture());
             Order savedOrder = orderCaptor.getValue();
             assertEquals(statusShipped, savedOrder.getStatus());
+            verify(salesRollupService, never()).recordOrderCanceled(any(Order.class));
+            ArgumentCaptor<OrderChangedEvent> eventCaptor = ArgumentCaptor.forClass(OrderChangedEvent.class);
+            verify(eventPublisher).publishEvent(eventCaptor.capture());
+            assertEquals(OrderChangedEvent.Type.STATUS_CHANGED, eventCaptor.getValue().type());
+            assertEquals(ORDER_ID, eventCaptor.getValue().orderId());
+            assertEquals(statusShipped.getStatusName(), eventCaptor.getValue().status());
+            assertEquals(statusCreated.getStatusName(), eventCaptor.getValue().previousStatus());
         }
 
         @Test
@@ -365,6 +525,7 @@ class OrderServiceImplTest {
 
             assertEquals(initialStockP1 + quantityP1, savedP1.getStockQuantity());
             assertEquals(initialStockP2 + quantityP2, savedP2.getStockQuantity());
+            verify(salesRollupService).recordOrderCanceled(order);
         }
 
         @Test
@@ -501,8 +662,11 @@ class OrderServiceImplTest {
 
             assertNotNull(result);
             assertEquals(statusPaid, result.getStatus());
-            assertTrue(result.getComment().contains(paymentReference));
-            assertTrue(result.getComment().contains("Payment processed successfully"));
+            verify(orderStatusHistoryRepository).save(historyCaptor.capture());
+            OrderStatusHistory history = historyCaptor.getValue();
+            assertEquals(statusPaid, history.getStatus());
+            assertTrue(history.getComment().contains(paymentReference));
+            assertTrue(history.getComment().contains("Payment processed successfully"));
 
             verify(orderStatusRepository).findByStatusName("Paid");
         }
@@ -684,7 +848,7 @@ class OrderServiceImplTest {
         }
 
         @Test
-        void updateOrderStatus_WithExistingComment_AppendsComment() {
+        void updateOrderStatus_WithExistingComment_KeepsOrderCommentAndRecordsHistory() {
             order.setComment("Previous comment");
             String newComment = "Additional comment";
 
@@ -695,9 +859,22 @@ class OrderServiceImplTest {
             Order result = orderService.updateOrderStatus(TENANT_ID, ORDER_ID, STATUS_SHIPPED_ID, newComment);
 
             assertNotNull(result);
-            assertTrue(result.getComment().contains("Previous comment"));
-            assertTrue(result.getComment().contains(newComment));
-            assertTrue(result.getComment().contains("Status changed to Shipped"));
+            assertEquals("Previous comment", result.getComment());
+            verify(orderStatusHistoryRepository).save(historyCaptor.capture());
+            assertEquals(newComment, historyCaptor.getValue().getComment());
+            assertEquals(statusShipped, historyCaptor.getValue().getStatus());
+        }
+
+        @Test
+        void updateOrderStatus_WithBlankComment_RecordsHistoryWithoutComment() {
+            when(orderRepository.findByTenantIdAndId(TENANT_ID, ORDER_ID)).thenReturn(Optional.of(order));
+            when(orderStatusRepository.findById(STATUS_SHIPPED_ID)).thenReturn(Optional.of(statusShipped));
+            when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            orderService.updateOrderStatus(TENANT_ID, ORDER_ID, STATUS_SHIPPED_ID, "   ");
+
+            verify(orderStatusHistoryRepository).save(historyCaptor.capture());
+            assertNull(historyCaptor.getValue().getComment());
         }
 
         @Test
@@ -794,4 +971,39 @@ class OrderServiceImplTest {
             assertEquals(PRODUCT2_ID, savedProducts.get(0).getId());
         }
     }
+
+    @Nested
+    @DisplayName("getOrderStatusHistory Tests")
+    class GetOrderStatusHistoryTests {
+
+        @Test
+        void getOrderStatusHistory_OrderExists_ReturnsPage() {
+            Pageable pageable = PageRequest.of(0, 20);
+            OrderStatusHistory history = new OrderStatusHistory();
+            history.setId(1L);
+            history.setOrder(order);
+            history.setStatus(statusCreated);
+            Page<OrderStatusHistory> page = new PageImpl<>(List.of(history), pageable, 1);
+
+            when(orderRepository.existsByTenantIdAndId(TENANT_ID, ORDER_ID)).thenReturn(true);
+            when(orderStatusHistoryRepository.findByTenantIdAndOrderId(TENANT_ID, ORDER_ID, pageable)).thenReturn(page);
+
+            Page<OrderStatusHistory> result = orderService.getOrderStatusHistory(TENANT_ID, ORDER_ID, pageable);
+
+            assertEquals(1, result.getTotalElements());
+            assertEquals(statusCreated, result.getContent().getFirst().getStatus());
+        }
+
+        @Test
+        void getOrderStatusHistory_OrderNotFound_ThrowsException() {
+            Pageable pageable = PageRequest.of(0, 20);
+            when(orderRepository.existsByTenantIdAndId(TENANT_ID, ORDER_ID)).thenReturn(false);
+
+            assertThrows(
+                    ResourceNotFoundException.class,
+                    () -> orderService.getOrderStatusHistory(TENANT_ID, ORDER_ID, pageable)
+            );
+            verify(orderStatusHistoryRepository, never()).findByTenantIdAndOrderId(any(), any(), any());
+        }
+    }
 }
\ No newline at end of file
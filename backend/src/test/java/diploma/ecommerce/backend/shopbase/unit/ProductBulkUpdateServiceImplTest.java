@@ -0,0 +1,152 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.dto.record.ProductStockPriceChange;
+import diploma.ecommerce.backend.shopbase.dto.record.ProductStockPriceChangeResult;
+import diploma.ecommerce.backend.shopbase.dto.request.ProductBulkUpdateRequest;
+import diploma.ecommerce.backend.shopbase.dto.response.ProductBulkUpdateResponse;
+import diploma.ecommerce.backend.shopbase.dto.response.ProductBulkUpdateResponse.Status;
+import diploma.ecommerce.backend.shopbase.event.ProductsBulkChangedEvent;
+import diploma.ecommerce.backend.shopbase.repository.ProductBulkRepository;
+import diploma.ecommerce.backend.shopbase.service.impl.ProductBulkUpdateServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ProductBulkUpdateServiceImpl Tests")
+class ProductBulkUpdateServiceImplTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Mock
+    private ProductBulkRepository productBulkRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ProductBulkUpdateServiceImpl bulkUpdateService;
+
+    private static ProductBulkUpdateRequest.Item item(Long productId, String name, Integer stock, String price) {
+        ProductBulkUpdateRequest.Item item = new ProductBulkUpdateRequest.Item();
+        item.setProductId(productId);
+        item.setName(name);
+        item.setStockQuantity(stock);
+        item.setPrice(price != null ? new BigDecimal(price) : null);
+        return item;
+    }
+
+    private static ProductStockPriceChangeResult applied(int index, long productId, int stock, String price) {
+        return new ProductStockPriceChangeResult(index, productId, true, stock, new BigDecimal(price), 2L);
+    }
+
+    @Test
+    void updateStockAndPrice_MixedItems_ReturnsOutcomePerItemAndPublishesOneEvent() {
+        when(productBulkRepository.updateStockAndPrice(eq(TENANT_ID), anyList())).thenReturn(List.of(
+                applied(0, 10L, 5, "10.00"),
+                applied(1, 20L, 3, "45.00")
+        ));
+
+        ProductBulkUpdateResponse response = bulkUpdateService.updateStockAndPrice(TENANT_ID, List.of(
+                item(10L, null, 5, null),
+                item(null, " Chair ", null, "45.00"),
+                item(null, null, 1, null),
+                item(30L, null, null, null),
+                item(10L, null, 7, null),
+                item(null, "Missing", 1, null)
+        ));
+
+        assertEquals(2, response.getUpdated());
+        assertEquals(4, response.getFailed());
+        List<Status> statuses = response.getItems().stream().map(ProductBulkUpdateResponse.ItemResult::getStatus)
+                .toList();
+        assertEquals(
+                List.of(Status.UPDATED, Status.UPDATED, Status.INVALID, Status.INVALID, Status.DUPLICATE,
+                        Status.NOT_FOUND),
+                statuses
+        );
+        assertEquals(20L, response.getItems().get(1).getProductId());
+        assertEquals(5, response.getItems().get(0).getStockQuantity());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProductStockPriceChange>> changes = ArgumentCaptor.forClass(List.class);
+        verify(productBulkRepository).updateStockAndPrice(eq(TENANT_ID), changes.capture());
+        assertEquals(3, changes.getValue().size());
+        assertEquals("Chair", changes.getValue().get(1).name());
+
+        verify(eventPublisher, times(1)).publishEvent(new ProductsBulkChangedEvent(TENANT_ID, List.of(10L, 20L)));
+    }
+
+    @Test
+    void updateStockAndPrice_ProductRepeatedByIdAndName_ReportsDuplicate() {
+        when(productBulkRepository.updateStockAndPrice(eq(TENANT_ID), anyList())).thenReturn(List.of(
+                applied(0, 10L, 5, "10.00"),
+                new ProductStockPriceChangeResult(1, 10L, false, null, null, null)
+        ));
+
+        ProductBulkUpdateResponse response = bulkUpdateService.updateStockAndPrice(TENANT_ID, List.of(
+                item(10L, null, 5, null),
+                item(null, "Lamp", 9, null)
+        ));
+
+        assertEquals(1, response.getUpdated());
+        assertEquals(Status.DUPLICATE, response.getItems().get(1).getStatus());
+        assertEquals(10L, response.getItems().get(1).getProductId());
+    }
+
+    @Test
+    void updateStockAndPrice_LargeBatch_IsSplitIntoChunks() {
+        List<ProductBulkUpdateRequest.Item> items = new ArrayList<>();
+        for (long id = 1; id <= 2500; id++) {
+            items.add(item(id, null, 1, null));
+        }
+        when(productBulkRepository.updateStockAndPrice(eq(TENANT_ID), anyList())).thenAnswer(invocation -> {
+            List<ProductStockPriceChange> chunk = invocation.getArgument(1);
+            List<ProductStockPriceChangeResult> results = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(applied(i, chunk.get(i).productId(), 1, "1.00"));
+            }
+            return results;
+        });
+
+        ProductBulkUpdateResponse response = bulkUpdateService.updateStockAndPrice(TENANT_ID, items);
+
+        assertEquals(2500, response.getUpdated());
+        assertEquals(2500L, response.getItems().get(2499).getProductId());
+        verify(productBulkRepository, times(3)).updateStockAndPrice(eq(TENANT_ID), anyList());
+        verify(eventPublisher, times(1)).publishEvent(any(ProductsBulkChangedEvent.class));
+    }
+
+    @Test
+    void updateStockAndPrice_NothingApplied_DoesNotPublishEvent() {
+        when(productBulkRepository.updateStockAndPrice(eq(TENANT_ID), anyList())).thenReturn(List.of());
+
+        ProductBulkUpdateResponse response = bulkUpdateService.updateStockAndPrice(TENANT_ID, List.of(
+                item(99L, null, 1, null)
+        ));
+
+        assertEquals(0, response.getUpdated());
+        assertEquals(Status.NOT_FOUND, response.getItems().get(0).getStatus());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
@@ -0,0 +1,210 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import diploma.ecommerce.backend.shopbase.event.CatalogChangedEvent;
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
+import diploma.ecommerce.backend.shopbase.importer.ProductImportJob;
+import diploma.ecommerce.backend.shopbase.importer.ProductImportRow;
+import diploma.ecommerce.backend.shopbase.repository.ProductBulkRepository;
+import diploma.ecommerce.backend.shopbase.service.impl.ProductImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ProductImportServiceImpl Tests")
+class ProductImportServiceImplTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Mock
+    private ProductBulkRepository productBulkRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProductImportServiceImpl importService;
+    private final List<List<ProductImportRow>> batches = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        importService = new ProductImportServiceImpl(
+                productBulkRepository, transactionTemplate, eventPublisher, new SyncTaskExecutor(), 2, 1, 60
+        );
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        doAnswer(inv -> {
+            batches.add(List.copyOf(inv.getArgument(1)));
+            return null;
+        }).when(productBulkRepository).upsertByName(eq(TENANT_ID), anyList());
+    }
+
+    private ProductImportJob importCsv(String csv) {
+        return importService.startImport(
+                TENANT_ID,
+                "catalog.csv",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    @Test
+    void startImport_ValidCsv_UpsertsRowsInBatches() {
+        ProductImportJob job = importCsv("""
+                name,price,stock_quantity,category,description
+                Laptop,1200.00,10,Electronics,"Fast, light"
+                Mouse,25.5,50,Accessories,
+                Keyboard,150,20,Accessories,"Mechanical ""RGB""\"
+                """);
+
+        assertEquals(ProductImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(3, job.getProcessedRows());
+        assertEquals(3, job.getImportedRows());
+        assertEquals(0, job.getFailedRows());
+        assertEquals(2, batches.size());
+        ProductImportRow laptop = batches.get(0).get(0);
+        assertEquals("Laptop", laptop.name());
+        assertEquals(new BigDecimal("1200.00"), laptop.price());
+        assertEquals(10, laptop.stockQuantity());
+        assertEquals("Fast, light", laptop.description());
+        assertEquals("Mechanical \"RGB\"", batches.get(1).get(0).description());
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(TENANT_ID, List.of()));
+    }
+
+    @Test
+    void startImport_SemicolonDelimiterAndMissingColumns_ParsesRows() {
+        ProductImportJob job = importCsv("name;price\r\nЧайник;1999,90\r\n");
+
+        assertEquals(ProductImportJob.Status.COMPLETED, job.getStatus());
+        ProductImportRow row = batches.get(0).get(0);
+        assertEquals("Чайник", row.name());
+        assertEquals(new BigDecimal("1999.90"), row.price());
+        assertNull(row.stockQuantity());
+        assertNull(row.active());
+    }
+
+    @Test
+    void startImport_InvalidRows_ReportsErrorsPerLine() {
+        ProductImportJob job = importCsv("""
+                name,price,stock_quantity
+                ,10,1
+                Lamp,abc,1
+                Chair,10.999,1
+                Table,99.99,-5
+                Sofa,500,3
+                """);
+
+        assertEquals(ProductImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(5, job.getProcessedRows());
+        assertEquals(1, job.getImportedRows());
+        assertEquals(4, job.getFailedRows());
+        assertEquals(List.of(2L, 3L, 4L, 5L), job.getErrors().stream().map(e -> e.line()).toList());
+    }
+
+    @Test
+    void startImport_DuplicateNamesInBatch_KeepsLastRow() {
+        importCsv("""
+                name,price
+                Lamp,10
+                Lamp,12
+                """);
+
+        assertEquals(1, batches.size());
+        assertEquals(1, batches.get(0).size());
+        assertEquals(new BigDecimal("12"), batches.get(0).get(0).price());
+    }
+
+    @Test
+    void startImport_MissingRequiredColumns_FailsJob() {
+        ProductImportJob job = importCsv("title,cost\nLamp,10\n");
+
+        assertEquals(ProductImportJob.Status.FAILED, job.getStatus());
+        verify(productBulkRepository, never()).upsertByName(any(), anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void startImport_DatabaseErrorInBatch_MarksBatchRowsFailedAndContinues() {
+        doThrow(new DataIntegrityViolationException("constraint"))
+                .doAnswer(inv -> null)
+                .when(productBulkRepository).upsertByName(eq(TENANT_ID), anyList());
+
+        ProductImportJob job = importCsv("""
+                name,price
+                A,1
+                B,2
+                C,3
+                """);
+
+        assertEquals(ProductImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(2, job.getFailedRows());
+        assertEquals(1, job.getImportedRows());
+        verify(productBulkRepository, times(2)).upsertByName(eq(TENANT_ID), anyList());
+    }
+
+    @Test
+    void startImport_FileTooLarge_ThrowsBadRequest() {
+        String header = "name,price\n";
+        String body = "Product,1\n".repeat(120_000);
+
+        assertThrows(BadRequestException.class, () -> importCsv(header + body));
+        verify(productBulkRepository, never()).upsertByName(any(), anyList());
+        assertEquals(ProductImportJob.Status.COMPLETED, importCsv("name,price\nLamp,10\n").getStatus());
+    }
+
+    @Test
+    void startImport_ImportInProgress_ThrowsBadRequest() {
+        List<Runnable> queued = new ArrayList<>();
+        importService = new ProductImportServiceImpl(
+                productBulkRepository, transactionTemplate, eventPublisher, queued::add, 2, 1, 60
+        );
+        importCsv("name,price\nLamp,10\n");
+
+        assertThrows(BadRequestException.class, () -> importCsv("name,price\nChair,20\n"));
+
+        queued.get(0).run();
+        assertEquals(ProductImportJob.Status.QUEUED, importCsv("name,price\nChair,20\n").getStatus());
+        assertEquals(2, queued.size());
+    }
+
+    @Test
+    void getJob_OtherTenant_ThrowsResourceNotFound() {
+        ProductImportJob job = importCsv("name,price\nLamp,10\n");
+
+        assertEquals(job, importService.getJob(TENANT_ID, job.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> importService.getJob(2L, job.getId()));
+    }
+}
@@ -4,8 +4,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import diploma.ecommerce.backend.shopbase.event.ProductPhotosChangedEvent;
 import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
 import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
+import diploma.ecommerce.backend.shopbase.image.ImageVariantProcessor;
+import diploma.ecommerce.backend.shopbase.image.ImageVariantUrls;
 import diploma.ecommerce.backend.shopbase.model.Product;
 import diploma.ecommerce.backend.shopbase.model.ProductPhoto;
 import diploma.ecommerce.backend.shopbase.model.Tenant;
@@ -25,14 +28,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -56,6 +62,10 @@ class ProductPhotoServiceImplTest {
     private ProductRepository productRepository;
     @Mock
     private TenantRepository tenantRepository;
+    @Mock
+    private ImageVariantProcessor imageVariantProcessor;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private ProductPhotoServiceImpl productPhotoService;
     private Tenant tenant;
@@ -207,6 +217,29 @@ class ProductPhotoServiceImplTest {
             verify(productPhotoRepository).save(photoCaptor.capture());
             assertTrue(photoCaptor.getValue().isMain());
         }
+
+        @Test
+        void addPhoto_VariantsReady_RecordsVariants() {
+            when(imageVariantProcessor.findVariants("/new_img.jpg")).thenReturn(Optional.of(
+                    new ImageVariantUrls("/new_img-thumb.jpg", "/new_img-card.jpg", "/new_img-full.jpg")));
+
+            ProductPhoto result = productPhotoService.addPhoto(TENANT_ID, PRODUCT_ID, photoDetails);
+
+            assertEquals("/new_img-thumb.jpg", result.getThumbnailPath());
+            assertEquals("/new_img-card.jpg", result.getCardPath());
+            assertEquals("/new_img-full.jpg", result.getFullPath());
+            verify(imageVariantProcessor, never()).submit(anyLong(), anyString());
+        }
+
+        @Test
+        void addPhoto_VariantsMissing_SubmitsVariantGeneration() {
+            when(imageVariantProcessor.findVariants("/new_img.jpg")).thenReturn(Optional.empty());
+
+            ProductPhoto result = productPhotoService.addPhoto(TENANT_ID, PRODUCT_ID, photoDetails);
+
+            assertNull(result.getCardPath());
+            verify(imageVariantProcessor).submit(TENANT_ID, "/new_img.jpg");
+        }
     }
 
     @Nested
@@ -311,6 +344,7 @@ class ProductPhotoServiceImplTest {
             verify(productPhotoRepository, never()).save(any(ProductPhoto.class));
             verify(productPhotoRepository).delete(photoCaptor.capture());
             assertEquals(PHOTO2_ID, photoCaptor.getValue().getId());
+            verify(eventPublisher).publishEvent(new ProductPhotosChangedEvent(TENANT_ID, List.of(PRODUCT_ID)));
         }
 
 
@@ -405,6 +439,7 @@ class ProductPhotoServiceImplTest {
             verify(productRepository, never()).existsByTenantIdAndId(anyLong(), anyLong());
             verify(productPhotoRepository, never()).findByTenantIdAndProductIdAndMainTrue(anyLong(), anyLong());
             verify(productPhotoRepository, never()).save(any(ProductPhoto.class));
+            verify(eventPublisher, never()).publishEvent(any());
         }
 
         @Test
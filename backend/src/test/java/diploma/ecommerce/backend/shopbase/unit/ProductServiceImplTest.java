@@ -6,7 +6,10 @@ import java.util.List;
 import java.util.Optional;
 
 import diploma.ecommerce.backend.shopbase.dto.record.ProductSearchCriteria;
+import diploma.ecommerce.backend.shopbase.event.CatalogChangedEvent;
+import diploma.ecommerce.backend.shopbase.event.ProductChangedEvent;
 import diploma.ecommerce.backend.shopbase.exception.DataIntegrityViolationException;
+import diploma.ecommerce.backend.shopbase.exception.OptimisticLockConflictException;
 import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
 import diploma.ecommerce.backend.shopbase.model.Order;
 import diploma.ecommerce.backend.shopbase.model.OrderItem;
@@ -28,6 +31,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -63,6 +67,8 @@ class ProductServiceImplTest {
     private TenantRepository tenantRepository;
     @Mock
     private OrderItemRepository orderItemRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private ProductServiceImpl productService;
     private Tenant tenant;
@@ -183,6 +189,7 @@ class ProductServiceImplTest {
             assertEquals(productDetails.getName(), result.getName());
             verify(productRepository).save(productCaptor.capture());
             assertEquals(tenant, productCaptor.getValue().getTenant());
+            verify(eventPublisher).publishEvent(new ProductChangedEvent(TENANT_ID, PRODUCT_ID + 1));
         }
 
         @Test
@@ -193,6 +200,7 @@ class ProductServiceImplTest {
                     () -> productService.createProduct(TENANT_ID, productDetails)
             );
             verify(productRepository, never()).save(any(Product.class));
+            verify(eventPublisher, never()).publishEvent(any());
         }
     }
 
@@ -219,6 +227,7 @@ class ProductServiceImplTest {
             verify(productRepository).save(productCaptor.capture());
             assertEquals(PRODUCT_ID, productCaptor.getValue().getId());
             assertEquals(productDetails.getName(), productCaptor.getValue().getName());
+            verify(eventPublisher).publishEvent(new ProductChangedEvent(TENANT_ID, PRODUCT_ID));
         }
 
         @Test
@@ -245,6 +254,33 @@ class ProductServiceImplTest {
             );
             verify(productRepository, never()).save(any(Product.class));
         }
+
+        @Test
+        void updateProduct_MatchingVersion_ReturnsUpdatedProduct() {
+            product.setVersion(3L);
+            productDetails.setVersion(3L);
+            when(productRepository.findByTenantIdAndId(TENANT_ID, PRODUCT_ID)).thenReturn(Optional.of(product));
+            when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            Product result = productService.updateProduct(TENANT_ID, PRODUCT_ID, productDetails);
+
+            assertEquals(productDetails.getName(), result.getName());
+            verify(productRepository).save(product);
+        }
+
+        @Test
+        void updateProduct_StaleVersion_ThrowsOptimisticLockConflictException() {
+            product.setVersion(4L);
+            productDetails.setVersion(3L);
+            when(productRepository.findByTenantIdAndId(TENANT_ID, PRODUCT_ID)).thenReturn(Optional.of(product));
+
+            assertThrows(
+                    OptimisticLockConflictException.class,
+                    () -> productService.updateProduct(TENANT_ID, PRODUCT_ID, productDetails)
+            );
+            verify(productRepository, never()).save(any(Product.class));
+            verify(eventPublisher, never()).publishEvent(any());
+        }
     }
 
     @Nested
@@ -264,6 +300,7 @@ class ProductServiceImplTest {
             verify(productRepository).existsByTenantIdAndId(TENANT_ID, PRODUCT_ID);
             verify(orderItemRepository).findByTenantIdAndProductId(TENANT_ID, PRODUCT_ID);
             verify(productRepository).deleteByTenantIdAndId(TENANT_ID, PRODUCT_ID);
+            verify(eventPublisher).publishEvent(new CatalogChangedEvent(TENANT_ID, List.of(PRODUCT_ID)));
         }
 
         @Test
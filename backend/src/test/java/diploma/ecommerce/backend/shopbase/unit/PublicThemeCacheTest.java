@@ -0,0 +1,81 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import diploma.ecommerce.backend.shopbase.dto.record.TenantThemeVersion;
+import diploma.ecommerce.backend.shopbase.dto.response.ThemeResponse;
+import diploma.ecommerce.backend.shopbase.repository.ThemeRepository;
+import diploma.ecommerce.backend.shopbase.theme.PublicThemeCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PublicThemeCacheTest {
+
+    private static final Long TENANT_ID = 1L;
+    private static final Long THEME_ID = 7L;
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Mock
+    private ThemeRepository themeRepository;
+
+    private PublicThemeCache publicThemeCache;
+    private final AtomicInteger loads = new AtomicInteger();
+    private String primaryColor = "#3498db";
+
+    @BeforeEach
+    void setUp() {
+        publicThemeCache = new PublicThemeCache(new ObjectMapper(), themeRepository);
+    }
+
+    private Supplier<ThemeResponse> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return ThemeResponse.builder().id(THEME_ID).primaryColor(primaryColor).build();
+        };
+    }
+
+    private void themeVersionIs(LocalDateTime updatedAt) {
+        when(themeRepository.findVersionByTenantId(TENANT_ID))
+                .thenReturn(Optional.of(new TenantThemeVersion(THEME_ID, updatedAt)));
+    }
+
+    @Test
+    @DisplayName("Should serve the cached theme while its version is unchanged")
+    void get_SameVersion_ServesCachedSnapshot() {
+        themeVersionIs(UPDATED_AT);
+
+        PublicThemeCache.Snapshot first = publicThemeCache.get(TENANT_ID, loader());
+        PublicThemeCache.Snapshot second = publicThemeCache.get(TENANT_ID, loader());
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should reload the theme changed through another node")
+    void get_VersionChanged_ReloadsTheme() {
+        themeVersionIs(UPDATED_AT);
+        PublicThemeCache.Snapshot before = publicThemeCache.get(TENANT_ID, loader());
+
+        primaryColor = "#2980b9";
+        themeVersionIs(UPDATED_AT.plusSeconds(1));
+        PublicThemeCache.Snapshot after = publicThemeCache.get(TENANT_ID, loader());
+
+        assertEquals(2, loads.get());
+        assertNotEquals(before.eTag(), after.eTag());
+    }
+}
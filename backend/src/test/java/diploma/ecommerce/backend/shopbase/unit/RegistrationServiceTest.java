@@ -7,9 +7,11 @@ import diploma.ecommerce.backend.shopbase.dto.response.RegisterTenantResponse;
 import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
 import diploma.ecommerce.backend.shopbase.model.Tenant;
 import diploma.ecommerce.backend.shopbase.model.TenantUser;
+import diploma.ecommerce.backend.shopbase.model.Theme;
 import diploma.ecommerce.backend.shopbase.repository.TenantRepository;
 import diploma.ecommerce.backend.shopbase.repository.TenantUserRepository;
 import diploma.ecommerce.backend.shopbase.security.JwtUtil;
+import diploma.ecommerce.backend.shopbase.service.ThemeService;
 import diploma.ecommerce.backend.shopbase.service.impl.RegistrationServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -63,6 +65,9 @@ class RegistrationServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private ThemeService themeService;
+
     @InjectMocks
     private RegistrationServiceImpl registrationService;
 
@@ -111,6 +116,11 @@ class RegistrationServiceTest {
     @Test
     @DisplayName("registerTenant - Valid Data - Returns Response With Token")
     void registerTenant_ValidData_ReturnsResponseWithToken() {
+        Theme defaultTheme = new Theme();
+        Theme savedTheme = new Theme();
+        savedTheme.setId(5L);
+        when(themeService.getDefaultTheme()).thenReturn(defaultTheme);
+        when(themeService.createTheme(defaultTheme)).thenReturn(savedTheme);
         when(tenantRepository.findBySubdomain(TEST_SUBDOMAIN)).thenReturn(Optional.empty());
         when(tenantRepository.save(any(Tenant.class))).thenReturn(tenant);
         when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
@@ -133,6 +143,7 @@ class RegistrationServiceTest {
         assertEquals(TEST_TENANT_NAME, capturedTenant.getName());
         assertEquals(TEST_SUBDOMAIN, capturedTenant.getSubdomain());
         assertTrue(capturedTenant.isActive());
+        assertEquals(savedTheme, capturedTenant.getTheme());
 
         verify(passwordEncoder).encode(TEST_PASSWORD);
         verify(tenantUserRepository).save(tenantUserCaptor.capture());
@@ -0,0 +1,181 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import diploma.ecommerce.backend.shopbase.analytics.ProductSalesDelta;
+import diploma.ecommerce.backend.shopbase.analytics.ProductSalesSort;
+import diploma.ecommerce.backend.shopbase.exception.BadRequestException;
+import diploma.ecommerce.backend.shopbase.model.Order;
+import diploma.ecommerce.backend.shopbase.model.OrderItem;
+import diploma.ecommerce.backend.shopbase.model.Product;
+import diploma.ecommerce.backend.shopbase.model.SalesDailyRollup;
+import diploma.ecommerce.backend.shopbase.model.Tenant;
+import diploma.ecommerce.backend.shopbase.repository.ProductSalesDailyRollupRepository;
+import diploma.ecommerce.backend.shopbase.repository.SalesDailyRollupRepository;
+import diploma.ecommerce.backend.shopbase.repository.SalesRollupRepository;
+import diploma.ecommerce.backend.shopbase.service.impl.SalesRollupServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SalesRollupServiceImplTest {
+
+    private static final Long TENANT_ID = 1L;
+    private static final LocalDate CREATED_ON = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+    @Mock
+    private SalesDailyRollupRepository salesDailyRollupRepository;
+    @Mock
+    private ProductSalesDailyRollupRepository productSalesDailyRollupRepository;
+    @InjectMocks
+    private SalesRollupServiceImpl salesRollupService;
+
+    private Order order;
+
+    private static OrderItem item(long productId, int quantity, String totalPrice) {
+        Product product = new Product();
+        product.setId(productId);
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setTotalPrice(new BigDecimal(totalPrice));
+        return item;
+    }
+
+    @BeforeEach
+    void setUp() {
+        Tenant tenant = new Tenant();
+        tenant.setId(TENANT_ID);
+        order = new Order();
+        order.setTenant(tenant);
+        order.setCreatedAt(CREATED_ON.atTime(23, 59));
+        order.setOrderItems(List.of(item(7L, 1, "10.00"), item(3L, 2, "40.00"), item(7L, 2, "20.00")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProductSalesDelta> captureLines(LocalDate date, int orders, int canceledOrders) {
+        ArgumentCaptor<List<ProductSalesDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupRepository).increment(eq(TENANT_ID), eq(date), eq(orders), eq(canceledOrders),
+                captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("recordOrderPlaced merges lines of the same product and sorts them by product id")
+    void recordOrderPlaced_shouldAggregateLinesPerProduct() {
+        salesRollupService.recordOrderPlaced(order);
+
+        List<ProductSalesDelta> lines = captureLines(CREATED_ON, 1, 0);
+        assertEquals(List.of(
+                ProductSalesDelta.placed(3L, 1, 2, new BigDecimal("40.00")),
+                ProductSalesDelta.placed(7L, 1, 3, new BigDecimal("30.00"))
+        ), lines);
+    }
+
+    @Test
+    @DisplayName("recordOrderCanceled attributes the cancellation to the current day")
+    void recordOrderCanceled_shouldUseCancellationDay() {
+        order.setCreatedAt(LocalDateTime.now().minusDays(5));
+
+        salesRollupService.recordOrderCanceled(order);
+
+        List<ProductSalesDelta> lines = captureLines(LocalDate.now(), 0, 1);
+        assertEquals(List.of(
+                ProductSalesDelta.canceled(3L, 2, new BigDecimal("40.00")),
+                ProductSalesDelta.canceled(7L, 3, new BigDecimal("30.00"))
+        ), lines);
+    }
+
+    @Test
+    @DisplayName("recordItemChange skips empty deltas")
+    void recordItemChange_shouldSkipEmptyDelta() {
+        salesRollupService.recordItemChange(order, 7L, 0, 0, BigDecimal.ZERO);
+
+        verify(salesRollupRepository, never()).increment(anyLong(), any(), anyInt(), anyInt(), anyList());
+    }
+
+    @Test
+    @DisplayName("recordItemChanges writes one increment with lines merged and sorted by product id")
+    void recordItemChanges_shouldSortLinesByProduct() {
+        salesRollupService.recordItemChanges(order, List.of(
+                ProductSalesDelta.placed(7L, 0, 2, new BigDecimal("20.00")),
+                ProductSalesDelta.placed(3L, -1, -2, new BigDecimal("-40.00")),
+                ProductSalesDelta.placed(5L, 0, 0, BigDecimal.ZERO),
+                ProductSalesDelta.placed(7L, 1, 1, new BigDecimal("10.00"))
+        ));
+
+        List<ProductSalesDelta> lines = captureLines(CREATED_ON, 0, 0);
+        assertEquals(List.of(
+                ProductSalesDelta.placed(3L, -1, -2, new BigDecimal("-40.00")),
+                ProductSalesDelta.placed(7L, 1, 3, new BigDecimal("30.00"))
+        ), lines);
+    }
+
+    @Test
+    @DisplayName("getDailySales fills days without orders with zero rows")
+    void getDailySales_shouldZeroFillMissingDays() {
+        SalesDailyRollup stored = SalesDailyRollup.empty(TENANT_ID, CREATED_ON.plusDays(1));
+        stored.setOrdersCount(4);
+        when(salesDailyRollupRepository.findByTenantIdAndSalesDateBetweenOrderBySalesDate(
+                TENANT_ID, CREATED_ON, CREATED_ON.plusDays(2))).thenReturn(List.of(stored));
+
+        List<SalesDailyRollup> days = salesRollupService.getDailySales(TENANT_ID, CREATED_ON, CREATED_ON.plusDays(2));
+
+        assertEquals(3, days.size());
+        assertEquals(CREATED_ON, days.get(0).getSalesDate());
+        assertEquals(0, days.get(0).getOrdersCount());
+        assertSame(stored, days.get(1));
+        assertEquals(CREATED_ON.plusDays(2), days.get(2).getSalesDate());
+    }
+
+    @Test
+    @DisplayName("getDailySales rejects inverted and too long periods")
+    void getDailySales_shouldValidateRange() {
+        assertThrows(BadRequestException.class,
+                () -> salesRollupService.getDailySales(TENANT_ID, CREATED_ON, CREATED_ON.minusDays(1)));
+        assertThrows(BadRequestException.class,
+                () -> salesRollupService.getDailySales(TENANT_ID, CREATED_ON, CREATED_ON.plusYears(3)));
+    }
+
+    @Test
+    @DisplayName("getTopProducts validates the limit and picks the query by sort")
+    void getTopProducts_shouldValidateLimitAndSort() {
+        assertThrows(BadRequestException.class, () -> salesRollupService.getTopProducts(
+                TENANT_ID, CREATED_ON, CREATED_ON, ProductSalesSort.REVENUE, 0));
+        assertThrows(BadRequestException.class, () -> salesRollupService.getTopProducts(
+                TENANT_ID, CREATED_ON, CREATED_ON, ProductSalesSort.REVENUE, 101));
+
+        salesRollupService.getTopProducts(TENANT_ID, CREATED_ON, CREATED_ON, ProductSalesSort.UNITS, 5);
+
+        verify(productSalesDailyRollupRepository).findTopByUnits(eq(TENANT_ID), eq(CREATED_ON), eq(CREATED_ON),
+                any(Pageable.class));
+        verify(productSalesDailyRollupRepository, never()).findTopByRevenue(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,128 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import diploma.ecommerce.backend.shopbase.concurrency.TenantBulkhead;
+import diploma.ecommerce.backend.shopbase.exception.TenantBulkheadFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TenantBulkhead Tests")
+class TenantBulkheadTest {
+
+    private static final Long TENANT_ID = 1L;
+    private static final Long OTHER_TENANT_ID = 2L;
+
+    private MeterRegistry meterRegistry;
+    private TenantBulkhead bulkhead;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkhead = new TenantBulkhead(meterRegistry, true, 1, 20, 2);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Future<String> occupyPermit(Long tenantId, CountDownLatch acquired, CountDownLatch release) {
+        return executor.submit(() -> {
+            try {
+                return bulkhead.execute(tenantId, () -> {
+                    acquired.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return "done";
+                });
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Test
+    void execute_FreePermit_RunsActionAndReleasesPermit() throws Throwable {
+        String result = bulkhead.execute(TENANT_ID, () -> "ok");
+
+        assertEquals("ok", result);
+        assertEquals(1, bulkhead.availablePermits(TENANT_ID));
+        assertNotNull(meterRegistry.find("tenant.bulkhead.wait").tag("tenant", "1").timer());
+    }
+
+    @Test
+    void execute_TenantLimitReached_ThrowsAndCountsRejection() throws Exception {
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> holder = occupyPermit(TENANT_ID, acquired, release);
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+
+        TenantBulkheadFullException ex = assertThrows(
+                TenantBulkheadFullException.class,
+                () -> bulkhead.execute(TENANT_ID, () -> "rejected")
+        );
+
+        release.countDown();
+        assertEquals("done", holder.get(5, TimeUnit.SECONDS));
+        assertEquals(TENANT_ID, ex.getTenantId());
+        assertEquals(2, ex.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.find("tenant.bulkhead.rejected").tag("tenant", "1").counter().count());
+    }
+
+    @Test
+    void execute_OtherTenantBusy_DoesNotAffectTenant() throws Throwable {
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> holder = occupyPermit(OTHER_TENANT_ID, acquired, release);
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+
+        String result = bulkhead.execute(TENANT_ID, () -> "ok");
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals("ok", result);
+    }
+
+    @Test
+    void execute_NestedCall_ReusesOuterPermit() throws Throwable {
+        String result = bulkhead.execute(TENANT_ID, () -> bulkhead.execute(TENANT_ID, () -> "nested"));
+
+        assertEquals("nested", result);
+        assertEquals(1, bulkhead.availablePermits(TENANT_ID));
+    }
+
+    @Test
+    void execute_ActionThrows_ReleasesPermit() {
+        assertThrows(
+                IllegalStateException.class,
+                () -> bulkhead.execute(TENANT_ID, () -> {
+                    throw new IllegalStateException("failure");
+                })
+        );
+
+        assertEquals(1, bulkhead.availablePermits(TENANT_ID));
+    }
+
+    @Test
+    void execute_NoTenant_BypassesBulkhead() throws Throwable {
+        String result = bulkhead.execute(null, () -> "ok");
+
+        assertEquals("ok", result);
+        assertEquals(0, meterRegistry.find("tenant.bulkhead.wait").timers().size());
+    }
+}
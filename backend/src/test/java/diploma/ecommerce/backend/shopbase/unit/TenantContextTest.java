@@ -0,0 +1,73 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import diploma.ecommerce.backend.shopbase.multitenancy.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("TenantContext Tests")
+class TenantContextTest {
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void open_RestoresPreviousTenantOnClose() {
+        TenantContext.setTenantId(1L);
+
+        try (TenantContext.Scope ignored = TenantContext.open(2L)) {
+            assertEquals(2L, TenantContext.getTenantId());
+        }
+
+        assertEquals(1L, TenantContext.getTenantId());
+    }
+
+    @Test
+    void runWithTenant_NestedScopes_RestoreInOrder() {
+        TenantContext.runWithTenant(1L, () -> {
+            TenantContext.runWithTenant(2L, () -> assertEquals(2L, TenantContext.getTenantId()));
+            assertEquals(1L, TenantContext.getTenantId());
+        });
+
+        assertNull(TenantContext.getTenantId());
+    }
+
+    @Test
+    void callWithTenant_ActionThrows_RestoresPreviousTenant() {
+        assertThrows(
+                IllegalStateException.class,
+                () -> TenantContext.callWithTenant(3L, () -> {
+                    throw new IllegalStateException("failure");
+                })
+        );
+
+        assertNull(TenantContext.getTenantId());
+    }
+
+    @Test
+    void wrap_CapturesTenantAtSubmitTime() throws Exception {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Callable<Long> task;
+            try (TenantContext.Scope ignored = TenantContext.open(5L)) {
+                task = TenantContext.wrap(TenantContext::getTenantId);
+            }
+
+            assertEquals(5L, executor.submit(task).get(5, TimeUnit.SECONDS));
+            assertNull(executor.submit(TenantContext::getTenantId).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
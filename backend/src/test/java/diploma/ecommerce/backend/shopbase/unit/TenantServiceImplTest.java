@@ -7,6 +7,7 @@ import diploma.ecommerce.backend.shopbase.model.Theme;
 import diploma.ecommerce.backend.shopbase.repository.TenantRepository;
 import diploma.ecommerce.backend.shopbase.service.ThemeService;
 import diploma.ecommerce.backend.shopbase.service.impl.TenantServiceImpl;
+import diploma.ecommerce.backend.shopbase.theme.PublicThemeCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -44,6 +45,9 @@ public class TenantServiceImplTest {
     @Mock
     private ThemeService themeService;
 
+    @Mock
+    private PublicThemeCache publicThemeCache;
+
     @InjectMocks
     private TenantServiceImpl tenantService;
 
@@ -259,6 +263,8 @@ public class TenantServiceImplTest {
             verify(themeService, never()).updateTheme(anyLong(), any(Theme.class));
             verify(tenantRepository).save(tenantCaptor.capture());
 
+            verify(publicThemeCache).evictTenant(TENANT_ID);
+
             Theme capturedTheme = themeCaptor.getValue();
             assertEquals(themeUpdateData, capturedTheme);
 
@@ -4,6 +4,8 @@ import diploma.ecommerce.backend.shopbase.exception.ResourceNotFoundException;
 import diploma.ecommerce.backend.shopbase.model.Theme;
 import diploma.ecommerce.backend.shopbase.repository.ThemeRepository;
 import diploma.ecommerce.backend.shopbase.service.impl.ThemeServiceImpl;
+import diploma.ecommerce.backend.shopbase.theme.PublicThemeCache;
+import diploma.ecommerce.backend.shopbase.theme.ThemeStylesheetPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -28,6 +30,12 @@ class ThemeServiceImplTest {
     @Mock
     private ThemeRepository themeRepository;
 
+    @Mock
+    private PublicThemeCache publicThemeCache;
+
+    @Mock
+    private ThemeStylesheetPublisher themeStylesheetPublisher;
+
     @InjectMocks
     private ThemeServiceImpl themeService;
 
@@ -143,6 +151,24 @@ class ThemeServiceImplTest {
             Theme savedTheme = themeCaptor.getValue();
             assertEquals("#2980b9", savedTheme.getPrimaryColor());
             assertEquals(THEME_ID, savedTheme.getId());
+            verify(publicThemeCache).evictTheme(THEME_ID);
+        }
+
+        @Test
+        @DisplayName("Should publish stylesheet of the updated theme before saving")
+        void updateTheme_ThemeExists_PublishesStylesheet() {
+            when(themeRepository.findById(THEME_ID)).thenReturn(Optional.of(theme));
+            when(themeRepository.save(any(Theme.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(themeStylesheetPublisher.publish(theme)).thenAnswer(invocation -> {
+                assertEquals("#2980b9", invocation.<Theme>getArgument(0).getPrimaryColor());
+                return "/uploads/themes/theme-0123456789abcdef.css";
+            });
+
+            Theme result = themeService.updateTheme(THEME_ID, themeDetails);
+
+            assertEquals("/uploads/themes/theme-0123456789abcdef.css", result.getStylesheetUrl());
+            verify(themeRepository).save(themeCaptor.capture());
+            assertEquals("/uploads/themes/theme-0123456789abcdef.css", themeCaptor.getValue().getStylesheetUrl());
         }
 
         @Test
@@ -154,6 +180,48 @@ class ThemeServiceImplTest {
 
             verify(themeRepository).findById(THEME_ID);
             verify(themeRepository, never()).save(any(Theme.class));
+            verify(publicThemeCache, never()).evictTheme(any());
+            verify(themeStylesheetPublisher, never()).publish(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("getTenantThemeOrDefault Tests")
+    class GetTenantThemeOrDefaultTests {
+
+        @Test
+        @DisplayName("Should return the theme assigned to the tenant")
+        void getTenantThemeOrDefault_ThemeAssigned_ReturnsTheme() {
+            when(themeRepository.findByTenantId(10L)).thenReturn(Optional.of(theme));
+
+            Theme result = themeService.getTenantThemeOrDefault(10L);
+
+            assertSame(theme, result);
+            verify(themeRepository, never()).save(any(Theme.class));
+        }
+
+        @Test
+        @DisplayName("Should keep stored stylesheet URL without publishing again")
+        void getTenantThemeOrDefault_StylesheetPublished_DoesNotPublish() {
+            theme.setStylesheetUrl("/uploads/themes/theme-0123456789abcdef.css");
+            when(themeRepository.findByTenantId(10L)).thenReturn(Optional.of(theme));
+
+            Theme result = themeService.getTenantThemeOrDefault(10L);
+
+            assertEquals("/uploads/themes/theme-0123456789abcdef.css", result.getStylesheetUrl());
+            verify(themeStylesheetPublisher, never()).publish(any());
+        }
+
+        @Test
+        @DisplayName("Should return unsaved default theme when tenant has no theme")
+        void getTenantThemeOrDefault_NoTheme_ReturnsDefaultWithoutSaving() {
+            when(themeRepository.findByTenantId(10L)).thenReturn(Optional.empty());
+
+            Theme result = themeService.getTenantThemeOrDefault(10L);
+
+            assertNull(result.getId());
+            assertEquals("#3498db", result.getPrimaryColor());
+            verify(themeRepository, never()).save(any(Theme.class));
         }
     }
 
@@ -0,0 +1,123 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import diploma.ecommerce.backend.shopbase.model.Theme;
+import diploma.ecommerce.backend.shopbase.service.FileStorageService;
+import diploma.ecommerce.backend.shopbase.service.impl.FileStorageServiceImpl;
+import diploma.ecommerce.backend.shopbase.storage.UploadUsageTracker;
+import diploma.ecommerce.backend.shopbase.theme.ThemeStylesheetCompiler;
+import diploma.ecommerce.backend.shopbase.theme.ThemeStylesheetPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ThemeStylesheetPublisherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ThemeStylesheetCompiler compiler = new ThemeStylesheetCompiler();
+    private ThemeStylesheetPublisher publisher;
+    private Theme theme;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageServiceImpl fileStorageService = new FileStorageServiceImpl(mock(UploadUsageTracker.class));
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", tempDir.toString());
+        publisher = new ThemeStylesheetPublisher(compiler, fileStorageService);
+
+        theme = new Theme();
+        theme.setPrimaryColor("#3498db");
+        theme.setFontFamily("Roboto, sans-serif");
+        theme.setBoxShadow("0 2px 4px rgba(0,0,0,0.1)");
+        theme.setLogoUrl("https://example.com/logo.png");
+    }
+
+    @Test
+    @DisplayName("Should compile theme values into CSS variables")
+    void compile_ValidTheme_ReturnsCssVariables() {
+        String css = compiler.compile(theme);
+
+        assertTrue(css.startsWith(":root {"));
+        assertTrue(css.contains("--theme-primary-color: #3498db;"));
+        assertTrue(css.contains("--theme-font-family: Roboto, sans-serif;"));
+        assertTrue(css.contains("--theme-box-shadow: 0 2px 4px rgba(0,0,0,0.1);"));
+        assertTrue(css.contains("--theme-logo-url: url(\"https://example.com/logo.png\");"));
+        assertFalse(css.contains("--theme-secondary-color"));
+    }
+
+    @Test
+    @DisplayName("Should drop values that could break out of the declaration")
+    void compile_UnsafeValues_AreSkipped() {
+        theme.setSecondaryColor("red;} body { display: none");
+        theme.setAccentColor("\"unclosed");
+        theme.setHeaderImageUrl("https://example.com/a.png\") ; x");
+
+        String css = compiler.compile(theme);
+
+        assertFalse(css.contains("--theme-secondary-color"));
+        assertFalse(css.contains("--theme-accent-color"));
+        assertFalse(css.contains("--theme-header-image-url"));
+        assertTrue(css.contains("--theme-primary-color: #3498db;"));
+    }
+
+    @Test
+    @DisplayName("Should publish stylesheet under a content-hashed URL")
+    void publish_ValidTheme_WritesFileUnderHashedName() throws IOException {
+        String url = publisher.publish(theme);
+
+        assertNotNull(url);
+        assertTrue(url.matches("/uploads/themes/theme-[0-9a-f]{16}\\.css"));
+        Path file = tempDir.resolve(url.substring("/uploads/".length()));
+        assertEquals(compiler.compile(theme), Files.readString(file));
+    }
+
+    @Test
+    @DisplayName("Should return the same URL for equal themes and a new one after a change")
+    void publish_SameAndChangedTheme_UrlFollowsContent() throws IOException {
+        String first = publisher.publish(theme);
+        String second = publisher.publish(theme);
+        theme.setPrimaryColor("#2980b9");
+        String changed = publisher.publish(theme);
+
+        assertEquals(first, second);
+        assertNotEquals(first, changed);
+        try (var files = Files.list(tempDir.resolve("themes"))) {
+            assertEquals(2, files.filter(file -> file.toString().endsWith(".css")).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish a gzip copy next to the stylesheet")
+    void publish_ValidTheme_WritesPrecompressedCopy() throws IOException {
+        String url = publisher.publish(theme);
+
+        Path gzipFile = tempDir.resolve(url.substring("/uploads/".length()) + ".gz");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzipFile))) {
+            assertEquals(compiler.compile(theme), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Should return null when the stylesheet cannot be stored")
+    void publish_StorageFails_ReturnsNull() throws IOException {
+        FileStorageService failingStorage = mock(FileStorageService.class);
+        when(failingStorage.storeSharedFile(anyString(), anyString(), any())).thenThrow(new IOException("disk full"));
+
+        assertNull(new ThemeStylesheetPublisher(compiler, failingStorage).publish(theme));
+    }
+}
@@ -0,0 +1,169 @@
+package diploma.ecommerce.backend.shopbase.unit;
+
+import diploma.ecommerce.backend.shopbase.repository.ProductPhotoRepository;
+import diploma.ecommerce.backend.shopbase.repository.TenantUploadUsageRepository;
+import diploma.ecommerce.backend.shopbase.repository.ThemeRepository;
+import diploma.ecommerce.backend.shopbase.service.FileStorageService;
+import diploma.ecommerce.backend.shopbase.storage.UploadGarbageCollector;
+import diploma.ecommerce.backend.shopbase.storage.UploadUsageTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UploadGarbageCollectorTest {
+
+    private static final Long TENANT_ID = 1L;
+    private static final String CONTENT = "0123456789";
+    private static final String KEPT = "tenant_1/products/kept.jpg";
+    private static final String ORPHAN = "tenant_1/products/orphan.jpg";
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private ProductPhotoRepository productPhotoRepository;
+    @Mock
+    private ThemeRepository themeRepository;
+    @Mock
+    private TenantUploadUsageRepository tenantUploadUsageRepository;
+    @Mock
+    private UploadUsageTracker uploadUsageTracker;
+    @Mock
+    private FileStorageService fileStorageService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(productPhotoRepository.streamFilePathsByTenantId(TENANT_ID))
+                .thenAnswer(inv -> Stream.of("http://localhost/uploads/" + KEPT, null));
+        when(themeRepository.streamFileUrls())
+                .thenAnswer(inv -> Stream.of("/uploads/themes/theme-live.css", "https://cdn.example.com/logo.png"));
+        when(fileStorageService.deleteFile(anyString()))
+                .thenAnswer(inv -> Files.deleteIfExists(tempDir.resolve(inv.<String>getArgument(0))));
+    }
+
+    private UploadGarbageCollector collector(long minAgeHours) {
+        return new UploadGarbageCollector(productPhotoRepository, themeRepository, tenantUploadUsageRepository,
+                uploadUsageTracker, fileStorageService, transactionTemplate, tempDir.toString(), minAgeHours, 7);
+    }
+
+    private Path createFile(String relativePath) throws IOException {
+        Path file = tempDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, CONTENT);
+    }
+
+    private Path trashedFile(String relativePath) throws IOException {
+        try (Stream<Path> batches = Files.list(tempDir.resolve(".trash"))) {
+            return batches.map(batch -> batch.resolve(relativePath)).filter(Files::exists).findFirst().orElse(null);
+        }
+    }
+
+    @Test
+    @DisplayName("Should move unreferenced uploads to the trash and record the exact tenant usage")
+    void collect_UnreferencedUpload_MovesToTrash() throws IOException {
+        Path kept = createFile(KEPT);
+        Path orphan = createFile(ORPHAN);
+
+        assertEquals(1, collector(0).collect());
+
+        assertTrue(Files.exists(kept));
+        assertFalse(Files.exists(orphan));
+        assertNotNull(trashedFile(ORPHAN));
+        verify(uploadUsageTracker).discard(TENANT_ID);
+        verify(tenantUploadUsageRepository).replace(TENANT_ID, CONTENT.length(), 1);
+    }
+
+    @Test
+    @DisplayName("Should keep unreferenced uploads younger than the grace period")
+    void collect_RecentUpload_IsKept() throws IOException {
+        Path orphan = createFile(ORPHAN);
+
+        assertEquals(0, collector(24).collect());
+
+        assertTrue(Files.exists(orphan));
+        verify(tenantUploadUsageRepository).replace(TENANT_ID, CONTENT.length(), 1);
+    }
+
+    @Test
+    @DisplayName("Should keep files referenced by a theme in the tenant folder")
+    void collect_ThemeImage_IsKept() throws IOException {
+        when(themeRepository.streamFileUrls()).thenAnswer(inv -> Stream.of("/uploads/tenant_1/logos/logo.png"));
+        Path logo = createFile("tenant_1/logos/logo.png");
+
+        assertEquals(0, collector(0).collect());
+
+        assertTrue(Files.exists(logo));
+    }
+
+    @Test
+    @DisplayName("Should trash replaced theme stylesheets together with their gzip copies")
+    void collect_ReplacedStylesheet_MovesToTrash() throws IOException {
+        Path live = createFile("themes/theme-live.css");
+        Path liveGzip = createFile("themes/theme-live.css.gz");
+        createFile("themes/theme-old.css");
+        createFile("themes/theme-old.css.gz");
+
+        assertEquals(2, collector(0).collect());
+
+        assertTrue(Files.exists(live));
+        assertTrue(Files.exists(liveGzip));
+        assertNotNull(trashedFile("themes/theme-old.css"));
+        assertNotNull(trashedFile("themes/theme-old.css.gz"));
+    }
+
+    @Test
+    @DisplayName("Should purge expired trash through the storage and keep recent trash")
+    void collect_ExpiredTrash_IsPurged() throws IOException {
+        createFile(".trash/1000/tenant_1/products/expired.jpg");
+        String recentBatch = ".trash/" + System.currentTimeMillis();
+        Path recent = createFile(recentBatch + "/tenant_1/products/recent.jpg");
+
+        collector(24).collect();
+
+        verify(fileStorageService).deleteFile(".trash/1000/tenant_1/products/expired.jpg");
+        assertFalse(Files.exists(tempDir.resolve(".trash/1000")));
+        assertTrue(Files.exists(recent));
+    }
+
+    @Test
+    @DisplayName("Should remove blobs that no upload links to")
+    void collect_UnlinkedBlob_IsRemoved() throws IOException {
+        Path linkedBlob = createFile("blobs/aa/linked.jpg");
+        Files.createDirectories(tempDir.resolve(KEPT).getParent());
+        Files.createLink(tempDir.resolve(KEPT), linkedBlob);
+        Path unlinkedBlob = createFile("blobs/bb/unlinked.jpg");
+
+        collector(0).collect();
+
+        assertTrue(Files.exists(linkedBlob));
+        assertFalse(Files.exists(unlinkedBlob));
+    }
+}
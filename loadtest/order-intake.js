@@ -0,0 +1,111 @@
+// Оформление заказов при пиковой нагрузке: синхронный POST /api/v1/orders против очереди POST /api/v1/orders/intake.
+//
+// Сценарий держит постоянную частоту запросов (constant-arrival-rate), поэтому сравнивается
+// не «сколько успели», а выдерживает ли режим заданную частоту при ограничении на p99.
+// 1. Подготовить магазин: покупатель, адрес и несколько товаров с большим остатком.
+// 2. Снять замер синхронного оформления:
+//      k6 run -e MODE=sync -e RATE=200 --summary-export=sync.json loadtest/order-intake.js
+// 3. Снять замер очереди с той же частотой:
+//      k6 run -e MODE=intake -e RATE=200 --summary-export=intake.json loadtest/order-intake.js
+// 4. Поднимать RATE до тех пор, пока порог p99 выполняется; максимальная частота, прошедшая порог,
+//    и есть пропускная способность режима (заказов в секунду). Для очереди дополнительно смотреть
+//    intake_completion_ms - время от постановки до создания заказа по выборке заявок.
+//
+// Параметры: BASE_URL (по умолчанию http://localhost:8080), TENANT (поддомен магазина),
+// CUSTOMER_ID, ADDRESS_ID, PRODUCT_IDS (через запятую), RATE (запросов в секунду),
+// DURATION (длительность замера), P99_MS (порог p99 в миллисекундах), SAMPLE (доля заявок,
+// у которых отслеживается завершение).
+
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TENANT = __ENV.TENANT || 'demo';
+const MODE = __ENV.MODE || 'intake';
+const RATE = parseInt(__ENV.RATE || '200', 10);
+const DURATION = __ENV.DURATION || '2m';
+const P99_MS = parseInt(__ENV.P99_MS || '250', 10);
+const SAMPLE = parseFloat(__ENV.SAMPLE || '0.02');
+const CUSTOMER_ID = parseInt(__ENV.CUSTOMER_ID || '1', 10);
+const ADDRESS_ID = parseInt(__ENV.ADDRESS_ID || '1', 10);
+const PRODUCT_IDS = (__ENV.PRODUCT_IDS || '1').split(',').map((id) => parseInt(id, 10));
+
+const ordersAccepted = new Counter('orders_accepted');
+const ordersRejected = new Counter('orders_rejected');
+const intakeCompletion = new Trend('intake_completion_ms', true);
+
+export const options = {
+    scenarios: {
+        checkout: {
+            executor: 'constant-arrival-rate',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: Math.max(50, RATE),
+            maxVUs: RATE * 5,
+        },
+    },
+    tags: { mode: MODE },
+    thresholds: {
+        'http_req_duration{phase:submit}': [`p(99)<${P99_MS}`],
+        http_req_failed: ['rate<0.01'],
+        dropped_iterations: ['count==0'],
+    },
+};
+
+const params = {
+    headers: { 'Content-Type': 'application/json', 'X-Tenant-Subdomain': TENANT },
+    tags: { phase: 'submit' },
+};
+const pollParams = { headers: { 'X-Tenant-Subdomain': TENANT }, tags: { phase: 'poll' } };
+
+function orderBody() {
+    const productId = PRODUCT_IDS[Math.floor(Math.random() * PRODUCT_IDS.length)];
+    return JSON.stringify({
+        customerId: CUSTOMER_ID,
+        addressId: ADDRESS_ID,
+        orderItems: [{ productId: productId, quantity: 1 }],
+    });
+}
+
+// Опрос статуса заявки до завершения; занимает VU, поэтому выполняется только для выборки
+function awaitCompletion(location, startedAt) {
+    for (let attempt = 0; attempt < 100; attempt++) {
+        sleep(0.1);
+        const res = http.get(location, pollParams);
+        if (res.status !== 200) {
+            return;
+        }
+        const status = res.json('status');
+        if (status === 'COMPLETED' || status === 'FAILED') {
+            intakeCompletion.add(Date.now() - startedAt);
+            return;
+        }
+    }
+}
+
+export default function () {
+    const startedAt = Date.now();
+    if (MODE === 'sync') {
+        const res = http.post(`${BASE_URL}/api/v1/orders`, orderBody(), params);
+        if (res.status === 201) {
+            ordersAccepted.add(1);
+        } else {
+            ordersRejected.add(1);
+        }
+        check(res, { 'status is 201': (r) => r.status === 201 });
+        return;
+    }
+
+    const res = http.post(`${BASE_URL}/api/v1/orders/intake`, orderBody(), params);
+    if (res.status === 202) {
+        ordersAccepted.add(1);
+    } else {
+        ordersRejected.add(1);
+    }
+    check(res, { 'status is 202': (r) => r.status === 202 });
+    if (res.status === 202 && Math.random() < SAMPLE) {
+        awaitCompletion(res.headers['Location'], startedAt);
+    }
+}
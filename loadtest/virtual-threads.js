@@ -0,0 +1,62 @@
+// Сравнение пропускной способности I/O-bound эндпоинтов на платформенных и виртуальных потоках.
+//
+// 1. Запустить бэкенд с платформенными потоками и снять замер:
+//      SPRING_THREADS_VIRTUAL_ENABLED=false docker compose up -d backend
+//      k6 run -e LABEL=platform --summary-export=platform.json loadtest/virtual-threads.js
+// 2. Перезапустить с виртуальными потоками и повторить:
+//      SPRING_THREADS_VIRTUAL_ENABLED=true docker compose up -d backend
+//      k6 run -e LABEL=virtual --summary-export=virtual.json loadtest/virtual-threads.js
+// 3. Сравнить http_reqs (rate), http_req_duration p(95) и долю ошибок в двух отчетах.
+//
+// Параметры: BASE_URL (по умолчанию http://localhost:8080), TENANT (поддомен магазина),
+// VUS (пиковое число виртуальных пользователей), DURATION (длительность плато).
+// Число пользователей намеренно больше пула Tomcat (200), чтобы на платформенных потоках
+// запросы вставали в очередь; ответы 503 от tenant bulkhead считаются отдельно.
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TENANT = __ENV.TENANT || 'demo';
+const VUS = parseInt(__ENV.VUS || '400', 10);
+const DURATION = __ENV.DURATION || '2m';
+const LABEL = __ENV.LABEL || 'run';
+
+const bulkheadRejected = new Counter('bulkhead_rejected');
+
+export const options = {
+    scenarios: {
+        io_bound: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: DURATION, target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    tags: { threads: LABEL },
+    thresholds: {
+        http_req_failed: ['rate<0.05'],
+    },
+};
+
+const params = { headers: { 'X-Tenant-Subdomain': TENANT } };
+
+export default function () {
+    const page = Math.floor(Math.random() * 5);
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/api/v1/products?page=${page}&size=20`, null, params],
+        ['GET', `${BASE_URL}/api/v1/public/theme`, null, params],
+    ]);
+
+    for (const res of responses) {
+        if (res.status === 503) {
+            bulkheadRejected.add(1);
+        }
+        check(res, { 'status is 200': (r) => r.status === 200 });
+    }
+}
@@ -0,0 +1,169 @@
+-- Сравнение обычной и секционированной (HASH по tenant_id) таблицы заказов на 50M строк.
+-- Запускается на отдельной базе, данные приложения не затрагиваются (всё создается в схеме bench):
+--
+--   createdb shopbase_bench
+--   psql -d shopbase_bench -v ON_ERROR_STOP=1 -f sql/benchmarks/orders_partitioning.sql
+--
+-- Объем и распределение можно поменять через переменные psql:
+--   -v rows=50000000 -v tenants=2000
+-- Распределение заказов по тенантам неравномерное (степенной закон): несколько крупных магазинов
+-- и длинный хвост мелких, как в реальной нагрузке.
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+\set rows 50000000
+\endif
+\if :{?tenants}
+\else
+\set tenants 2000
+\endif
+\timing on
+
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+SET search_path = bench;
+
+-- Обычная таблица (текущая схема до секционирования)
+CREATE UNLOGGED TABLE store_order_heap
+(
+    order_id     BIGINT PRIMARY KEY,
+    tenant_id    BIGINT         NOT NULL,
+    customer_id  BIGINT         NOT NULL,
+    address_id   BIGINT         NOT NULL,
+    created_at   TIMESTAMP,
+    updated_at   TIMESTAMP,
+    total_amount NUMERIC(10, 2) NOT NULL,
+    status_id    BIGINT         NOT NULL,
+    comment      TEXT
+);
+
+-- Секционированная таблица (схема из sql/models/09_store-order.sql без внешних ключей)
+CREATE UNLOGGED TABLE store_order_part
+(
+    order_id     BIGINT         NOT NULL,
+    tenant_id    BIGINT         NOT NULL,
+    customer_id  BIGINT         NOT NULL,
+    address_id   BIGINT         NOT NULL,
+    created_at   TIMESTAMP,
+    updated_at   TIMESTAMP,
+    total_amount NUMERIC(10, 2) NOT NULL,
+    status_id    BIGINT         NOT NULL,
+    comment      TEXT,
+    PRIMARY KEY (tenant_id, order_id)
+) PARTITION BY HASH (tenant_id);
+
+DO
+$$
+    BEGIN
+        FOR i IN 0..15
+            LOOP
+                EXECUTE format(
+                        'CREATE UNLOGGED TABLE store_order_part_p%s PARTITION OF store_order_part '
+                            'FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                        i, i
+                        );
+            END LOOP;
+    END
+$$;
+
+-- Генерация данных
+INSERT INTO store_order_heap
+SELECT g,
+       1 + floor(:tenants * power(random(), 3))::BIGINT,
+       1 + floor(random() * 100000)::BIGINT,
+       1 + floor(random() * 100000)::BIGINT,
+       TIMESTAMP '2023-01-01' + random() * INTERVAL '730 days',
+       TIMESTAMP '2023-01-01' + random() * INTERVAL '730 days',
+       round((random() * 10000)::NUMERIC, 2),
+       1 + floor(random() * 7)::BIGINT,
+       NULL
+FROM generate_series(1, :rows) AS g;
+
+INSERT INTO store_order_part
+SELECT *
+FROM store_order_heap;
+
+CREATE INDEX ON store_order_heap (tenant_id, customer_id);
+CREATE INDEX ON store_order_heap (tenant_id, status_id);
+CREATE INDEX ON store_order_heap (tenant_id, created_at);
+CREATE INDEX ON store_order_heap (tenant_id);
+
+CREATE INDEX ON store_order_part (tenant_id, customer_id);
+CREATE INDEX ON store_order_part (tenant_id, status_id);
+CREATE INDEX ON store_order_part (tenant_id, created_at);
+
+VACUUM ANALYZE store_order_heap;
+VACUUM ANALYZE store_order_part;
+
+-- Размеры: индексы секций меньше, вакуум и перестроение выполняются посекционно
+SELECT 'heap'                                              AS layout,
+       pg_size_pretty(pg_table_size('store_order_heap'))   AS table_size,
+       pg_size_pretty(pg_indexes_size('store_order_heap')) AS indexes_size
+UNION ALL
+SELECT 'partitioned',
+       pg_size_pretty(sum(pg_table_size(inhrelid))),
+       pg_size_pretty(sum(pg_indexes_size(inhrelid)))
+FROM pg_inherits
+WHERE inhparent = 'store_order_part'::regclass;
+
+-- Тенанты для замеров: самый крупный, медианный и мелкий
+SELECT tenant_id AS big_tenant
+FROM store_order_heap
+GROUP BY tenant_id
+ORDER BY count(*) DESC
+LIMIT 1
+\gset
+SELECT tenant_id AS mid_tenant
+FROM (SELECT tenant_id, row_number() OVER (ORDER BY count(*) DESC) AS rn, count(*) OVER () AS total
+      FROM store_order_heap
+      GROUP BY tenant_id) t
+WHERE rn = total / 2
+\gset
+SELECT tenant_id AS small_tenant
+FROM store_order_heap
+GROUP BY tenant_id
+ORDER BY count(*)
+LIMIT 1
+\gset
+
+-- Запросы, которые выполняет приложение (OrderRepository)
+\echo '=== Страница заказов тенанта (findAllByTenantId, сортировка по created_at) ==='
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT * FROM store_order_heap WHERE tenant_id = :mid_tenant ORDER BY created_at DESC LIMIT 20;
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT * FROM store_order_part WHERE tenant_id = :mid_tenant ORDER BY created_at DESC LIMIT 20;
+
+\echo '=== Подсчет заказов тенанта (count-запрос пагинации) ==='
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT count(*) FROM store_order_heap WHERE tenant_id = :big_tenant;
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT count(*) FROM store_order_part WHERE tenant_id = :big_tenant;
+
+\echo '=== Заказ по id (findByTenantIdAndId) ==='
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT * FROM store_order_heap WHERE tenant_id = :small_tenant AND order_id = (SELECT max(order_id) FROM store_order_heap WHERE tenant_id = :small_tenant);
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT * FROM store_order_part WHERE tenant_id = :small_tenant AND order_id = (SELECT max(order_id) FROM store_order_part WHERE tenant_id = :small_tenant);
+
+\echo '=== Выборка за месяц (idx_order_tenant_date) ==='
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT status_id, count(*), sum(total_amount)
+FROM store_order_heap
+WHERE tenant_id = :big_tenant AND created_at >= '2024-06-01' AND created_at < '2024-07-01'
+GROUP BY status_id;
+EXPLAIN (ANALYZE, BUFFERS, TIMING OFF, SUMMARY ON)
+SELECT status_id, count(*), sum(total_amount)
+FROM store_order_part
+WHERE tenant_id = :big_tenant AND created_at >= '2024-06-01' AND created_at < '2024-07-01'
+GROUP BY status_id;
+
+\echo '=== Стоимость обслуживания: VACUUM после обновления 1% строк одного тенанта ==='
+UPDATE store_order_heap SET status_id = 2 WHERE tenant_id = :big_tenant AND order_id % 100 = 0;
+UPDATE store_order_part SET status_id = 2 WHERE tenant_id = :big_tenant AND order_id % 100 = 0;
+VACUUM (VERBOSE) store_order_heap;
+SELECT format('VACUUM (VERBOSE) %s', inhrelid::regclass) AS part_vacuum
+FROM pg_inherits
+WHERE inhparent = 'store_order_part'::regclass
+  AND inhrelid = (SELECT tableoid FROM store_order_part WHERE tenant_id = :big_tenant LIMIT 1)
+\gexec
@@ -0,0 +1,63 @@
+#!/bin/bash
+# Применение миграций из sql/migrations к уже развернутой базе.
+# Скрипты из sql/models выполняются только при первой инициализации контейнера PostgreSQL,
+# поэтому изменения схемы для существующих баз оформляются отдельными миграциями.
+# База, созданная из sql/models, уже содержит все миграции и отмечена строкой baseline
+# (sql/models/19_schema-migrations.sql): при первом запуске все миграции каталога записываются
+# примененными без выполнения. Поэтому первый запуск для такой базы делается из той же версии
+# репозитория, из которой она создана.
+#
+# Использование:
+#   ./sql/migrate.sh                 - применить все новые миграции в контейнере diploma-postgres
+#   DATABASE_URL=postgres://... ./sql/migrate.sh  - применить миграции к произвольной базе
+
+set -euo pipefail
+
+MIGRATIONS_DIR="$(cd "$(dirname "$0")" && pwd)/migrations"
+CONTAINER="${POSTGRES_CONTAINER:-diploma-postgres}"
+DB_USER="${POSTGRES_USER:-shopbase}"
+DB_NAME="${POSTGRES_DB:-shopbase}"
+
+run_psql() {
+    if [ -n "${DATABASE_URL:-}" ]; then
+        psql "$DATABASE_URL" -v ON_ERROR_STOP=1 -q "$@"
+    else
+        docker exec -i "$CONTAINER" psql -U "$DB_USER" -d "$DB_NAME" -v ON_ERROR_STOP=1 -q "$@"
+    fi
+}
+
+run_psql -c "CREATE TABLE IF NOT EXISTS schema_migrations (
+    version    VARCHAR(255) PRIMARY KEY,
+    applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);"
+
+baseline="$(run_psql -tA -c "SELECT 1 FROM schema_migrations WHERE version = 'baseline'")"
+if [ "$baseline" = "1" ]; then
+    {
+        echo "BEGIN;"
+        for file in "$MIGRATIONS_DIR"/*.sql; do
+            [ -e "$file" ] || continue
+            version="$(basename "$file" .sql)"
+            echo "INSERT INTO schema_migrations (version) VALUES ('$version') ON CONFLICT (version) DO NOTHING;"
+        done
+        echo "DELETE FROM schema_migrations WHERE version = 'baseline';"
+        echo "COMMIT;"
+    } | run_psql
+    echo "База создана из sql/models: миграции отмечены примененными"
+fi
+
+for file in "$MIGRATIONS_DIR"/*.sql; do
+    [ -e "$file" ] || continue
+    version="$(basename "$file" .sql)"
+
+    applied="$(run_psql -tA -c "SELECT 1 FROM schema_migrations WHERE version = '$version'")"
+    if [ "$applied" = "1" ]; then
+        echo "Миграция $version уже применена"
+        continue
+    fi
+
+    echo "Применяем миграцию $version..."
+    run_psql < "$file"
+    run_psql -c "INSERT INTO schema_migrations (version) VALUES ('$version')"
+    echo "Миграция $version применена"
+done
@@ -0,0 +1,99 @@
+-- Перевод store_order и order_product на секционирование HASH (tenant_id) для уже развернутых баз.
+-- Новые базы создаются сразу секционированными скриптами из sql/models.
+-- Миграция выполняется одной транзакцией и держит ACCESS EXCLUSIVE на время копирования данных.
+
+BEGIN;
+
+LOCK TABLE store_order, order_product IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE order_product RENAME TO order_product_legacy;
+ALTER TABLE store_order RENAME TO store_order_legacy;
+
+DROP INDEX IF EXISTS idx_order_tenant_customer;
+DROP INDEX IF EXISTS idx_order_tenant_status;
+DROP INDEX IF EXISTS idx_order_tenant_date;
+DROP INDEX IF EXISTS idx_order_tenant;
+DROP INDEX IF EXISTS idx_order_product_tenant_order;
+DROP INDEX IF EXISTS idx_order_product_tenant_product;
+DROP INDEX IF EXISTS idx_order_product_tenant;
+
+-- Последовательности остаются прежними, чтобы идентификаторы продолжались без разрывов
+CREATE TABLE store_order
+(
+    order_id     BIGINT         NOT NULL DEFAULT nextval('store_order_order_id_seq'),
+    tenant_id    BIGINT         NOT NULL,
+    customer_id  BIGINT         NOT NULL,
+    address_id   BIGINT         NOT NULL,
+    created_at   TIMESTAMP               DEFAULT CURRENT_TIMESTAMP,
+    updated_at   TIMESTAMP               DEFAULT CURRENT_TIMESTAMP,
+    total_amount NUMERIC(10, 2) NOT NULL,
+    status_id    BIGINT         NOT NULL,
+    comment      TEXT,
+    PRIMARY KEY (tenant_id, order_id),
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE RESTRICT,
+    FOREIGN KEY (customer_id) REFERENCES customer (customer_id) ON DELETE SET NULL,
+    FOREIGN KEY (address_id) REFERENCES address (address_id) ON DELETE SET NULL,
+    FOREIGN KEY (status_id) REFERENCES order_status (status_id)
+) PARTITION BY HASH (tenant_id);
+
+CREATE TABLE order_product
+(
+    order_product_id BIGINT         NOT NULL DEFAULT nextval('order_product_order_product_id_seq'),
+    tenant_id        BIGINT         NOT NULL,
+    order_id         BIGINT         NOT NULL,
+    product_id       BIGINT         NOT NULL,
+    quantity         INT            NOT NULL,
+    unit_price       NUMERIC(10, 2) NOT NULL,
+    total_price      NUMERIC(10, 2) NOT NULL,
+    PRIMARY KEY (tenant_id, order_product_id),
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE RESTRICT,
+    FOREIGN KEY (tenant_id, order_id) REFERENCES store_order (tenant_id, order_id) ON DELETE CASCADE,
+    FOREIGN KEY (product_id) REFERENCES product (product_id) ON DELETE SET NULL,
+    UNIQUE (tenant_id, order_id, product_id)
+) PARTITION BY HASH (tenant_id);
+
+DO
+$$
+    BEGIN
+        FOR i IN 0..15
+            LOOP
+                EXECUTE format(
+                        'CREATE TABLE store_order_p%s PARTITION OF store_order '
+                            'FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                        i, i
+                        );
+                EXECUTE format(
+                        'CREATE TABLE order_product_p%s PARTITION OF order_product '
+                            'FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                        i, i
+                        );
+            END LOOP;
+    END
+$$;
+
+INSERT INTO store_order (order_id, tenant_id, customer_id, address_id, created_at, updated_at,
+                         total_amount, status_id, comment)
+SELECT order_id, tenant_id, customer_id, address_id, created_at, updated_at,
+       total_amount, status_id, comment
+FROM store_order_legacy;
+
+INSERT INTO order_product (order_product_id, tenant_id, order_id, product_id, quantity, unit_price, total_price)
+SELECT order_product_id, tenant_id, order_id, product_id, quantity, unit_price, total_price
+FROM order_product_legacy;
+
+-- Индексы создаются после загрузки данных: так быстрее, чем поддерживать их при вставке
+CREATE INDEX idx_order_tenant_customer ON store_order (tenant_id, customer_id);
+CREATE INDEX idx_order_tenant_status ON store_order (tenant_id, status_id);
+CREATE INDEX idx_order_tenant_date ON store_order (tenant_id, created_at);
+CREATE INDEX idx_order_product_tenant_product ON order_product (tenant_id, product_id);
+
+ALTER SEQUENCE store_order_order_id_seq OWNED BY store_order.order_id;
+ALTER SEQUENCE order_product_order_product_id_seq OWNED BY order_product.order_product_id;
+
+DROP TABLE order_product_legacy;
+DROP TABLE store_order_legacy;
+
+COMMIT;
+
+ANALYZE store_order;
+ANALYZE order_product;
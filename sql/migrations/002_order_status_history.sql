@@ -0,0 +1,31 @@
+-- Журнал смены статусов заказа вместо дописывания текста в store_order.comment.
+-- Существующие комментарии не переносятся: их формат свободный, а исходные переходы в них не восстановить.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS order_status_history
+(
+    history_id         BIGSERIAL PRIMARY KEY,
+    tenant_id          BIGINT    NOT NULL,
+    order_id           BIGINT    NOT NULL,
+    status_id          BIGINT    NOT NULL,
+    previous_status_id BIGINT,
+    comment            VARCHAR(1000),
+    changed_at         TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE RESTRICT,
+    FOREIGN KEY (tenant_id, order_id) REFERENCES store_order (tenant_id, order_id) ON DELETE CASCADE,
+    FOREIGN KEY (status_id) REFERENCES order_status (status_id),
+    FOREIGN KEY (previous_status_id) REFERENCES order_status (status_id)
+);
+
+ALTER SEQUENCE order_status_history_history_id_seq INCREMENT BY 50;
+
+CREATE INDEX IF NOT EXISTS idx_order_status_history_order ON order_status_history (tenant_id, order_id, changed_at);
+CREATE INDEX IF NOT EXISTS idx_order_status_history_status ON order_status_history (tenant_id, status_id, changed_at);
+
+-- Текущий статус существующих заказов фиксируется как начальная запись истории
+INSERT INTO order_status_history (tenant_id, order_id, status_id, changed_at)
+SELECT tenant_id, order_id, status_id, COALESCE(updated_at, created_at, CURRENT_TIMESTAMP)
+FROM store_order;
+
+COMMIT;
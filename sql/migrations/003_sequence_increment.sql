@@ -0,0 +1,17 @@
+-- Перевод генерации идентификаторов с IDENTITY на pooled-последовательности Hibernate.
+-- Столбцы остаются BIGSERIAL (DEFAULT nextval), меняется только шаг: Hibernate резервирует
+-- блок из 50 идентификаторов за один вызов nextval и может группировать INSERT в JDBC-батчи.
+-- Текущие значения последовательностей не трогаем: следующий блок начнется выше уже выданных id.
+
+BEGIN;
+
+ALTER SEQUENCE address_address_id_seq INCREMENT BY 50;
+ALTER SEQUENCE customer_customer_id_seq INCREMENT BY 50;
+ALTER SEQUENCE product_product_id_seq INCREMENT BY 50;
+ALTER SEQUENCE product_photo_photo_id_seq INCREMENT BY 50;
+ALTER SEQUENCE store_order_order_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_product_order_product_id_seq INCREMENT BY 50;
+ALTER SEQUENCE product_ozon_mapping_mapping_id_seq INCREMENT BY 50;
+ALTER SEQUENCE product_wildberries_mapping_mapping_id_seq INCREMENT BY 50;
+
+COMMIT;
@@ -0,0 +1,9 @@
+-- Столбцы версий для оптимистической блокировки Product и Order (@Version).
+-- DEFAULT 0 задается константой, поэтому ADD COLUMN не переписывает таблицы.
+
+BEGIN;
+
+ALTER TABLE product ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE store_order ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+COMMIT;
@@ -0,0 +1,83 @@
+-- Дневные агрегаты продаж (по магазину и по товару) и их первичное заполнение из существующих заказов.
+-- Продажи относятся к дню создания заказа, отмены и возвраты - к дню перехода в Canceled/Returned
+-- по order_status_history. Удаленные заказы в пересчет не попадают.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS sales_daily_rollup
+(
+    tenant_id        BIGINT         NOT NULL,
+    sales_date       DATE           NOT NULL,
+    orders_count     INT            NOT NULL DEFAULT 0,
+    units_sold       BIGINT         NOT NULL DEFAULT 0,
+    revenue          NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    canceled_orders  INT            NOT NULL DEFAULT 0,
+    canceled_units   BIGINT         NOT NULL DEFAULT 0,
+    canceled_revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (tenant_id, sales_date),
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS product_sales_daily_rollup
+(
+    tenant_id        BIGINT         NOT NULL,
+    product_id       BIGINT         NOT NULL,
+    sales_date       DATE           NOT NULL,
+    orders_count     INT            NOT NULL DEFAULT 0,
+    units_sold       BIGINT         NOT NULL DEFAULT 0,
+    revenue          NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    canceled_units   BIGINT         NOT NULL DEFAULT 0,
+    canceled_revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (tenant_id, sales_date, product_id),
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE CASCADE
+);
+
+TRUNCATE sales_daily_rollup, product_sales_daily_rollup;
+
+INSERT INTO sales_daily_rollup (tenant_id, sales_date, orders_count, units_sold, revenue)
+SELECT o.tenant_id, o.created_at::date, count(*), COALESCE(sum(i.units), 0), COALESCE(sum(i.revenue), 0)
+FROM store_order o
+LEFT JOIN (SELECT tenant_id, order_id, sum(quantity) AS units, sum(total_price) AS revenue
+           FROM order_product
+           GROUP BY tenant_id, order_id) i ON i.tenant_id = o.tenant_id AND i.order_id = o.order_id
+GROUP BY o.tenant_id, o.created_at::date;
+
+INSERT INTO sales_daily_rollup (tenant_id, sales_date, canceled_orders, canceled_units, canceled_revenue)
+SELECT h.tenant_id, h.changed_at::date, count(*), COALESCE(sum(i.units), 0), COALESCE(sum(i.revenue), 0)
+FROM order_status_history h
+JOIN order_status s ON s.status_id = h.status_id
+LEFT JOIN order_status ps ON ps.status_id = h.previous_status_id
+JOIN store_order o ON o.tenant_id = h.tenant_id AND o.order_id = h.order_id
+LEFT JOIN (SELECT tenant_id, order_id, sum(quantity) AS units, sum(total_price) AS revenue
+           FROM order_product
+           GROUP BY tenant_id, order_id) i ON i.tenant_id = o.tenant_id AND i.order_id = o.order_id
+WHERE s.status_name IN ('Canceled', 'Returned')
+  AND (ps.status_name IS NULL OR ps.status_name NOT IN ('Canceled', 'Returned'))
+GROUP BY h.tenant_id, h.changed_at::date
+ON CONFLICT (tenant_id, sales_date) DO UPDATE SET
+    canceled_orders  = EXCLUDED.canceled_orders,
+    canceled_units   = EXCLUDED.canceled_units,
+    canceled_revenue = EXCLUDED.canceled_revenue;
+
+INSERT INTO product_sales_daily_rollup (tenant_id, product_id, sales_date, orders_count, units_sold, revenue)
+SELECT i.tenant_id, i.product_id, o.created_at::date, count(*), sum(i.quantity), sum(i.total_price)
+FROM store_order o
+JOIN order_product i ON i.tenant_id = o.tenant_id AND i.order_id = o.order_id
+WHERE i.product_id IS NOT NULL
+GROUP BY i.tenant_id, i.product_id, o.created_at::date;
+
+INSERT INTO product_sales_daily_rollup (tenant_id, product_id, sales_date, canceled_units, canceled_revenue)
+SELECT i.tenant_id, i.product_id, h.changed_at::date, sum(i.quantity), sum(i.total_price)
+FROM order_status_history h
+JOIN order_status s ON s.status_id = h.status_id
+LEFT JOIN order_status ps ON ps.status_id = h.previous_status_id
+JOIN order_product i ON i.tenant_id = h.tenant_id AND i.order_id = h.order_id
+WHERE s.status_name IN ('Canceled', 'Returned')
+  AND (ps.status_name IS NULL OR ps.status_name NOT IN ('Canceled', 'Returned'))
+  AND i.product_id IS NOT NULL
+GROUP BY i.tenant_id, i.product_id, h.changed_at::date
+ON CONFLICT (tenant_id, sales_date, product_id) DO UPDATE SET
+    canceled_units   = EXCLUDED.canceled_units,
+    canceled_revenue = EXCLUDED.canceled_revenue;
+
+COMMIT;
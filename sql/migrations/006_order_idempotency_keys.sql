@@ -0,0 +1,19 @@
+-- Таблица ключей идемпотентности для POST /api/v1/orders.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS order_idempotency_key
+(
+    tenant_id       BIGINT       NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    order_id        BIGINT,
+    created_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at      TIMESTAMP    NOT NULL,
+    PRIMARY KEY (tenant_id, idempotency_key),
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_idempotency_key_expires_at ON order_idempotency_key (expires_at);
+
+COMMIT;
@@ -0,0 +1,23 @@
+-- Очередь асинхронного приема заказов.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS order_intake
+(
+    intake_id     BIGSERIAL PRIMARY KEY,
+    tenant_id     BIGINT      NOT NULL,
+    ticket        UUID        NOT NULL UNIQUE,
+    status        VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    payload       JSONB       NOT NULL,
+    order_id      BIGINT,
+    error_message VARCHAR(500),
+    attempts      INT         NOT NULL DEFAULT 0,
+    created_at    TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at    TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_intake_pending ON order_intake (intake_id) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_order_intake_processing ON order_intake (updated_at) WHERE status = 'PROCESSING';
+
+COMMIT;
@@ -0,0 +1,29 @@
+-- Темы по умолчанию для магазинов, зарегистрированных до создания темы при регистрации.
+-- Значения совпадают с ThemeServiceImpl.getDefaultTheme(); публичное чтение темы больше ничего не записывает.
+
+BEGIN;
+
+DO
+$$
+    DECLARE
+        t            RECORD;
+        new_theme_id BIGINT;
+    BEGIN
+        FOR t IN SELECT tenant_id FROM tenants WHERE theme_id IS NULL FOR UPDATE
+            LOOP
+                INSERT INTO themes (primary_color, secondary_color, accent_color, text_color, background_color,
+                                    font_family, button_radius, card_radius, button_text_color,
+                                    footer_background_color, footer_text_color, success_color, error_color,
+                                    warning_color, info_color)
+                VALUES ('#3498db', '#2ecc71', '#e74c3c', '#333333', '#ffffff',
+                        'Roboto, sans-serif', '4px', '8px', '#ffffff',
+                        '#2c3e50', '#ecf0f1', '#27ae60', '#c0392b',
+                        '#f39c12', '#3498db')
+                RETURNING theme_id INTO new_theme_id;
+
+                UPDATE tenants SET theme_id = new_theme_id WHERE tenant_id = t.tenant_id;
+            END LOOP;
+    END
+$$;
+
+COMMIT;
@@ -0,0 +1,5 @@
+-- Адрес скомпилированной таблицы стилей темы. Колонка заполняется при следующем изменении темы,
+-- а до этого адрес вычисляется при чтении темы, поэтому заполнять ее здесь не нужно.
+
+ALTER TABLE themes
+    ADD COLUMN IF NOT EXISTS stylesheet_url VARCHAR(500);
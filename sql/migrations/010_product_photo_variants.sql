@@ -0,0 +1,7 @@
+-- Уменьшенные копии фотографий товаров. Для уже добавленных фотографий колонки остаются пустыми,
+-- и витрина показывает оригинал, пока фотографию не добавят заново.
+
+ALTER TABLE product_photo
+    ADD COLUMN IF NOT EXISTS thumbnail_path VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS card_path      VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS full_path      VARCHAR(255);
@@ -0,0 +1,15 @@
+-- Счетчики объема загрузок по тенантам. Начальные значения запишет первый проход сборщика
+-- неиспользуемых загрузок.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS tenant_upload_usage
+(
+    tenant_id  BIGINT PRIMARY KEY,
+    used_bytes BIGINT    NOT NULL DEFAULT 0,
+    file_count BIGINT    NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE CASCADE
+);
+
+COMMIT;
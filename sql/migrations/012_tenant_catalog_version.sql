@@ -0,0 +1,17 @@
+-- Версии каталога по тенантам для условных запросов к публичному каталогу. Строка тенанта появляется
+-- при первом изменении товаров; до этого каталог отдается с нулевой версией.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS tenant_catalog_version
+(
+    tenant_id  BIGINT PRIMARY KEY,
+    version    BIGINT    NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE CASCADE
+);
+
+-- Сверка версий ищет товары, измененные после последнего увеличения версии тенанта
+CREATE INDEX IF NOT EXISTS idx_product_tenant_updated ON product (tenant_id, updated_at);
+
+COMMIT;
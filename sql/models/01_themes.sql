@@ -27,6 +27,7 @@ CREATE TABLE IF NOT EXISTS themes
     active_color            VARCHAR(20),
     box_shadow              VARCHAR(100),
     card_shadow             VARCHAR(100),
+    stylesheet_url          VARCHAR(500),
     created_at              TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at              TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
\ No newline at end of file
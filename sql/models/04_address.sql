@@ -16,3 +16,4 @@ CREATE TABLE IF NOT EXISTS address
 DROP INDEX IF EXISTS idx_address_tenant;
 CREATE INDEX IF NOT EXISTS idx_address_tenant ON address (tenant_id);
 
+ALTER SEQUENCE address_address_id_seq INCREMENT BY 50;
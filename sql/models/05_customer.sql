@@ -19,3 +19,4 @@ CREATE INDEX IF NOT EXISTS idx_customer_tenant_email ON customer (tenant_id, ema
 DROP INDEX IF EXISTS idx_customer_tenant;
 CREATE INDEX IF NOT EXISTS idx_customer_tenant ON customer (tenant_id);
 
+ALTER SEQUENCE customer_customer_id_seq INCREMENT BY 50;
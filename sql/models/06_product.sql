@@ -11,6 +11,7 @@ CREATE TABLE IF NOT EXISTS product
     created_at     TIMESTAMP               DEFAULT CURRENT_TIMESTAMP,
     updated_at     TIMESTAMP               DEFAULT CURRENT_TIMESTAMP,
     is_active      BOOLEAN                 DEFAULT TRUE,
+    version        BIGINT         NOT NULL DEFAULT 0,
     FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE RESTRICT,
     UNIQUE (tenant_id, name),
     UNIQUE (tenant_id, product_id)
@@ -19,8 +20,11 @@ CREATE TABLE IF NOT EXISTS product
 DROP INDEX IF EXISTS idx_product_tenant_category;
 DROP INDEX IF EXISTS idx_product_tenant_active;
 DROP INDEX IF EXISTS idx_product_tenant;
+DROP INDEX IF EXISTS idx_product_tenant_updated;
 
 CREATE INDEX IF NOT EXISTS idx_product_tenant_category ON product (tenant_id, category);
 CREATE INDEX IF NOT EXISTS idx_product_tenant_active ON product (tenant_id, is_active);
 CREATE INDEX IF NOT EXISTS idx_product_tenant ON product (tenant_id);
+CREATE INDEX IF NOT EXISTS idx_product_tenant_updated ON product (tenant_id, updated_at);
 
+ALTER SEQUENCE product_product_id_seq INCREMENT BY 50;
@@ -1,7 +1,8 @@
 DROP TABLE IF EXISTS store_order CASCADE;
+-- Таблица секционирована по tenant_id (HASH), поэтому ключ секционирования входит в PRIMARY KEY
 CREATE TABLE IF NOT EXISTS store_order
 (
-    order_id     BIGSERIAL PRIMARY KEY,
+    order_id     BIGSERIAL,
     tenant_id    BIGINT         NOT NULL,
     customer_id  BIGINT         NOT NULL,
     address_id   BIGINT         NOT NULL,
@@ -10,11 +11,28 @@ CREATE TABLE IF NOT EXISTS store_order
     total_amount NUMERIC(10, 2) NOT NULL,
     status_id    BIGINT         NOT NULL,
     comment      TEXT,
+    version      BIGINT         NOT NULL DEFAULT 0,
+    PRIMARY KEY (tenant_id, order_id),
     FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE RESTRICT,
     FOREIGN KEY (customer_id) REFERENCES customer (customer_id) ON DELETE SET NULL,
     FOREIGN KEY (address_id) REFERENCES address (address_id) ON DELETE SET NULL,
     FOREIGN KEY (status_id) REFERENCES order_status (status_id)
-);
+) PARTITION BY HASH (tenant_id);
+
+-- Количество секций должно совпадать с order_product, чтобы работали partition-wise join'ы
+DO
+$$
+    BEGIN
+        FOR i IN 0..15
+            LOOP
+                EXECUTE format(
+                        'CREATE TABLE IF NOT EXISTS store_order_p%s PARTITION OF store_order '
+                            'FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                        i, i
+                        );
+            END LOOP;
+    END
+$$;
 
 DROP INDEX IF EXISTS idx_order_tenant_customer;
 DROP INDEX IF EXISTS idx_order_tenant_status;
@@ -24,4 +42,6 @@ DROP INDEX IF EXISTS idx_order_tenant;
 CREATE INDEX IF NOT EXISTS idx_order_tenant_customer ON store_order (tenant_id, customer_id);
 CREATE INDEX IF NOT EXISTS idx_order_tenant_status ON store_order (tenant_id, status_id);
 CREATE INDEX IF NOT EXISTS idx_order_tenant_date ON store_order (tenant_id, created_at);
-CREATE INDEX IF NOT EXISTS idx_order_tenant ON store_order (tenant_id);
+-- idx_order_tenant не нужен: его покрывает первичный ключ (tenant_id, order_id)
+
+ALTER SEQUENCE store_order_order_id_seq INCREMENT BY 50;
@@ -1,23 +1,41 @@
 DROP TABLE IF EXISTS order_product CASCADE;
+-- Секционирование совпадает со store_order: позиции заказа лежат в той же секции, что и сам заказ
 CREATE TABLE IF NOT EXISTS order_product
 (
-    order_product_id BIGSERIAL PRIMARY KEY,
+    order_product_id BIGSERIAL,
     tenant_id        BIGINT         NOT NULL,
     order_id         BIGINT         NOT NULL,
     product_id       BIGINT         NOT NULL,
     quantity         INT            NOT NULL,
     unit_price       NUMERIC(10, 2) NOT NULL,
     total_price      NUMERIC(10, 2) NOT NULL,
+    PRIMARY KEY (tenant_id, order_product_id),
     FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE RESTRICT,
-    FOREIGN KEY (order_id) REFERENCES store_order (order_id) ON DELETE CASCADE,
+    FOREIGN KEY (tenant_id, order_id) REFERENCES store_order (tenant_id, order_id) ON DELETE CASCADE,
     FOREIGN KEY (product_id) REFERENCES product (product_id) ON DELETE SET NULL,
     UNIQUE (tenant_id, order_id, product_id)
-);
+) PARTITION BY HASH (tenant_id);
+
+DO
+$$
+    BEGIN
+        FOR i IN 0..15
+            LOOP
+                EXECUTE format(
+                        'CREATE TABLE IF NOT EXISTS order_product_p%s PARTITION OF order_product '
+                            'FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                        i, i
+                        );
+            END LOOP;
+    END
+$$;
 
 DROP INDEX IF EXISTS idx_order_product_tenant_order;
 DROP INDEX IF EXISTS idx_order_product_tenant_product;
 DROP INDEX IF EXISTS idx_order_product_tenant;
 
-CREATE INDEX IF NOT EXISTS idx_order_product_tenant_order ON order_product (tenant_id, order_id);
+-- idx_order_product_tenant_order покрывается уникальным ограничением (tenant_id, order_id, product_id),
+-- idx_order_product_tenant - первичным ключом (tenant_id, order_product_id)
 CREATE INDEX IF NOT EXISTS idx_order_product_tenant_product ON order_product (tenant_id, product_id);
-CREATE INDEX IF NOT EXISTS idx_order_product_tenant ON order_product (tenant_id);
+
+ALTER SEQUENCE order_product_order_product_id_seq INCREMENT BY 50;
@@ -26,4 +26,6 @@ CREATE TABLE IF NOT EXISTS product_wildberries_mapping
 CREATE INDEX IF NOT EXISTS idx_product_wb_mapping_tenant ON product_wildberries_mapping (tenant_id);
 CREATE INDEX IF NOT EXISTS idx_product_wb_mapping_product ON product_wildberries_mapping (tenant_id, product_id);
 CREATE INDEX IF NOT EXISTS idx_product_wb_mapping_sync_status ON product_wildberries_mapping (tenant_id, sync_status);
-CREATE INDEX IF NOT EXISTS idx_product_wb_mapping_active ON product_wildberries_mapping (tenant_id, is_active);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_product_wb_mapping_active ON product_wildberries_mapping (tenant_id, is_active);
+
+ALTER SEQUENCE product_wildberries_mapping_mapping_id_seq INCREMENT BY 50;
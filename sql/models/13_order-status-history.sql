@@ -0,0 +1,24 @@
+DROP TABLE IF EXISTS order_status_history CASCADE;
+-- Журнал смены статусов заказа: только вставки, одна строка на переход
+CREATE TABLE IF NOT EXISTS order_status_history
+(
+    history_id         BIGSERIAL PRIMARY KEY,
+    tenant_id          BIGINT    NOT NULL,
+    order_id           BIGINT    NOT NULL,
+    status_id          BIGINT    NOT NULL,
+    previous_status_id BIGINT,
+    comment            VARCHAR(1000),
+    changed_at         TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE RESTRICT,
+    FOREIGN KEY (tenant_id, order_id) REFERENCES store_order (tenant_id, order_id) ON DELETE CASCADE,
+    FOREIGN KEY (status_id) REFERENCES order_status (status_id),
+    FOREIGN KEY (previous_status_id) REFERENCES order_status (status_id)
+);
+
+-- Шаг последовательности совпадает с allocationSize в OrderStatusHistory (pooled-оптимизатор Hibernate)
+ALTER SEQUENCE order_status_history_history_id_seq INCREMENT BY 50;
+
+-- История конкретного заказа
+CREATE INDEX IF NOT EXISTS idx_order_status_history_order ON order_status_history (tenant_id, order_id, changed_at);
+-- Аналитика по времени нахождения заказов в статусах
+CREATE INDEX IF NOT EXISTS idx_order_status_history_status ON order_status_history (tenant_id, status_id, changed_at);
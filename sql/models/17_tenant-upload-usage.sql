@@ -0,0 +1,11 @@
+-- Объем загруженных файлов тенанта. Счетчики обновляются приращениями при загрузке и удалении файлов,
+-- а сборщик неиспользуемых загрузок при каждом проходе записывает точные значения по каталогу тенанта.
+DROP TABLE IF EXISTS tenant_upload_usage CASCADE;
+CREATE TABLE IF NOT EXISTS tenant_upload_usage
+(
+    tenant_id  BIGINT PRIMARY KEY,
+    used_bytes BIGINT    NOT NULL DEFAULT 0,
+    file_count BIGINT    NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE CASCADE
+);
@@ -0,0 +1,10 @@
+-- Версия каталога тенанта. Увеличивается после каждого изменения товаров, их фотографий или остатков;
+-- из нее строятся ETag и Last-Modified публичных ответов каталога.
+DROP TABLE IF EXISTS tenant_catalog_version CASCADE;
+CREATE TABLE IF NOT EXISTS tenant_catalog_version
+(
+    tenant_id  BIGINT PRIMARY KEY,
+    version    BIGINT    NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (tenant_id) REFERENCES tenants (tenant_id) ON DELETE CASCADE
+);
@@ -0,0 +1,12 @@
+-- Журнал миграций для sql/migrate.sh. Скрипты из sql/models уже создают схему в состоянии после всех
+-- миграций из sql/migrations, поэтому новая база получает отметку baseline: первый запуск migrate.sh
+-- записывает все миграции каталога примененными, не выполняя их (001 упал бы на уже секционированных таблицах).
+CREATE TABLE IF NOT EXISTS schema_migrations
+(
+    version    VARCHAR(255) PRIMARY KEY,
+    applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO schema_migrations (version)
+VALUES ('baseline')
+ON CONFLICT (version) DO NOTHING;